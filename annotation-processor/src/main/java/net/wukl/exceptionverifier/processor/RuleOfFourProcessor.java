@@ -0,0 +1,319 @@
+package net.wukl.exceptionverifier.processor;
+
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreeScanner;
+import com.sun.source.util.Trees;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Flags {@link Throwable} subclasses that do not follow the Rule of Four while they are being
+ * compiled.
+ *
+ * Every concrete exception class must declare public default, message-only, cause-only and
+ * message-and-cause constructors, and each of them must use every parameter it receives. In
+ * strict mode, a constructor must also not put text around a parameter it passes on to another
+ * constructor; in weak mode, it may.
+ *
+ * Only what the source of the class being compiled decides is reported. Whatever depends on
+ * other code, such as the constructors it delegates to or the methods it hands its parameters
+ * to, is left to the runtime verifier. The processor is configured through these options:
+ * <ul>
+ *     <li>{@code exceptionverifier.strictness}: {@code STRICT} (the default) or {@code WEAK}</li>
+ *     <li>{@code exceptionverifier.causeType}: the cause type, {@code java.lang.Throwable} by
+ *         default</li>
+ *     <li>{@code exceptionverifier.warningsOnly}: {@code true} to report violations as warnings
+ *         instead of errors</li>
+ * </ul>
+ *
+ * Classes annotated with {@code @SuppressWarnings("exceptionverifier")} are skipped.
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions({
+        RuleOfFourProcessor.STRICTNESS_OPTION,
+        RuleOfFourProcessor.CAUSE_TYPE_OPTION,
+        RuleOfFourProcessor.WARNINGS_ONLY_OPTION,
+})
+public class RuleOfFourProcessor extends AbstractProcessor {
+    static final String STRICTNESS_OPTION = "exceptionverifier.strictness";
+    static final String CAUSE_TYPE_OPTION = "exceptionverifier.causeType";
+    static final String WARNINGS_ONLY_OPTION = "exceptionverifier.warningsOnly";
+
+    private static final String SUPPRESSION = "exceptionverifier";
+
+    private boolean strict;
+    private Diagnostic.Kind kind;
+    private TypeMirror throwableType;
+    private TypeMirror stringType;
+    private TypeMirror causeType;
+    private Trees trees;
+
+    @Override
+    public synchronized void init(final ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+
+        final var options = processingEnv.getOptions();
+        final var strictness = options.getOrDefault(STRICTNESS_OPTION, "STRICT")
+                .toUpperCase(Locale.ROOT);
+        if (!strictness.equals("STRICT") && !strictness.equals("WEAK")) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unknown strictness " + strictness + "; expected STRICT or WEAK");
+        }
+
+        this.strict = !strictness.equals("WEAK");
+        this.kind = Boolean.parseBoolean(options.get(WARNINGS_ONLY_OPTION))
+                ? Diagnostic.Kind.WARNING
+                : Diagnostic.Kind.ERROR;
+
+        final var elements = processingEnv.getElementUtils();
+        this.throwableType = elements.getTypeElement("java.lang.Throwable").asType();
+        this.stringType = elements.getTypeElement("java.lang.String").asType();
+
+        final var causeName = options.getOrDefault(CAUSE_TYPE_OPTION, "java.lang.Throwable");
+        final var cause = elements.getTypeElement(causeName);
+        if (cause == null) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unknown cause type " + causeName);
+            this.causeType = this.throwableType;
+        } else {
+            this.causeType = cause.asType();
+        }
+
+        try {
+            this.trees = Trees.instance(processingEnv);
+        } catch (final IllegalArgumentException ex) {
+            // Not javac: only the structural checks are possible
+            this.trees = null;
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(
+            final Set<? extends TypeElement> annotations,
+            final RoundEnvironment roundEnv
+    ) {
+        for (final var type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            this.processType(type);
+        }
+
+        return false;
+    }
+
+    private void processType(final TypeElement type) {
+        for (final var member : ElementFilter.typesIn(type.getEnclosedElements())) {
+            this.processType(member);
+        }
+
+        if (type.getKind() != ElementKind.CLASS
+                || type.getModifiers().contains(Modifier.ABSTRACT)
+                || type.getNestingKind() == NestingKind.LOCAL
+                || type.getNestingKind() == NestingKind.ANONYMOUS
+                || isSuppressed(type)) {
+            return;
+        }
+
+        final var types = this.processingEnv.getTypeUtils();
+        if (!types.isSubtype(type.asType(), this.throwableType)) {
+            return;
+        }
+
+        final var constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        for (final var shape : Shape.values()) {
+            final var constructor = this.find(constructors, shape);
+            final var paramForm = shape.paramForm(types.asElement(this.causeType));
+            if (constructor == null) {
+                this.report("Missing " + paramForm + " constructor", type);
+            } else if (!constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                this.report(paramForm + " constructor is not public", constructor);
+            } else {
+                this.checkBody(constructor, paramForm);
+            }
+        }
+    }
+
+    private static boolean isSuppressed(final Element element) {
+        final var suppressed = element.getAnnotation(SuppressWarnings.class);
+        return suppressed != null && List.of(suppressed.value()).contains(SUPPRESSION);
+    }
+
+    private ExecutableElement find(final List<ExecutableElement> constructors, final Shape shape) {
+        final var expected = shape.parameterTypes(this.stringType, this.causeType);
+        final var types = this.processingEnv.getTypeUtils();
+        for (final var constructor : constructors) {
+            final var parameters = constructor.getParameters();
+            if (parameters.size() != expected.size()) {
+                continue;
+            }
+
+            var matches = true;
+            for (int i = 0; i < expected.size(); ++i) {
+                matches &= types.isSameType(
+                        types.erasure(parameters.get(i).asType()), expected.get(i)
+                );
+            }
+
+            if (matches) {
+                return constructor;
+            }
+        }
+
+        return null;
+    }
+
+    private void checkBody(final ExecutableElement constructor, final String paramForm) {
+        final MethodTree tree = this.trees == null ? null : this.trees.getTree(constructor);
+        if (tree == null || tree.getBody() == null) {
+            return;
+        }
+
+        final var statements = tree.getBody().getStatements();
+        final var call = statements.isEmpty() ? null : constructorCall(statements.get(0));
+
+        for (final var parameter : tree.getParameters()) {
+            final var name = parameter.getName();
+            if (!references(tree.getBody(), name)) {
+                this.report(paramForm + " constructor ignores its " + name + " parameter",
+                        constructor);
+            } else if (this.strict && call != null && call.getArguments().stream()
+                    .anyMatch(argument -> decorates(argument, name))) {
+                this.report(paramForm + " constructor does not pass its " + name
+                        + " parameter on unchanged", constructor);
+            }
+        }
+    }
+
+    private static MethodInvocationTree constructorCall(final StatementTree statement) {
+        if (!(statement instanceof ExpressionStatementTree)) {
+            return null;
+        }
+
+        final var expression = ((ExpressionStatementTree) statement).getExpression();
+        if (!(expression instanceof MethodInvocationTree)) {
+            return null;
+        }
+
+        final var call = (MethodInvocationTree) expression;
+        final var select = call.getMethodSelect();
+        return isNamed(select, "super") || isNamed(select, "this") ? call : null;
+    }
+
+    private static boolean isNamed(final Object tree, final String name) {
+        return tree instanceof IdentifierTree
+                && ((IdentifierTree) tree).getName().contentEquals(name);
+    }
+
+    /**
+     * Checks whether an expression puts text around a parameter, such as
+     * {@code "Wrapped: " + message}.
+     *
+     * Other expressions may or may not change the parameter; those are left to the runtime
+     * verifier.
+     */
+    private static boolean decorates(final ExpressionTree expression, final CharSequence name) {
+        return expression.getKind() == Tree.Kind.PLUS
+                && hasText(expression)
+                && references(expression, name);
+    }
+
+    private static boolean hasText(final ExpressionTree expression) {
+        if (expression.getKind() == Tree.Kind.STRING_LITERAL) {
+            return !((String) ((LiteralTree) expression).getValue()).isEmpty();
+        }
+
+        if (expression.getKind() == Tree.Kind.PLUS) {
+            final var binary = (BinaryTree) expression;
+            return hasText(binary.getLeftOperand()) || hasText(binary.getRightOperand());
+        }
+
+        return false;
+    }
+
+    private static boolean references(final Tree tree, final CharSequence name) {
+        final Boolean found = new TreeScanner<Boolean, Void>() {
+            @Override
+            public Boolean visitIdentifier(final IdentifierTree node, final Void unused) {
+                return node.getName().contentEquals(name);
+            }
+
+            @Override
+            public Boolean reduce(final Boolean a, final Boolean b) {
+                return Boolean.TRUE.equals(a) || Boolean.TRUE.equals(b);
+            }
+        }.scan(tree, null);
+
+        return Boolean.TRUE.equals(found);
+    }
+
+    private void report(final String message, final Element element) {
+        this.processingEnv.getMessager().printMessage(this.kind, message, element);
+    }
+
+    /**
+     * The parameter lists of the Rule of Four constructors.
+     */
+    private enum Shape {
+        DEFAULT,
+        MESSAGE,
+        CAUSE,
+        FULL;
+
+        private List<TypeMirror> parameterTypes(
+                final TypeMirror stringType,
+                final TypeMirror causeType
+        ) {
+            switch (this) {
+                case DEFAULT:
+                    return List.of();
+                case MESSAGE:
+                    return List.of(stringType);
+                case CAUSE:
+                    return List.of(causeType);
+                default:
+                    return List.of(stringType, causeType);
+            }
+        }
+
+        private String paramForm(final Element causeType) {
+            switch (this) {
+                case DEFAULT:
+                    return "(default; no-arg)";
+                case MESSAGE:
+                    return "(String message)";
+                case CAUSE:
+                    return "(" + causeType.getSimpleName() + " cause)";
+                default:
+                    return "(String message, " + causeType.getSimpleName() + " cause)";
+            }
+        }
+    }
+}
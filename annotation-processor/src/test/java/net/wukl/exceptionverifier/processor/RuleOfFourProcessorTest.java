@@ -0,0 +1,214 @@
+package net.wukl.exceptionverifier.processor;
+
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RuleOfFourProcessorTest {
+    private static final String GOOD_CITIZEN =
+            "public class GoodCitizenException extends RuntimeException {\n"
+            + "    public GoodCitizenException() { super(); }\n"
+            + "    public GoodCitizenException(String message) { super(message); }\n"
+            + "    public GoodCitizenException(Throwable cause) { super(cause); }\n"
+            + "    public GoodCitizenException(String message, Throwable cause) {\n"
+            + "        super(message, cause);\n"
+            + "    }\n"
+            + "}\n";
+
+    private static final String WRAPPING =
+            "public class WrappingException extends RuntimeException {\n"
+            + "    public WrappingException() { }\n"
+            + "    public WrappingException(String message) { super(\"bad! \" + message); }\n"
+            + "    public WrappingException(Throwable cause) { super(cause); }\n"
+            + "    public WrappingException(String message, Throwable cause) {\n"
+            + "        super(\"bad! \" + message, cause);\n"
+            + "    }\n"
+            + "}\n";
+
+    private static final String IGNORING =
+            "public class IgnoringException extends RuntimeException {\n"
+            + "    public IgnoringException() { super(); }\n"
+            + "    public IgnoringException(String message) { super(); }\n"
+            + "    public IgnoringException(Throwable cause) { this(); }\n"
+            + "    public IgnoringException(String message, Throwable cause) {\n"
+            + "        super(message, cause);\n"
+            + "    }\n"
+            + "}\n";
+
+    private static final String DELEGATING =
+            "public class DelegatingException extends RuntimeException {\n"
+            + "    public DelegatingException() { this(null, null); }\n"
+            + "    public DelegatingException(String message) { this(message, null); }\n"
+            + "    public DelegatingException(Throwable cause) { this(null, cause); }\n"
+            + "    public DelegatingException(String message, Throwable cause) {\n"
+            + "        super(message, cause);\n"
+            + "    }\n"
+            + "}\n";
+
+    private static final String INITIALIZING =
+            "public class InitializingException extends RuntimeException {\n"
+            + "    public InitializingException() { super(); }\n"
+            + "    public InitializingException(String message) { super(message); }\n"
+            + "    public InitializingException(Throwable cause) {\n"
+            + "        super();\n"
+            + "        initCause(cause);\n"
+            + "    }\n"
+            + "    public InitializingException(String message, Throwable cause) {\n"
+            + "        super(message);\n"
+            + "        initCause(cause);\n"
+            + "    }\n"
+            + "}\n";
+
+    private static final String HIDDEN =
+            "public class HiddenException extends RuntimeException {\n"
+            + "    HiddenException() { super(); }\n"
+            + "    public HiddenException(String message) { super(message); }\n"
+            + "}\n";
+
+    @Test
+    public void testCompliantClass() {
+        assertEquals(List.of(), this.compile(List.of(), "GoodCitizenException", GOOD_CITIZEN));
+    }
+
+    @Test
+    public void testDelegationAccepted() {
+        assertEquals(List.of(), this.compile(List.of(), "DelegatingException", DELEGATING));
+        assertEquals(List.of(), this.compile(
+                List.of("-Aexceptionverifier.strictness=WEAK"), "DelegatingException", DELEGATING
+        ));
+    }
+
+    @Test
+    public void testInitCauseLeftToRuntime() {
+        assertEquals(List.of(), this.compile(
+                List.of("-Aexceptionverifier.strictness=WEAK"),
+                "InitializingException", INITIALIZING
+        ));
+    }
+
+    @Test
+    public void testMissingAndHiddenConstructors() {
+        final var messages = this.compile(List.of(), "HiddenException", HIDDEN);
+
+        assertEquals(List.of(
+                "ERROR: (default; no-arg) constructor is not public",
+                "ERROR: Missing (Throwable cause) constructor",
+                "ERROR: Missing (String message, Throwable cause) constructor"
+        ), messages);
+    }
+
+    @Test
+    public void testStrictRejectsDecoration() {
+        final var messages = this.compile(List.of(), "WrappingException", WRAPPING);
+
+        assertEquals(List.of(
+                "ERROR: (String message) constructor does not pass its message parameter on "
+                        + "unchanged",
+                "ERROR: (String message, Throwable cause) constructor does not pass its message "
+                        + "parameter on unchanged"
+        ), messages);
+    }
+
+    @Test
+    public void testWeakAllowsDecoration() {
+        final var messages = this.compile(
+                List.of("-Aexceptionverifier.strictness=weak"), "WrappingException", WRAPPING
+        );
+
+        assertEquals(List.of(), messages);
+    }
+
+    @Test
+    public void testWeakRejectsIgnoredParameters() {
+        final var messages = this.compile(
+                List.of("-Aexceptionverifier.strictness=WEAK"), "IgnoringException", IGNORING
+        );
+
+        assertEquals(List.of(
+                "ERROR: (String message) constructor ignores its message parameter",
+                "ERROR: (Throwable cause) constructor ignores its cause parameter"
+        ), messages);
+    }
+
+    @Test
+    public void testWarningsOnly() {
+        final var messages = this.compile(
+                List.of("-Aexceptionverifier.warningsOnly=true"), "HiddenException", HIDDEN
+        );
+
+        assertEquals(3, messages.size());
+        assertTrue(messages.stream().allMatch(message -> message.startsWith("WARNING: ")));
+    }
+
+    @Test
+    public void testCauseType() {
+        final var messages = this.compile(
+                List.of("-Aexceptionverifier.causeType=java.lang.Exception"),
+                "GoodCitizenException", GOOD_CITIZEN
+        );
+
+        assertEquals(List.of(
+                "ERROR: Missing (Exception cause) constructor",
+                "ERROR: Missing (String message, Exception cause) constructor"
+        ), messages);
+    }
+
+    @Test
+    public void testSuppressedAndAbstractClassesSkipped() {
+        final var suppressed = "@SuppressWarnings(\"exceptionverifier\")\n" + HIDDEN;
+        final var abstractClass = HIDDEN.replace("public class", "public abstract class");
+
+        assertEquals(List.of(), this.compile(List.of(), "HiddenException", suppressed));
+        assertEquals(List.of(), this.compile(List.of(), "HiddenException", abstractClass));
+    }
+
+    @Test
+    public void testNonExceptionsSkipped() {
+        final var source = "public class Plain {\n    Plain(int x) { }\n}\n";
+
+        assertEquals(List.of(), this.compile(List.of(), "Plain", source));
+    }
+
+    private List<String> compile(
+            final List<String> options,
+            final String className,
+            final String source
+    ) {
+        final var compiler = ToolProvider.getSystemJavaCompiler();
+        final var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        final var file = new SimpleJavaFileObject(
+                URI.create("string:///" + className + JavaFileObject.Kind.SOURCE.extension),
+                JavaFileObject.Kind.SOURCE
+        ) {
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        final var allOptions = new ArrayList<>(options);
+        allOptions.add("-proc:only");
+        final var task = compiler.getTask(
+                null, null, diagnostics, allOptions, null, List.of(file)
+        );
+        task.setProcessors(List.of(new RuleOfFourProcessor()));
+        task.call();
+
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR
+                        || diagnostic.getKind() == Diagnostic.Kind.WARNING)
+                .map(diagnostic -> diagnostic.getKind() + ": " + diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,68 @@
+package net.wukl.exceptionverifier.gradle;
+
+import net.wukl.exceptionverifier.ExceptionVerifier;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+
+import javax.inject.Inject;
+
+/**
+ * The {@code exceptionVerifier} extension, which holds the settings of the
+ * {@code verifyExceptions} task.
+ *
+ * The settings mirror those of {@link ExceptionVerifier.ExceptionVerifierBuilder}; enumerated
+ * settings take the names of the constants, so build scripts need not import them.
+ */
+public class ExceptionVerifierExtension {
+    private final Property<String> causeType;
+    private final Property<String> strictness;
+    private final Property<String> engine;
+    private final Property<Boolean> ignoreFailures;
+
+    @Inject
+    public ExceptionVerifierExtension(final ObjectFactory objects) {
+        this.causeType = objects.property(String.class).convention(Throwable.class.getName());
+        this.strictness = objects.property(String.class)
+                .convention(ExceptionVerifier.Strictness.STRICT.name());
+        this.engine = objects.property(String.class)
+                .convention(ExceptionVerifier.Engine.REFLECTION.name());
+        this.ignoreFailures = objects.property(Boolean.class).convention(false);
+    }
+
+    /**
+     * Returns the binary name of the cause type. Defaults to {@code java.lang.Throwable}.
+     *
+     * @return the cause type
+     */
+    public Property<String> getCauseType() {
+        return this.causeType;
+    }
+
+    /**
+     * Returns the name of the strictness. Defaults to {@code STRICT}.
+     *
+     * @return the strictness
+     */
+    public Property<String> getStrictness() {
+        return this.strictness;
+    }
+
+    /**
+     * Returns the name of the engine. Defaults to {@code REFLECTION}.
+     *
+     * @return the engine
+     */
+    public Property<String> getEngine() {
+        return this.engine;
+    }
+
+    /**
+     * Returns whether the build continues when an exception class fails verification. Defaults
+     * to {@code false}.
+     *
+     * @return whether failures are ignored
+     */
+    public Property<Boolean> getIgnoreFailures() {
+        return this.ignoreFailures;
+    }
+}
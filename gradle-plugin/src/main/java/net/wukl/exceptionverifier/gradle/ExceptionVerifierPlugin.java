@@ -0,0 +1,61 @@
+package net.wukl.exceptionverifier.gradle;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.plugins.JavaBasePlugin;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.SourceSetContainer;
+
+/**
+ * Registers the {@code verifyExceptions} task, which verifies all exception classes of the main
+ * source set as part of {@code check}.
+ *
+ * The task is configured through the {@code exceptionVerifier} extension and only registered
+ * once the {@code java} plugin is applied.
+ */
+public class ExceptionVerifierPlugin implements Plugin<Project> {
+    /**
+     * The name of the verification task.
+     */
+    public static final String TASK_NAME = "verifyExceptions";
+
+    /**
+     * The name of the settings extension.
+     */
+    public static final String EXTENSION_NAME = "exceptionVerifier";
+
+    @Override
+    public void apply(final Project project) {
+        final var extension = project.getExtensions()
+                .create(EXTENSION_NAME, ExceptionVerifierExtension.class);
+
+        project.getPluginManager().withPlugin("java", plugin -> {
+            final var main = project.getExtensions().getByType(SourceSetContainer.class)
+                    .getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+
+            final var verify = project.getTasks().register(
+                    TASK_NAME, VerifyExceptionsTask.class, task -> {
+                        task.setGroup(JavaBasePlugin.VERIFICATION_GROUP);
+                        task.setDescription(
+                                "Verifies that all exception classes follow the Rule of Four."
+                        );
+
+                        task.getClassesDirs().from(main.getOutput().getClassesDirs());
+                        task.getClasspath().from(
+                                main.getRuntimeClasspath().minus(main.getOutput())
+                        );
+                        task.getCauseType().set(extension.getCauseType());
+                        task.getStrictness().set(extension.getStrictness());
+                        task.getEngine().set(extension.getEngine());
+                        task.getIgnoreFailures().set(extension.getIgnoreFailures());
+                        task.getReportFile().set(project.getLayout().getBuildDirectory().file(
+                                "reports/exceptionverifier/" + main.getName() + ".txt"
+                        ));
+                    }
+            );
+
+            project.getTasks().named(JavaBasePlugin.CHECK_TASK_NAME)
+                    .configure(check -> check.dependsOn(verify));
+        });
+    }
+}
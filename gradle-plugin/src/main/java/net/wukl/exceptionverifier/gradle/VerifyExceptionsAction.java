@@ -0,0 +1,229 @@
+package net.wukl.exceptionverifier.gradle;
+
+import net.wukl.exceptionverifier.ExceptionVerifier;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Verifies one partition of the exception classes of a {@link VerifyExceptionsTask}.
+ *
+ * Classes are assigned to partitions by the hash of their name, so every worker scans the same
+ * class directories but loads and verifies only its own share of the classes. The classes are
+ * loaded in a fresh class loader that sees the class path of the project but not that of
+ * Gradle.
+ */
+public abstract class VerifyExceptionsAction
+        implements WorkAction<VerifyExceptionsAction.Parameters> {
+    /**
+     * The longest failure message that is passed back to the task, in characters.
+     *
+     * Keeps the modified UTF-8 encoding of any message within the limit of
+     * {@link DataOutputStream#writeUTF(String)}.
+     */
+    private static final int MAX_MESSAGE_LENGTH = 20000;
+
+    @Override
+    public void execute() {
+        final var parameters = this.getParameters();
+        final var roots = new ArrayList<Path>();
+        for (final var dir : parameters.getClassesDirs()) {
+            if (dir.isDirectory()) {
+                roots.add(dir.toPath());
+            }
+        }
+
+        final var partition = parameters.getPartition().get();
+        final var partitionCount = parameters.getPartitionCount().get();
+
+        try (URLClassLoader dependencies = new URLClassLoader(
+                toUrls(parameters.getClasspath()), ClassLoader.getPlatformClassLoader()
+        )) {
+            final var causeType = Class
+                    .forName(parameters.getCauseType().get(), false, dependencies)
+                    .asSubclass(Throwable.class);
+
+            final var result = ExceptionVerifier.forClasspath(roots.toArray(new Path[0]))
+                    .withClassLoader(dependencies)
+                    .withCauseType(causeType)
+                    .withStrictness(
+                            ExceptionVerifier.Strictness.valueOf(parameters.getStrictness().get())
+                    )
+                    .withEngine(ExceptionVerifier.Engine.valueOf(parameters.getEngine().get()))
+                    .withParallelism(1)
+                    .withClassFilter(name ->
+                            Math.floorMod(name.hashCode(), partitionCount) == partition
+                    )
+                    .verify();
+
+            final var failures = new TreeMap<String, List<String>>();
+            for (final var entry : result.getFailures().entrySet()) {
+                final var messages = new ArrayList<String>();
+                for (final var failure : entry.getValue().getFailures()) {
+                    messages.add(failure.getMessage());
+                }
+
+                failures.put(entry.getKey(), messages);
+            }
+
+            writeResult(
+                    parameters.getResultFile().get().getAsFile().toPath(),
+                    result.getVerifiedClasses().size(),
+                    failures
+            );
+        } catch (final ClassNotFoundException | ClassCastException ex) {
+            throw new IllegalArgumentException(
+                    "Invalid cause type " + parameters.getCauseType().get(), ex
+            );
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static URL[] toUrls(final Iterable<File> files) {
+        final var urls = new ArrayList<URL>();
+        for (final var file : files) {
+            try {
+                urls.add(file.toURI().toURL());
+            } catch (final MalformedURLException ex) {
+                throw new IllegalArgumentException("Invalid class path entry " + file, ex);
+            }
+        }
+
+        return urls.toArray(new URL[0]);
+    }
+
+    private static void writeResult(
+            final Path file,
+            final int verified,
+            final Map<String, List<String>> failures
+    ) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file))
+        )) {
+            out.writeInt(verified);
+            out.writeInt(failures.size());
+            for (final var entry : failures.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (final var message : entry.getValue()) {
+                    out.writeUTF(message.length() <= MAX_MESSAGE_LENGTH
+                            ? message
+                            : message.substring(0, MAX_MESSAGE_LENGTH));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the result of a partition back.
+     *
+     * @param file     the result file of the partition
+     * @param failures the map to add the failure messages of the failing classes to
+     *
+     * @return the number of verified classes in the partition
+     *
+     * @throws IOException if the result file could not be read
+     */
+    static int readResult(final Path file, final Map<String, List<String>> failures)
+            throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file))
+        )) {
+            final var verified = in.readInt();
+            final var failureCount = in.readInt();
+            for (int i = 0; i < failureCount; ++i) {
+                final var name = in.readUTF();
+                final var messageCount = in.readInt();
+                final var messages = new ArrayList<String>(messageCount);
+                for (int j = 0; j < messageCount; ++j) {
+                    messages.add(in.readUTF());
+                }
+
+                failures.put(name, messages);
+            }
+
+            return verified;
+        }
+    }
+
+    /**
+     * The parameters of a partition.
+     */
+    public interface Parameters extends WorkParameters {
+        /**
+         * Returns the class directories to verify.
+         *
+         * @return the class directories
+         */
+        ConfigurableFileCollection getClassesDirs();
+
+        /**
+         * Returns the class path the verified classes depend on.
+         *
+         * @return the class path
+         */
+        ConfigurableFileCollection getClasspath();
+
+        /**
+         * Returns the binary name of the cause type.
+         *
+         * @return the cause type
+         */
+        Property<String> getCauseType();
+
+        /**
+         * Returns the name of the strictness.
+         *
+         * @return the strictness
+         */
+        Property<String> getStrictness();
+
+        /**
+         * Returns the name of the engine.
+         *
+         * @return the engine
+         */
+        Property<String> getEngine();
+
+        /**
+         * Returns the index of this partition.
+         *
+         * @return the partition index
+         */
+        Property<Integer> getPartition();
+
+        /**
+         * Returns the total number of partitions.
+         *
+         * @return the partition count
+         */
+        Property<Integer> getPartitionCount();
+
+        /**
+         * Returns the file to write the result of this partition to.
+         *
+         * @return the result file
+         */
+        RegularFileProperty getResultFile();
+    }
+}
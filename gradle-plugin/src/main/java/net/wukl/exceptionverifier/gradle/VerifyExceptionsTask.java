@@ -0,0 +1,192 @@
+package net.wukl.exceptionverifier.gradle;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Verifies all exception classes in a set of class directories.
+ *
+ * The classes are split into as many partitions as Gradle may run workers, and the partitions
+ * are verified in parallel through the worker API, in worker processes with assertions enabled.
+ * The outcome is written to a report file; since the task is cacheable, unchanged class
+ * directories are not verified again.
+ */
+@CacheableTask
+public class VerifyExceptionsTask extends DefaultTask {
+    private final WorkerExecutor workerExecutor;
+
+    private final ConfigurableFileCollection classesDirs;
+    private final ConfigurableFileCollection classpath;
+    private final Property<String> causeType;
+    private final Property<String> strictness;
+    private final Property<String> engine;
+    private final Property<Boolean> ignoreFailures;
+    private final RegularFileProperty reportFile;
+
+    @Inject
+    public VerifyExceptionsTask(final WorkerExecutor workerExecutor, final ObjectFactory objects) {
+        this.workerExecutor = workerExecutor;
+
+        this.classesDirs = objects.fileCollection();
+        this.classpath = objects.fileCollection();
+        this.causeType = objects.property(String.class);
+        this.strictness = objects.property(String.class);
+        this.engine = objects.property(String.class);
+        this.ignoreFailures = objects.property(Boolean.class);
+        this.reportFile = objects.fileProperty();
+    }
+
+    /**
+     * Returns the class directories to verify.
+     *
+     * @return the class directories
+     */
+    @Classpath
+    public ConfigurableFileCollection getClassesDirs() {
+        return this.classesDirs;
+    }
+
+    /**
+     * Returns the class path the verified classes depend on.
+     *
+     * @return the class path
+     */
+    @Classpath
+    public ConfigurableFileCollection getClasspath() {
+        return this.classpath;
+    }
+
+    /**
+     * Returns the binary name of the cause type.
+     *
+     * @return the cause type
+     *
+     * @see ExceptionVerifierExtension#getCauseType()
+     */
+    @Input
+    public Property<String> getCauseType() {
+        return this.causeType;
+    }
+
+    /**
+     * Returns the name of the strictness.
+     *
+     * @return the strictness
+     *
+     * @see ExceptionVerifierExtension#getStrictness()
+     */
+    @Input
+    public Property<String> getStrictness() {
+        return this.strictness;
+    }
+
+    /**
+     * Returns the name of the engine.
+     *
+     * @return the engine
+     *
+     * @see ExceptionVerifierExtension#getEngine()
+     */
+    @Input
+    public Property<String> getEngine() {
+        return this.engine;
+    }
+
+    /**
+     * Returns whether the task succeeds when an exception class fails verification.
+     *
+     * @return whether failures are ignored
+     */
+    @Input
+    public Property<Boolean> getIgnoreFailures() {
+        return this.ignoreFailures;
+    }
+
+    /**
+     * Returns the report file.
+     *
+     * @return the report file
+     */
+    @OutputFile
+    public RegularFileProperty getReportFile() {
+        return this.reportFile;
+    }
+
+    @TaskAction
+    public void verify() throws IOException {
+        final var partitionCount =
+                Math.max(1, this.getProject().getGradle().getStartParameter().getMaxWorkerCount());
+        // The checks are assertions, which the daemon does not enable. A worker process also
+        // keeps static initializers of the verified classes away from the daemon.
+        final var queue = this.workerExecutor.processIsolation(spec -> spec.forkOptions(
+                options -> options.jvmArgs("-ea:net.wukl.exceptionverifier...")
+        ));
+        final var parts = new File[partitionCount];
+        for (int i = 0; i < partitionCount; ++i) {
+            final var partition = i;
+            parts[i] = new File(this.getTemporaryDir(), "partition-" + i + ".bin");
+            Files.deleteIfExists(parts[i].toPath());
+
+            queue.submit(VerifyExceptionsAction.class, parameters -> {
+                parameters.getClassesDirs().from(this.classesDirs);
+                parameters.getClasspath().from(this.classpath);
+                parameters.getCauseType().set(this.causeType);
+                parameters.getStrictness().set(this.strictness);
+                parameters.getEngine().set(this.engine);
+                parameters.getPartition().set(partition);
+                parameters.getPartitionCount().set(partitionCount);
+                parameters.getResultFile().set(parts[partition]);
+            });
+        }
+
+        queue.await();
+
+        int verified = 0;
+        final var failures = new TreeMap<String, List<String>>();
+        for (final var part : parts) {
+            verified += VerifyExceptionsAction.readResult(part.toPath(), failures);
+        }
+
+        final var summary = failures.size() + " of " + verified
+                + " exception classes failed verification";
+        final var report = new StringBuilder(summary).append('\n');
+        for (final var entry : failures.entrySet()) {
+            report.append('\n').append(entry.getKey()).append(":\n");
+            for (final var message : entry.getValue()) {
+                report.append("    ").append(message).append('\n');
+            }
+        }
+
+        final var file = this.reportFile.get().getAsFile();
+        Files.createDirectories(file.toPath().getParent());
+        Files.write(file.toPath(), report.toString().getBytes(StandardCharsets.UTF_8));
+
+        if (failures.isEmpty()) {
+            return;
+        }
+
+        if (this.ignoreFailures.get()) {
+            this.getLogger().warn("{}; see {}", summary, file);
+        } else {
+            throw new GradleException(summary + "; see " + file);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package net.wukl.exceptionverifier.gradle;
+
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExceptionVerifierPluginTest {
+    @Test
+    public void testTaskRegisteredWithJava() {
+        final Project project = ProjectBuilder.builder().build();
+        project.getPluginManager().apply(ExceptionVerifierPlugin.class);
+        project.getPluginManager().apply("java");
+
+        final var task = (VerifyExceptionsTask) project.getTasks()
+                .getByName(ExceptionVerifierPlugin.TASK_NAME);
+
+        assertEquals("java.lang.Throwable", task.getCauseType().get());
+        assertEquals("STRICT", task.getStrictness().get());
+
+        final var check = project.getTasks().getByName("check");
+        assertTrue(check.getTaskDependencies().getDependencies(check).contains(task));
+    }
+
+    @Test
+    public void testExtensionConfiguresTask() {
+        final Project project = ProjectBuilder.builder().build();
+        project.getPluginManager().apply("java");
+        project.getPluginManager().apply(ExceptionVerifierPlugin.class);
+
+        final var extension = project.getExtensions().getByType(ExceptionVerifierExtension.class);
+        extension.getStrictness().set("WEAK");
+        extension.getEngine().set("BYTECODE");
+
+        final var task = (VerifyExceptionsTask) project.getTasks()
+                .getByName(ExceptionVerifierPlugin.TASK_NAME);
+
+        assertEquals("WEAK", task.getStrictness().get());
+        assertEquals("BYTECODE", task.getEngine().get());
+    }
+
+    @Test
+    public void testNoTaskWithoutJava() {
+        final Project project = ProjectBuilder.builder().build();
+        project.getPluginManager().apply(ExceptionVerifierPlugin.class);
+
+        assertNull(project.getTasks().findByName(ExceptionVerifierPlugin.TASK_NAME));
+    }
+}
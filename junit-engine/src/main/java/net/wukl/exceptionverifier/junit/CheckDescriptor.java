@@ -0,0 +1,56 @@
+package net.wukl.exceptionverifier.junit;
+
+import net.wukl.exceptionverifier.ExceptionVerifier;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.hierarchical.Node;
+
+/**
+ * The test of one check of an exception class.
+ */
+final class CheckDescriptor extends AbstractTestDescriptor implements Node<VerificationContext> {
+    static final String SEGMENT_TYPE = "check";
+
+    private final ExceptionVerifier.Check check;
+
+    /**
+     * Creates the test of a check.
+     *
+     * @param parentId  the unique ID of the class container
+     * @param exception the class
+     * @param check     the check
+     * @param paramForm the parameter form of the constructor the check calls
+     */
+    CheckDescriptor(
+            final UniqueId parentId,
+            final Class<? extends Throwable> exception,
+            final ExceptionVerifier.Check check,
+            final String paramForm
+    ) {
+        super(
+                parentId.append(SEGMENT_TYPE, check.name()), paramForm,
+                ClassSource.from(exception)
+        );
+        this.check = check;
+    }
+
+    @Override
+    public Type getType() {
+        return Type.TEST;
+    }
+
+    @Override
+    public VerificationContext execute(
+            final VerificationContext context,
+            final DynamicTestExecutor dynamicTestExecutor
+    ) {
+        for (final var failure : context.getReport().getFailures()) {
+            if (failure.getCheck() == this.check) {
+                throw new AssertionError(failure.getMessage(), failure.getCause());
+            }
+        }
+
+        return context;
+    }
+}
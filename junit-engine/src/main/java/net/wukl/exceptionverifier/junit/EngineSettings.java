@@ -0,0 +1,146 @@
+package net.wukl.exceptionverifier.junit;
+
+import net.wukl.exceptionverifier.ExceptionVerifier;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.engine.ConfigurationParameters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The settings of the test engine, read from the configuration parameters of a request.
+ */
+final class EngineSettings {
+    static final String PACKAGES_PARAMETER = "exceptionverifier.packages";
+    static final String STRICTNESS_PARAMETER = "exceptionverifier.strictness";
+    static final String CAUSE_TYPE_PARAMETER = "exceptionverifier.causeType";
+    static final String ENGINE_PARAMETER = "exceptionverifier.engine";
+
+    private final List<String> packages;
+    private final Class<? extends Throwable> causeType;
+    private final ExceptionVerifier.Strictness strictness;
+    private final ExceptionVerifier.Engine engine;
+
+    private EngineSettings(
+            final List<String> packages,
+            final Class<? extends Throwable> causeType,
+            final ExceptionVerifier.Strictness strictness,
+            final ExceptionVerifier.Engine engine
+    ) {
+        this.packages = packages;
+        this.causeType = causeType;
+        this.strictness = strictness;
+        this.engine = engine;
+    }
+
+    /**
+     * Reads the settings.
+     *
+     * @param parameters the configuration parameters
+     *
+     * @return the settings
+     *
+     * @throws JUnitException if a parameter is invalid
+     */
+    static EngineSettings from(final ConfigurationParameters parameters) {
+        final var packages = parameters.get(PACKAGES_PARAMETER)
+                .map(value -> Arrays.stream(value.split(","))
+                        .map(String::trim)
+                        .filter(name -> !name.isEmpty())
+                        .toArray(String[]::new))
+                .map(Arrays::asList)
+                .orElse(List.of());
+
+        final var strictness = parameters.get(STRICTNESS_PARAMETER)
+                .map(value -> parseEnum(
+                        ExceptionVerifier.Strictness.class, STRICTNESS_PARAMETER, value
+                ))
+                .orElse(ExceptionVerifier.Strictness.STRICT);
+        final var engine = parameters.get(ENGINE_PARAMETER)
+                .map(value -> parseEnum(ExceptionVerifier.Engine.class, ENGINE_PARAMETER, value))
+                .orElse(ExceptionVerifier.Engine.REFLECTION);
+
+        final var causeName = parameters.get(CAUSE_TYPE_PARAMETER)
+                .orElse(Throwable.class.getName());
+        final Class<? extends Throwable> causeType;
+        try {
+            causeType = Class.forName(
+                    causeName.trim(), false, Thread.currentThread().getContextClassLoader()
+            ).asSubclass(Throwable.class);
+        } catch (final ClassNotFoundException | ClassCastException ex) {
+            throw new JUnitException("Invalid cause type " + causeName, ex);
+        }
+
+        return new EngineSettings(
+                Collections.unmodifiableList(new ArrayList<>(packages)), causeType, strictness,
+                engine
+        );
+    }
+
+    private static <E extends Enum<E>> E parseEnum(
+            final Class<E> type,
+            final String parameter,
+            final String value
+    ) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException ex) {
+            throw new JUnitException(
+                    "Invalid value " + value + " for " + parameter + "; expected one of "
+                            + Arrays.toString(type.getEnumConstants()),
+                    ex
+            );
+        }
+    }
+
+    /**
+     * Returns the packages to verify.
+     *
+     * @return the package names, which may be empty
+     */
+    List<String> getPackages() {
+        return this.packages;
+    }
+
+    /**
+     * Returns the cause type.
+     *
+     * @return the cause type
+     */
+    Class<? extends Throwable> getCauseType() {
+        return this.causeType;
+    }
+
+    /**
+     * Returns the checks that apply with these settings.
+     *
+     * @return the checks, in order
+     */
+    List<ExceptionVerifier.Check> getChecks() {
+        final var checks = new ArrayList<ExceptionVerifier.Check>();
+        for (final var check : ExceptionVerifier.Check.values()) {
+            if (check.isApplicable(this.strictness) && !check.isOptional()) {
+                checks.add(check);
+            }
+        }
+
+        return checks;
+    }
+
+    /**
+     * Compiles a verifier with these settings.
+     *
+     * @return the verifier
+     */
+    ExceptionVerifier.CompiledVerifier compile() {
+        // The builder needs a class to start from, but a compiled verifier does not verify it
+        return ExceptionVerifier.forClass(Throwable.class)
+                .withCauseType(this.causeType)
+                .withStrictness(this.strictness)
+                .withEngine(this.engine)
+                .compile();
+    }
+}
@@ -0,0 +1,48 @@
+package net.wukl.exceptionverifier.junit;
+
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.hierarchical.Node;
+
+/**
+ * The test container of an exception class.
+ *
+ * The class is verified once, before its tests run; each test then reports the outcome of its
+ * own check. Containers run concurrently when parallel execution is enabled.
+ */
+final class ExceptionClassDescriptor extends AbstractTestDescriptor
+        implements Node<VerificationContext> {
+    static final String SEGMENT_TYPE = "class";
+
+    private final Class<? extends Throwable> exception;
+
+    /**
+     * Creates the container of a class.
+     *
+     * @param parentId  the unique ID of the engine
+     * @param exception the class
+     */
+    ExceptionClassDescriptor(final UniqueId parentId, final Class<? extends Throwable> exception) {
+        super(
+                parentId.append(SEGMENT_TYPE, exception.getName()), exception.getName(),
+                ClassSource.from(exception)
+        );
+        this.exception = exception;
+    }
+
+    @Override
+    public Type getType() {
+        return Type.CONTAINER;
+    }
+
+    @Override
+    public VerificationContext before(final VerificationContext context) {
+        return context.withReport(context.getVerifier().report(this.exception));
+    }
+
+    @Override
+    public ExecutionMode getExecutionMode() {
+        return ExecutionMode.CONCURRENT;
+    }
+}
@@ -0,0 +1,231 @@
+package net.wukl.exceptionverifier.junit;
+
+import org.junit.platform.commons.support.ReflectionSupport;
+import org.junit.platform.engine.EngineDiscoveryRequest;
+import org.junit.platform.engine.ExecutionRequest;
+import org.junit.platform.engine.Filter;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.discovery.ClassNameFilter;
+import org.junit.platform.engine.discovery.ClassSelector;
+import org.junit.platform.engine.discovery.ClasspathRootSelector;
+import org.junit.platform.engine.discovery.PackageNameFilter;
+import org.junit.platform.engine.discovery.PackageSelector;
+import org.junit.platform.engine.discovery.UniqueIdSelector;
+import org.junit.platform.engine.support.config.PrefixedConfigurationParameters;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.engine.support.hierarchical.ForkJoinPoolHierarchicalTestExecutorService;
+import org.junit.platform.engine.support.hierarchical.HierarchicalTestEngine;
+import org.junit.platform.engine.support.hierarchical.HierarchicalTestExecutorService;
+
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * A JUnit Platform test engine that verifies every exception class in the configured packages.
+ *
+ * Each concrete exception class becomes a test container, with one test for every check that
+ * applies at the configured strictness. The engine is configured through these configuration
+ * parameters:
+ * <ul>
+ *     <li>{@code exceptionverifier.packages}: the comma-separated packages to verify, including
+ *         their subpackages; without it, the engine discovers nothing</li>
+ *     <li>{@code exceptionverifier.strictness}: {@code STRICT} (the default) or {@code WEAK}</li>
+ *     <li>{@code exceptionverifier.causeType}: the cause type, {@code java.lang.Throwable} by
+ *         default</li>
+ *     <li>{@code exceptionverifier.engine}: {@code REFLECTION} (the default) or
+ *         {@code BYTECODE}</li>
+ *     <li>{@code exceptionverifier.parallel.enabled}: {@code true} to verify classes in
+ *         parallel; the {@code exceptionverifier.parallel.config.*} parameters are read like
+ *         JUnit Jupiter's {@code junit.jupiter.execution.parallel.config.*}</li>
+ * </ul>
+ *
+ * A request that selects classes in any way, by package, class path root or class, verifies
+ * every exception class in the configured packages, whichever classes it selects: build tools
+ * select the test classes they find, which need not include the exception classes. A request
+ * that selects tests by unique ID, as IDEs do to rerun single tests, only runs the selected
+ * tests of this engine, if any. Requests that select neither, such as a single method of
+ * another engine, discover nothing. Class name and package name filters of the discovery
+ * request are honored.
+ */
+public final class ExceptionVerifierTestEngine
+        extends HierarchicalTestEngine<VerificationContext> {
+    static final String ENGINE_ID = "exception-verifier";
+
+    static final String PARALLEL_ENABLED_PARAMETER = "exceptionverifier.parallel.enabled";
+    static final String PARALLEL_CONFIG_PREFIX = "exceptionverifier.parallel.config.";
+
+    @Override
+    public String getId() {
+        return ENGINE_ID;
+    }
+
+    @Override
+    public Optional<String> getGroupId() {
+        return Optional.of("net.wukl");
+    }
+
+    @Override
+    public Optional<String> getArtifactId() {
+        return Optional.of("exceptionverifier-junit-engine");
+    }
+
+    @Override
+    public TestDescriptor discover(final EngineDiscoveryRequest request, final UniqueId uniqueId) {
+        final var engine = new EngineDescriptor(uniqueId, "ExceptionVerifier");
+        final var settings = EngineSettings.from(request.getConfigurationParameters());
+        final var nameFilter = nameFilter(request);
+
+        for (final var selector : request.getSelectorsByType(UniqueIdSelector.class)) {
+            if (selector.getUniqueId().hasPrefix(uniqueId)) {
+                resolve(engine, settings, selector.getUniqueId());
+            }
+        }
+
+        // Build tools select the test classes they found, which need not include any of the
+        // exception classes, so any selection of classes verifies all of them
+        if (!request.getSelectorsByType(PackageSelector.class).isEmpty()
+                || !request.getSelectorsByType(ClasspathRootSelector.class).isEmpty()
+                || !request.getSelectorsByType(ClassSelector.class).isEmpty()) {
+            addPackages(engine, settings, nameFilter);
+        }
+
+        return engine;
+    }
+
+    @Override
+    protected HierarchicalTestExecutorService createExecutorService(
+            final ExecutionRequest request
+    ) {
+        final var parameters = request.getConfigurationParameters();
+        if (parameters.getBoolean(PARALLEL_ENABLED_PARAMETER).orElse(false)) {
+            return new ForkJoinPoolHierarchicalTestExecutorService(
+                    new PrefixedConfigurationParameters(parameters, PARALLEL_CONFIG_PREFIX)
+            );
+        }
+
+        return super.createExecutorService(request);
+    }
+
+    @Override
+    protected VerificationContext createExecutionContext(final ExecutionRequest request) {
+        return new VerificationContext(
+                EngineSettings.from(request.getConfigurationParameters()).compile()
+        );
+    }
+
+    private static void resolve(
+            final EngineDescriptor engine,
+            final EngineSettings settings,
+            final UniqueId selected
+    ) {
+        final var segments = selected.getSegments();
+        final var depth = engine.getUniqueId().getSegments().size();
+        if (segments.size() <= depth) {
+            // The engine itself: everything in the configured packages
+            addPackages(engine, settings, name -> true);
+            return;
+        }
+
+        final var classSegment = segments.get(depth);
+        if (!ExceptionClassDescriptor.SEGMENT_TYPE.equals(classSegment.getType())) {
+            return;
+        }
+
+        final var type = ReflectionSupport.tryToLoadClass(classSegment.getValue())
+                .toOptional()
+                .filter(ExceptionVerifierTestEngine::isCandidate);
+        if (type.isEmpty()) {
+            return;
+        }
+
+        String checkName = null;
+        if (segments.size() > depth + 1) {
+            final var checkSegment = segments.get(depth + 1);
+            if (!CheckDescriptor.SEGMENT_TYPE.equals(checkSegment.getType())) {
+                return;
+            }
+
+            checkName = checkSegment.getValue();
+        }
+
+        addClass(engine, settings, type.get().asSubclass(Throwable.class), checkName);
+    }
+
+    private static void addPackages(
+            final EngineDescriptor engine,
+            final EngineSettings settings,
+            final Predicate<String> nameFilter
+    ) {
+        for (final var packageName : settings.getPackages()) {
+            final var types = ReflectionSupport.findAllClassesInPackage(
+                    packageName, ExceptionVerifierTestEngine::isCandidate, nameFilter
+            );
+            for (final var type : types) {
+                addClass(engine, settings, type.asSubclass(Throwable.class), null);
+            }
+        }
+    }
+
+    /**
+     * Adds the container of a class to the engine, unless it is there already, and the tests of
+     * its checks.
+     *
+     * @param engine    the engine descriptor
+     * @param settings  the settings to verify with
+     * @param type      the class
+     * @param checkName the name of the only check to add, or {@code null} to add all of them
+     */
+    private static void addClass(
+            final EngineDescriptor engine,
+            final EngineSettings settings,
+            final Class<? extends Throwable> type,
+            final String checkName
+    ) {
+        final var id = engine.getUniqueId()
+                .append(ExceptionClassDescriptor.SEGMENT_TYPE, type.getName());
+        final TestDescriptor container = engine.findByUniqueId(id)
+                .map(TestDescriptor.class::cast)
+                .orElseGet(() -> {
+                    final var descriptor = new ExceptionClassDescriptor(engine.getUniqueId(), type);
+                    engine.addChild(descriptor);
+                    return descriptor;
+                });
+
+        for (final var check : settings.getChecks()) {
+            if (checkName != null && !checkName.equals(check.name())) {
+                continue;
+            }
+
+            final var checkId = id.append(CheckDescriptor.SEGMENT_TYPE, check.name());
+            if (container.findByUniqueId(checkId).isEmpty()) {
+                container.addChild(new CheckDescriptor(
+                        id, type, check, check.getParamForm(settings.getCauseType())
+                ));
+            }
+        }
+    }
+
+    private static boolean isCandidate(final Class<?> type) {
+        return Throwable.class.isAssignableFrom(type)
+                && !Modifier.isAbstract(type.getModifiers())
+                && !type.isAnonymousClass()
+                && !type.isLocalClass();
+    }
+
+    private static Predicate<String> nameFilter(final EngineDiscoveryRequest request) {
+        final var classNameFilter = Filter.composeFilters(
+                request.getFiltersByType(ClassNameFilter.class)
+        ).toPredicate();
+        final var packageNameFilter = Filter.composeFilters(
+                request.getFiltersByType(PackageNameFilter.class)
+        ).toPredicate();
+
+        return name -> {
+            final var dot = name.lastIndexOf('.');
+            final var packageName = dot < 0 ? "" : name.substring(0, dot);
+            return classNameFilter.test(name) && packageNameFilter.test(packageName);
+        };
+    }
+}
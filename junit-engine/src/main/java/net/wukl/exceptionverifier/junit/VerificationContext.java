@@ -0,0 +1,60 @@
+package net.wukl.exceptionverifier.junit;
+
+import net.wukl.exceptionverifier.ExceptionVerifier;
+import net.wukl.exceptionverifier.VerificationReport;
+import org.junit.platform.engine.support.hierarchical.EngineExecutionContext;
+
+/**
+ * The state passed down the test tree while it runs: the verifier, and the report of the
+ * exception class being verified.
+ */
+final class VerificationContext implements EngineExecutionContext {
+    private final ExceptionVerifier.CompiledVerifier verifier;
+    private final VerificationReport report;
+
+    /**
+     * Creates the context of the engine.
+     *
+     * @param verifier the verifier, shared by all classes
+     */
+    VerificationContext(final ExceptionVerifier.CompiledVerifier verifier) {
+        this(verifier, null);
+    }
+
+    private VerificationContext(
+            final ExceptionVerifier.CompiledVerifier verifier,
+            final VerificationReport report
+    ) {
+        this.verifier = verifier;
+        this.report = report;
+    }
+
+    /**
+     * Returns the verifier.
+     *
+     * @return the verifier
+     */
+    ExceptionVerifier.CompiledVerifier getVerifier() {
+        return this.verifier;
+    }
+
+    /**
+     * Returns the report of the exception class being verified.
+     *
+     * @return the report, or {@code null} outside of a class container
+     */
+    VerificationReport getReport() {
+        return this.report;
+    }
+
+    /**
+     * Returns a copy of this context for the tests of a class.
+     *
+     * @param report the report of the class
+     *
+     * @return the new context
+     */
+    VerificationContext withReport(final VerificationReport report) {
+        return new VerificationContext(this.verifier, report);
+    }
+}
@@ -0,0 +1,237 @@
+package net.wukl.exceptionverifier.junit;
+
+import net.wukl.exceptionverifier.ExceptionVerifier;
+import net.wukl.exceptionverifier.junit.fixtures.DecoratingException;
+import net.wukl.exceptionverifier.junit.fixtures.GoodException;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.engine.Filter;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.discovery.ClassNameFilter;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.launcher.EngineFilter;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExceptionVerifierTestEngineTest {
+    private static final String FIXTURES = "net.wukl.exceptionverifier.junit.fixtures";
+
+    private static final UniqueId ENGINE =
+            UniqueId.forEngine(ExceptionVerifierTestEngine.ENGINE_ID);
+
+    @Test
+    public void testNothingDiscoveredWithoutPackages() {
+        final var results = run(Map.of(), List.of(), DiscoverySelectors.selectPackage(FIXTURES));
+
+        assertEquals(Map.of(), results);
+    }
+
+    @Test
+    public void testOneTestPerCheck() {
+        final var results = run(packages(), List.of(), DiscoverySelectors.selectPackage(FIXTURES));
+        final var checks = applicableChecks(ExceptionVerifier.Strictness.STRICT);
+
+        // The abstract fixture is skipped
+        assertEquals(2 * checks.size(), results.size());
+        for (final var check : checks) {
+            assertEquals(
+                    TestExecutionResult.Status.SUCCESSFUL,
+                    results.get(id(GoodException.class, check)).getStatus()
+            );
+
+            // Only the checks that pass a message of their own see it decorated
+            final var decorated = results.get(id(DecoratingException.class, check));
+            if (check == ExceptionVerifier.Check.MESSAGE_ONLY
+                    || check == ExceptionVerifier.Check.NULLABLE_MESSAGE_ONLY) {
+                assertEquals(TestExecutionResult.Status.FAILED, decorated.getStatus());
+                assertTrue(decorated.getThrowable().isPresent());
+            } else {
+                assertEquals(TestExecutionResult.Status.SUCCESSFUL, decorated.getStatus());
+            }
+        }
+    }
+
+    @Test
+    public void testWeakStrictness() {
+        final var parameters = new TreeMap<>(packages());
+        parameters.put(EngineSettings.STRICTNESS_PARAMETER, "weak");
+
+        final var results = run(parameters, List.of(), DiscoverySelectors.selectPackage(FIXTURES));
+
+        assertEquals(
+                2 * applicableChecks(ExceptionVerifier.Strictness.WEAK).size(), results.size()
+        );
+        assertTrue(results.values().stream()
+                .allMatch(result -> result.getStatus() == TestExecutionResult.Status.SUCCESSFUL));
+    }
+
+    @Test
+    public void testParentPackageSelection() {
+        final var results = run(packages(), List.of(), DiscoverySelectors.selectPackage("net"));
+
+        assertEquals(
+                2 * applicableChecks(ExceptionVerifier.Strictness.STRICT).size(), results.size()
+        );
+    }
+
+    @Test
+    public void testUnrelatedClassSelection() {
+        // As build tools do: only the test classes are selected
+        final var results = run(
+                packages(), List.of(),
+                DiscoverySelectors.selectClass(ExceptionVerifierTestEngineTest.class)
+        );
+
+        assertEquals(
+                2 * applicableChecks(ExceptionVerifier.Strictness.STRICT).size(), results.size()
+        );
+        assertTrue(results.keySet().stream()
+                .anyMatch(id -> id.toString().contains(GoodException.class.getName())));
+        assertTrue(results.keySet().stream()
+                .anyMatch(id -> id.toString().contains(DecoratingException.class.getName())));
+    }
+
+    @Test
+    public void testClasspathRootSelection() throws Exception {
+        final var root = Paths.get(
+                GoodException.class.getProtectionDomain().getCodeSource().getLocation().toURI()
+        );
+
+        final var results = run(
+                packages(), List.of(), DiscoverySelectors.selectClasspathRoots(Set.of(root)).get(0)
+        );
+
+        assertEquals(
+                2 * applicableChecks(ExceptionVerifier.Strictness.STRICT).size(), results.size()
+        );
+    }
+
+    @Test
+    public void testOtherSelectorsIgnored() {
+        final var results = run(
+                packages(), List.of(),
+                DiscoverySelectors.selectMethod(getClass(), "testOtherSelectorsIgnored")
+        );
+
+        assertEquals(Map.of(), results);
+    }
+
+    @Test
+    public void testUniqueIdSelection() {
+        final var selected = id(DecoratingException.class, ExceptionVerifier.Check.MESSAGE_ONLY);
+
+        final var results = run(
+                packages(), List.of(), DiscoverySelectors.selectUniqueId(selected)
+        );
+
+        assertEquals(Set.of(selected), results.keySet());
+        assertEquals(TestExecutionResult.Status.FAILED, results.get(selected).getStatus());
+    }
+
+    @Test
+    public void testOtherEnginesUniqueIdsIgnored() {
+        final var results = run(
+                packages(), List.of(),
+                DiscoverySelectors.selectUniqueId(UniqueId.forEngine("junit-jupiter"))
+        );
+
+        assertEquals(Map.of(), results);
+    }
+
+    @Test
+    public void testClassNameFilter() {
+        final var results = run(
+                packages(),
+                List.of(ClassNameFilter.excludeClassNamePatterns(".*Decorating.*")),
+                DiscoverySelectors.selectPackage(FIXTURES)
+        );
+
+        assertEquals(applicableChecks(ExceptionVerifier.Strictness.STRICT).size(), results.size());
+        assertTrue(results.keySet().stream()
+                .allMatch(id -> id.toString().contains(GoodException.class.getName())));
+    }
+
+    @Test
+    public void testParallelExecution() {
+        final var parameters = new TreeMap<>(packages());
+        final var prefix = ExceptionVerifierTestEngine.PARALLEL_CONFIG_PREFIX;
+        parameters.put(ExceptionVerifierTestEngine.PARALLEL_ENABLED_PARAMETER, "true");
+        parameters.put(prefix + "strategy", "fixed");
+        parameters.put(prefix + "fixed.parallelism", "2");
+
+        final var sequential =
+                run(packages(), List.of(), DiscoverySelectors.selectPackage(FIXTURES));
+        final var parallel =
+                run(parameters, List.of(), DiscoverySelectors.selectPackage(FIXTURES));
+
+        assertEquals(statuses(sequential), statuses(parallel));
+    }
+
+    private static Map<String, String> packages() {
+        return Map.of(EngineSettings.PACKAGES_PARAMETER, FIXTURES);
+    }
+
+    private static List<ExceptionVerifier.Check> applicableChecks(
+            final ExceptionVerifier.Strictness strictness
+    ) {
+        return Arrays.stream(ExceptionVerifier.Check.values())
+                .filter(check -> check.isApplicable(strictness) && !check.isOptional())
+                .collect(Collectors.toList());
+    }
+
+    private static UniqueId id(final Class<?> type, final ExceptionVerifier.Check check) {
+        return ENGINE.append(ExceptionClassDescriptor.SEGMENT_TYPE, type.getName())
+                .append(CheckDescriptor.SEGMENT_TYPE, check.name());
+    }
+
+    private static Map<UniqueId, TestExecutionResult.Status> statuses(
+            final Map<UniqueId, TestExecutionResult> results
+    ) {
+        return results.entrySet().stream().collect(Collectors.toMap(
+                Map.Entry::getKey, entry -> entry.getValue().getStatus()
+        ));
+    }
+
+    private static Map<UniqueId, TestExecutionResult> run(
+            final Map<String, String> parameters,
+            final List<Filter<?>> filters,
+            final DiscoverySelector selector
+    ) {
+        final var request = LauncherDiscoveryRequestBuilder.request()
+                .selectors(selector)
+                .filters(EngineFilter.includeEngines(ExceptionVerifierTestEngine.ENGINE_ID))
+                .filters(filters.toArray(new Filter<?>[0]))
+                .configurationParameters(parameters)
+                .build();
+
+        final var results = new ConcurrentHashMap<UniqueId, TestExecutionResult>();
+        LauncherFactory.create().execute(request, new TestExecutionListener() {
+            @Override
+            public void executionFinished(
+                    final TestIdentifier identifier,
+                    final TestExecutionResult result
+            ) {
+                if (identifier.isTest()) {
+                    results.put(UniqueId.parse(identifier.getUniqueId()), result);
+                }
+            }
+        });
+
+        return results;
+    }
+}
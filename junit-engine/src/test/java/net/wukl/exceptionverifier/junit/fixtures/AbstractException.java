@@ -0,0 +1,7 @@
+package net.wukl.exceptionverifier.junit.fixtures;
+
+public abstract class AbstractException extends RuntimeException {
+    protected AbstractException(final String message) {
+        super(message);
+    }
+}
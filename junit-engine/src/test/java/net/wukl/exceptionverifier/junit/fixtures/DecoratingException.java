@@ -0,0 +1,19 @@
+package net.wukl.exceptionverifier.junit.fixtures;
+
+public class DecoratingException extends RuntimeException {
+    public DecoratingException() {
+        super();
+    }
+
+    public DecoratingException(final String message) {
+        super("Decorated: " + message);
+    }
+
+    public DecoratingException(final Throwable cause) {
+        super(cause);
+    }
+
+    public DecoratingException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
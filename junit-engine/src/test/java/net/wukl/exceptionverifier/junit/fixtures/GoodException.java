@@ -0,0 +1,19 @@
+package net.wukl.exceptionverifier.junit.fixtures;
+
+public class GoodException extends RuntimeException {
+    public GoodException() {
+        super();
+    }
+
+    public GoodException(final String message) {
+        super(message);
+    }
+
+    public GoodException(final Throwable cause) {
+        super(cause);
+    }
+
+    public GoodException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,61 @@
+package net.wukl.exceptionverifier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures verifying a class path root full of synthetic exception classes.
+ *
+ * Every invocation scans the root and loads the classes into a fresh class loader, as a build
+ * would. Verification runs on a single thread so the result does not depend on the number of
+ * cores of the machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 3, jvmArgsAppend = "-ea")
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+public class BulkBenchmark {
+    private static final int CLASS_COUNT = 500;
+
+    @Param({ "WEAK", "STRICT" })
+    public ExceptionVerifier.Strictness strictness;
+
+    @Param({ "REFLECTION", "BYTECODE" })
+    public ExceptionVerifier.Engine engine;
+
+    private SyntheticExceptions exceptions;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.exceptions = SyntheticExceptions.generate(CLASS_COUNT);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.exceptions.close();
+    }
+
+    @Benchmark
+    public BulkVerificationResult verify() {
+        return ExceptionVerifier.forClasspath(this.exceptions.getRoot())
+                .withStrictness(this.strictness)
+                .withEngine(this.engine)
+                .withParallelism(1)
+                .verify();
+    }
+}
@@ -0,0 +1,61 @@
+package net.wukl.exceptionverifier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures verifying a single exception class, for the fixtures of
+ * {@link ExceptionVerifierTest}.
+ *
+ * Failing fixtures are included on purpose: building the assertion error is part of the cost of
+ * verifying them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 3, jvmArgsAppend = "-ea")
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class SingleClassBenchmark {
+    @Param({
+            "GoodCitizenException",
+            "HiddenConstructorsException",
+            "ThrowingException",
+            "WrappingException",
+            "MessageErasingException",
+            "CountingMessageException",
+    })
+    public String fixture;
+
+    @Param({ "WEAK", "STRICT" })
+    public ExceptionVerifier.Strictness strictness;
+
+    private Class<? extends Throwable> type;
+
+    @Setup
+    public void setUp() throws ClassNotFoundException {
+        this.type = Class.forName(ExceptionVerifierTest.class.getName() + "$" + this.fixture)
+                .asSubclass(Throwable.class);
+    }
+
+    @Benchmark
+    public Object verify() {
+        try {
+            ExceptionVerifier.forClass(this.type).withStrictness(this.strictness).verify();
+            return null;
+        } catch (final AssertionError ex) {
+            return ex;
+        }
+    }
+}
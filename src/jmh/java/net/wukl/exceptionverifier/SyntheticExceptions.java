@@ -0,0 +1,102 @@
+package net.wukl.exceptionverifier;
+
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A temporary class directory full of generated exception classes.
+ *
+ * Three out of four classes follow the Rule of Four; the rest change the message they are given,
+ * so they fail verification in both strictness levels.
+ */
+final class SyntheticExceptions implements Closeable {
+    private static final String PACKAGE = "net.wukl.exceptionverifier.synthetic";
+
+    private final Path root;
+
+    private SyntheticExceptions(final Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Generates and compiles exception classes.
+     *
+     * @param count the number of classes to generate
+     *
+     * @return the class directory
+     *
+     * @throws IOException if the classes could not be written or compiled
+     */
+    static SyntheticExceptions generate(final int count) throws IOException {
+        final var compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IOException("Generating exceptions requires a JDK");
+        }
+
+        final var sources = new ArrayList<JavaFileObject>(count);
+        for (int i = 0; i < count; ++i) {
+            sources.add(source("Synthetic" + i + "Exception", i % 4 == 3));
+        }
+
+        final var root = Files.createTempDirectory("synthetic-exceptions");
+        final var success = compiler.getTask(
+                null, null, null, List.of("-d", root.toString()), null, sources
+        ).call();
+        if (!success) {
+            throw new IOException("Unable to compile the synthetic exceptions");
+        }
+
+        return new SyntheticExceptions(root);
+    }
+
+    private static JavaFileObject source(final String name, final boolean mangling) {
+        final var message = mangling ? "\"synthetic: \" + message" : "message";
+        final var code = "package " + PACKAGE + ";\n"
+                + "public class " + name + " extends RuntimeException {\n"
+                + "    public " + name + "() { super(); }\n"
+                + "    public " + name + "(String message) { super(" + message + "); }\n"
+                + "    public " + name + "(Throwable cause) { super(cause); }\n"
+                + "    public " + name + "(String message, Throwable cause) {\n"
+                + "        super(" + message + ", cause);\n"
+                + "    }\n"
+                + "}\n";
+
+        final var uri = URI.create("string:///" + PACKAGE.replace('.', '/') + "/" + name
+                + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+
+    /**
+     * Returns the class directory.
+     *
+     * @return the root of the class directory
+     */
+    Path getRoot() {
+        return this.root;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.root)) {
+            final Iterable<Path> deepestFirst = paths.sorted(Comparator.reverseOrder())::iterator;
+            for (final var path : deepestFirst) {
+                Files.delete(path);
+            }
+        }
+    }
+}
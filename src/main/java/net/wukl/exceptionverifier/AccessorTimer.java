@@ -0,0 +1,130 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+
+import javax.annotation.Nonnull;
+import java.util.function.Function;
+
+/**
+ * Times an accessor of exception instances, both the first time it is called on an instance and
+ * every time after.
+ *
+ * An accessor that computes its result lazily pays for it on the first call and, if it keeps
+ * the result, not on the calls after; one that does not keep it pays every time. Each figure is
+ * the best of several attempts, so that a collection or a compilation in between does not
+ * count, and the time it takes to read the clock is measured once and subtracted.
+ */
+final class AccessorTimer {
+    private static final int INSTANCES = 32;
+    private static final int WARMUP_CALLS = 64;
+    private static final int CALLS = 32;
+    private static final int ROUNDS = 5;
+
+    /**
+     * The timer.
+     */
+    static final AccessorTimer INSTANCE = new AccessorTimer();
+
+    private final long overhead;
+
+    /**
+     * Receives every result, so that the JIT cannot leave the accessor out.
+     */
+    private volatile Object sink;
+
+    private AccessorTimer() {
+        var overhead = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; ++round) {
+            final var start = System.nanoTime();
+            overhead = Math.min(overhead, System.nanoTime() - start);
+        }
+        this.overhead = overhead;
+    }
+
+    /**
+     * Times an accessor.
+     *
+     * @param constructor the constructor of the instances, which should already have run once
+     * @param accessor    the accessor
+     *
+     * @return the timing
+     *
+     * @throws Exception if the constructor throws
+     */
+    @Nonnull
+    Timing time(
+            final AllocationMeter.Action constructor,
+            final Function<Throwable, Object> accessor
+    ) throws Exception {
+        var first = Long.MAX_VALUE;
+        for (int i = 0; i < INSTANCES; ++i) {
+            final var instance = (Throwable) constructor.run();
+            final var start = System.nanoTime();
+            this.sink = accessor.apply(instance);
+            first = Math.min(first, System.nanoTime() - start - this.overhead);
+        }
+
+        final var instance = (Throwable) constructor.run();
+        for (int i = 0; i < WARMUP_CALLS; ++i) {
+            this.sink = accessor.apply(instance);
+        }
+
+        var repeated = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; ++round) {
+            final var start = System.nanoTime();
+            for (int i = 0; i < CALLS; ++i) {
+                this.sink = accessor.apply(instance);
+            }
+
+            repeated = Math.min(repeated, (System.nanoTime() - start - this.overhead) / CALLS);
+        }
+
+        return new Timing(Math.max(first, 0), Math.max(repeated, 0));
+    }
+
+    /**
+     * The time an accessor takes.
+     */
+    static final class Timing {
+        private final long firstCall;
+        private final long repeatedCall;
+
+        @Contract(pure = true)
+        private Timing(final long firstCall, final long repeatedCall) {
+            this.firstCall = firstCall;
+            this.repeatedCall = repeatedCall;
+        }
+
+        /**
+         * Returns the time of the first call on a new instance.
+         *
+         * @return the time in nanoseconds
+         */
+        @Contract(pure = true)
+        long getFirstCall() {
+            return this.firstCall;
+        }
+
+        /**
+         * Returns the time of every call after the first.
+         *
+         * @return the time in nanoseconds
+         */
+        @Contract(pure = true)
+        long getRepeatedCall() {
+            return this.repeatedCall;
+        }
+
+        /**
+         * Checks whether calls after the first are no cheaper than it, as if the accessor
+         * computes its result every time.
+         *
+         * @return {@code true} if repeated calls take at least half as long as the first one,
+         *         {@code false} otherwise
+         */
+        @Contract(pure = true)
+        boolean isRecomputed() {
+            return this.repeatedCall * 2 >= this.firstCall;
+        }
+    }
+}
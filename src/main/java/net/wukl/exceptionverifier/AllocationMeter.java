@@ -0,0 +1,126 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures how many bytes an action allocates on the calling thread.
+ *
+ * Reading the allocation counter of a thread allocates a few bytes itself on some JVMs; that
+ * overhead is measured once and subtracted. Each measurement repeats the action and keeps the
+ * best of several rounds, so that one-time work such as linking a call site is not counted.
+ */
+final class AllocationMeter {
+    private static final int CALLS = 16;
+    private static final int ROUNDS = 3;
+
+    private static final @Nullable AllocationMeter INSTANCE = create();
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final long overhead;
+
+    /**
+     * Receives every result, so that the JIT cannot leave the action out.
+     */
+    private volatile Object sink;
+
+    private AllocationMeter(final com.sun.management.ThreadMXBean threads) {
+        this.threads = threads;
+
+        var overhead = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; ++round) {
+            final var start = this.allocatedBytes();
+            overhead = Math.min(overhead, this.allocatedBytes() - start);
+        }
+        this.overhead = overhead;
+    }
+
+    @Nullable
+    private static AllocationMeter create() {
+        final var threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+
+        final var allocations = (com.sun.management.ThreadMXBean) threads;
+        if (!allocations.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+
+        allocations.setThreadAllocatedMemoryEnabled(true);
+        return new AllocationMeter(allocations);
+    }
+
+    /**
+     * Checks whether the running JVM can measure thread allocations.
+     *
+     * @return {@code true} if it can, {@code false} otherwise
+     */
+    @Contract(pure = true)
+    static boolean isSupported() {
+        return INSTANCE != null;
+    }
+
+    /**
+     * Returns the meter of the running JVM.
+     *
+     * @return the meter
+     *
+     * @throws UnsupportedOperationException if the JVM cannot measure thread allocations
+     */
+    static AllocationMeter get() {
+        if (INSTANCE == null) {
+            throw new UnsupportedOperationException(
+                    "This JVM cannot measure the bytes a thread allocates"
+            );
+        }
+
+        return INSTANCE;
+    }
+
+    /**
+     * Measures the bytes an action allocates per call.
+     *
+     * @param action the action, which should already have run once
+     *
+     * @return the bytes allocated per call, rounded down
+     *
+     * @throws Exception if the action throws
+     */
+    long perCall(final Action action) throws Exception {
+        var best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; ++round) {
+            final var start = this.allocatedBytes();
+            for (int i = 0; i < CALLS; ++i) {
+                this.sink = action.run();
+            }
+
+            best = Math.min(best, this.allocatedBytes() - start - this.overhead);
+        }
+
+        return Math.max(best, 0) / CALLS;
+    }
+
+    @Contract(pure = true)
+    private long allocatedBytes() {
+        return this.threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * An action to measure.
+     */
+    @FunctionalInterface
+    interface Action {
+        /**
+         * Runs the action.
+         *
+         * @return anything, so that the result is not optimized away
+         *
+         * @throws Exception if the action fails
+         */
+        @Nullable
+        Object run() throws Exception;
+    }
+}
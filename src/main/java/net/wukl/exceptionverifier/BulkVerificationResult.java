@@ -0,0 +1,93 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * The aggregate result of verifying many exception classes at once.
+ */
+public final class BulkVerificationResult {
+    private final List<String> verified;
+    private final SortedMap<String, VerificationReport> failures;
+
+    @Contract(pure = true)
+    BulkVerificationResult(
+            final List<String> verified,
+            final SortedMap<String, VerificationReport> failures
+    ) {
+        this.verified = Collections.unmodifiableList(verified);
+        this.failures = Collections.unmodifiableSortedMap(failures);
+    }
+
+    /**
+     * Returns the names of all exception classes that were verified, including failed ones.
+     *
+     * @return the class names, in lexicographical order
+     */
+    @Contract(pure = true)
+    @Nonnull
+    public List<String> getVerifiedClasses() {
+        return this.verified;
+    }
+
+    /**
+     * Returns the verification failures.
+     *
+     * @return a map of class names to the reports of the classes that failed
+     */
+    @Contract(pure = true)
+    @Nonnull
+    public Map<String, VerificationReport> getFailures() {
+        return this.failures;
+    }
+
+    /**
+     * Checks whether all exception classes passed verification.
+     *
+     * @return {@code true} if no class failed, {@code false} otherwise
+     */
+    @Contract(pure = true)
+    public boolean isSuccessful() {
+        return this.failures.isEmpty();
+    }
+
+    /**
+     * Throws if any exception class failed verification.
+     *
+     * The thrown error lists every failed check of every failing class; the causes of the
+     * failures, if any, are attached to it as suppressed exceptions.
+     *
+     * @throws AssertionError if any class failed verification
+     */
+    public void assertSuccessful() {
+        if (this.isSuccessful()) {
+            return;
+        }
+
+        final var message = new StringBuilder();
+        message.append(this.failures.size()).append(" of ").append(this.verified.size())
+                .append(" exception classes failed verification:");
+        for (final var report : this.failures.values()) {
+            message.append("\n    ").append(report.getExceptionType()).append(':');
+            for (final var failure : report.getFailures()) {
+                message.append("\n        ").append(failure.getMessage());
+            }
+        }
+
+        final var error = new AssertionError(message.toString());
+        for (final var report : this.failures.values()) {
+            for (final var failure : report.getFailures()) {
+                if (failure.getCause() != null) {
+                    error.addSuppressed(failure.getCause());
+                }
+            }
+        }
+
+        throw error;
+    }
+}
@@ -0,0 +1,795 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Modifier;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * A verifier that discovers and verifies all exception classes in a set of packages, class path
+ * roots or modules.
+ *
+ * Classes are loaded without running their static initializers; only classes that turn out to be
+ * concrete {@link Throwable} subclasses are verified. Verification is spread over a fork/join
+ * pool.
+ */
+public final class BulkVerifier {
+    private static final Logger logger = LoggerFactory.getLogger(BulkVerifier.class);
+
+    /**
+     * The number of classes a single fork/join task handles before it stops splitting.
+     */
+    private static final int SPLIT_THRESHOLD = 16;
+
+    private final ClassLoader parent;
+    // Without roots, the candidates are loaded by the parent itself
+    private final @Nullable URL[] roots;
+    private final @Nullable ClassIndex index;
+    // Zero to load all candidates with a single child loader
+    private final int batchSize;
+    private final String[] candidates;
+    private final Class<? extends Throwable> causeType;
+    private final ExceptionVerifier.Strictness strictness;
+    private final boolean lightweight;
+    private final ExceptionVerifier.Engine engine;
+    private final @Nullable Duration constructorTimeout;
+    private final @Nullable Duration classTimeout;
+    private final @Nullable VerificationCache cache;
+    private final List<ReportWriter> writers;
+
+    private final boolean[] verified;
+    private final VerificationReport[] failures;
+    // Set once a report writer cancels; no further candidates are verified after that
+    private volatile boolean cancelled = false;
+
+    @Contract(pure = true)
+    private BulkVerifier(
+            final ClassLoader parent,
+            final @Nullable URL[] roots,
+            final @Nullable ClassIndex index,
+            final int batchSize,
+            final Collection<String> candidates,
+            final Class<? extends Throwable> causeType,
+            final ExceptionVerifier.Strictness strictness,
+            final boolean lightweight,
+            final ExceptionVerifier.Engine engine,
+            final @Nullable Duration constructorTimeout,
+            final @Nullable Duration classTimeout,
+            final @Nullable VerificationCache cache,
+            final List<ReportWriter> writers
+    ) {
+        this.parent = parent;
+        this.roots = roots;
+        this.index = index;
+        this.batchSize = batchSize;
+        this.candidates = candidates.toArray(new String[0]);
+        this.causeType = causeType;
+        this.strictness = strictness;
+        this.lightweight = lightweight;
+        this.engine = engine;
+        this.constructorTimeout = constructorTimeout;
+        this.classTimeout = classTimeout;
+        this.cache = cache;
+        this.writers = writers;
+
+        this.verified = new boolean[this.candidates.length];
+        this.failures = new VerificationReport[this.candidates.length];
+    }
+
+    @Nonnull
+    private BulkVerificationResult verify(final int parallelism) {
+        final var pool = new ForkJoinPool(parallelism);
+        try {
+            if (this.roots == null) {
+                pool.invoke(new VerifyTask(new Batch(this.parent), 0, this.candidates.length));
+            } else {
+                this.verifyBatches(pool, this.roots);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        if (this.cache != null) {
+            try {
+                this.cache.save();
+            } catch (final IOException ex) {
+                logger.warn("Unable to save the verification cache", ex);
+            }
+        }
+
+        if (this.cancelled) {
+            throw new CancellationException("Verification was cancelled by a report writer");
+        }
+
+        final var verifiedNames = new ArrayList<String>();
+        final var failureMap = new TreeMap<String, VerificationReport>();
+        for (int i = 0; i < this.candidates.length; ++i) {
+            if (this.verified[i]) {
+                verifiedNames.add(this.candidates[i]);
+            }
+
+            if (this.failures[i] != null) {
+                failureMap.put(this.candidates[i], this.failures[i]);
+            }
+        }
+
+        return new BulkVerificationResult(verifiedNames, failureMap);
+    }
+
+    private void verifyBatches(final ForkJoinPool pool, final URL[] roots) {
+        final var size = this.batchSize > 0 ? this.batchSize : this.candidates.length;
+        for (int from = 0; from < this.candidates.length && !this.cancelled; from += size) {
+            final var to = (int) Math.min((long) from + size, this.candidates.length);
+            try (URLClassLoader loader = new IndexedClassLoader(
+                    roots, this.parent, Objects.requireNonNull(this.index)
+            )) {
+                pool.invoke(new VerifyTask(new Batch(loader), from, to));
+            } catch (final IOException ex) {
+                throw new UncheckedIOException("Unable to close the class loader", ex);
+            }
+        }
+    }
+
+    private void verifyCandidate(final Batch batch, final int index) {
+        if (this.cancelled) {
+            return;
+        }
+
+        final var name = this.candidates[index];
+
+        String key = null;
+        if (this.cache != null && batch.fingerprinter != null) {
+            final var fingerprint = batch.fingerprinter.fingerprint(name);
+            if (fingerprint != null) {
+                if (!fingerprint.isThrowable() || !fingerprint.isConcrete()) {
+                    return;
+                }
+
+                key = VerificationCache.keyOf(
+                        fingerprint, this.causeType, this.strictness, this.lightweight,
+                        this.engine, ExceptionVerifier.class.desiredAssertionStatus()
+                );
+                final var cached = this.cache.get(key);
+                if (cached != null) {
+                    this.record(index, cached.getReport());
+                    return;
+                }
+            }
+        }
+
+        this.record(index, this.verifyUncached(batch, name, key));
+    }
+
+    /**
+     * Verifies a class that has no cached result, and caches the result under the given key.
+     *
+     * Classes that could not be loaded are not cached, since the class path may be fixed
+     * without changing the class itself.
+     *
+     * @param batch the batch of the class
+     * @param name  the binary name of the class
+     * @param key   the cache key of the class, or {@code null} to not cache the result
+     *
+     * @return the report, or {@code null} if the class was not verified
+     */
+    @Nullable
+    private VerificationReport verifyUncached(
+            final Batch batch,
+            final String name,
+            final @Nullable String key
+    ) {
+        BytecodeAnalyzer.Analysis analysis = null;
+        if (batch.analyzer != null) {
+            analysis = batch.analyzer.analyze(name, this.causeType);
+            if (analysis != null) {
+                if (!analysis.isThrowable() || !analysis.isConcrete() || analysis.isLocal()) {
+                    return this.cached(key, null);
+                }
+
+                if (analysis.isDecided(this.strictness, this.lightweight)) {
+                    return this.cached(key, ExceptionVerifier.reportOf(
+                            name, this.causeType, this.strictness, this.lightweight, analysis
+                    ));
+                }
+            }
+        }
+
+        final var loaded = loadCandidate(batch.loader, name);
+        if (loaded == null) {
+            return null;
+        }
+
+        if (!isVerifiable(loaded)) {
+            return this.cached(key, null);
+        }
+
+        final var type = loaded.asSubclass(Throwable.class);
+        final var builder = ExceptionVerifier.forClass(type)
+                .withCauseType(this.causeType)
+                .withStrictness(this.strictness)
+                .withLightweightConstructor(this.lightweight)
+                .withEngine(this.engine);
+        if (analysis != null) {
+            builder.withAnalysis(analysis);
+        }
+
+        if (this.constructorTimeout != null) {
+            builder.withConstructorTimeout(this.constructorTimeout);
+        }
+
+        if (this.classTimeout != null) {
+            builder.withClassTimeout(this.classTimeout);
+        }
+
+        return this.cached(key, builder.report());
+    }
+
+    @Nullable
+    private VerificationReport cached(
+            final @Nullable String key,
+            final @Nullable VerificationReport report
+    ) {
+        if (key != null) {
+            Objects.requireNonNull(this.cache).put(key, report);
+        }
+
+        return report;
+    }
+
+    private void record(final int index, final @Nullable VerificationReport report) {
+        if (report == null) {
+            return;
+        }
+
+        this.verified[index] = true;
+        for (final var writer : this.writers) {
+            try {
+                // Writers need not be thread-safe; the same writer may also serve other runs
+                synchronized (writer) {
+                    writer.write(report);
+                }
+            } catch (final CancellationException ex) {
+                this.cancelled = true;
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(
+                        "Unable to write the report of " + report.getExceptionType(), ex
+                );
+            }
+        }
+
+        if (!report.isSuccessful()) {
+            // Failure causes may be instances of the verified class, which would keep its
+            // batch loaded
+            this.failures[index] = this.batchSize > 0 ? report.detached() : report;
+        }
+    }
+
+    @Nullable
+    private static Class<?> loadCandidate(final ClassLoader loader, final String name) {
+        try {
+            return Class.forName(name, false, loader);
+        } catch (final ClassNotFoundException | LinkageError ex) {
+            logger.warn("Skipping {}: unable to load the class", name, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether a class is a concrete {@link Throwable} subclass that can be verified.
+     *
+     * @param type the class
+     *
+     * @return {@code true} if the class can be verified, {@code false} otherwise
+     */
+    @Contract(pure = true)
+    static boolean isVerifiable(final Class<?> type) {
+        return Throwable.class.isAssignableFrom(type)
+                && !Modifier.isAbstract(type.getModifiers())
+                && !type.isAnonymousClass()
+                && !type.isLocalClass();
+    }
+
+    /**
+     * The class loader a range of candidates is loaded with, and the helpers bound to it.
+     */
+    private final class Batch {
+        private final ClassLoader loader;
+        private final @Nullable ClassFingerprinter fingerprinter;
+        private final @Nullable BytecodeAnalyzer analyzer;
+
+        private Batch(final ClassLoader loader) {
+            this.loader = loader;
+            this.fingerprinter = BulkVerifier.this.cache != null
+                    ? new ClassFingerprinter(loader)
+                    : null;
+            this.analyzer = BulkVerifier.this.engine == ExceptionVerifier.Engine.BYTECODE
+                    ? new BytecodeAnalyzer(loader)
+                    : null;
+        }
+    }
+
+    private final class VerifyTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Batch batch;
+        private final int from;
+        private final int to;
+
+        private VerifyTask(final Batch batch, final int from, final int to) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= SPLIT_THRESHOLD) {
+                for (int i = this.from; i < this.to; ++i) {
+                    BulkVerifier.this.verifyCandidate(this.batch, i);
+                }
+
+                return;
+            }
+
+            final var mid = (this.from + this.to) >>> 1;
+            invokeAll(
+                    new VerifyTask(this.batch, this.from, mid),
+                    new VerifyTask(this.batch, mid, this.to)
+            );
+        }
+    }
+
+    /**
+     * A builder for bulk verifiers.
+     *
+     * The defaults are the same as those of {@link ExceptionVerifier.ExceptionVerifierBuilder}.
+     */
+    public static final class BulkVerifierBuilder {
+        private final @Nullable List<String> packages;
+        private final @Nullable List<Path> roots;
+        private final @Nullable List<Path> modulePath;
+        private @Nullable ClassLoader loader = null;
+        private Class<? extends Throwable> causeType = Throwable.class;
+        private ExceptionVerifier.Strictness strictness = ExceptionVerifier.Strictness.STRICT;
+        private boolean lightweight = false;
+        private ExceptionVerifier.Engine engine = ExceptionVerifier.Engine.REFLECTION;
+        private @Nullable Duration constructorTimeout = null;
+        private @Nullable Duration classTimeout = null;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private @Nullable Path cacheFile = null;
+        private Predicate<String> classFilter = name -> true;
+        private int batchSize = 0;
+        private final List<ReportWriter> writers = new ArrayList<>();
+
+        @Contract(pure = true)
+        private BulkVerifierBuilder(
+                final @Nullable List<String> packages,
+                final @Nullable List<Path> roots,
+                final @Nullable List<Path> modulePath
+        ) {
+            this.packages = packages;
+            this.roots = roots;
+            this.modulePath = modulePath;
+        }
+
+        /**
+         * Creates a builder that verifies all exceptions in the given packages.
+         *
+         * @param packages the packages to scan
+         *
+         * @return the builder
+         */
+        @Contract(value = "_ -> new", pure = true)
+        @Nonnull
+        static BulkVerifierBuilder ofPackages(final List<String> packages) {
+            return new BulkVerifierBuilder(List.copyOf(packages), null, null);
+        }
+
+        /**
+         * Creates a builder that verifies all exceptions in the given class path roots.
+         *
+         * @param roots the class directories and jar files to scan
+         *
+         * @return the builder
+         */
+        @Contract(value = "_ -> new", pure = true)
+        @Nonnull
+        static BulkVerifierBuilder ofRoots(final List<Path> roots) {
+            return new BulkVerifierBuilder(null, List.copyOf(roots), null);
+        }
+
+        /**
+         * Creates a builder that verifies all exceptions in the modules on a module path.
+         *
+         * @param modulePath the modular jars, plain jars and exploded modules to scan, and
+         *                   directories of those
+         *
+         * @return the builder
+         */
+        @Contract(value = "_ -> new", pure = true)
+        @Nonnull
+        static BulkVerifierBuilder ofModulePath(final List<Path> modulePath) {
+            return new BulkVerifierBuilder(null, null, List.copyOf(modulePath));
+        }
+
+        /**
+         * Sets the class loader to discover and load the exception classes with.
+         *
+         * Defaults to the context class loader of the thread that runs verification. When
+         * verifying class path roots or a module path, those are loaded by a child of this
+         * loader.
+         *
+         * @param loader the class loader
+         *
+         * @return the builder
+         */
+        @Contract("_ -> this")
+        public BulkVerifierBuilder withClassLoader(final ClassLoader loader) {
+            this.loader = loader;
+            return this;
+        }
+
+        /**
+         * Sets the cause exception type for all verified classes.
+         *
+         * @param causeType the cause type
+         *
+         * @return the builder
+         *
+         * @see ExceptionVerifier.ExceptionVerifierBuilder#withCauseType(Class)
+         */
+        @Contract("_ -> this")
+        public BulkVerifierBuilder withCauseType(final Class<? extends Throwable> causeType) {
+            this.causeType = causeType;
+            return this;
+        }
+
+        /**
+         * Sets the strictness level for all verified classes.
+         *
+         * @param strictness the strictness
+         *
+         * @return the builder
+         *
+         * @see ExceptionVerifier.ExceptionVerifierBuilder#withStrictness
+         */
+        @Contract("_ -> this")
+        public BulkVerifierBuilder withStrictness(final ExceptionVerifier.Strictness strictness) {
+            this.strictness = strictness;
+            return this;
+        }
+
+        /**
+         * Sets whether the lightweight constructor of all verified classes is verified as well.
+         *
+         * @param lightweight whether to verify the lightweight constructor
+         *
+         * @return the builder
+         *
+         * @see ExceptionVerifier.ExceptionVerifierBuilder#withLightweightConstructor(boolean)
+         */
+        @Contract("_ -> this")
+        public BulkVerifierBuilder withLightweightConstructor(final boolean lightweight) {
+            this.lightweight = lightweight;
+            return this;
+        }
+
+        /**
+         * Sets the engine that runs the checks of all verified classes.
+         *
+         * With {@link ExceptionVerifier.Engine#BYTECODE}, classes whose checks can all be
+         * decided from their class files are not loaded at all.
+         *
+         * @param engine the engine
+         *
+         * @return the builder
+         *
+         * @see ExceptionVerifier.ExceptionVerifierBuilder#withEngine
+         */
+        @Contract("_ -> this")
+        public BulkVerifierBuilder withEngine(final ExceptionVerifier.Engine engine) {
+            this.engine = engine;
+            return this;
+        }
+
+        /**
+         * Abandons every check of a verified class that does not finish within the given time.
+         *
+         * A constructor that blocks or loops forever is reported as a {@linkplain
+         * VerificationReport.Failure.Kind#TIMEOUT timeout} instead of hanging the whole run.
+         * The checks of each class run on threads of their own while the verification thread
+         * waits for them.
+         *
+         * @param timeout the time each check may take
+         *
+         * @return the builder
+         *
+         * @see ExceptionVerifier.ExceptionVerifierBuilder#withConstructorTimeout(Duration)
+         */
+        @Contract("_ -> this")
+        public BulkVerifierBuilder withConstructorTimeout(final Duration timeout) {
+            this.constructorTimeout = requirePositive(timeout);
+            return this;
+        }
+
+        /**
+         * Stops verifying a class once all its checks together have taken the given time.
+         *
+         * @param timeout the time verification of each class may take
+         *
+         * @return the builder
+         *
+         * @see ExceptionVerifier.ExceptionVerifierBuilder#withClassTimeout(Duration)
+         */
+        @Contract("_ -> this")
+        public BulkVerifierBuilder withClassTimeout(final Duration timeout) {
+            this.classTimeout = requirePositive(timeout);
+            return this;
+        }
+
+        /**
+         * Sets the number of threads to verify with.
+         *
+         * Defaults to the number of available processors.
+         *
+         * @param parallelism the number of threads
+         *
+         * @return the builder
+         */
+        @Contract("_ -> this")
+        public BulkVerifierBuilder withParallelism(final int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Parallelism must be positive");
+            }
+
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the file to cache verification results in.
+         *
+         * Classes whose class file, superclass chain and verification settings are unchanged
+         * since they were cached are not loaded or verified again. The same file can be shared
+         * between modules and builds.
+         *
+         * @param cacheFile the cache file, which is created if it does not exist
+         *
+         * @return the builder
+         */
+        @Contract("_ -> this")
+        public BulkVerifierBuilder withCache(final Path cacheFile) {
+            this.cacheFile = cacheFile;
+            return this;
+        }
+
+        /**
+         * Restricts verification to the classes whose names match a filter.
+         *
+         * Classes that are filtered out are neither loaded nor reported as verified.
+         *
+         * @param classFilter the filter, which receives binary class names
+         *
+         * @return the builder
+         */
+        @Contract("_ -> this")
+        public BulkVerifierBuilder withClassFilter(final Predicate<String> classFilter) {
+            this.classFilter = classFilter;
+            return this;
+        }
+
+        /**
+         * Loads the classes in the class path roots in batches, each with a class loader of its
+         * own that is discarded once the batch is verified.
+         *
+         * Only the names of the verified classes and their reports are kept, so every batch can
+         * be unloaded before the next one is loaded and memory use does not grow with the number
+         * of classes. The causes of failures are replaced by copies that print the same way, but
+         * are not instances of the original exception classes. Classes that are shared by
+         * several batches, such as common superclasses, are loaded once per batch.
+         *
+         * The classes are only unloaded if the parent class loader cannot load them itself; see
+         * {@link #withClassLoader(ClassLoader)}. Isolation is not available when verifying
+         * packages, which are loaded by the parent class loader, or a module path, whose
+         * modules are defined together.
+         *
+         * @param batchSize the number of candidate classes per batch
+         *
+         * @return the builder
+         */
+        @Contract("_ -> this")
+        public BulkVerifierBuilder withIsolatedBatches(final int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Batch size must be positive");
+            }
+
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Adds a writer that receives the report of every verified class as soon as it is
+         * verified.
+         *
+         * Reports are written from the verification threads, one at a time: the verifier holds
+         * the lock of the writer while it writes, so the writer need not be thread-safe. The
+         * writer is not closed by the verifier.
+         *
+         * @param writer the writer, such as a {@link JUnitXmlReportWriter} or
+         *               {@link SarifReportWriter}
+         *
+         * @return the builder
+         */
+        @Contract("_ -> this")
+        public BulkVerifierBuilder withReportWriter(final ReportWriter writer) {
+            this.writers.add(writer);
+            return this;
+        }
+
+        /**
+         * Discovers and verifies all exception classes.
+         *
+         * Unlike {@link ExceptionVerifier.ExceptionVerifierBuilder#verify()}, this method does
+         * not throw when a class fails verification. Use
+         * {@link BulkVerificationResult#assertSuccessful()} to turn failures into an error.
+         *
+         * @return the aggregate result
+         *
+         * @throws UncheckedIOException if a class directory, jar or module could not be read,
+         *         or a report could not be written
+         * @throws CancellationException if a report writer cancelled verification
+         * @throws java.lang.module.FindException if a module path entry is not a valid module
+         * @throws java.lang.module.ResolutionException if a module on the module path has a
+         *         dependency that is neither on the module path nor in the boot layer
+         */
+        @Nonnull
+        public BulkVerificationResult verify() {
+            return this.verify(List.copyOf(this.writers));
+        }
+
+        /**
+         * Discovers and verifies all exception classes in the background, publishing the report
+         * of every verified class as soon as it is verified.
+         *
+         * Every subscription runs a verification of its own, with the settings of the builder
+         * at the time of subscribing, on a thread of its own. Reports are published in no
+         * particular order and delivered on the common fork/join pool. Only a bounded number of
+         * reports is buffered for a subscriber that has not requested them yet: once the buffer
+         * is full, verification waits for the subscriber to catch up. Cancelling the
+         * subscription stops verification after the classes being verified are finished.
+         *
+         * The subscriber completes once every class is verified, or receives the error that
+         * {@link #verify()} would have thrown. The report writers of the builder are written to
+         * as well.
+         *
+         * @return the publisher
+         */
+        @Contract(value = "-> new", pure = true)
+        @Nonnull
+        public Flow.Publisher<VerificationReport> publish() {
+            return new ReportPublisher(() -> {
+                final var settings = this.copy();
+                return writer -> {
+                    final var writers = new ArrayList<>(settings.writers);
+                    writers.add(writer);
+                    settings.verify(writers);
+                };
+            });
+        }
+
+        @Contract(value = "-> new", pure = true)
+        @Nonnull
+        private BulkVerifierBuilder copy() {
+            final var copy = new BulkVerifierBuilder(this.packages, this.roots, this.modulePath);
+            copy.loader = this.loader;
+            copy.causeType = this.causeType;
+            copy.strictness = this.strictness;
+            copy.lightweight = this.lightweight;
+            copy.engine = this.engine;
+            copy.constructorTimeout = this.constructorTimeout;
+            copy.classTimeout = this.classTimeout;
+            copy.parallelism = this.parallelism;
+            copy.cacheFile = this.cacheFile;
+            copy.classFilter = this.classFilter;
+            copy.batchSize = this.batchSize;
+            copy.writers.addAll(this.writers);
+            return copy;
+        }
+
+        @Nonnull
+        private BulkVerificationResult verify(final List<ReportWriter> writers) {
+            final var parent = this.loader != null
+                    ? this.loader
+                    : Thread.currentThread().getContextClassLoader();
+
+            final var cache = this.cacheFile != null
+                    ? VerificationCache.open(this.cacheFile)
+                    : null;
+
+            if (this.roots == null && this.batchSize > 0) {
+                throw new IllegalStateException(
+                        "Isolated batches are only available for class path roots"
+                );
+            }
+
+            if (this.modulePath != null) {
+                final var layer = ModulePathLayer.define(this.modulePath, parent);
+                final var names = this.filter(ClassScanner.scanModules(layer.getModules()));
+                return new BulkVerifier(
+                        layer.getLoader(), null, null, 0, names, this.causeType, this.strictness,
+                        this.lightweight, this.engine, this.constructorTimeout,
+                        this.classTimeout, cache, writers
+                ).verify(this.parallelism);
+            }
+
+            if (this.packages != null) {
+                final var names = this.filter(ClassScanner.scanPackages(parent, this.packages));
+                return new BulkVerifier(
+                        parent, null, null, 0, names, this.causeType, this.strictness,
+                        this.lightweight, this.engine, this.constructorTimeout,
+                        this.classTimeout, cache, writers
+                ).verify(this.parallelism);
+            }
+
+            final var roots = Objects.requireNonNull(this.roots);
+            final var index = ClassIndex.scan(roots);
+            final var names = this.filter(index.findCandidates(parent));
+            return new BulkVerifier(
+                    parent, toUrls(roots), index, this.batchSize, names, this.causeType,
+                    this.strictness, this.lightweight, this.engine, this.constructorTimeout,
+                    this.classTimeout, cache, writers
+            ).verify(this.parallelism);
+        }
+
+        @Nonnull
+        private List<String> filter(final Collection<String> names) {
+            return names.stream().filter(this.classFilter).collect(Collectors.toList());
+        }
+
+        @Nonnull
+        private static Duration requirePositive(final Duration timeout) {
+            if (timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("Timeout must be positive");
+            }
+
+            return timeout;
+        }
+
+        @Nonnull
+        private static URL[] toUrls(final List<Path> roots) {
+            final var urls = new URL[roots.size()];
+            for (int i = 0; i < urls.length; ++i) {
+                try {
+                    urls[i] = roots.get(i).toUri().toURL();
+                } catch (final MalformedURLException ex) {
+                    throw new IllegalArgumentException(
+                            "Invalid class path root " + roots.get(i), ex
+                    );
+                }
+            }
+
+            return urls;
+        }
+    }
+}
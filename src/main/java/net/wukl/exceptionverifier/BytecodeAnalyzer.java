@@ -0,0 +1,461 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Decides the constructor checks of an exception class from its class file, without loading or
+ * instantiating it.
+ *
+ * A check passes when the constructor it calls does nothing but hand its parameters, unchanged
+ * and in order, to the matching constructor of its superclass, and that constructor does the
+ * same, all the way up to {@link Throwable}. A check fails when the constructor it calls is
+ * missing. Everything else, such as constructors with a body of their own or classes that
+ * override the accessors the checks call, is left undecided for the reflective checks.
+ *
+ * An analyzer memoizes the classes it has seen, so it should be used for a single class loader
+ * and a single verification run.
+ */
+final class BytecodeAnalyzer {
+    private static final Logger logger = LoggerFactory.getLogger(BytecodeAnalyzer.class);
+
+    private static final String THROWABLE = "java.lang.Throwable";
+    private static final String THROWABLE_DESCRIPTOR = "Ljava/lang/Throwable;";
+    private static final String CONSTRUCTOR = "<init>";
+
+    /**
+     * The methods the checks call on the constructed instance, or that {@link Throwable}'s
+     * constructors call on it. A class that overrides any of these is not analyzed.
+     */
+    private static final String[][] OBSERVED_METHODS = {
+            { "getMessage", "()Ljava/lang/String;" },
+            { "getCause", "()Ljava/lang/Throwable;" },
+            { "fillInStackTrace", "()Ljava/lang/Throwable;" },
+    };
+
+    private static final int ALOAD_0 = 0x2A;
+    private static final int INVOKESPECIAL = 0xB7;
+    private static final int RETURN = 0xB1;
+
+    private final ClassLoader loader;
+    private final ConcurrentMap<String, Optional<ClassFile>> classFiles =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Boolean> forwarding = new ConcurrentHashMap<>();
+
+    @Contract(pure = true)
+    BytecodeAnalyzer(final ClassLoader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Analyzes a class.
+     *
+     * @param name      the binary name of the class
+     * @param causeType the cause type to verify with
+     *
+     * @return the analysis, or {@code null} if the class file of the class or of one of its
+     *         superclasses could not be read
+     */
+    @Nullable
+    Analysis analyze(final String name, final Class<? extends Throwable> causeType) {
+        final var classFile = this.classFile(name);
+        if (classFile == null) {
+            return null;
+        }
+
+        final var header = classFile.getHeader();
+        final var verdicts = new Verdict[ExceptionVerifier.Check.values().length];
+        Arrays.fill(verdicts, Verdict.UNDECIDED);
+
+        final var chain = this.superclassChain(classFile);
+        if (chain == null) {
+            return null;
+        }
+
+        final var throwable = THROWABLE.equals(chain.get(chain.size() - 1).getHeader().getName());
+        final var local = classFile.hasAttribute("EnclosingMethod");
+        if (!throwable) {
+            return new Analysis(false, header.isConcrete(), local, verdicts);
+        }
+
+        final var decidable = (header.getAccessFlags() & ClassFile.ACC_PUBLIC) != 0
+                && header.isConcrete()
+                && !overridesObservedMethods(chain);
+
+        // Causes the reflective checks pass in that the cause type does not accept make them
+        // fail in a way the analysis does not reproduce
+        final var causeDecidable = causeType.isAssignableFrom(RuntimeException.class)
+                && causeType.isAssignableFrom(InvocationTargetException.class);
+
+        final var causeDescriptor = "L" + causeType.getName().replace('.', '/') + ";";
+        for (final var check : ExceptionVerifier.Check.values()) {
+            final var shape = Shape.of(check);
+            final var method =
+                    classFile.findMethod(CONSTRUCTOR, shape.descriptor(causeDescriptor));
+            final var accessible = method != null
+                    && (method.isPublic() || shape.mayBeProtected && method.isProtected());
+            if (!accessible) {
+                verdicts[check.ordinal()] = Verdict.MISSING;
+            } else if (decidable && shape.forwardable && (!shape.takesCause || causeDecidable)
+                    && this.forwards(name, shape, causeDescriptor)) {
+                verdicts[check.ordinal()] = Verdict.PASS;
+            }
+        }
+
+        return new Analysis(true, header.isConcrete(), local, verdicts);
+    }
+
+    /**
+     * Collects a class and its superclasses, up to {@link Throwable} or {@link Object}.
+     *
+     * @param classFile the class
+     *
+     * @return the class files, starting with the class itself, or {@code null} if one of the
+     *         superclasses could not be read
+     */
+    @Nullable
+    private List<ClassFile> superclassChain(final ClassFile classFile) {
+        final var chain = new ArrayList<ClassFile>();
+        final var seen = new HashSet<String>();
+        var current = classFile;
+        while (true) {
+            final var currentName = current.getHeader().getName();
+            if (!seen.add(currentName)) {
+                logger.debug("Class {} is its own superclass", currentName);
+                return null;
+            }
+
+            chain.add(current);
+            final var superName = current.getHeader().getSuperName();
+            if (THROWABLE.equals(currentName) || superName == null) {
+                return chain;
+            }
+
+            current = this.classFile(superName);
+            if (current == null) {
+                return null;
+            }
+        }
+    }
+
+    private static boolean overridesObservedMethods(final List<ClassFile> chain) {
+        for (final var classFile : chain) {
+            if (THROWABLE.equals(classFile.getHeader().getName())) {
+                continue;
+            }
+
+            for (final var method : OBSERVED_METHODS) {
+                if (classFile.findMethod(method[0], method[1]) != null) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks whether a constructor forwards its parameters to {@link Throwable} unchanged.
+     *
+     * @param name            the binary name of the class declaring the constructor
+     * @param shape           the shape of the constructor
+     * @param causeDescriptor the descriptor of the cause parameter
+     *
+     * @return {@code true} if the constructor only forwards its parameters, {@code false}
+     *         otherwise or if the class file of the class could not be read
+     */
+    private boolean forwards(final String name, final Shape shape, final String causeDescriptor) {
+        final var descriptor = shape.descriptor(causeDescriptor);
+        if (THROWABLE.equals(name)) {
+            return !shape.takesCause || THROWABLE_DESCRIPTOR.equals(causeDescriptor);
+        }
+
+        // Not computeIfAbsent: the computation recurses into the map for the superclass
+        final var key = name + '#' + descriptor;
+        final var known = this.forwarding.get(key);
+        if (known != null) {
+            return known;
+        }
+
+        final var result = this.computeForwards(name, shape, causeDescriptor);
+        this.forwarding.putIfAbsent(key, result);
+        return result;
+    }
+
+    private boolean computeForwards(
+            final String name,
+            final Shape shape,
+            final String causeDescriptor
+    ) {
+        final var classFile = this.classFile(name);
+        if (classFile == null) {
+            return false;
+        }
+
+        final var method = classFile.findMethod(CONSTRUCTOR, shape.descriptor(causeDescriptor));
+        final var code = method == null ? null : method.getCode();
+        if (code == null) {
+            return false;
+        }
+
+        // aload_0, aload_1 .. aload_n, invokespecial #index, return
+        if (code.remaining() != shape.parameters + 5) {
+            return false;
+        }
+
+        for (int i = 0; i <= shape.parameters; ++i) {
+            if ((code.get() & 0xFF) != ALOAD_0 + i) {
+                return false;
+            }
+        }
+
+        if ((code.get() & 0xFF) != INVOKESPECIAL) {
+            return false;
+        }
+
+        final var index = code.getShort() & 0xFFFF;
+        if ((code.get() & 0xFF) != RETURN) {
+            return false;
+        }
+
+        final ClassFile.MethodRef target;
+        try {
+            target = classFile.readMethodRef(index);
+        } catch (final IOException | IndexOutOfBoundsException ex) {
+            logger.debug("Malformed constant pool in the class file of {}", name, ex);
+            return false;
+        }
+
+        final var superName = classFile.getHeader().getSuperName();
+        if (target == null || superName == null || !superName.equals(target.getOwner())
+                || !CONSTRUCTOR.equals(target.getName())) {
+            return false;
+        }
+
+        if (target.getDescriptor().equals(shape.descriptor(causeDescriptor))) {
+            return this.forwards(superName, shape, causeDescriptor);
+        } else if (target.getDescriptor().equals(shape.descriptor(THROWABLE_DESCRIPTOR))) {
+            return this.forwards(superName, shape, THROWABLE_DESCRIPTOR);
+        }
+
+        return false;
+    }
+
+    @Nullable
+    private ClassFile classFile(final String name) {
+        final var known = this.classFiles.get(name);
+        if (known != null) {
+            return known.orElse(null);
+        }
+
+        final var classFile = this.readClassFile(name);
+        this.classFiles.putIfAbsent(name, Optional.ofNullable(classFile));
+        return classFile;
+    }
+
+    @Nullable
+    private ClassFile readClassFile(final String name) {
+        try (InputStream in = this.loader.getResourceAsStream(name.replace('.', '/') + ".class")) {
+            if (in == null) {
+                return null;
+            }
+
+            return ClassFile.parse(ByteBuffer.wrap(in.readAllBytes()));
+        } catch (final IOException ex) {
+            logger.debug("Unable to read the class file of {}", name, ex);
+            return null;
+        }
+    }
+
+    /**
+     * The outcome of the analysis of a single check.
+     */
+    enum Verdict {
+        /**
+         * The check passes.
+         */
+        PASS,
+
+        /**
+         * The check fails because the constructor it calls is missing or not public.
+         */
+        MISSING,
+
+        /**
+         * The check has to be run reflectively.
+         */
+        UNDECIDED
+    }
+
+    /**
+     * The parameter lists of the Rule of Four constructors.
+     */
+    private enum Shape {
+        DEFAULT(0, false, true, false),
+        MESSAGE(1, false, true, false),
+        CAUSE(1, true, true, false),
+        FULL(2, true, true, false),
+
+        // Only its presence is analyzed: its flags are not loaded with aload, and whether it
+        // honors them depends on more than its own bytecode
+        LIGHTWEIGHT(4, true, false, true);
+
+        private final int parameters;
+        private final boolean takesCause;
+        private final boolean forwardable;
+        private final boolean mayBeProtected;
+
+        Shape(
+                final int parameters,
+                final boolean takesCause,
+                final boolean forwardable,
+                final boolean mayBeProtected
+        ) {
+            this.parameters = parameters;
+            this.takesCause = takesCause;
+            this.forwardable = forwardable;
+            this.mayBeProtected = mayBeProtected;
+        }
+
+        @Nonnull
+        private static Shape of(final ExceptionVerifier.Check check) {
+            switch (check) {
+                case DEFAULT:
+                    return DEFAULT;
+                case MESSAGE_ONLY:
+                case NULLABLE_MESSAGE_ONLY:
+                    return MESSAGE;
+                case CAUSE_ONLY:
+                case NESTED_INVOCATION_TARGET_EXCEPTION_ONLY:
+                case NULLABLE_CAUSE_ONLY:
+                    return CAUSE;
+                case LIGHTWEIGHT_WITHOUT_SUPPRESSION:
+                case LIGHTWEIGHT_WITHOUT_STACK_TRACE:
+                    return LIGHTWEIGHT;
+                default:
+                    return FULL;
+            }
+        }
+
+        @Nonnull
+        private String descriptor(final String causeDescriptor) {
+            switch (this) {
+                case DEFAULT:
+                    return "()V";
+                case MESSAGE:
+                    return "(Ljava/lang/String;)V";
+                case CAUSE:
+                    return "(" + causeDescriptor + ")V";
+                case LIGHTWEIGHT:
+                    return "(Ljava/lang/String;" + causeDescriptor + "ZZ)V";
+                default:
+                    return "(Ljava/lang/String;" + causeDescriptor + ")V";
+            }
+        }
+    }
+
+    /**
+     * The analysis of a class.
+     */
+    static final class Analysis {
+        private final boolean throwable;
+        private final boolean concrete;
+        private final boolean local;
+        private final Verdict[] verdicts;
+
+        @Contract(pure = true)
+        private Analysis(
+                final boolean throwable,
+                final boolean concrete,
+                final boolean local,
+                final Verdict[] verdicts
+        ) {
+            this.throwable = throwable;
+            this.concrete = concrete;
+            this.local = local;
+            this.verdicts = verdicts;
+        }
+
+        /**
+         * Checks whether the class is {@link Throwable} or one of its subclasses.
+         *
+         * @return {@code true} if the class is throwable, {@code false} otherwise
+         */
+        @Contract(pure = true)
+        boolean isThrowable() {
+            return this.throwable;
+        }
+
+        /**
+         * Checks whether the class is neither abstract nor an interface.
+         *
+         * @return {@code true} if the class is concrete, {@code false} otherwise
+         */
+        @Contract(pure = true)
+        boolean isConcrete() {
+            return this.concrete;
+        }
+
+        /**
+         * Checks whether the class is a local or anonymous class.
+         *
+         * @return {@code true} if the class is declared inside a method, {@code false} otherwise
+         */
+        @Contract(pure = true)
+        boolean isLocal() {
+            return this.local;
+        }
+
+        /**
+         * Returns the verdict for a check.
+         *
+         * @param check the check
+         *
+         * @return the verdict
+         */
+        @Contract(pure = true)
+        @Nonnull
+        Verdict getVerdict(final ExceptionVerifier.Check check) {
+            return this.verdicts[check.ordinal()];
+        }
+
+        /**
+         * Checks whether the analysis decided every check that is run with the given settings.
+         *
+         * @param strictness  the strictness
+         * @param lightweight whether the lightweight constructor is verified
+         *
+         * @return {@code true} if no applicable check has to be run reflectively, {@code false}
+         *         otherwise
+         */
+        @Contract(pure = true)
+        boolean isDecided(
+                final ExceptionVerifier.Strictness strictness,
+                final boolean lightweight
+        ) {
+            for (final var check : ExceptionVerifier.Check.values()) {
+                if (check.isApplicable(strictness, lightweight)
+                        && this.getVerdict(check) == Verdict.UNDECIDED) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
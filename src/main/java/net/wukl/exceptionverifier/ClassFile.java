@@ -0,0 +1,334 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A class file, parsed just far enough to inspect its methods and their bytecode.
+ */
+final class ClassFile {
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PROTECTED = 0x0004;
+
+    private final ByteBuffer buf;
+    private final int[] offsets;
+    private final ClassFileHeader header;
+    private final List<Method> methods;
+    private final List<String> attributes;
+
+    @Contract(pure = true)
+    private ClassFile(
+            final ByteBuffer buf,
+            final int[] offsets,
+            final ClassFileHeader header,
+            final List<Method> methods,
+            final List<String> attributes
+    ) {
+        this.buf = buf;
+        this.offsets = offsets;
+        this.header = header;
+        this.methods = methods;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Parses a class file.
+     *
+     * The position of the buffer is not changed. The returned class file refers to the buffer,
+     * which must not be modified afterwards.
+     *
+     * @param buffer the class file contents, from its position to its limit
+     *
+     * @return the class file
+     *
+     * @throws IOException if the buffer does not contain a well-formed class file
+     */
+    @Nonnull
+    static ClassFile parse(final ByteBuffer buffer) throws IOException {
+        final var buf = buffer.slice();
+        try {
+            if (buf.getInt() != ClassFileHeader.MAGIC) {
+                throw new IOException("Not a class file");
+            }
+
+            // Minor and major version
+            buf.getInt();
+
+            final var offsets = ClassFileHeader.readConstantPoolOffsets(buf);
+
+            final var accessFlags = buf.getShort() & 0xFFFF;
+            final var name = ClassFileHeader.readClassName(buf, offsets, buf.getShort() & 0xFFFF);
+            if (name == null) {
+                throw new IOException("Class file does not name its class");
+            }
+
+            final var superName =
+                    ClassFileHeader.readClassName(buf, offsets, buf.getShort() & 0xFFFF);
+            final var header = new ClassFileHeader(accessFlags, name, superName);
+
+            final var interfaceCount = buf.getShort() & 0xFFFF;
+            buf.position(buf.position() + 2 * interfaceCount);
+
+            final var fieldCount = buf.getShort() & 0xFFFF;
+            for (int i = 0; i < fieldCount; ++i) {
+                // Access flags, name and descriptor
+                buf.position(buf.position() + 6);
+                skipAttributes(buf);
+            }
+
+            final var methodCount = buf.getShort() & 0xFFFF;
+            final var methods = new ArrayList<Method>(methodCount);
+            for (int i = 0; i < methodCount; ++i) {
+                methods.add(readMethod(buf, offsets));
+            }
+
+            final var attributes = new ArrayList<String>();
+            final var attributeCount = buf.getShort() & 0xFFFF;
+            for (int i = 0; i < attributeCount; ++i) {
+                attributes.add(ClassFileHeader.readUtf8(buf, offsets, buf.getShort() & 0xFFFF));
+                final var length = buf.getInt();
+                buf.position(buf.position() + length);
+            }
+
+            return new ClassFile(
+                    buf, offsets, header,
+                    Collections.unmodifiableList(methods), Collections.unmodifiableList(attributes)
+            );
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException
+                | IllegalArgumentException ex) {
+            throw new IOException("Truncated or malformed class file", ex);
+        }
+    }
+
+    @Nonnull
+    private static Method readMethod(final ByteBuffer buf, final int[] offsets)
+            throws IOException {
+        final var accessFlags = buf.getShort() & 0xFFFF;
+        final var name = ClassFileHeader.readUtf8(buf, offsets, buf.getShort() & 0xFFFF);
+        final var descriptor = ClassFileHeader.readUtf8(buf, offsets, buf.getShort() & 0xFFFF);
+
+        ByteBuffer code = null;
+        final var attributeCount = buf.getShort() & 0xFFFF;
+        for (int i = 0; i < attributeCount; ++i) {
+            final var attributeName =
+                    ClassFileHeader.readUtf8(buf, offsets, buf.getShort() & 0xFFFF);
+            final var length = buf.getInt();
+            final var end = buf.position() + length;
+            if ("Code".equals(attributeName)) {
+                // Max stack and max locals
+                buf.position(buf.position() + 4);
+                final var codeLength = buf.getInt();
+                code = buf.slice();
+                code.limit(codeLength);
+            }
+
+            buf.position(end);
+        }
+
+        return new Method(accessFlags, name, descriptor, code);
+    }
+
+    private static void skipAttributes(final ByteBuffer buf) {
+        final var count = buf.getShort() & 0xFFFF;
+        for (int i = 0; i < count; ++i) {
+            buf.position(buf.position() + 2);
+            final var length = buf.getInt();
+            buf.position(buf.position() + length);
+        }
+    }
+
+    /**
+     * Returns the header of the class file.
+     *
+     * @return the header
+     */
+    @Contract(pure = true)
+    @Nonnull
+    ClassFileHeader getHeader() {
+        return this.header;
+    }
+
+    /**
+     * Looks up a method declared in the class.
+     *
+     * @param name       the name of the method
+     * @param descriptor the descriptor of the method
+     *
+     * @return the method, or {@code null} if the class does not declare it
+     */
+    @Nullable
+    Method findMethod(final String name, final String descriptor) {
+        for (final var method : this.methods) {
+            if (method.name.equals(name) && method.descriptor.equals(descriptor)) {
+                return method;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks whether the class has an attribute.
+     *
+     * @param name the name of the attribute
+     *
+     * @return {@code true} if the class has the attribute, {@code false} otherwise
+     */
+    @Contract(pure = true)
+    boolean hasAttribute(final String name) {
+        return this.attributes.contains(name);
+    }
+
+    /**
+     * Reads a method reference from the constant pool.
+     *
+     * @param index the index of the {@code CONSTANT_Methodref} entry
+     *
+     * @return the reference, or {@code null} if the entry is not a method reference
+     *
+     * @throws IOException if the constant pool is malformed
+     */
+    @Nullable
+    MethodRef readMethodRef(final int index) throws IOException {
+        if (index <= 0 || index >= this.offsets.length) {
+            return null;
+        }
+
+        final var offset = this.offsets[index];
+        if (this.buf.get(offset) != ClassFileHeader.CONSTANT_METHODREF) {
+            return null;
+        }
+
+        final var owner = ClassFileHeader.readClassName(
+                this.buf, this.offsets, this.buf.getShort(offset + 1) & 0xFFFF
+        );
+
+        final var nameAndType = this.offsets[this.buf.getShort(offset + 3) & 0xFFFF];
+        if (this.buf.get(nameAndType) != ClassFileHeader.CONSTANT_NAME_AND_TYPE) {
+            throw new IOException("Method reference " + index + " has no name and type");
+        }
+
+        final var name = ClassFileHeader.readUtf8(
+                this.buf, this.offsets, this.buf.getShort(nameAndType + 1) & 0xFFFF
+        );
+        final var descriptor = ClassFileHeader.readUtf8(
+                this.buf, this.offsets, this.buf.getShort(nameAndType + 3) & 0xFFFF
+        );
+
+        return new MethodRef(owner, name, descriptor);
+    }
+
+    /**
+     * A method declared in a class file.
+     */
+    static final class Method {
+        private final int accessFlags;
+        private final String name;
+        private final String descriptor;
+        private final @Nullable ByteBuffer code;
+
+        @Contract(pure = true)
+        private Method(
+                final int accessFlags,
+                final String name,
+                final String descriptor,
+                final @Nullable ByteBuffer code
+        ) {
+            this.accessFlags = accessFlags;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.code = code;
+        }
+
+        /**
+         * Checks whether the method is public.
+         *
+         * @return {@code true} if the method is public, {@code false} otherwise
+         */
+        @Contract(pure = true)
+        boolean isPublic() {
+            return (this.accessFlags & ACC_PUBLIC) != 0;
+        }
+
+        /**
+         * Checks whether the method is protected.
+         *
+         * @return {@code true} if the method is protected, {@code false} otherwise
+         */
+        @Contract(pure = true)
+        boolean isProtected() {
+            return (this.accessFlags & ACC_PROTECTED) != 0;
+        }
+
+        /**
+         * Returns the bytecode of the method.
+         *
+         * @return a read-only view of the bytecode, or {@code null} if the method has none
+         */
+        @Nullable
+        ByteBuffer getCode() {
+            return this.code == null ? null : this.code.asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * A reference to a method in the constant pool.
+     */
+    static final class MethodRef {
+        private final @Nullable String owner;
+        private final String name;
+        private final String descriptor;
+
+        @Contract(pure = true)
+        private MethodRef(
+                final @Nullable String owner,
+                final String name,
+                final String descriptor
+        ) {
+            this.owner = owner;
+            this.name = name;
+            this.descriptor = descriptor;
+        }
+
+        /**
+         * Returns the class declaring the method.
+         *
+         * @return the dotted binary name
+         */
+        @Contract(pure = true)
+        @Nullable
+        String getOwner() {
+            return this.owner;
+        }
+
+        /**
+         * Returns the name of the method.
+         *
+         * @return the name
+         */
+        @Contract(pure = true)
+        @Nonnull
+        String getName() {
+            return this.name;
+        }
+
+        /**
+         * Returns the descriptor of the method.
+         *
+         * @return the descriptor
+         */
+        @Contract(pure = true)
+        @Nonnull
+        String getDescriptor() {
+            return this.descriptor;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * The identity of a class as recorded in its class file: its access flags, its name and the name
+ * of its superclass.
+ *
+ * Parsing skips over the constant pool and only decodes the two class name entries, so it is
+ * much cheaper than loading the class.
+ */
+final class ClassFileHeader {
+    static final int ACC_INTERFACE = 0x0200;
+    static final int ACC_ABSTRACT = 0x0400;
+    static final int ACC_ANNOTATION = 0x2000;
+    static final int ACC_MODULE = 0x8000;
+
+    static final int MAGIC = 0xCAFEBABE;
+
+    static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private final int accessFlags;
+    private final String name;
+    private final @Nullable String superName;
+
+    @Contract(pure = true)
+    ClassFileHeader(
+            final int accessFlags,
+            final String name,
+            final @Nullable String superName
+    ) {
+        this.accessFlags = accessFlags;
+        this.name = name;
+        this.superName = superName;
+    }
+
+    /**
+     * Parses the header of a class file.
+     *
+     * The position of the buffer is not changed.
+     *
+     * @param buffer the class file contents, from its position to its limit
+     *
+     * @return the header
+     *
+     * @throws IOException if the buffer does not contain a well-formed class file
+     */
+    @Nonnull
+    static ClassFileHeader parse(final ByteBuffer buffer) throws IOException {
+        final var buf = buffer.slice();
+        try {
+            if (buf.getInt() != MAGIC) {
+                throw new IOException("Not a class file");
+            }
+
+            // Minor and major version
+            buf.getInt();
+
+            final var offsets = readConstantPoolOffsets(buf);
+
+            final var accessFlags = buf.getShort() & 0xFFFF;
+            final var thisClass = buf.getShort() & 0xFFFF;
+            final var superClass = buf.getShort() & 0xFFFF;
+
+            final var name = readClassName(buf, offsets, thisClass);
+            if (name == null) {
+                throw new IOException("Class file does not name its class");
+            }
+
+            return new ClassFileHeader(
+                    accessFlags, name, readClassName(buf, offsets, superClass)
+            );
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException
+                | IllegalArgumentException ex) {
+            throw new IOException("Truncated or malformed class file", ex);
+        }
+    }
+
+    /**
+     * Skips over the constant pool, recording where each entry starts.
+     *
+     * @param buf the buffer, positioned at the constant pool count
+     *
+     * @return the offsets of the tags of the entries, indexed by constant pool index
+     *
+     * @throws IOException if the constant pool contains an unknown tag
+     */
+    @Nonnull
+    static int[] readConstantPoolOffsets(final ByteBuffer buf) throws IOException {
+        final var count = buf.getShort() & 0xFFFF;
+        final var offsets = new int[count];
+        for (int i = 1; i < count; ++i) {
+            offsets[i] = buf.position();
+            final var tag = buf.get();
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    final var length = buf.getShort() & 0xFFFF;
+                    buf.position(buf.position() + length);
+                    break;
+                case CONSTANT_CLASS:
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    buf.position(buf.position() + 2);
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    buf.position(buf.position() + 3);
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_FIELDREF:
+                case CONSTANT_METHODREF:
+                case CONSTANT_INTERFACE_METHODREF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    buf.position(buf.position() + 4);
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    // Eight-byte constants take up two constant pool slots
+                    buf.position(buf.position() + 8);
+                    ++i;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag + " at index " + i);
+            }
+        }
+
+        return offsets;
+    }
+
+    /**
+     * Reads the binary name of a class referenced from the constant pool.
+     *
+     * @param buf     the class file
+     * @param offsets the constant pool offsets
+     * @param index   the index of the {@code CONSTANT_Class} entry, or zero
+     *
+     * @return the dotted binary name, or {@code null} if the index is zero
+     *
+     * @throws IOException if the entry is not a class entry
+     */
+    @Nullable
+    static String readClassName(final ByteBuffer buf, final int[] offsets, final int index)
+            throws IOException {
+        if (index == 0) {
+            return null;
+        }
+
+        if (buf.get(offsets[index]) != CONSTANT_CLASS) {
+            throw new IOException("Constant pool entry " + index + " is not a class");
+        }
+
+        final var nameIndex = buf.getShort(offsets[index] + 1) & 0xFFFF;
+        return readUtf8(buf, offsets, nameIndex).replace('/', '.');
+    }
+
+    /**
+     * Decodes a {@code CONSTANT_Utf8} entry.
+     *
+     * @param buf     the class file
+     * @param offsets the constant pool offsets
+     * @param index   the index of the entry
+     *
+     * @return the decoded string
+     *
+     * @throws IOException if the entry is not a UTF-8 entry or is malformed
+     */
+    @Nonnull
+    static String readUtf8(final ByteBuffer buf, final int[] offsets, final int index)
+            throws IOException {
+        final var offset = offsets[index];
+        if (buf.get(offset) != CONSTANT_UTF8) {
+            throw new IOException("Constant pool entry " + index + " is not a UTF-8 string");
+        }
+
+        final var length = buf.getShort(offset + 1) & 0xFFFF;
+        final var chars = new char[length];
+        int count = 0;
+        int pos = offset + 3;
+        final var end = pos + length;
+        while (pos < end) {
+            final var b = buf.get(pos) & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+                pos += 1;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (buf.get(pos + 1) & 0x3F));
+                pos += 2;
+            } else if ((b & 0xF0) == 0xE0) {
+                chars[count++] = (char) (((b & 0x0F) << 12)
+                        | ((buf.get(pos + 1) & 0x3F) << 6)
+                        | (buf.get(pos + 2) & 0x3F));
+                pos += 3;
+            } else {
+                throw new IOException("Malformed modified UTF-8 in constant pool entry " + index);
+            }
+        }
+
+        return new String(chars, 0, count);
+    }
+
+    /**
+     * Returns the access flags of the class.
+     *
+     * @return the access flags
+     */
+    @Contract(pure = true)
+    int getAccessFlags() {
+        return this.accessFlags;
+    }
+
+    /**
+     * Checks whether the class could be instantiated, going by its flags alone.
+     *
+     * @return {@code true} if the class is neither abstract nor an interface, annotation or
+     *         module descriptor, {@code false} otherwise
+     */
+    @Contract(pure = true)
+    boolean isConcrete() {
+        return (this.accessFlags
+                & (ACC_ABSTRACT | ACC_INTERFACE | ACC_ANNOTATION | ACC_MODULE)) == 0;
+    }
+
+    /**
+     * Returns the name of the class.
+     *
+     * @return the dotted binary name
+     */
+    @Contract(pure = true)
+    @Nonnull
+    String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the name of the superclass.
+     *
+     * @return the dotted binary name, or {@code null} for {@link Object} and module descriptors
+     */
+    @Contract(pure = true)
+    @Nullable
+    String getSuperName() {
+        return this.superName;
+    }
+}
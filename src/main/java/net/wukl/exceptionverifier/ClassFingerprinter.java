@@ -0,0 +1,152 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Computes digests of classes and their superclass chains from their class files, without
+ * loading them.
+ *
+ * A fingerprinter memoizes the classes it has seen, so it should be used for a single class
+ * loader and a single verification run.
+ */
+final class ClassFingerprinter {
+    private static final Logger logger = LoggerFactory.getLogger(ClassFingerprinter.class);
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final ClassLoader loader;
+    private final ConcurrentMap<String, Optional<Fingerprint>> fingerprints =
+            new ConcurrentHashMap<>();
+
+    @Contract(pure = true)
+    ClassFingerprinter(final ClassLoader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Fingerprints a class.
+     *
+     * @param name the binary name of the class
+     *
+     * @return the fingerprint, or {@code null} if the class file of the class or of one of its
+     *         superclasses could not be read
+     */
+    @Nullable
+    Fingerprint fingerprint(final String name) {
+        // Not computeIfAbsent: the computation recurses into the map for the superclass
+        final var known = this.fingerprints.get(name);
+        if (known != null) {
+            return known.orElse(null);
+        }
+
+        final var fingerprint = this.compute(name);
+        this.fingerprints.putIfAbsent(name, Optional.ofNullable(fingerprint));
+        return fingerprint;
+    }
+
+    @Nullable
+    private Fingerprint compute(final String name) {
+        final byte[] bytes;
+        final ClassFileHeader header;
+        try (InputStream in = this.loader.getResourceAsStream(name.replace('.', '/') + ".class")) {
+            if (in == null) {
+                return null;
+            }
+
+            bytes = in.readAllBytes();
+            header = ClassFileHeader.parse(ByteBuffer.wrap(bytes));
+        } catch (final IOException ex) {
+            logger.debug("Unable to read the class file of {}", name, ex);
+            return null;
+        }
+
+        final var superName = header.getSuperName();
+        final var parent = superName == null ? null : this.fingerprint(superName);
+        if (superName != null && parent == null) {
+            return null;
+        }
+
+        final var digest = newDigest();
+        digest.update(bytes);
+        if (parent != null) {
+            digest.update(parent.digest);
+        }
+
+        return new Fingerprint(
+                digest.digest(),
+                "java.lang.Throwable".equals(name) || parent != null && parent.isThrowable(),
+                header.isConcrete()
+        );
+    }
+
+    /**
+     * Creates a new digest of the kind fingerprints use.
+     *
+     * @return the digest
+     */
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", ex);
+        }
+    }
+
+    /**
+     * The digest of a class file and all class files of its superclasses.
+     */
+    static final class Fingerprint {
+        private final byte[] digest;
+        private final boolean throwable;
+        private final boolean concrete;
+
+        @Contract(pure = true)
+        private Fingerprint(final byte[] digest, final boolean throwable, final boolean concrete) {
+            this.digest = digest;
+            this.throwable = throwable;
+            this.concrete = concrete;
+        }
+
+        /**
+         * Returns the digest.
+         *
+         * @return the digest; must not be modified
+         */
+        @Contract(pure = true)
+        byte[] getDigest() {
+            return this.digest;
+        }
+
+        /**
+         * Checks whether the class is {@link Throwable} or one of its subclasses.
+         *
+         * @return {@code true} if the class is throwable, {@code false} otherwise
+         */
+        @Contract(pure = true)
+        boolean isThrowable() {
+            return this.throwable;
+        }
+
+        /**
+         * Checks whether the class is neither abstract nor an interface.
+         *
+         * @return {@code true} if the class is concrete, {@code false} otherwise
+         */
+        @Contract(pure = true)
+        boolean isConcrete() {
+            return this.concrete;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The classes in a set of class path roots, found by reading the headers of their class files.
+ *
+ * Jar files are memory-mapped and read through their central directory. Jars that are nested
+ * in a jar, as in fat jars, are indexed too, as are classes that are stored under a prefix such
+ * as {@code BOOT-INF/classes/}; the index can read those class files for a class loader, because
+ * a {@link java.net.URLClassLoader} over the roots cannot find them.
+ *
+ * Classes are indexed by the name in their class file. If several roots contain the same class,
+ * the first one wins, as on a class path.
+ */
+final class ClassIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ClassIndex.class);
+
+    private static final String JAR_SUFFIX = ".jar";
+
+    private final Map<String, Indexed> classes;
+
+    @Contract(pure = true)
+    private ClassIndex(final Map<String, Indexed> classes) {
+        this.classes = classes;
+    }
+
+    /**
+     * Indexes all classes in the given class directories or jar files.
+     *
+     * @param roots the class directories or jar files to scan
+     *
+     * @return the index
+     *
+     * @throws UncheckedIOException if a class directory or jar could not be read
+     */
+    @Nonnull
+    static ClassIndex scan(final Collection<Path> roots) {
+        final var classes = new HashMap<String, Indexed>();
+        for (final var root : roots) {
+            try {
+                if (Files.isDirectory(root)) {
+                    scanDirectory(root, classes);
+                } else {
+                    scanArchive(MappedArchive.map(root), false, classes);
+                }
+            } catch (final IOException ex) {
+                throw new UncheckedIOException("Unable to scan " + root, ex);
+            }
+        }
+
+        return new ClassIndex(classes);
+    }
+
+    private static void scanDirectory(final Path root, final Map<String, Indexed> classes)
+            throws IOException {
+        final Collection<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(file -> ClassScanner.isCandidate(root.relativize(file).toString()
+                            .replace(file.getFileSystem().getSeparator(), "/")))
+                    .collect(Collectors.toList());
+        }
+
+        for (final var file : files) {
+            final var contents = ByteBuffer.wrap(Files.readAllBytes(file));
+            final var header = parseHeader(file.toString(), contents);
+            if (header != null) {
+                classes.putIfAbsent(header.getName(), new Indexed(header, null, null));
+            }
+        }
+    }
+
+    /**
+     * Indexes the classes in an archive, and in the jars nested in it.
+     *
+     * @param archive the archive
+     * @param nested  whether the archive is itself an entry of another archive
+     * @param classes the index to add the classes to
+     */
+    private static void scanArchive(
+            final MappedArchive archive,
+            final boolean nested,
+            final Map<String, Indexed> classes
+    ) throws IOException {
+        for (final var entry : archive.getEntries()) {
+            final var path = entry.getName();
+            if (path.endsWith(JAR_SUFFIX)) {
+                final var name = archive.getName() + "!/" + path;
+                try {
+                    scanArchive(MappedArchive.of(name, archive.read(entry)), true, classes);
+                } catch (final IOException ex) {
+                    logger.warn("Skipping nested jar {}", name, ex);
+                }
+                continue;
+            }
+
+            if (!ClassScanner.isCandidate(path)) {
+                continue;
+            }
+
+            final var header = parseHeader(archive.getName() + "!/" + path, archive.read(entry));
+            if (header == null || classes.containsKey(header.getName())) {
+                continue;
+            }
+
+            // A class loader over the roots only finds class files at the path of their name
+            final var loadable = !nested
+                    && path.equals(header.getName().replace('.', '/') + ".class");
+            classes.put(header.getName(), loadable
+                    ? new Indexed(header, null, null)
+                    : new Indexed(header, archive, entry));
+        }
+    }
+
+    @Nullable
+    private static ClassFileHeader parseHeader(final String location, final ByteBuffer contents) {
+        try {
+            return ClassFileHeader.parse(contents);
+        } catch (final IOException ex) {
+            logger.warn("Skipping {}: malformed class file", location, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Lists the classes that may be concrete {@link Throwable} subclasses.
+     *
+     * The superclass chain of each class is followed through the index, and through the class
+     * files the given class loader can find for superclasses outside the roots. A class whose
+     * chain cannot be followed to the end is listed, so that loading it decides.
+     *
+     * @param loader the class loader the roots are loaded on top of
+     *
+     * @return the binary names of the candidates, in lexicographical order
+     */
+    @Nonnull
+    SortedSet<String> findCandidates(final ClassLoader loader) {
+        final var known = new HashMap<String, Ancestry>();
+        final var candidates = new TreeSet<String>();
+        for (final var indexed : this.classes.values()) {
+            final var name = indexed.header.getName();
+            if (indexed.header.isConcrete()
+                    && this.ancestryOf(name, loader, known) != Ancestry.OTHER) {
+                candidates.add(name);
+            }
+        }
+
+        return candidates;
+    }
+
+    @Nonnull
+    private Ancestry ancestryOf(
+            final String name,
+            final ClassLoader loader,
+            final Map<String, Ancestry> known
+    ) {
+        // Walk up without recursion, as hierarchies can be deep; then record the whole chain
+        final var chain = new ArrayList<String>();
+        var current = name;
+        Ancestry ancestry;
+        while (true) {
+            final var cached = known.get(current);
+            if (cached != null) {
+                ancestry = cached;
+                break;
+            }
+
+            if ("java.lang.Throwable".equals(current)) {
+                ancestry = Ancestry.THROWABLE;
+                break;
+            }
+
+            if (chain.contains(current)) {
+                // Only a malformed set of class files makes a class its own superclass
+                ancestry = Ancestry.UNKNOWN;
+                break;
+            }
+
+            chain.add(current);
+            final var header = this.headerOf(current, loader);
+            if (header == null) {
+                ancestry = Ancestry.UNKNOWN;
+                break;
+            }
+
+            if (header.getSuperName() == null) {
+                ancestry = Ancestry.OTHER;
+                break;
+            }
+
+            current = header.getSuperName();
+        }
+
+        for (final var link : chain) {
+            known.put(link, ancestry);
+        }
+
+        return ancestry;
+    }
+
+    @Nullable
+    private ClassFileHeader headerOf(final String name, final ClassLoader loader) {
+        final var indexed = this.classes.get(name);
+        if (indexed != null) {
+            return indexed.header;
+        }
+
+        try (InputStream in = loader.getResourceAsStream(name.replace('.', '/') + ".class")) {
+            return in == null ? null : ClassFileHeader.parse(ByteBuffer.wrap(in.readAllBytes()));
+        } catch (final IOException ex) {
+            logger.debug("Unable to read the class file of {}", name, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the class file of a class that a class loader over the roots cannot find.
+     *
+     * @param name the binary name of the class
+     *
+     * @return the class file, or {@code null} if the class is not in a nested jar or under a
+     *         prefix
+     *
+     * @throws IOException if the class file could not be read
+     */
+    @Nullable
+    ByteBuffer readHidden(final String name) throws IOException {
+        final var indexed = this.classes.get(name);
+        if (indexed == null || indexed.archive == null) {
+            return null;
+        }
+
+        return indexed.archive.read(indexed.entry);
+    }
+
+    /**
+     * Whether a class descends from {@link Throwable}, as far as its class files tell.
+     */
+    private enum Ancestry {
+        THROWABLE,
+        OTHER,
+        /**
+         * The class file of a class in the superclass chain could not be read.
+         */
+        UNKNOWN
+    }
+
+    /**
+     * An indexed class, with the archive entry of its class file if a class loader over the roots
+     * cannot find it.
+     */
+    private static final class Indexed {
+        private final ClassFileHeader header;
+        private final @Nullable MappedArchive archive;
+        private final @Nullable MappedArchive.Entry entry;
+
+        @Contract(pure = true)
+        private Indexed(
+                final ClassFileHeader header,
+                final @Nullable MappedArchive archive,
+                final @Nullable MappedArchive.Entry entry
+        ) {
+            this.header = header;
+            this.archive = archive;
+            this.entry = entry;
+        }
+    }
+}
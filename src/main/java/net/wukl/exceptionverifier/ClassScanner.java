@@ -0,0 +1,179 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.module.ModuleReader;
+import java.lang.module.ModuleReference;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Finds the names of classes in packages and modules.
+ *
+ * The scanner only looks at file names; it never loads or initializes the classes it finds.
+ */
+final class ClassScanner {
+    private static final String CLASS_SUFFIX = ".class";
+
+    private ClassScanner() {
+    }
+
+    /**
+     * Lists all classes in the given packages that are visible to the given class loader.
+     *
+     * Subpackages are included.
+     *
+     * @param loader   the class loader to search
+     * @param packages the names of the packages to search, or the empty string for all packages
+     *
+     * @return the binary names of the classes found, in lexicographical order
+     *
+     * @throws UncheckedIOException if a class directory or jar could not be read
+     */
+    @Nonnull
+    static SortedSet<String> scanPackages(
+            final ClassLoader loader,
+            final Collection<String> packages
+    ) {
+        final var names = new TreeSet<String>();
+        for (final var pkg : packages) {
+            final var prefix = pkg.isEmpty() ? "" : pkg.replace('.', '/') + '/';
+            try {
+                final var urls = loader.getResources(prefix);
+                while (urls.hasMoreElements()) {
+                    scanUrl(urls.nextElement(), prefix, names);
+                }
+            } catch (final IOException ex) {
+                throw new UncheckedIOException("Unable to scan package " + pkg, ex);
+            }
+        }
+
+        return names;
+    }
+
+    /**
+     * Lists all classes in the given modules, in exported and non-exported packages alike.
+     *
+     * The contents of each module are listed through its {@link ModuleReader}, which streams
+     * the entries of a packaged module without extracting it.
+     *
+     * @param modules the modules to scan
+     *
+     * @return the binary names of the classes found, in lexicographical order
+     *
+     * @throws UncheckedIOException if a module could not be read
+     */
+    @Nonnull
+    static SortedSet<String> scanModules(final Collection<ModuleReference> modules) {
+        final var names = new TreeSet<String>();
+        for (final var module : modules) {
+            try (ModuleReader reader = module.open(); Stream<String> entries = reader.list()) {
+                entries.filter(ClassScanner::isCandidate)
+                        .map(ClassScanner::toClassName)
+                        .forEach(names::add);
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(
+                        "Unable to scan module " + module.descriptor().name(), ex
+                );
+            }
+        }
+
+        return names;
+    }
+
+    private static void scanUrl(final URL url, final String prefix, final SortedSet<String> names)
+            throws IOException {
+        switch (url.getProtocol()) {
+            case "file":
+                final Path dir;
+                try {
+                    dir = Paths.get(url.toURI());
+                } catch (final URISyntaxException ex) {
+                    throw new IOException("Malformed class directory URL " + url, ex);
+                }
+
+                // Walk back up from the package directory to the class path root
+                var root = dir;
+                for (int i = prefix.indexOf('/'); i >= 0; i = prefix.indexOf('/', i + 1)) {
+                    root = root.getParent();
+                }
+
+                scanDirectory(root, dir, names);
+                break;
+            case "jar":
+                final var conn = (JarURLConnection) url.openConnection();
+                final var jarUrl = conn.getJarFileURL();
+                try {
+                    scanJar(Paths.get(jarUrl.toURI()), prefix, names);
+                } catch (final URISyntaxException ex) {
+                    throw new IOException("Malformed jar URL " + url, ex);
+                }
+                break;
+            default:
+                throw new IOException("Unsupported class path URL " + url);
+        }
+    }
+
+    private static void scanDirectory(
+            final Path root,
+            final Path dir,
+            final SortedSet<String> names
+    ) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.filter(Files::isRegularFile)
+                    .map(file -> root.relativize(file).toString().replace(
+                            file.getFileSystem().getSeparator(), "/"
+                    ))
+                    .filter(ClassScanner::isCandidate)
+                    .map(ClassScanner::toClassName)
+                    .forEach(names::add);
+        }
+    }
+
+    private static void scanJar(final Path jar, final String prefix, final SortedSet<String> names)
+            throws IOException {
+        try (JarFile file = new JarFile(jar.toFile())) {
+            file.stream()
+                    .filter(entry -> !entry.isDirectory())
+                    .map(JarEntry::getName)
+                    .filter(name -> name.startsWith(prefix))
+                    .filter(ClassScanner::isCandidate)
+                    .map(ClassScanner::toClassName)
+                    .forEach(names::add);
+        }
+    }
+
+    /**
+     * Checks whether a class file could contain an exception class.
+     *
+     * @param path the slash-separated path of the class file
+     *
+     * @return {@code true} if the file may be a candidate, {@code false} otherwise
+     */
+    @Contract(pure = true)
+    static boolean isCandidate(final String path) {
+        return path.endsWith(CLASS_SUFFIX)
+                && !path.startsWith("META-INF/")
+                && !path.endsWith("package-info.class")
+                && !path.endsWith("module-info.class");
+    }
+
+    @Contract(pure = true)
+    @Nonnull
+    static String toClassName(final String path) {
+        return path.substring(0, path.length() - CLASS_SUFFIX.length()).replace('/', '.');
+    }
+}
@@ -0,0 +1,270 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The construction costs of the constructors of a single exception class, compared to those of
+ * {@link RuntimeException}.
+ */
+public final class ConstructionProfile {
+    private final String exceptionType;
+    private final double maxRatio;
+    private final List<Entry> entries;
+
+    @Contract(pure = true)
+    ConstructionProfile(
+            final String exceptionType,
+            final double maxRatio,
+            final List<Entry> entries
+    ) {
+        this.exceptionType = exceptionType;
+        this.maxRatio = maxRatio;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Returns the name of the profiled exception class.
+     *
+     * @return the binary class name
+     */
+    @Contract(pure = true)
+    @Nonnull
+    public String getExceptionType() {
+        return this.exceptionType;
+    }
+
+    /**
+     * Returns how many times as slow as the baseline a constructor may be.
+     *
+     * @return the ratio
+     */
+    @Contract(pure = true)
+    public double getMaxRatio() {
+        return this.maxRatio;
+    }
+
+    /**
+     * Returns the profiled constructors.
+     *
+     * Constructors that are missing or throw are left out; verifying them is up to {@link
+     * ExceptionVerifier}.
+     *
+     * @return the entries, in check order
+     */
+    @Contract(pure = true)
+    @Nonnull
+    public List<Entry> getEntries() {
+        return this.entries;
+    }
+
+    /**
+     * Checks whether every profiled constructor is within budget.
+     *
+     * @return {@code true} if no constructor is too slow, {@code false} otherwise
+     */
+    @Contract(pure = true)
+    public boolean isWithinBudget() {
+        return this.entries.stream().noneMatch(Entry::isOverBudget);
+    }
+
+    /**
+     * Throws if any profiled constructor is too slow.
+     *
+     * @throws AssertionError if any constructor is over budget
+     */
+    public void assertWithinBudget() {
+        if (this.isWithinBudget()) {
+            return;
+        }
+
+        final var message = new StringBuilder();
+        message.append(this.exceptionType).append(" has constructors slower than ")
+                .append(this.maxRatio).append("x the baseline:");
+        for (final var entry : this.entries) {
+            if (entry.isOverBudget()) {
+                message.append("\n    ").append(entry);
+            }
+        }
+
+        throw new AssertionError(message.toString());
+    }
+
+    /**
+     * The construction cost of one constructor.
+     */
+    public static final class Entry {
+        private final ExceptionVerifier.Check check;
+        private final String paramForm;
+        private final Distribution cost;
+        private final Distribution baseline;
+        private final double maxRatio;
+
+        @Contract(pure = true)
+        Entry(
+                final ExceptionVerifier.Check check,
+                final String paramForm,
+                final Distribution cost,
+                final Distribution baseline,
+                final double maxRatio
+        ) {
+            this.check = check;
+            this.paramForm = paramForm;
+            this.cost = cost;
+            this.baseline = baseline;
+            this.maxRatio = maxRatio;
+        }
+
+        /**
+         * Returns the check whose constructor call was profiled.
+         *
+         * @return the check
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public ExceptionVerifier.Check getCheck() {
+            return this.check;
+        }
+
+        /**
+         * Returns the parameter form of the profiled constructor.
+         *
+         * @return the parameter form, such as {@code (String message)}
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public String getParamForm() {
+            return this.paramForm;
+        }
+
+        /**
+         * Returns the cost of the constructor.
+         *
+         * @return the distribution of the time per construction
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public Distribution getCost() {
+            return this.cost;
+        }
+
+        /**
+         * Returns the cost of the matching {@link RuntimeException} constructor, called with the
+         * same arguments.
+         *
+         * @return the distribution of the time per construction
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public Distribution getBaseline() {
+            return this.baseline;
+        }
+
+        /**
+         * Returns how many times as slow as the baseline the constructor is.
+         *
+         * The medians are compared, which a few outlying samples do not move.
+         *
+         * @return the ratio of the medians
+         */
+        @Contract(pure = true)
+        public double getRatio() {
+            return this.cost.getMedian() / Math.max(this.baseline.getMedian(), Double.MIN_VALUE);
+        }
+
+        /**
+         * Checks whether the constructor is too slow.
+         *
+         * @return {@code true} if the ratio exceeds the maximum, {@code false} otherwise
+         */
+        @Contract(pure = true)
+        public boolean isOverBudget() {
+            return this.getRatio() > this.maxRatio;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%s constructor: %.2fx the baseline (p50 %.0f ns, p90 %.0f ns, p99 %.0f ns; "
+                            + "baseline p50 %.0f ns)",
+                    this.paramForm, this.getRatio(), this.cost.getMedian(),
+                    this.cost.getPercentile(90), this.cost.getPercentile(99),
+                    this.baseline.getMedian()
+            );
+        }
+    }
+
+    /**
+     * The sampled times per construction of one constructor.
+     */
+    public static final class Distribution {
+        private final double[] samples;
+
+        /**
+         * Creates a distribution.
+         *
+         * @param samples the time per construction of each sample, in nanoseconds; sorted in
+         *                place
+         */
+        Distribution(final double[] samples) {
+            Arrays.sort(samples);
+            this.samples = samples;
+        }
+
+        /**
+         * Returns the number of samples.
+         *
+         * @return the sample count
+         */
+        @Contract(pure = true)
+        public int getSampleCount() {
+            return this.samples.length;
+        }
+
+        /**
+         * Returns a percentile of the time per construction.
+         *
+         * The nearest-rank method is used, so the result is always one of the samples.
+         *
+         * @param percentile the percentile, between 0 (the fastest sample) and 100 (the
+         *                   slowest)
+         *
+         * @return the time, in nanoseconds
+         *
+         * @throws IllegalArgumentException if the percentile is out of range
+         */
+        @Contract(pure = true)
+        public double getPercentile(final double percentile) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100");
+            }
+
+            final var rank = (int) Math.ceil(percentile / 100 * this.samples.length);
+            return this.samples[Math.max(rank - 1, 0)];
+        }
+
+        /**
+         * Returns the median time per construction.
+         *
+         * @return the time, in nanoseconds
+         */
+        @Contract(pure = true)
+        public double getMedian() {
+            return this.getPercentile(50);
+        }
+
+        /**
+         * Returns the slowest time per construction.
+         *
+         * @return the time, in nanoseconds
+         */
+        @Contract(pure = true)
+        public double getMax() {
+            return this.samples[this.samples.length - 1];
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how expensive the constructors of an exception class are.
+ *
+ * Every constructor the verifier calls is timed, and so is the matching constructor of {@link
+ * RuntimeException}, with the same arguments. Both are warmed up first, and samples of the two
+ * are taken alternately so that both see the same background noise. A constructor that is more
+ * than a given multiple of its baseline is over budget: an exception that formats messages or
+ * collects context on construction costs every caller that throws it.
+ *
+ * The figures come from the running JVM and are only as good as its quiet; use them to catch
+ * constructors that are slower by a wide margin, and JMH to measure small differences.
+ */
+public final class ConstructionProfiler {
+    private static final String MESSAGE = "ExceptionVerifier profiling message";
+    private static final RuntimeException CAUSE = new RuntimeException(MESSAGE);
+
+    private final Class<? extends Throwable> exception;
+    private final Class<? extends Throwable> causeType;
+
+    /**
+     * The checks whose constructor calls are profiled, with the arguments the profiler passes.
+     */
+    private final List<Call> calls;
+    private final int warmupIterations;
+    private final int samples;
+    private final int iterationsPerSample;
+    private final double maxRatio;
+
+    /**
+     * Receives every constructed instance, so that the JIT cannot leave constructions out.
+     */
+    private volatile Throwable sink;
+
+    private ConstructionProfiler(
+            final Class<? extends Throwable> exception,
+            final Class<? extends Throwable> causeType,
+            final int warmupIterations,
+            final int samples,
+            final int iterationsPerSample,
+            final double maxRatio
+    ) {
+        final var cause = newCause(causeType);
+
+        this.exception = exception;
+        this.causeType = causeType;
+        this.calls = List.of(
+                new Call(ExceptionVerifier.Check.DEFAULT, ConstructorPlan::newDefault),
+                new Call(
+                        ExceptionVerifier.Check.MESSAGE_ONLY, plan -> plan.newWithMessage(MESSAGE)
+                ),
+                new Call(ExceptionVerifier.Check.CAUSE_ONLY, plan -> plan.newWithCause(cause)),
+                new Call(ExceptionVerifier.Check.FULL, plan -> plan.newFull(MESSAGE, cause))
+        );
+        this.warmupIterations = warmupIterations;
+        this.samples = samples;
+        this.iterationsPerSample = iterationsPerSample;
+        this.maxRatio = maxRatio;
+    }
+
+    /**
+     * Creates a new profiler.
+     *
+     * @param type the class to profile
+     *
+     * @return the profiler builder
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @Nonnull
+    public static ConstructionProfilerBuilder forClass(final Class<? extends Throwable> type) {
+        return new ConstructionProfilerBuilder(type);
+    }
+
+    /**
+     * Creates the cause passed to the constructors that take one.
+     *
+     * The cause has to fit the constructor's parameter, or the call fails before the constructor
+     * runs and the constructor would go unprofiled.
+     *
+     * @param causeType the cause type
+     *
+     * @return a cause of the given type
+     *
+     * @throws IllegalArgumentException if no cause of the type can be created
+     */
+    @Nonnull
+    private static Throwable newCause(final Class<? extends Throwable> causeType) {
+        if (causeType.isInstance(CAUSE)) {
+            return CAUSE;
+        }
+
+        try {
+            return causeType.getConstructor(String.class).newInstance(MESSAGE);
+        } catch (final ReflectiveOperationException | RuntimeException ex) {
+            // Try the default constructor instead
+        }
+
+        try {
+            return causeType.getConstructor().newInstance();
+        } catch (final ReflectiveOperationException | RuntimeException ex) {
+            throw new IllegalArgumentException(
+                    "Cannot create a cause of type " + causeType.getName()
+                            + " to profile the constructors that take one with",
+                    ex
+            );
+        }
+    }
+
+    @Nonnull
+    private ConstructionProfile profile() {
+        final var plan = ConstructorPlan.of(this.exception, this.causeType);
+        final var baselinePlan = ConstructorPlan.of(RuntimeException.class, Throwable.class);
+
+        final var entries = new ArrayList<ConstructionProfile.Entry>(this.calls.size());
+        for (final var call : this.calls) {
+            try {
+                call.construction.construct(plan);
+            } catch (final ReflectiveOperationException | RuntimeException ex) {
+                continue;
+            }
+
+            entries.add(this.profile(call, plan, baselinePlan));
+        }
+
+        return new ConstructionProfile(this.exception.getName(), this.maxRatio, entries);
+    }
+
+    @Nonnull
+    private ConstructionProfile.Entry profile(
+            final Call call,
+            final ConstructorPlan plan,
+            final ConstructorPlan baselinePlan
+    ) {
+        this.run(call.construction, plan, this.warmupIterations);
+        this.run(call.construction, baselinePlan, this.warmupIterations);
+
+        final var cost = new double[this.samples];
+        final var baseline = new double[this.samples];
+        for (int i = 0; i < this.samples; ++i) {
+            // Alternate which one goes first, so neither always runs right after a collection
+            // the other triggered
+            if (i % 2 == 0) {
+                cost[i] = this.sample(call.construction, plan);
+                baseline[i] = this.sample(call.construction, baselinePlan);
+            } else {
+                baseline[i] = this.sample(call.construction, baselinePlan);
+                cost[i] = this.sample(call.construction, plan);
+            }
+        }
+
+        return new ConstructionProfile.Entry(
+                call.check, call.check.getParamForm(this.causeType),
+                new ConstructionProfile.Distribution(cost),
+                new ConstructionProfile.Distribution(baseline),
+                this.maxRatio
+        );
+    }
+
+    private double sample(final Construction construction, final ConstructorPlan plan) {
+        final var start = System.nanoTime();
+        this.run(construction, plan, this.iterationsPerSample);
+        return (double) (System.nanoTime() - start) / this.iterationsPerSample;
+    }
+
+    private void run(
+            final Construction construction,
+            final ConstructorPlan plan,
+            final int times
+    ) {
+        try {
+            for (int i = 0; i < times; ++i) {
+                this.sink = construction.construct(plan);
+            }
+        } catch (final ReflectiveOperationException ex) {
+            // The constructor worked before; one that fails only sometimes is not worth timing
+            throw new IllegalStateException(
+                    "Constructor of " + this.exception.getName() + " failed while profiling", ex
+            );
+        }
+    }
+
+    /**
+     * A constructor call on a plan.
+     */
+    @FunctionalInterface
+    private interface Construction {
+        @Nonnull
+        Throwable construct(ConstructorPlan plan) throws ReflectiveOperationException;
+    }
+
+    /**
+     * A profiled check and the constructor call it makes.
+     */
+    private static final class Call {
+        private final ExceptionVerifier.Check check;
+        private final Construction construction;
+
+        @Contract(pure = true)
+        private Call(final ExceptionVerifier.Check check, final Construction construction) {
+            this.check = check;
+            this.construction = construction;
+        }
+    }
+
+    public static final class ConstructionProfilerBuilder {
+        private final Class<? extends Throwable> exception;
+        private Class<? extends Throwable> causeType = Throwable.class;
+        private int warmupIterations = 10_000;
+        private int samples = 50;
+        private int iterationsPerSample = 200;
+        private double maxRatio = 3.0;
+
+        @Contract(pure = true)
+        private ConstructionProfilerBuilder(final Class<? extends Throwable> exception) {
+            this.exception = exception;
+        }
+
+        /**
+         * Sets the cause exception type.
+         *
+         * @param causeType the cause type
+         *
+         * @return the builder
+         *
+         * @see ExceptionVerifier.ExceptionVerifierBuilder#withCauseType(Class)
+         */
+        @Contract("_ -> this")
+        public ConstructionProfilerBuilder withCauseType(
+                final Class<? extends Throwable> causeType
+        ) {
+            this.causeType = causeType;
+            return this;
+        }
+
+        /**
+         * Sets how many times each constructor is called before it is timed. 10,000 by default.
+         *
+         * @param iterations the number of warm-up calls
+         *
+         * @return the builder
+         *
+         * @throws IllegalArgumentException if the number is negative
+         */
+        @Contract("_ -> this")
+        public ConstructionProfilerBuilder withWarmupIterations(final int iterations) {
+            if (iterations < 0) {
+                throw new IllegalArgumentException("Warm-up iterations must not be negative");
+            }
+
+            this.warmupIterations = iterations;
+            return this;
+        }
+
+        /**
+         * Sets how many samples are taken of each constructor. 50 by default.
+         *
+         * @param samples the number of samples
+         *
+         * @return the builder
+         *
+         * @throws IllegalArgumentException if the number is not positive
+         */
+        @Contract("_ -> this")
+        public ConstructionProfilerBuilder withSamples(final int samples) {
+            if (samples <= 0) {
+                throw new IllegalArgumentException("Sample count must be positive");
+            }
+
+            this.samples = samples;
+            return this;
+        }
+
+        /**
+         * Sets how many times a constructor is called per sample. 200 by default.
+         *
+         * A single construction takes about as long as reading the clock, so each sample times
+         * a run of calls and divides.
+         *
+         * @param iterations the number of calls per sample
+         *
+         * @return the builder
+         *
+         * @throws IllegalArgumentException if the number is not positive
+         */
+        @Contract("_ -> this")
+        public ConstructionProfilerBuilder withIterationsPerSample(final int iterations) {
+            if (iterations <= 0) {
+                throw new IllegalArgumentException("Iterations per sample must be positive");
+            }
+
+            this.iterationsPerSample = iterations;
+            return this;
+        }
+
+        /**
+         * Sets how many times as slow as the baseline a constructor may be. 3 by default.
+         *
+         * @param maxRatio the ratio of the median cost to the median baseline cost
+         *
+         * @return the builder
+         *
+         * @throws IllegalArgumentException if the ratio is not positive
+         */
+        @Contract("_ -> this")
+        public ConstructionProfilerBuilder withMaxRatio(final double maxRatio) {
+            if (!(maxRatio > 0)) {
+                throw new IllegalArgumentException("Maximum ratio must be positive");
+            }
+
+            this.maxRatio = maxRatio;
+            return this;
+        }
+
+        /**
+         * Profiles the constructors.
+         *
+         * The constructors that take a cause are passed an instance of the cause type, created
+         * through its public {@code (String)} or default constructor.
+         *
+         * @return the profile
+         *
+         * @throws IllegalArgumentException if no instance of the cause type can be created
+         */
+        @Nonnull
+        public ConstructionProfile profile() {
+            return new ConstructionProfiler(
+                    this.exception, this.causeType, this.warmupIterations, this.samples,
+                    this.iterationsPerSample, this.maxRatio
+            ).profile();
+        }
+    }
+}
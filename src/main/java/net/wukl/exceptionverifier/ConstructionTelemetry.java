@@ -0,0 +1,373 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often each exception class is constructed in a running application, and samples
+ * what capturing their stack traces costs.
+ *
+ * The counts come from exception classes whose constructors were instrumented by the
+ * {@linkplain VerificationAgent agent} with {@code telemetry=true}; each construction of such a
+ * class is counted once, whichever of its constructors is called. Counting takes one striped
+ * counter increment, without locks. Constructions made while the agent verifies a class are
+ * not counted.
+ *
+ * For one in every so many constructions of a class, a stack trace is captured at the same
+ * depth and timed, which is what the class could save by becoming stackless. Classes that
+ * override {@link Throwable#fillInStackTrace()} are not sampled. The rest of the constructor is
+ * not timed in production; see {@link ConstructionProfiler} for that.
+ *
+ * The most frequent and the most expensive classes are the ones that pay off most when made
+ * stackless through the lightweight constructor, or preallocated.
+ */
+public final class ConstructionTelemetry {
+    private static final int DEFAULT_SAMPLE_INTERVAL = 1024;
+
+    private static final ClassValue<Counter> COUNTERS = new ClassValue<>() {
+        @Override
+        protected Counter computeValue(final Class<?> type) {
+            final var counter = new Counter(type);
+            REGISTERED.add(counter);
+            return counter;
+        }
+    };
+
+    /**
+     * All counters, including those of classes that were unloaded since. Threads that race to
+     * create the counter of a class may each register one; only one of them is ever counted.
+     */
+    private static final Queue<Counter> REGISTERED = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Set on the threads that verify exception classes, whose constructions are not made by the
+     * application and are not counted.
+     */
+    private static final ThreadLocal<Boolean> VERIFYING = new ThreadLocal<>();
+
+    private static volatile int sampleInterval = DEFAULT_SAMPLE_INTERVAL;
+
+    private ConstructionTelemetry() {
+    }
+
+    /**
+     * Records that an exception was constructed.
+     *
+     * Instrumented constructors call this right after their superclass constructor returns.
+     * It is public only so that they can; it is not meant to be called directly.
+     *
+     * @param instance       the new exception
+     * @param declaringClass the class whose constructor calls this method
+     */
+    public static void constructed(final Throwable instance, final Class<?> declaringClass) {
+        if (instance.getClass() != declaringClass) {
+            // The constructor of a superclass; the class itself counts the construction
+            return;
+        }
+
+        if (VERIFYING.get() != null) {
+            return;
+        }
+
+        final var counter = COUNTERS.get(declaringClass);
+        counter.constructions.increment();
+        if (!counter.stackless
+                && ThreadLocalRandom.current().nextInt(sampleInterval) == 0) {
+            final var start = System.nanoTime();
+            new StackProbe();
+            counter.stackNanos.add(System.nanoTime() - start);
+            counter.samples.increment();
+        }
+    }
+
+    /**
+     * Wraps a task so that the exceptions it constructs are not counted.
+     *
+     * The verifier runs its checks this way, so that verifying a class does not count as
+     * traffic.
+     *
+     * @param task the task
+     *
+     * @return the wrapped task
+     */
+    @Contract(pure = true)
+    @Nonnull
+    static Runnable untracked(final Runnable task) {
+        return () -> {
+            VERIFYING.set(Boolean.TRUE);
+            try {
+                task.run();
+            } finally {
+                VERIFYING.remove();
+            }
+        };
+    }
+
+    /**
+     * Sets how often the cost of capturing a stack trace is sampled.
+     *
+     * @param interval the average number of constructions of a class per sample
+     *
+     * @throws IllegalArgumentException if the interval is not positive
+     */
+    static void setSampleInterval(final int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Sample interval must be positive");
+        }
+
+        sampleInterval = interval;
+    }
+
+    /**
+     * Returns the figures of every exception class that was constructed so far.
+     *
+     * @return the figures, most frequently constructed first
+     */
+    @Nonnull
+    public static List<Entry> snapshot() {
+        final var entries = new ArrayList<Entry>();
+        for (final var counter : REGISTERED) {
+            final var entry = counter.entry();
+            if (entry.getConstructions() > 0) {
+                entries.add(entry);
+            }
+        }
+
+        entries.sort(Comparator.comparingLong(Entry::getConstructions).reversed());
+        return entries;
+    }
+
+    /**
+     * Returns the exception classes that were constructed most often.
+     *
+     * @param limit the number of classes to return at most
+     *
+     * @return the figures of the classes, most frequently constructed first
+     */
+    @Nonnull
+    public static List<Entry> getMostFrequent(final int limit) {
+        return top(limit, Comparator.comparingLong(Entry::getConstructions));
+    }
+
+    /**
+     * Returns the exception classes whose stack traces cost the most time in total.
+     *
+     * @param limit the number of classes to return at most
+     *
+     * @return the figures of the classes, most expensive first
+     */
+    @Nonnull
+    public static List<Entry> getMostExpensive(final int limit) {
+        return top(limit, Comparator.comparingDouble(Entry::getEstimatedStackNanos));
+    }
+
+    @Nonnull
+    private static List<Entry> top(final int limit, final Comparator<Entry> order) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative");
+        }
+
+        // Keeps the best entries seen so far, with the least of them on top
+        final var best = new PriorityQueue<Entry>(order);
+        for (final var counter : REGISTERED) {
+            final var entry = counter.entry();
+            if (limit == 0 || entry.getConstructions() == 0) {
+                continue;
+            }
+
+            if (best.size() < limit) {
+                best.add(entry);
+            } else if (order.compare(entry, best.peek()) > 0) {
+                best.poll();
+                best.add(entry);
+            }
+        }
+
+        final var result = new ArrayList<>(best);
+        result.sort(order.reversed());
+        return result;
+    }
+
+    /**
+     * The striped counters of one exception class.
+     */
+    private static final class Counter {
+        private final String exceptionType;
+        private final boolean stackless;
+        private final boolean lightweight;
+        private final LongAdder constructions = new LongAdder();
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder stackNanos = new LongAdder();
+
+        private Counter(final Class<?> type) {
+            this.exceptionType = type.getName();
+            this.stackless = overridesFillInStackTrace(type);
+            this.lightweight = hasLightweightConstructor(type);
+        }
+
+        @Nonnull
+        private Entry entry() {
+            return new Entry(
+                    this.exceptionType, this.stackless, this.lightweight,
+                    this.constructions.sum(), this.samples.sum(), this.stackNanos.sum()
+            );
+        }
+
+        private static boolean overridesFillInStackTrace(final Class<?> type) {
+            for (Class<?> current = type; current != Throwable.class && current != null;
+                    current = current.getSuperclass()) {
+                try {
+                    current.getDeclaredMethod("fillInStackTrace");
+                    return true;
+                } catch (final NoSuchMethodException ex) {
+                    // Look further up
+                }
+            }
+
+            return false;
+        }
+
+        private static boolean hasLightweightConstructor(final Class<?> type) {
+            try {
+                type.getDeclaredConstructor(
+                        String.class, Throwable.class, boolean.class, boolean.class
+                );
+                return true;
+            } catch (final NoSuchMethodException ex) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Captures a stack trace the way an exception does, to time it.
+     */
+    private static final class StackProbe extends Throwable {
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * The construction figures of one exception class.
+     */
+    public static final class Entry {
+        private final String exceptionType;
+        private final boolean stackless;
+        private final boolean lightweight;
+        private final long constructions;
+        private final long samples;
+        private final long stackNanos;
+
+        @Contract(pure = true)
+        private Entry(
+                final String exceptionType,
+                final boolean stackless,
+                final boolean lightweight,
+                final long constructions,
+                final long samples,
+                final long stackNanos
+        ) {
+            this.exceptionType = exceptionType;
+            this.stackless = stackless;
+            this.lightweight = lightweight;
+            this.constructions = constructions;
+            this.samples = samples;
+            this.stackNanos = stackNanos;
+        }
+
+        /**
+         * Returns the name of the exception class.
+         *
+         * @return the binary class name
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public String getExceptionType() {
+            return this.exceptionType;
+        }
+
+        /**
+         * Checks whether the class overrides {@link Throwable#fillInStackTrace()}, which is
+         * usually done to make it stackless.
+         *
+         * @return {@code true} if the class overrides it, {@code false} otherwise
+         */
+        @Contract(pure = true)
+        public boolean isStackless() {
+            return this.stackless;
+        }
+
+        /**
+         * Checks whether the class declares the lightweight constructor, through which it can
+         * be constructed without a stack trace.
+         *
+         * @return {@code true} if the class declares it, {@code false} otherwise
+         *
+         * @see ExceptionVerifier.ExceptionVerifierBuilder#withLightweightConstructor(boolean)
+         */
+        @Contract(pure = true)
+        public boolean hasLightweightConstructor() {
+            return this.lightweight;
+        }
+
+        /**
+         * Returns the number of times the class was constructed.
+         *
+         * @return the number of constructions
+         */
+        @Contract(pure = true)
+        public long getConstructions() {
+            return this.constructions;
+        }
+
+        /**
+         * Returns the number of constructions at which a stack trace was timed.
+         *
+         * @return the number of samples
+         */
+        @Contract(pure = true)
+        public long getSamples() {
+            return this.samples;
+        }
+
+        /**
+         * Returns the average time it took to capture a stack trace where the class was
+         * constructed.
+         *
+         * @return the time in nanoseconds, or zero if no samples were taken
+         */
+        @Contract(pure = true)
+        public double getMeanStackNanos() {
+            return this.samples == 0 ? 0 : (double) this.stackNanos / this.samples;
+        }
+
+        /**
+         * Estimates the total time spent capturing stack traces of the class.
+         *
+         * @return the number of constructions times the average time, in nanoseconds
+         */
+        @Contract(pure = true)
+        public double getEstimatedStackNanos() {
+            return this.constructions * this.getMeanStackNanos();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%s: %d constructions, %.0f ns per stack trace (%d samples)%s",
+                    this.exceptionType, this.constructions, this.getMeanStackNanos(),
+                    this.samples,
+                    this.stackless ? ", stackless"
+                            : this.lightweight ? ", has a lightweight constructor" : ""
+            );
+        }
+    }
+}
@@ -0,0 +1,863 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Calls the Rule of Four constructors of an exception class with generated arguments, to find
+ * the inputs that the fixed arguments of {@link ExceptionVerifier} miss.
+ *
+ * Messages range from empty, huge and unicode strings to format specifiers and placeholders;
+ * causes are checked and unchecked exceptions and errors, wrapped in chains of varying depth,
+ * wrapped in an {@link InvocationTargetException}, or referring back to themselves. Every
+ * instance is held to the contract of the verifier at the same strictness: the message and
+ * cause are passed on, repeated calls agree, and {@link Throwable#getLocalizedMessage()} and
+ * {@link Throwable#toString()} do not throw. Null arguments are only passed in strict mode.
+ *
+ * The inputs are spread over a number of threads until an iteration or time budget runs out.
+ * Every execution derives its arguments from a seed of its own, which is derived from the seed
+ * of the run and the position of the execution, so a failure can be replayed from its seed
+ * alone. An execution that does not finish in time is abandoned and reported as a {@linkplain
+ * VerificationReport.Failure.Kind#TIMEOUT timeout}; its thread is left behind.
+ */
+public final class ConstructorFuzzer {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final long DEFAULT_DURATION = TimeUnit.SECONDS.toNanos(1);
+    private static final long DEFAULT_CASE_TIMEOUT = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final String THREAD_NAME = "exception-verifier-fuzzer";
+    private static final int DESCRIBED_CHARS = 40;
+    private static final int DESCRIBED_CAUSES = 4;
+
+    /**
+     * The pieces messages are made of: text that formatters, template engines, case mapping
+     * and string handling tend to trip over.
+     */
+    private static final String[] FRAGMENTS = {
+            "ExceptionVerifier fuzz message", "%s", "%d", "%n", "%%", "%", "%1$s", "{}", "{0}",
+            "${user.home}", "$1", "\\", "\n", "\r\n", "\t", " ", "\u0000", "null", "'", "\"",
+            "<a href=\"\">&amp;</a>", "\u00e9", "e\u0301", "\u0130", "\u00df", "\u03a3",
+            "\u202e", "\ud83d\ude00", "\ud800",
+    };
+
+    /**
+     * The checks whose constructors are fuzzed, in the order failures are reported.
+     */
+    private static final List<ExceptionVerifier.Check> CHECKS = List.of(
+            ExceptionVerifier.Check.DEFAULT, ExceptionVerifier.Check.MESSAGE_ONLY,
+            ExceptionVerifier.Check.CAUSE_ONLY, ExceptionVerifier.Check.FULL
+    );
+
+    private final String exceptionName;
+    private final Class<? extends Throwable> causeType;
+    private final ExceptionVerifier.Strictness strictness;
+    private final long seed;
+    private final long iterations;
+    private final long duration;
+    private final int threads;
+    private final long caseTimeout;
+    private final ConstructorPlan plan;
+
+    /**
+     * The checks of the constructors the class has.
+     */
+    private final ExceptionVerifier.Check[] checks;
+
+    /**
+     * The kinds of exception that fit the cause type, to be the outermost cause.
+     */
+    private final CauseKind[] causeKinds;
+
+    private final ConcurrentMap<ExceptionVerifier.Check, Found> found = new ConcurrentHashMap<>();
+    private final LongAdder failed = new LongAdder();
+
+    private ConstructorFuzzer(
+            final Class<? extends Throwable> exception,
+            final Class<? extends Throwable> causeType,
+            final ExceptionVerifier.Strictness strictness,
+            final long seed,
+            final long iterations,
+            final long duration,
+            final int threads,
+            final long caseTimeout
+    ) {
+        this.exceptionName = exception.getName();
+        this.causeType = causeType;
+        this.strictness = strictness;
+        this.seed = seed;
+        this.iterations = iterations;
+        this.duration = duration;
+        this.threads = threads;
+        this.caseTimeout = caseTimeout;
+        this.plan = ConstructorPlan.of(exception, causeType);
+        this.causeKinds = Arrays.stream(CauseKind.values())
+                .filter(kind -> causeType.isAssignableFrom(kind.type))
+                .toArray(CauseKind[]::new);
+        this.checks = CHECKS.stream()
+                .filter(check -> this.isFuzzable(exception, check))
+                .toArray(ExceptionVerifier.Check[]::new);
+    }
+
+    /**
+     * Creates a new fuzzer.
+     *
+     * @param type the class to fuzz
+     *
+     * @return the fuzzer builder
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @Nonnull
+    public static ConstructorFuzzerBuilder forClass(final Class<? extends Throwable> type) {
+        return new ConstructorFuzzerBuilder(type);
+    }
+
+    /**
+     * Derives the seed of an execution from the seed of the run.
+     *
+     * @param seed  the seed of the run
+     * @param index the position of the execution in the run
+     *
+     * @return the seed of the execution
+     */
+    @Contract(pure = true)
+    static long caseSeed(final long seed, final long index) {
+        // The finalizer of SplittableRandom, so that neighbouring executions share no bits
+        var z = seed + (index + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private boolean isFuzzable(
+            final Class<? extends Throwable> exception,
+            final ExceptionVerifier.Check check
+    ) {
+        if (Modifier.isAbstract(exception.getModifiers())) {
+            return false;
+        }
+
+        // Without a cause that fits, weak mode has no cause to pass at all
+        if (takesCause(check) && this.causeKinds.length == 0
+                && this.strictness != ExceptionVerifier.Strictness.STRICT) {
+            return false;
+        }
+
+        try {
+            switch (check) {
+                case DEFAULT:
+                    exception.getConstructor();
+                    break;
+                case MESSAGE_ONLY:
+                    exception.getConstructor(String.class);
+                    break;
+                case CAUSE_ONLY:
+                    exception.getConstructor(this.causeType);
+                    break;
+                default:
+                    exception.getConstructor(String.class, this.causeType);
+                    break;
+            }
+
+            return true;
+        } catch (final NoSuchMethodException ex) {
+            // Missing constructors are up to the verifier to report
+            return false;
+        }
+    }
+
+    @Contract(pure = true)
+    private static boolean takesMessage(final ExceptionVerifier.Check check) {
+        return check == ExceptionVerifier.Check.MESSAGE_ONLY
+                || check == ExceptionVerifier.Check.FULL;
+    }
+
+    @Contract(pure = true)
+    private static boolean takesCause(final ExceptionVerifier.Check check) {
+        return check == ExceptionVerifier.Check.CAUSE_ONLY
+                || check == ExceptionVerifier.Check.FULL;
+    }
+
+    @Nonnull
+    private FuzzReport fuzz() {
+        final var start = System.nanoTime();
+        final var workers = new Worker[this.checks.length == 0 ? 0 : this.threads];
+        for (int i = 0; i < workers.length; ++i) {
+            workers[i] = new Worker(i, start);
+            workers[i].thread.start();
+        }
+
+        try {
+            this.await(workers);
+        } catch (final InterruptedException ex) {
+            for (final var worker : workers) {
+                worker.abandoned = true;
+            }
+
+            Thread.currentThread().interrupt();
+        }
+
+        final var elapsed = System.nanoTime() - start;
+        long executions = 0;
+        for (final var worker : workers) {
+            executions += worker.completed;
+        }
+
+        final var failures = new ArrayList<FuzzReport.Failure>();
+        for (final var check : CHECKS) {
+            final var first = this.found.get(check);
+            if (first != null) {
+                failures.add(first.failure);
+            }
+        }
+
+        return new FuzzReport(
+                this.exceptionName, this.strictness, this.seed, executions,
+                this.failed.sum(), elapsed, failures
+        );
+    }
+
+    /**
+     * Waits for all workers to finish, abandoning those that are stuck on one execution.
+     */
+    private void await(final Worker[] workers) throws InterruptedException {
+        final var poll = Math.max(
+                TimeUnit.MILLISECONDS.toNanos(1), Math.min(this.caseTimeout / 4, MAX_POLL_NANOS)
+        );
+        for (final var worker : workers) {
+            while (worker.thread.isAlive() && !worker.abandoned) {
+                TimeUnit.NANOSECONDS.timedJoin(worker.thread, poll);
+
+                final var now = System.nanoTime();
+                for (final var other : workers) {
+                    other.watch(now);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a single execution.
+     *
+     * @param caseSeed the seed of the execution
+     *
+     * @return the failure, or {@code null} if the execution passed
+     */
+    @Nullable
+    private FuzzReport.Failure execute(final long caseSeed) {
+        final var input = this.generate(caseSeed);
+        final var paramForm = input.check.getParamForm(this.causeType);
+
+        final Throwable instance;
+        try {
+            instance = input.construct(this.plan);
+        } catch (final InvocationTargetException ex) {
+            return this.failure(
+                    input, caseSeed, paramForm + " constructor failed with an exception",
+                    ex.getCause()
+            );
+        } catch (final ReflectiveOperationException | RuntimeException ex) {
+            return this.failure(input, caseSeed, paramForm + " verification failed", ex);
+        }
+
+        try {
+            final var violation = this.violation(input, instance, paramForm);
+            return violation != null ? this.failure(input, caseSeed, violation, null) : null;
+        } catch (final RuntimeException | StackOverflowError ex) {
+            return this.failure(
+                    input, caseSeed,
+                    "Accessor failed on an instance of the " + paramForm + " constructor", ex
+            );
+        }
+    }
+
+    /**
+     * Checks an instance against the contract of the verifier.
+     *
+     * @return a description of the first violation, or {@code null} if there is none
+     */
+    @Nullable
+    private String violation(final Input input, final Throwable instance, final String paramForm) {
+        final var strict = this.strictness == ExceptionVerifier.Strictness.STRICT;
+        final var message = instance.getMessage();
+        if (takesMessage(input.check)) {
+            final var expected = input.message;
+            if (expected != null && message == null) {
+                return paramForm + " constructor set message to null";
+            }
+
+            if (expected != null && strict && !message.equals(expected)) {
+                return paramForm + " constructor ignored or changed message";
+            }
+
+            if (expected != null && !strict
+                    && !ExceptionVerifier.containsIgnoreCase(message, expected)) {
+                return paramForm + " constructor ignored or mangled message";
+            }
+
+            if (expected == null && strict && message != null
+                    && input.check == ExceptionVerifier.Check.MESSAGE_ONLY) {
+                return "Non-null message when passing a null message to the " + paramForm
+                        + " constructor";
+            }
+        }
+
+        final var cause = instance.getCause();
+        if (takesCause(input.check)) {
+            final var expected = input.cause;
+            final var unwrapped = !strict && expected instanceof InvocationTargetException
+                    && cause == expected.getCause();
+            if (cause != expected && !unwrapped) {
+                return paramForm + " constructor ignored or changed cause";
+            }
+        }
+
+        if (!Objects.equals(message, instance.getMessage())) {
+            return "Message changed after a second getMessage call when using the " + paramForm
+                    + " constructor";
+        }
+
+        if (cause != instance.getCause()) {
+            return "Cause changed after a second getCause call when using the " + paramForm
+                    + " constructor";
+        }
+
+        instance.getLocalizedMessage();
+        instance.toString();
+        return null;
+    }
+
+    @Nonnull
+    private FuzzReport.Failure failure(
+            final Input input,
+            final long caseSeed,
+            final String message,
+            final @Nullable Throwable cause
+    ) {
+        return new FuzzReport.Failure(
+                input.check, input.check.getParamForm(this.causeType), caseSeed,
+                input.describe(), message, cause, VerificationReport.Failure.Kind.VIOLATION
+        );
+    }
+
+    private void record(final long index, final FuzzReport.Failure failure) {
+        this.failed.increment();
+        this.found.merge(
+                failure.getCheck(), new Found(index, failure),
+                (first, second) -> first.index <= second.index ? first : second
+        );
+    }
+
+    /**
+     * Generates the arguments of an execution.
+     *
+     * @param caseSeed the seed of the execution
+     *
+     * @return the arguments, the same for the same seed and settings
+     */
+    @Nonnull
+    private Input generate(final long caseSeed) {
+        final var random = new SplittableRandom(caseSeed);
+        final var check = this.checks[random.nextInt(this.checks.length)];
+        final var message = takesMessage(check) ? this.message(random) : null;
+        final var cause = takesCause(check) ? this.cause(random) : null;
+        return new Input(check, message, cause);
+    }
+
+    @Nullable
+    private String message(final SplittableRandom random) {
+        switch (random.nextInt(16)) {
+            case 0:
+                return this.strictness == ExceptionVerifier.Strictness.STRICT ? null : "";
+            case 1:
+                return "";
+            case 2:
+                return random.nextInt(8) == 0 ? huge(random) : codePoints(random);
+            case 3:
+                return codePoints(random);
+            default:
+                final var message = new StringBuilder();
+                for (int i = random.nextInt(1, 5); i > 0; --i) {
+                    message.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                }
+
+                return message.toString();
+        }
+    }
+
+    @Nonnull
+    private static String huge(final SplittableRandom random) {
+        final var fragment = FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+        final var length = random.nextInt(1 << 16, 1 << 20);
+        return fragment.repeat(length / fragment.length() + 1);
+    }
+
+    @Nonnull
+    private static String codePoints(final SplittableRandom random) {
+        final var message = new StringBuilder();
+        for (int i = random.nextInt(1, 33); i > 0; --i) {
+            message.appendCodePoint(random.nextInt(Character.MAX_CODE_POINT + 1));
+        }
+
+        return message.toString();
+    }
+
+    @Nullable
+    private Throwable cause(final SplittableRandom random) {
+        final var shape = random.nextInt(8);
+        if (this.causeKinds.length == 0
+                || shape == 0 && this.strictness == ExceptionVerifier.Strictness.STRICT) {
+            return null;
+        }
+
+        final var outer = this.causeKinds[random.nextInt(this.causeKinds.length)];
+        if (shape == 1) {
+            // A cycle: the cause of the cause is the cause itself
+            final var inner = new IllegalStateException(causeMessage(random));
+            final var cause = outer.create(causeMessage(random), inner);
+            inner.initCause(cause);
+            return cause;
+        }
+
+        final var kinds = CauseKind.values();
+        final var depth = shape == 2 ? random.nextInt(2, 65) : random.nextInt(3);
+        Throwable inner = null;
+        for (int i = 0; i < depth; ++i) {
+            inner = kinds[random.nextInt(kinds.length)].create(causeMessage(random), inner);
+        }
+
+        return outer.create(causeMessage(random), inner);
+    }
+
+    @Nullable
+    private static String causeMessage(final SplittableRandom random) {
+        return random.nextInt(4) == 0 ? null : FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+    }
+
+    /**
+     * The arguments of one execution.
+     */
+    private static final class Input {
+        private final ExceptionVerifier.Check check;
+        private final @Nullable String message;
+        private final @Nullable Throwable cause;
+
+        @Contract(pure = true)
+        private Input(
+                final ExceptionVerifier.Check check,
+                final @Nullable String message,
+                final @Nullable Throwable cause
+        ) {
+            this.check = check;
+            this.message = message;
+            this.cause = cause;
+        }
+
+        @Nonnull
+        private Throwable construct(final ConstructorPlan plan)
+                throws ReflectiveOperationException {
+            switch (this.check) {
+                case DEFAULT:
+                    return plan.newDefault();
+                case MESSAGE_ONLY:
+                    return plan.newWithMessage(this.message);
+                case CAUSE_ONLY:
+                    return plan.newWithCause(this.cause);
+                default:
+                    return plan.newFull(this.message, this.cause);
+            }
+        }
+
+        @Nonnull
+        private String describe() {
+            if (!takesMessage(this.check)) {
+                return takesCause(this.check) ? "cause " + this.describeCause() : "no arguments";
+            }
+
+            final var message = "message " + this.describeMessage();
+            return takesCause(this.check) ? message + " and cause " + this.describeCause()
+                    : message;
+        }
+
+        @Nonnull
+        private String describeMessage() {
+            if (this.message == null) {
+                return "null";
+            }
+
+            final var described = new StringBuilder("\"");
+            final var end = Math.min(this.message.length(), DESCRIBED_CHARS);
+            for (int i = 0; i < end; ++i) {
+                final var c = this.message.charAt(i);
+                if (c < ' ' || c > '~' || c == '"' || c == '\\') {
+                    described.append(String.format("\\u%04x", (int) c));
+                } else {
+                    described.append(c);
+                }
+            }
+
+            described.append(end < this.message.length() ? "...\"" : "\"");
+            return described.append(" (").append(this.message.length()).append(" chars)")
+                    .toString();
+        }
+
+        @Nonnull
+        private String describeCause() {
+            final var seen = Collections.newSetFromMap(new IdentityHashMap<Throwable, Boolean>());
+            final var described = new StringBuilder();
+            int depth = 0;
+            for (var current = this.cause; current != null; current = current.getCause()) {
+                if (!seen.add(current)) {
+                    return described.append(" (cyclic)").toString();
+                }
+
+                if (depth < DESCRIBED_CAUSES) {
+                    described.append(depth == 0 ? "" : " <- ")
+                            .append(current.getClass().getSimpleName());
+                }
+
+                ++depth;
+            }
+
+            if (depth == 0) {
+                return "null";
+            }
+
+            return depth <= DESCRIBED_CAUSES ? described.toString()
+                    : described.append(" <- ... (").append(depth).append(" deep)").toString();
+        }
+    }
+
+    /**
+     * The kinds of exception causes are made of.
+     */
+    private enum CauseKind {
+        CHECKED(IOException.class, IOException::new),
+        UNCHECKED(IllegalStateException.class, IllegalStateException::new),
+        ERROR(AssertionError.class, AssertionError::new),
+        REFLECTIVE(
+                InvocationTargetException.class,
+                (message, cause) -> new InvocationTargetException(cause, message)
+        );
+
+        private final Class<? extends Throwable> type;
+        private final BiFunction<String, Throwable, Throwable> factory;
+
+        CauseKind(
+                final Class<? extends Throwable> type,
+                final BiFunction<String, Throwable, Throwable> factory
+        ) {
+            this.type = type;
+            this.factory = factory;
+        }
+
+        @Nonnull
+        private Throwable create(final @Nullable String message, final @Nullable Throwable cause) {
+            return this.factory.apply(message, cause);
+        }
+    }
+
+    /**
+     * The first failure of a check, by position in the run.
+     */
+    private static final class Found {
+        private final long index;
+        private final FuzzReport.Failure failure;
+
+        @Contract(pure = true)
+        private Found(final long index, final FuzzReport.Failure failure) {
+            this.index = index;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Runs every so many executions of the run, starting at its stripe.
+     *
+     * The completed count is the only state the worker shares while running: the coordinator
+     * derives the execution a stuck worker is on from it.
+     */
+    private final class Worker implements Runnable {
+        private final int stripe;
+        private final long start;
+        private final Thread thread;
+        private volatile long completed = 0;
+        private volatile boolean abandoned = false;
+
+        // Only used by the coordinating thread
+        private long seen = 0;
+        private long since;
+
+        private Worker(final int stripe, final long start) {
+            this.stripe = stripe;
+            this.start = start;
+            this.since = start;
+            this.thread = new Thread(this, THREAD_NAME + "-" + stripe);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            final var fuzzer = ConstructorFuzzer.this;
+            long done = 0;
+            for (long index = this.stripe; index < fuzzer.iterations && !this.abandoned;
+                    index += fuzzer.threads) {
+                if (System.nanoTime() - this.start >= fuzzer.duration) {
+                    break;
+                }
+
+                final var failure = fuzzer.execute(caseSeed(fuzzer.seed, index));
+                if (failure != null && !this.abandoned) {
+                    fuzzer.record(index, failure);
+                }
+
+                this.completed = ++done;
+            }
+        }
+
+        /**
+         * Abandons the worker if it has not completed an execution in time.
+         *
+         * @param now the current time
+         */
+        private void watch(final long now) {
+            if (this.abandoned || !this.thread.isAlive()) {
+                return;
+            }
+
+            final var done = this.completed;
+            if (done != this.seen) {
+                this.seen = done;
+                this.since = now;
+                return;
+            }
+
+            final var fuzzer = ConstructorFuzzer.this;
+            if (now - this.since <= fuzzer.caseTimeout) {
+                return;
+            }
+
+            this.abandoned = true;
+            final var stuck = new TimeoutException("Execution abandoned");
+            stuck.setStackTrace(this.thread.getStackTrace());
+            this.thread.interrupt();
+
+            final var index = this.stripe + done * fuzzer.threads;
+            final var caseSeed = caseSeed(fuzzer.seed, index);
+            final var input = fuzzer.generate(caseSeed);
+            final var paramForm = input.check.getParamForm(fuzzer.causeType);
+            fuzzer.record(index, new FuzzReport.Failure(
+                    input.check, paramForm, caseSeed, input.describe(),
+                    paramForm + " execution did not finish within "
+                            + TimeUnit.NANOSECONDS.toMillis(fuzzer.caseTimeout) + " ms",
+                    stuck, VerificationReport.Failure.Kind.TIMEOUT
+            ));
+        }
+    }
+
+    public static final class ConstructorFuzzerBuilder {
+        private final Class<? extends Throwable> exception;
+        private Class<? extends Throwable> causeType = Throwable.class;
+        private ExceptionVerifier.Strictness strictness = ExceptionVerifier.Strictness.STRICT;
+        private @Nullable Long seed = null;
+        private long iterations = Long.MAX_VALUE;
+        private long duration = Long.MAX_VALUE;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private long caseTimeout = DEFAULT_CASE_TIMEOUT;
+
+        @Contract(pure = true)
+        private ConstructorFuzzerBuilder(final Class<? extends Throwable> exception) {
+            this.exception = exception;
+        }
+
+        /**
+         * Sets the cause exception type.
+         *
+         * Generated causes are always instances of the cause type. Their inner causes are of
+         * any type.
+         *
+         * @param causeType the cause type
+         *
+         * @return the builder
+         *
+         * @see ExceptionVerifier.ExceptionVerifierBuilder#withCauseType(Class)
+         */
+        @Contract("_ -> this")
+        public ConstructorFuzzerBuilder withCauseType(final Class<? extends Throwable> causeType) {
+            this.causeType = causeType;
+            return this;
+        }
+
+        /**
+         * Sets the strictness the instances are held to.
+         *
+         * In weak mode, no null arguments are generated, since constructors may reject them.
+         *
+         * @param strictness the strictness
+         *
+         * @return the builder
+         *
+         * @see ExceptionVerifier.ExceptionVerifierBuilder#withStrictness(
+         *      ExceptionVerifier.Strictness)
+         */
+        @Contract("_ -> this")
+        public ConstructorFuzzerBuilder withStrictness(
+                final ExceptionVerifier.Strictness strictness
+        ) {
+            this.strictness = strictness;
+            return this;
+        }
+
+        /**
+         * Sets the seed the inputs of the run are derived from. Random by default.
+         *
+         * @param seed the seed of the run
+         *
+         * @return the builder
+         */
+        @Contract("_ -> this")
+        public ConstructorFuzzerBuilder withSeed(final long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Stops after the given number of executions.
+         *
+         * Without an iteration budget or a {@linkplain #withDuration(Duration) time budget},
+         * the run takes one second.
+         *
+         * @param iterations the number of executions
+         *
+         * @return the builder
+         *
+         * @throws IllegalArgumentException if the number is not positive
+         */
+        @Contract("_ -> this")
+        public ConstructorFuzzerBuilder withIterations(final long iterations) {
+            if (iterations <= 0) {
+                throw new IllegalArgumentException("Iterations must be positive");
+            }
+
+            this.iterations = iterations;
+            return this;
+        }
+
+        /**
+         * Stops starting new executions once the given time has passed.
+         *
+         * With an iteration budget as well, the run stops at whichever runs out first.
+         *
+         * @param duration the time the run may take
+         *
+         * @return the builder
+         */
+        @Contract("_ -> this")
+        public ConstructorFuzzerBuilder withDuration(final Duration duration) {
+            this.duration = toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Sets the number of threads the executions are spread over. One per processor by
+         * default.
+         *
+         * @param threads the number of threads
+         *
+         * @return the builder
+         *
+         * @throws IllegalArgumentException if the number is not positive
+         */
+        @Contract("_ -> this")
+        public ConstructorFuzzerBuilder withThreads(final int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("Thread count must be positive");
+            }
+
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Abandons an execution that does not finish within the given time. One second by
+         * default.
+         *
+         * @param timeout the time each execution may take
+         *
+         * @return the builder
+         */
+        @Contract("_ -> this")
+        public ConstructorFuzzerBuilder withCaseTimeout(final Duration timeout) {
+            this.caseTimeout = toNanos(timeout);
+            return this;
+        }
+
+        /**
+         * Fuzzes the constructors.
+         *
+         * @return the report
+         */
+        @Nonnull
+        public FuzzReport fuzz() {
+            final var duration = this.iterations == Long.MAX_VALUE
+                    && this.duration == Long.MAX_VALUE ? DEFAULT_DURATION : this.duration;
+            return new ConstructorFuzzer(
+                    this.exception, this.causeType, this.strictness,
+                    this.seed != null ? this.seed : ThreadLocalRandom.current().nextLong(),
+                    this.iterations, duration, this.threads, this.caseTimeout
+            ).fuzz();
+        }
+
+        /**
+         * Runs a single execution again on the calling thread.
+         *
+         * The cause type and strictness must be those of the run the seed came from. An
+         * execution that timed out is not abandoned this time.
+         *
+         * @param seed the seed of the execution, as reported by {@link
+         *             FuzzReport.Failure#getSeed()}
+         *
+         * @throws AssertionError if the execution fails
+         */
+        public void replay(final long seed) {
+            final var failure = new ConstructorFuzzer(
+                    this.exception, this.causeType, this.strictness, seed,
+                    1, Long.MAX_VALUE, 1, this.caseTimeout
+            ).execute(seed);
+            if (failure != null) {
+                throw new AssertionError(failure.toString(), failure.getCause());
+            }
+        }
+
+        private static long toNanos(final Duration duration) {
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("Duration must be positive");
+            }
+
+            try {
+                return duration.toNanos();
+            } catch (final ArithmeticException ex) {
+                return Long.MAX_VALUE;
+            }
+        }
+    }
+}
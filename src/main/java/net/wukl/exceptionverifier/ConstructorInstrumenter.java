@@ -0,0 +1,707 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rewrites the class file of an exception class so that its constructors report every
+ * construction to {@link ConstructionTelemetry}.
+ *
+ * Every constructor that calls a superclass constructor gets a call to
+ * {@link ConstructionTelemetry#constructed(Throwable, Class)} right after that call, passing the
+ * new instance and the class that declares the constructor. Constructors that delegate to another
+ * constructor of their own class are left alone, so a construction passes exactly one hook of its
+ * own class, whatever the chain of constructors; the hooks of superclasses see an instance of a
+ * subclass and ignore it.
+ *
+ * The rewriter is conservative: it gives up on the whole class rather than risk producing an
+ * invalid class file. It only understands the code attributes that {@code javac} emits, and
+ * constructors whose branches still fit in their offsets after the hook is inserted.
+ */
+final class ConstructorInstrumenter {
+    private static final String HOOK_OWNER = "net/wukl/exceptionverifier/ConstructionTelemetry";
+    private static final String HOOK_NAME = "constructed";
+    private static final String HOOK_DESCRIPTOR = "(Ljava/lang/Throwable;Ljava/lang/Class;)V";
+
+    /**
+     * The attributes of a {@code Code} attribute that the rewriter knows how to shift.
+     */
+    private static final Set<String> CODE_ATTRIBUTES = Set.of(
+            "StackMapTable", "LineNumberTable", "LocalVariableTable", "LocalVariableTypeTable"
+    );
+
+    /**
+     * The first class file version that can load class constants with {@code ldc}.
+     */
+    private static final int MIN_MAJOR_VERSION = 49;
+
+    /**
+     * The length of the inserted code: {@code aload_0}, {@code ldc_w}, {@code invokestatic} and
+     * a {@code nop}, which keeps the alignment of switch instructions after it.
+     */
+    private static final int HOOK_LENGTH = 8;
+
+    private static final int NEW = 0xBB;
+    private static final int INVOKESPECIAL = 0xB7;
+    private static final int TABLESWITCH = 0xAA;
+    private static final int LOOKUPSWITCH = 0xAB;
+    private static final int WIDE = 0xC4;
+    private static final int IINC = 0x84;
+    private static final int GOTO_W = 0xC8;
+    private static final int JSR_W = 0xC9;
+
+    /**
+     * The lengths of the instructions with a fixed length, by opcode; zero for the switches,
+     * {@code wide} and opcodes that do not exist.
+     */
+    private static final int[] LENGTHS = lengths();
+
+    private final ByteBuffer buf;
+    private final ClassFile classFile;
+    private final int[] offsets;
+    private final int constantPoolEnd;
+    private final int thisClass;
+    private final String superName;
+
+    @Contract(pure = true)
+    private ConstructorInstrumenter(
+            final ByteBuffer buf,
+            final ClassFile classFile,
+            final int[] offsets,
+            final int constantPoolEnd,
+            final String superName
+    ) {
+        this.buf = buf;
+        this.classFile = classFile;
+        this.offsets = offsets;
+        this.constantPoolEnd = constantPoolEnd;
+        // Access flags precede the index of the class itself
+        this.thisClass = buf.getShort(constantPoolEnd + 2) & 0xFFFF;
+        this.superName = superName;
+    }
+
+    /**
+     * Instruments the constructors of a class.
+     *
+     * @param contents the class file
+     *
+     * @return the instrumented class file, or {@code null} if the class cannot be instrumented
+     *
+     * @throws IOException if the class file is malformed
+     */
+    @Nullable
+    static byte[] instrument(final byte[] contents) throws IOException {
+        final var buf = ByteBuffer.wrap(contents);
+        try {
+            final var classFile = ClassFile.parse(buf);
+            final var superName = classFile.getHeader().getSuperName();
+            final var major = buf.getShort(6) & 0xFFFF;
+            if (superName == null || major < MIN_MAJOR_VERSION) {
+                return null;
+            }
+
+            buf.position(8);
+            final var offsets = ClassFileHeader.readConstantPoolOffsets(buf);
+            if (offsets.length + 6 > 0xFFFF) {
+                return null;
+            }
+
+            return new ConstructorInstrumenter(
+                    buf, classFile, offsets, buf.position(), superName
+            ).rewrite();
+        } catch (final Unsupported ex) {
+            return null;
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException
+                | IllegalArgumentException ex) {
+            throw new IOException("Truncated or malformed class file", ex);
+        }
+    }
+
+    @Nullable
+    private byte[] rewrite() throws IOException, Unsupported {
+        final var bytes = new ByteArrayOutputStream(this.buf.capacity() + 128);
+        final var out = new DataOutputStream(bytes);
+
+        // The constant pool gains a reference to the hook
+        final var hookRef = this.offsets.length + 5;
+        out.write(this.buf.array(), 0, 8);
+        out.writeShort(this.offsets.length + 6);
+        out.write(this.buf.array(), 10, this.constantPoolEnd - 10);
+        this.writeHookConstants(out);
+
+        // Access flags, this class, super class, interfaces and fields are copied as they are
+        final var pos = this.constantPoolEnd + 6;
+        final var interfaceCount = this.buf.getShort(pos) & 0xFFFF;
+        var cursor = pos + 2 + 2 * interfaceCount;
+        final var fieldCount = this.buf.getShort(cursor) & 0xFFFF;
+        cursor += 2;
+        for (int i = 0; i < fieldCount; ++i) {
+            cursor = skipAttributes(this.buf, cursor + 6);
+        }
+
+        out.write(this.buf.array(), this.constantPoolEnd, cursor - this.constantPoolEnd);
+
+        var instrumented = false;
+        final var methodCount = this.buf.getShort(cursor) & 0xFFFF;
+        out.writeShort(methodCount);
+        cursor += 2;
+        for (int i = 0; i < methodCount; ++i) {
+            final var name = this.utf8(this.buf.getShort(cursor + 2) & 0xFFFF);
+            out.write(this.buf.array(), cursor, 6);
+            final var attributeCount = this.buf.getShort(cursor + 6) & 0xFFFF;
+            out.writeShort(attributeCount);
+            cursor += 8;
+            for (int j = 0; j < attributeCount; ++j) {
+                final var attributeName = this.utf8(this.buf.getShort(cursor) & 0xFFFF);
+                final var end = cursor + 6 + this.buf.getInt(cursor + 2);
+                byte[] code = null;
+                if ("<init>".equals(name) && "Code".equals(attributeName)) {
+                    code = this.rewriteCode(cursor + 6, end, hookRef);
+                }
+
+                if (code == null) {
+                    out.write(this.buf.array(), cursor, end - cursor);
+                } else {
+                    instrumented = true;
+                    out.write(this.buf.array(), cursor, 2);
+                    out.writeInt(code.length);
+                    out.write(code);
+                }
+
+                cursor = end;
+            }
+        }
+
+        out.write(this.buf.array(), cursor, this.buf.capacity() - cursor);
+        return instrumented ? bytes.toByteArray() : null;
+    }
+
+    private void writeHookConstants(final DataOutputStream out) throws IOException {
+        final var first = this.offsets.length;
+        writeUtf8(out, HOOK_OWNER);
+        out.writeByte(ClassFileHeader.CONSTANT_CLASS);
+        out.writeShort(first);
+        writeUtf8(out, HOOK_NAME);
+        writeUtf8(out, HOOK_DESCRIPTOR);
+        out.writeByte(ClassFileHeader.CONSTANT_NAME_AND_TYPE);
+        out.writeShort(first + 2);
+        out.writeShort(first + 3);
+        out.writeByte(ClassFileHeader.CONSTANT_METHODREF);
+        out.writeShort(first + 1);
+        out.writeShort(first + 4);
+    }
+
+    private static void writeUtf8(final DataOutputStream out, final String value)
+            throws IOException {
+        // The names are ASCII, for which modified UTF-8 is plain UTF-8
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(ClassFileHeader.CONSTANT_UTF8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Rewrites the {@code Code} attribute of a constructor.
+     *
+     * @param start   the offset of the attribute contents, after its name and length
+     * @param end     the offset just past the attribute
+     * @param hookRef the constant pool index of the hook
+     *
+     * @return the new attribute contents, or {@code null} if the constructor delegates to
+     *         another constructor of its class
+     *
+     * @throws Unsupported if the constructor cannot be instrumented
+     */
+    @Nullable
+    private byte[] rewriteCode(final int start, final int end, final int hookRef)
+            throws IOException, Unsupported {
+        final var maxStack = this.buf.getShort(start) & 0xFFFF;
+        final var maxLocals = this.buf.getShort(start + 2) & 0xFFFF;
+        final var codeLength = this.buf.getInt(start + 4);
+        final var codeStart = start + 8;
+        if (codeLength + HOOK_LENGTH > 0xFFFF) {
+            throw new Unsupported();
+        }
+
+        final var instructions = this.instructions(codeStart, codeLength);
+        final var initializer = this.initializer(codeStart, codeLength);
+        if (!initializer.callsSuper) {
+            return null;
+        }
+
+        final var insertAt = initializer.end;
+        final var code = new byte[codeLength + HOOK_LENGTH];
+        System.arraycopy(this.buf.array(), codeStart, code, 0, insertAt);
+        code[insertAt] = 0x2A; // aload_0
+        code[insertAt + 1] = 0x13; // ldc_w
+        code[insertAt + 2] = (byte) (this.thisClass >>> 8);
+        code[insertAt + 3] = (byte) this.thisClass;
+        code[insertAt + 4] = (byte) 0xB8; // invokestatic
+        code[insertAt + 5] = (byte) (hookRef >>> 8);
+        code[insertAt + 6] = (byte) hookRef;
+        code[insertAt + 7] = 0x00; // nop
+        System.arraycopy(
+                this.buf.array(), codeStart + insertAt,
+                code, insertAt + HOOK_LENGTH, codeLength - insertAt
+        );
+
+        final var shift = new Shift(insertAt);
+        for (final var pc : instructions) {
+            this.retarget(code, codeStart, pc, shift);
+        }
+
+        final var bytes = new ByteArrayOutputStream(end - start + HOOK_LENGTH + 16);
+        final var out = new DataOutputStream(bytes);
+        out.writeShort(Math.min(maxStack + 2, 0xFFFF));
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+
+        var cursor = codeStart + codeLength;
+        final var handlerCount = this.buf.getShort(cursor) & 0xFFFF;
+        out.writeShort(handlerCount);
+        cursor += 2;
+        for (int i = 0; i < handlerCount; ++i) {
+            out.writeShort(shift.map(this.buf.getShort(cursor) & 0xFFFF));
+            out.writeShort(shift.map(this.buf.getShort(cursor + 2) & 0xFFFF));
+            out.writeShort(shift.map(this.buf.getShort(cursor + 4) & 0xFFFF));
+            out.writeShort(this.buf.getShort(cursor + 6));
+            cursor += 8;
+        }
+
+        final var attributeCount = this.buf.getShort(cursor) & 0xFFFF;
+        out.writeShort(attributeCount);
+        cursor += 2;
+        for (int i = 0; i < attributeCount; ++i) {
+            final var name = this.utf8(this.buf.getShort(cursor) & 0xFFFF);
+            if (!CODE_ATTRIBUTES.contains(name)) {
+                throw new Unsupported();
+            }
+
+            final var length = this.buf.getInt(cursor + 2);
+            final var contents = ByteBuffer.wrap(
+                    this.buf.array(), cursor + 6, length
+            ).slice();
+            final byte[] rewritten;
+            switch (name) {
+                case "StackMapTable":
+                    rewritten = rewriteStackMapTable(contents, shift);
+                    break;
+                case "LineNumberTable":
+                    rewritten = rewriteLineNumberTable(contents, shift);
+                    break;
+                default:
+                    rewritten = rewriteLocalVariableTable(contents, shift);
+                    break;
+            }
+
+            out.write(this.buf.array(), cursor, 2);
+            out.writeInt(rewritten.length);
+            out.write(rewritten);
+            cursor += 6 + length;
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Lists the offsets of the instructions of a method.
+     *
+     * @throws Unsupported if the code contains an unknown opcode
+     */
+    @Nonnull
+    private List<Integer> instructions(final int codeStart, final int codeLength)
+            throws Unsupported {
+        final var instructions = new ArrayList<Integer>();
+        var pc = 0;
+        while (pc < codeLength) {
+            instructions.add(pc);
+            pc += this.lengthAt(codeStart, pc);
+        }
+
+        if (pc != codeLength) {
+            throw new Unsupported();
+        }
+
+        return instructions;
+    }
+
+    private int lengthAt(final int codeStart, final int pc) throws Unsupported {
+        final var opcode = this.buf.get(codeStart + pc) & 0xFF;
+        switch (opcode) {
+            case TABLESWITCH: {
+                final var operands = codeStart + pc + 1 + padding(pc);
+                final var low = this.buf.getInt(operands + 4);
+                final var high = this.buf.getInt(operands + 8);
+                return 1 + padding(pc) + 12 + 4 * (high - low + 1);
+            }
+            case LOOKUPSWITCH: {
+                final var operands = codeStart + pc + 1 + padding(pc);
+                final var pairs = this.buf.getInt(operands + 4);
+                return 1 + padding(pc) + 8 + 8 * pairs;
+            }
+            case WIDE:
+                return (this.buf.get(codeStart + pc + 1) & 0xFF) == IINC ? 6 : 4;
+            default:
+                if (LENGTHS[opcode] == 0) {
+                    throw new Unsupported();
+                }
+
+                return LENGTHS[opcode];
+        }
+    }
+
+    /**
+     * Finds the call to the superclass or delegate constructor that initializes the instance.
+     *
+     * That is the first call to a constructor of the class or its superclass that is not paired
+     * with a {@code new} of the same class, as {@code javac} pairs them.
+     *
+     * @throws Unsupported if there is no such call
+     */
+    @Nonnull
+    private Initializer initializer(final int codeStart, final int codeLength)
+            throws IOException, Unsupported {
+        final var pending = new HashMap<String, Integer>();
+        final var thisName = this.classFile.getHeader().getName();
+        var pc = 0;
+        while (pc < codeLength) {
+            final var opcode = this.buf.get(codeStart + pc) & 0xFF;
+            final var length = this.lengthAt(codeStart, pc);
+
+            if (opcode == NEW) {
+                final var name = ClassFileHeader.readClassName(
+                        this.buf, this.offsets, this.buf.getShort(codeStart + pc + 1) & 0xFFFF
+                );
+                pending.merge(String.valueOf(name), 1, Integer::sum);
+            } else if (opcode == INVOKESPECIAL) {
+                final var ref = this.classFile.readMethodRef(
+                        this.buf.getShort(codeStart + pc + 1) & 0xFFFF
+                );
+                if (ref != null && "<init>".equals(ref.getName())
+                        && pending.merge(String.valueOf(ref.getOwner()), -1, Integer::sum) < 0) {
+                    // Not paired with a new, so the call initializes this instance
+                    if (this.superName.equals(ref.getOwner())) {
+                        return new Initializer(pc + length, true);
+                    } else if (thisName.equals(ref.getOwner())) {
+                        return new Initializer(pc + length, false);
+                    }
+                }
+            }
+
+            pc += length;
+        }
+
+        throw new Unsupported();
+    }
+
+    /**
+     * Rewrites the offsets of a branch or switch instruction in the new code.
+     *
+     * @throws Unsupported if a new offset does not fit in its instruction
+     */
+    private void retarget(
+            final byte[] code,
+            final int codeStart,
+            final int pc,
+            final Shift shift
+    ) throws Unsupported {
+        final var opcode = this.buf.get(codeStart + pc) & 0xFF;
+        final var newPc = shift.map(pc);
+        final var target = ByteBuffer.wrap(code);
+        if (opcode >= 0x99 && opcode <= 0xA8 || opcode == 0xC6 || opcode == 0xC7) {
+            final var offset = this.buf.getShort(codeStart + pc + 1);
+            final var newOffset = shift.map(pc + offset) - newPc;
+            if (newOffset != (short) newOffset) {
+                throw new Unsupported();
+            }
+
+            target.putShort(newPc + 1, (short) newOffset);
+        } else if (opcode == GOTO_W || opcode == JSR_W) {
+            final var offset = this.buf.getInt(codeStart + pc + 1);
+            target.putInt(newPc + 1, shift.map(pc + offset) - newPc);
+        } else if (opcode == TABLESWITCH || opcode == LOOKUPSWITCH) {
+            final var operands = pc + 1 + padding(pc);
+            final int count;
+            final int stride;
+            final int first;
+            if (opcode == TABLESWITCH) {
+                count = this.buf.getInt(codeStart + operands + 8)
+                        - this.buf.getInt(codeStart + operands + 4) + 1;
+                stride = 4;
+                first = operands + 12;
+            } else {
+                count = this.buf.getInt(codeStart + operands + 4);
+                stride = 8;
+                first = operands + 12;
+            }
+
+            this.retargetSwitch(code, codeStart, pc, newPc, operands, shift);
+            for (int i = 0; i < count; ++i) {
+                this.retargetSwitch(code, codeStart, pc, newPc, first + i * stride, shift);
+            }
+        }
+    }
+
+    private void retargetSwitch(
+            final byte[] code,
+            final int codeStart,
+            final int pc,
+            final int newPc,
+            final int operand,
+            final Shift shift
+    ) {
+        final var offset = this.buf.getInt(codeStart + operand);
+        ByteBuffer.wrap(code).putInt(
+                operand + newPc - pc, shift.map(pc + offset) - newPc
+        );
+    }
+
+    @Nonnull
+    private static byte[] rewriteStackMapTable(final ByteBuffer in, final Shift shift)
+            throws IOException {
+        final var bytes = new ByteArrayOutputStream(in.remaining() + 16);
+        final var out = new DataOutputStream(bytes);
+        final var count = in.getShort() & 0xFFFF;
+        out.writeShort(count);
+
+        var previous = -1;
+        var newPrevious = -1;
+        for (int i = 0; i < count; ++i) {
+            final var type = in.get() & 0xFF;
+            final int delta;
+            if (type < 64) {
+                delta = type;
+            } else if (type < 128) {
+                delta = type - 64;
+            } else if (type >= 247) {
+                delta = in.getShort() & 0xFFFF;
+            } else {
+                throw new IOException("Unknown stack map frame type " + type);
+            }
+
+            final var offset = previous + delta + 1;
+            final var newOffset = shift.map(offset);
+            final var newDelta = newOffset - newPrevious - 1;
+            previous = offset;
+            newPrevious = newOffset;
+
+            if (type < 64) {
+                if (newDelta < 64) {
+                    out.writeByte(newDelta);
+                } else {
+                    out.writeByte(251);
+                    out.writeShort(newDelta);
+                }
+            } else if (type < 128) {
+                if (newDelta < 64) {
+                    out.writeByte(64 + newDelta);
+                } else {
+                    out.writeByte(247);
+                    out.writeShort(newDelta);
+                }
+
+                copyVerificationType(in, out, shift);
+            } else {
+                out.writeByte(type);
+                out.writeShort(newDelta);
+                if (type == 247) {
+                    copyVerificationType(in, out, shift);
+                } else if (type >= 252 && type <= 254) {
+                    for (int j = 0; j < type - 251; ++j) {
+                        copyVerificationType(in, out, shift);
+                    }
+                } else if (type == 255) {
+                    for (int k = 0; k < 2; ++k) {
+                        final var types = in.getShort() & 0xFFFF;
+                        out.writeShort(types);
+                        for (int j = 0; j < types; ++j) {
+                            copyVerificationType(in, out, shift);
+                        }
+                    }
+                }
+            }
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static void copyVerificationType(
+            final ByteBuffer in,
+            final DataOutputStream out,
+            final Shift shift
+    ) throws IOException {
+        final var tag = in.get() & 0xFF;
+        out.writeByte(tag);
+        if (tag == 7) {
+            // Object: a class constant
+            out.writeShort(in.getShort());
+        } else if (tag == 8) {
+            // Uninitialized: the offset of the new instruction
+            out.writeShort(shift.map(in.getShort() & 0xFFFF));
+        } else if (tag > 8) {
+            throw new IOException("Unknown verification type " + tag);
+        }
+    }
+
+    @Nonnull
+    private static byte[] rewriteLineNumberTable(final ByteBuffer in, final Shift shift) {
+        final var out = ByteBuffer.allocate(in.remaining());
+        final var count = in.getShort() & 0xFFFF;
+        out.putShort((short) count);
+        for (int i = 0; i < count; ++i) {
+            out.putShort((short) shift.map(in.getShort() & 0xFFFF));
+            out.putShort(in.getShort());
+        }
+
+        return out.array();
+    }
+
+    @Nonnull
+    private static byte[] rewriteLocalVariableTable(final ByteBuffer in, final Shift shift) {
+        final var out = ByteBuffer.allocate(in.remaining());
+        final var count = in.getShort() & 0xFFFF;
+        out.putShort((short) count);
+        for (int i = 0; i < count; ++i) {
+            final var start = in.getShort() & 0xFFFF;
+            final var length = in.getShort() & 0xFFFF;
+            final var newStart = shift.map(start);
+            out.putShort((short) newStart);
+            out.putShort((short) (shift.map(start + length) - newStart));
+            // Name, descriptor or signature, and slot
+            out.putShort(in.getShort());
+            out.putShort(in.getShort());
+            out.putShort(in.getShort());
+        }
+
+        return out.array();
+    }
+
+    private static int skipAttributes(final ByteBuffer buf, final int offset) {
+        final var count = buf.getShort(offset) & 0xFFFF;
+        var cursor = offset + 2;
+        for (int i = 0; i < count; ++i) {
+            cursor += 6 + buf.getInt(cursor + 2);
+        }
+
+        return cursor;
+    }
+
+    @Contract(pure = true)
+    private static int padding(final int pc) {
+        return 3 - (pc & 3);
+    }
+
+    @Nonnull
+    private String utf8(final int index) throws IOException {
+        return ClassFileHeader.readUtf8(this.buf, this.offsets, index);
+    }
+
+    @Nonnull
+    private static int[] lengths() {
+        final var lengths = new int[256];
+        for (int opcode = 0x00; opcode <= 0xC9; ++opcode) {
+            lengths[opcode] = 1;
+        }
+
+        lengths[0x10] = 2; // bipush
+        lengths[0x11] = 3; // sipush
+        lengths[0x12] = 2; // ldc
+        lengths[0x13] = 3; // ldc_w
+        lengths[0x14] = 3; // ldc2_w
+        for (int opcode = 0x15; opcode <= 0x19; ++opcode) {
+            lengths[opcode] = 2; // loads with an index
+        }
+        for (int opcode = 0x36; opcode <= 0x3A; ++opcode) {
+            lengths[opcode] = 2; // stores with an index
+        }
+        lengths[IINC] = 3;
+        for (int opcode = 0x99; opcode <= 0xA8; ++opcode) {
+            lengths[opcode] = 3; // branches
+        }
+        lengths[0xA9] = 2; // ret
+        lengths[TABLESWITCH] = 0;
+        lengths[LOOKUPSWITCH] = 0;
+        for (int opcode = 0xB2; opcode <= 0xB8; ++opcode) {
+            lengths[opcode] = 3; // field accesses and invocations
+        }
+        lengths[0xB9] = 5; // invokeinterface
+        lengths[0xBA] = 5; // invokedynamic
+        lengths[NEW] = 3;
+        lengths[0xBC] = 2; // newarray
+        lengths[0xBD] = 3; // anewarray
+        lengths[0xC0] = 3; // checkcast
+        lengths[0xC1] = 3; // instanceof
+        lengths[WIDE] = 0;
+        lengths[0xC5] = 4; // multianewarray
+        lengths[0xC6] = 3; // ifnull
+        lengths[0xC7] = 3; // ifnonnull
+        lengths[GOTO_W] = 5;
+        lengths[JSR_W] = 5;
+        return lengths;
+    }
+
+    /**
+     * The call that initializes the instance in a constructor.
+     */
+    private static final class Initializer {
+        /**
+         * The offset just past the call.
+         */
+        private final int end;
+        /**
+         * Whether the call is to a superclass constructor rather than one of the class itself.
+         */
+        private final boolean callsSuper;
+
+        @Contract(pure = true)
+        private Initializer(final int end, final boolean callsSuper) {
+            this.end = end;
+            this.callsSuper = callsSuper;
+        }
+    }
+
+    /**
+     * Signals that a class uses something the rewriter does not handle, so it is left alone.
+     */
+    private static final class Unsupported extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        @Contract(pure = true)
+        private Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Maps offsets in the original code to offsets in the code with the hook inserted.
+     *
+     * The instruction that followed the initializing call keeps its identity: branches to it
+     * land after the hook, so the hook runs exactly once.
+     */
+    private static final class Shift {
+        private final int insertAt;
+
+        @Contract(pure = true)
+        private Shift(final int insertAt) {
+            this.insertAt = insertAt;
+        }
+
+        @Contract(pure = true)
+        private int map(final int offset) {
+            return offset < this.insertAt ? offset : offset + HOOK_LENGTH;
+        }
+    }
+}
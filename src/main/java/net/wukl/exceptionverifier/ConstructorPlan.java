@@ -0,0 +1,328 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.Nonnull;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The resolved Rule of Four constructors of an exception class.
+ *
+ * Resolving a constructor and checking its accessibility is done once per exception class and
+ * cause type; afterwards, every instantiation goes straight through a method handle. Plans are
+ * cached alongside the exception class, so they do not keep the class from being unloaded.
+ *
+ * The instantiation methods report problems the same way {@link
+ * java.lang.reflect.Constructor#newInstance(Object...)} does.
+ */
+final class ConstructorPlan {
+    private static final ClassValue<ConcurrentMap<Class<?>, ConstructorPlan>> PLANS =
+            new ClassValue<>() {
+                @Override
+                protected ConcurrentMap<Class<?>, ConstructorPlan> computeValue(
+                        final Class<?> type
+                ) {
+                    return new ConcurrentHashMap<>(2);
+                }
+            };
+
+    private static final MethodType DEFAULT_TYPE = MethodType.methodType(Throwable.class);
+    private static final MethodType MESSAGE_TYPE =
+            MethodType.methodType(Throwable.class, String.class);
+    private static final MethodType CAUSE_TYPE =
+            MethodType.methodType(Throwable.class, Throwable.class);
+    private static final MethodType FULL_TYPE =
+            MethodType.methodType(Throwable.class, String.class, Throwable.class);
+    private static final MethodType LIGHTWEIGHT_TYPE = MethodType.methodType(
+            Throwable.class, String.class, Throwable.class, boolean.class, boolean.class
+    );
+
+    private final Class<? extends Throwable> exception;
+    private final Class<? extends Throwable> causeType;
+
+    private final Resolved defaultCtor;
+    private final Resolved messageCtor;
+    private final Resolved causeCtor;
+    private final Resolved fullCtor;
+
+    /**
+     * Resolved on first use: making a protected constructor accessible makes JDK 9 to 15 print
+     * an illegal access warning for JDK exception classes, which most plans never need.
+     */
+    private volatile @Nullable Resolved lightweightCtor;
+
+    private ConstructorPlan(
+            final Class<? extends Throwable> exception,
+            final Class<? extends Throwable> causeType
+    ) {
+        this.exception = exception;
+        this.causeType = causeType;
+
+        this.defaultCtor = Resolved.of(exception, DEFAULT_TYPE);
+        this.messageCtor = Resolved.of(exception, MESSAGE_TYPE, String.class);
+        this.causeCtor = Resolved.of(exception, CAUSE_TYPE, causeType);
+        this.fullCtor = Resolved.of(exception, FULL_TYPE, String.class, causeType);
+    }
+
+    /**
+     * Returns the plan for an exception class.
+     *
+     * @param exception the exception class
+     * @param causeType the type of the cause parameter
+     *
+     * @return the plan, which may be shared with other callers
+     */
+    @Nonnull
+    static ConstructorPlan of(
+            final Class<? extends Throwable> exception,
+            final Class<? extends Throwable> causeType
+    ) {
+        final var plans = PLANS.get(exception);
+        final var plan = plans.get(causeType);
+        if (plan != null) {
+            return plan;
+        }
+
+        return plans.computeIfAbsent(causeType, type -> new ConstructorPlan(exception, causeType));
+    }
+
+    /**
+     * Invokes the default constructor.
+     *
+     * @return the new instance
+     *
+     * @throws ReflectiveOperationException if the constructor is unavailable or threw
+     */
+    @Nonnull
+    Throwable newDefault() throws ReflectiveOperationException {
+        final var handle = this.defaultCtor.get();
+        try {
+            return (Throwable) handle.invokeExact();
+        } catch (final Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    /**
+     * Invokes the message-only constructor.
+     *
+     * @param message the message
+     *
+     * @return the new instance
+     *
+     * @throws ReflectiveOperationException if the constructor is unavailable or threw
+     */
+    @Nonnull
+    Throwable newWithMessage(final @Nullable String message)
+            throws ReflectiveOperationException {
+        final var handle = this.messageCtor.get();
+        try {
+            return (Throwable) handle.invokeExact(message);
+        } catch (final Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    /**
+     * Invokes the cause-only constructor.
+     *
+     * @param cause the cause
+     *
+     * @return the new instance
+     *
+     * @throws ReflectiveOperationException if the constructor is unavailable or threw
+     */
+    @Nonnull
+    Throwable newWithCause(final @Nullable Throwable cause) throws ReflectiveOperationException {
+        final var handle = this.causeCtor.get();
+        this.checkCause(cause);
+        try {
+            return (Throwable) handle.invokeExact(cause);
+        } catch (final Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    /**
+     * Invokes the message-and-cause constructor.
+     *
+     * @param message the message
+     * @param cause   the cause
+     *
+     * @return the new instance
+     *
+     * @throws ReflectiveOperationException if the constructor is unavailable or threw
+     */
+    @Nonnull
+    Throwable newFull(final @Nullable String message, final @Nullable Throwable cause)
+            throws ReflectiveOperationException {
+        final var handle = this.fullCtor.get();
+        this.checkCause(cause);
+        try {
+            return (Throwable) handle.invokeExact(message, cause);
+        } catch (final Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    /**
+     * Invokes the lightweight constructor, which may be protected.
+     *
+     * @param message            the message
+     * @param cause              the cause
+     * @param enableSuppression  whether suppressed exceptions are recorded
+     * @param writableStackTrace whether the stack trace is captured
+     *
+     * @return the new instance
+     *
+     * @throws ReflectiveOperationException if the constructor is unavailable or threw
+     */
+    @Nonnull
+    Throwable newLightweight(
+            final @Nullable String message,
+            final @Nullable Throwable cause,
+            final boolean enableSuppression,
+            final boolean writableStackTrace
+    ) throws ReflectiveOperationException {
+        var resolved = this.lightweightCtor;
+        if (resolved == null) {
+            resolved = Resolved.ofProtected(
+                    this.exception, LIGHTWEIGHT_TYPE,
+                    String.class, this.causeType, boolean.class, boolean.class
+            );
+            this.lightweightCtor = resolved;
+        }
+
+        final var handle = resolved.get();
+        this.checkCause(cause);
+        try {
+            return (Throwable) handle.invokeExact(
+                    message, cause, enableSuppression, writableStackTrace
+            );
+        } catch (final Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    private void checkCause(final @Nullable Throwable cause) {
+        if (cause != null && !this.causeType.isInstance(cause)) {
+            throw new IllegalArgumentException("argument type mismatch");
+        }
+    }
+
+    /**
+     * A constructor handle, or the reason it could not be resolved.
+     */
+    private static final class Resolved {
+        private final @Nullable MethodHandle handle;
+        private final @Nullable ReflectiveOperationException failure;
+
+        @Contract(pure = true)
+        private Resolved(
+                final @Nullable MethodHandle handle,
+                final @Nullable ReflectiveOperationException failure
+        ) {
+            this.handle = handle;
+            this.failure = failure;
+        }
+
+        @Nonnull
+        private static Resolved of(
+                final Class<? extends Throwable> exception,
+                final MethodType erasedType,
+                final Class<?>... parameterTypes
+        ) {
+            try {
+                final var ctor = exception.getConstructor(parameterTypes);
+                if (Modifier.isAbstract(exception.getModifiers())) {
+                    throw new InstantiationException(exception.getName());
+                }
+
+                if (!isExported(exception) && !ctor.trySetAccessible()) {
+                    throw notOpen(exception);
+                }
+
+                final var handle = MethodHandles.lookup().unreflectConstructor(ctor);
+                return new Resolved(handle.asType(erasedType), null);
+            } catch (final ReflectiveOperationException ex) {
+                return new Resolved(null, ex);
+            }
+        }
+
+        /**
+         * Resolves a constructor that subclasses can call, which is public or protected.
+         *
+         * Protected constructors are made accessible; if the package of the exception class is
+         * not open to the verifier, they are reported as inaccessible.
+         */
+        @Nonnull
+        private static Resolved ofProtected(
+                final Class<? extends Throwable> exception,
+                final MethodType erasedType,
+                final Class<?>... parameterTypes
+        ) {
+            try {
+                final var ctor = exception.getDeclaredConstructor(parameterTypes);
+                final var modifiers = ctor.getModifiers();
+                if (!Modifier.isPublic(modifiers) && !Modifier.isProtected(modifiers)) {
+                    throw new NoSuchMethodException(exception.getName() + ".<init>");
+                }
+
+                if (Modifier.isAbstract(exception.getModifiers())) {
+                    throw new InstantiationException(exception.getName());
+                }
+
+                final var exported = isExported(exception);
+                if ((Modifier.isProtected(modifiers) || !exported) && !ctor.trySetAccessible()) {
+                    throw exported
+                            ? new IllegalAccessException(exception.getName() + ".<init>")
+                            : notOpen(exception);
+                }
+
+                final var handle = MethodHandles.lookup().unreflectConstructor(ctor);
+                return new Resolved(handle.asType(erasedType), null);
+            } catch (final ReflectiveOperationException ex) {
+                return new Resolved(null, ex);
+            }
+        }
+
+        /**
+         * Checks whether the package of an exception class is exported to the verifier.
+         *
+         * Public constructors in packages that are not exported, such as those of a module that
+         * only exports its API, can still be called if the package is open to the verifier.
+         */
+        @Contract(pure = true)
+        private static boolean isExported(final Class<?> exception) {
+            return exception.getModule().isExported(
+                    exception.getPackageName(), ConstructorPlan.class.getModule()
+            );
+        }
+
+        @Nonnull
+        private static IllegalAccessException notOpen(final Class<?> exception) {
+            return new IllegalAccessException(
+                    "Package " + exception.getPackageName() + " of " + exception.getModule()
+                            + " is neither exported nor open to "
+                            + ConstructorPlan.class.getModule()
+            );
+        }
+
+        @Nonnull
+        private MethodHandle get() throws ReflectiveOperationException {
+            if (this.handle == null) {
+                throw Objects.requireNonNull(this.failure);
+            }
+
+            return this.handle;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.Nonnull;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A copy of a throwable that does not refer to the class of the original.
+ *
+ * The copy keeps the class name, message, stack trace, cause and suppressed exceptions of the
+ * original, and prints the same way. Holding on to it does not keep the class loader of the
+ * original exception alive.
+ */
+final class DetachedThrowable extends Throwable {
+    private static final long serialVersionUID = 1L;
+
+    private final String type;
+
+    @Contract(pure = true)
+    private DetachedThrowable(final String type, final @Nullable String message) {
+        super(message);
+        this.type = type;
+    }
+
+    /**
+     * Copies a throwable, its causes and its suppressed exceptions.
+     *
+     * @param original the throwable to copy
+     *
+     * @return the copy
+     */
+    @Nonnull
+    static Throwable of(final Throwable original) {
+        return copy(original, new IdentityHashMap<>());
+    }
+
+    @Nonnull
+    private static Throwable copy(
+            final Throwable original,
+            final Map<Throwable, Throwable> copies
+    ) {
+        final var existing = copies.get(original);
+        if (existing != null) {
+            return existing;
+        }
+
+        String message;
+        try {
+            message = original.getMessage();
+        } catch (final RuntimeException ex) {
+            message = "<getMessage() threw " + ex.getClass().getName() + ">";
+        }
+
+        final var copy = new DetachedThrowable(original.getClass().getName(), message);
+        copies.put(original, copy);
+
+        copy.setStackTrace(original.getStackTrace());
+        if (original.getCause() != null) {
+            copy.initCause(copy(original.getCause(), copies));
+        }
+
+        for (final var suppressed : original.getSuppressed()) {
+            copy.addSuppressed(copy(suppressed, copies));
+        }
+
+        return copy;
+    }
+
+    /**
+     * Returns the binary name of the class of the original throwable.
+     *
+     * @return the class name
+     */
+    @Contract(pure = true)
+    @Nonnull
+    String getType() {
+        return this.type;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        // The stack trace of the original is copied instead
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        final var message = this.getLocalizedMessage();
+        return message != null ? this.type + ": " + message : this.type;
+    }
+}
@@ -7,7 +7,23 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * A verifier for Rule of Four compliant exception classes.
@@ -21,7 +37,33 @@ public class ExceptionVerifier {
     private static final String DEFAULT_PARAM_FORM = "(default; no-arg)";
     private static final String STRING_PARAM_FORM = "(String message)";
     private static final String NULL_STRING_PARAM_FORM = "(String message = null)";
-    private static final Object[] NULL_ARG = new Object[] { null };
+
+    /**
+     * The number of times the test message is repeated to make a huge message, of about four
+     * million characters.
+     */
+    private static final int HUGE_MESSAGE_REPEATS = 1 << 17;
+
+    /**
+     * All checks, in order. {@link Check#values()} copies the array on every call.
+     */
+    private static final Check[] CHECKS = Check.values();
+
+    /**
+     * The checks that measure allocations when an allocation budget is set.
+     */
+    private static final Set<Check> MEASURED_CHECKS =
+            EnumSet.of(Check.DEFAULT, Check.MESSAGE_ONLY, Check.CAUSE_ONLY, Check.FULL);
+
+    /**
+     * The accessors that are timed when an accessor budget is set; loggers call them all.
+     */
+    private static final List<Accessor> ACCESSORS = List.of(
+            new Accessor("getMessage()", Throwable::getMessage),
+            new Accessor("getLocalizedMessage()", Throwable::getLocalizedMessage),
+            new Accessor("toString()", Throwable::toString),
+            new Accessor("getCause()", Throwable::getCause)
+    );
 
     /**
      * Creates a new verifier.
@@ -36,264 +78,676 @@ public class ExceptionVerifier {
         return new ExceptionVerifierBuilder(type);
     }
 
-    private final Class<? extends Throwable> exception;
+    /**
+     * Creates a new verifier for all exception classes in the given packages.
+     *
+     * Subpackages are included.
+     *
+     * @param packages the names of the packages to verify
+     *
+     * @return the verifier builder
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @Nonnull
+    public static BulkVerifier.BulkVerifierBuilder forPackage(final String... packages) {
+        return BulkVerifier.BulkVerifierBuilder.ofPackages(Arrays.asList(packages));
+    }
+
+    /**
+     * Creates a new verifier for all exception classes in the given class path roots.
+     *
+     * The exception classes are found by reading the headers of the class files, so classes
+     * that are not exceptions are never loaded. Jars are memory-mapped, and the jars nested in
+     * them, such as the libraries of a fat jar, are verified too.
+     *
+     * @param roots the class directories and jar files to verify
+     *
+     * @return the verifier builder
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @Nonnull
+    public static BulkVerifier.BulkVerifierBuilder forClasspath(final Path... roots) {
+        return BulkVerifier.BulkVerifierBuilder.ofRoots(Arrays.asList(roots));
+    }
+
+    /**
+     * Creates a new verifier for all exception classes in the modules on a module path.
+     *
+     * The modules are defined in a module layer of their own, on top of the boot layer, and
+     * every one of their packages is opened to the verifier: exception classes in packages that
+     * are not exported are verified too. Dependencies of the modules must be on the same module
+     * path or in the boot layer.
+     *
+     * @param modulePath the modular jars, plain jars and exploded modules to verify, and
+     *                   directories of those
+     *
+     * @return the verifier builder
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @Nonnull
+    public static BulkVerifier.BulkVerifierBuilder forModulePath(final Path... modulePath) {
+        return BulkVerifier.BulkVerifierBuilder.ofModulePath(Arrays.asList(modulePath));
+    }
+
+    // Only the name of the exception class is kept; the class itself is only reachable through
+    // the constructor plan, which is cached alongside it
+    private final String exceptionName;
     private final Class<? extends Throwable> causeType;
     private final Strictness strictness;
+    private final boolean lightweight;
+    private final long allocationBudget;
+    private final boolean messageIdentity;
+    private final long accessorBudget;
+    private final ConstructorPlan plan;
+    private final @Nullable List<VerificationReport.Warning> warnings;
+    private final @Nullable BytecodeAnalyzer.Analysis analysis;
 
-    @Contract(pure = true)
     private ExceptionVerifier(
             final Class<? extends Throwable> exception,
             final Class<? extends Throwable> causeType,
-            final Strictness strictness
+            final Strictness strictness,
+            final boolean lightweight,
+            final long allocationBudget,
+            final boolean messageIdentity,
+            final long accessorBudget,
+            final boolean collectWarnings,
+            final @Nullable BytecodeAnalyzer.Analysis analysis
     ) {
-        this.exception = exception;
+        this.exceptionName = exception.getName();
         this.causeType = causeType;
         this.strictness = strictness;
+        this.lightweight = lightweight;
+        this.allocationBudget = allocationBudget;
+        this.messageIdentity = messageIdentity;
+        this.accessorBudget = accessorBudget;
+        this.plan = ConstructorPlan.of(exception, causeType);
+        this.warnings = collectWarnings ? Collections.synchronizedList(new ArrayList<>()) : null;
+        this.analysis = analysis;
+    }
+
+    /**
+     * Builds the report of a class whose checks were all decided by bytecode analysis.
+     *
+     * @param exception   the binary name of the class
+     * @param causeType   the cause type the class was analyzed with
+     * @param strictness  the strictness to report with
+     * @param lightweight whether the lightweight constructor is verified
+     * @param analysis    the analysis, which must have decided all applicable checks
+     *
+     * @return the report, identical to the one reflective verification would produce
+     */
+    @Nonnull
+    static VerificationReport reportOf(
+            final String exception,
+            final Class<? extends Throwable> causeType,
+            final Strictness strictness,
+            final boolean lightweight,
+            final BytecodeAnalyzer.Analysis analysis
+    ) {
+        final var failures = new ArrayList<VerificationReport.Failure>();
+        for (final var check : CHECKS) {
+            if (check.isApplicable(strictness, lightweight)
+                    && analysis.getVerdict(check) == BytecodeAnalyzer.Verdict.MISSING) {
+                final var paramForm = check.getParamForm(causeType);
+                failures.add(new VerificationReport.Failure(
+                        check, paramForm, strictness, missingConstructorMessage(paramForm), null
+                ));
+            }
+        }
+
+        return new VerificationReport(exception, strictness, failures, List.of());
+    }
+
+    @Nullable
+    private static BytecodeAnalyzer.Analysis analyze(
+            final Class<? extends Throwable> exception,
+            final Class<? extends Throwable> causeType
+    ) {
+        final var loader = exception.getClassLoader() != null
+                ? exception.getClassLoader()
+                : ClassLoader.getSystemClassLoader();
+        return new BytecodeAnalyzer(loader).analyze(exception.getName(), causeType);
+    }
+
+    @Nonnull
+    private static String missingConstructorMessage(final String paramForm) {
+        return "Missing " + paramForm + " constructor";
     }
 
     private void verify() {
-        this.verifyDefault();
-        this.verifyMessageOnly();
-        this.verifyNullableMessageOnly();
-        this.verifyCauseOnly();
-        this.verifyNestedInvocationTargetExceptionOnly();
-        this.verifyNullableCauseOnly();
-        this.verifyFull();
-        this.verifyFullWithInvocationTargetExceptionCause();
-        this.verifyFullWithNullMessage();
-        this.verifyFullWithNullCause();
-        this.verifyFullWithNullEverything();
+        for (final var check : CHECKS) {
+            check.run(this);
+        }
+    }
+
+    private void verify(final Executor executor) {
+        final var futures = new CompletableFuture<?>[CHECKS.length];
+        for (int i = 0; i < CHECKS.length; ++i) {
+            final var check = CHECKS[i];
+            futures[i] = CompletableFuture.runAsync(() -> check.run(this), executor);
+        }
+
+        // Join in declaration order so the reported failure does not depend on scheduling
+        Throwable failure = null;
+        for (final var future : futures) {
+            try {
+                future.join();
+            } catch (final CompletionException ex) {
+                if (failure == null) {
+                    failure = ex.getCause();
+                } else {
+                    failure.addSuppressed(ex.getCause());
+                }
+            }
+        }
+
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new AssertionError("Verification failed", failure);
+        }
+    }
+
+    @Nonnull
+    private VerificationReport report(final @Nullable Executor executor) {
+        final var failures = new ArrayList<VerificationReport.Failure>();
+        if (executor == null) {
+            for (final var check : CHECKS) {
+                final var failure = this.runReporting(check);
+                if (failure != null) {
+                    failures.add(failure);
+                }
+            }
+        } else {
+            final var futures = new ArrayList<CompletableFuture<VerificationReport.Failure>>();
+            for (final var check : CHECKS) {
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> this.runReporting(check), executor
+                ));
+            }
+
+            for (final var future : futures) {
+                final VerificationReport.Failure failure;
+                try {
+                    failure = future.join();
+                } catch (final CompletionException ex) {
+                    if (ex.getCause() instanceof Error) {
+                        throw (Error) ex.getCause();
+                    }
+
+                    throw ex;
+                }
+
+                if (failure != null) {
+                    failures.add(failure);
+                }
+            }
+        }
+
+        return this.toReport(failures);
+    }
+
+    /**
+     * Runs the checks one after another on the executor, abandoning any check that does not
+     * finish in time.
+     *
+     * A check that runs past its deadline is reported as a {@linkplain
+     * VerificationReport.Failure.Kind#TIMEOUT timeout} and its thread is interrupted. Once the
+     * class deadline has passed, no further checks are started; each of them is reported as a
+     * timeout as well, so that the report does not pass checks that never ran.
+     *
+     * @param executor           the executor to run every check on
+     * @param constructorTimeout the time each check may take, in nanoseconds
+     * @param classTimeout       the time all checks together may take, in nanoseconds
+     * @param stopAtFailure      whether to stop at the first failing check
+     *
+     * @return the failures, completed once all checks have finished or been abandoned
+     */
+    @Nonnull
+    private CompletableFuture<List<VerificationReport.Failure>> runTimed(
+            final Executor executor,
+            final long constructorTimeout,
+            final long classTimeout,
+            final boolean stopAtFailure
+    ) {
+        final var start = System.nanoTime();
+        final var failures = new ArrayList<VerificationReport.Failure>();
+        var chain = CompletableFuture.completedFuture((Void) null);
+        for (final var check : CHECKS) {
+            if (!check.isApplicable(this.strictness, this.lightweight)) {
+                continue;
+            }
+
+            chain = chain.thenCompose(ignored -> {
+                final var remaining = classTimeout - (System.nanoTime() - start);
+                if (stopAtFailure && !failures.isEmpty()) {
+                    return CompletableFuture.completedFuture(null);
+                }
+
+                if (remaining <= 0) {
+                    final var paramForm = this.paramForm(check);
+                    failures.add(new VerificationReport.Failure(
+                            check, paramForm, this.strictness,
+                            paramForm + " check was not started before the class deadline", null,
+                            VerificationReport.Failure.Kind.TIMEOUT
+                    ));
+                    return CompletableFuture.completedFuture(null);
+                }
+
+                return this.runTimed(check, executor, constructorTimeout, remaining)
+                        .thenAccept(failure -> {
+                            if (failure != null) {
+                                failures.add(failure);
+                            }
+                        });
+            });
+        }
+
+        return chain.thenApply(ignored -> failures);
+    }
+
+    @Nonnull
+    private CompletableFuture<VerificationReport.Failure> runTimed(
+            final Check check,
+            final Executor executor,
+            final long constructorTimeout,
+            final long classRemaining
+    ) {
+        final var submitted = System.nanoTime();
+        final var result = new CompletableFuture<VerificationReport.Failure>();
+        final var attempt = new Attempt();
+
+        // The class deadline also covers the time the check spends waiting for a thread
+        result.orTimeout(classRemaining, TimeUnit.NANOSECONDS);
+        executor.execute(() -> {
+            synchronized (attempt) {
+                if (result.isDone()) {
+                    return;
+                }
+
+                attempt.thread = Thread.currentThread();
+                attempt.constructorDeadline =
+                        constructorTimeout < classRemaining - (System.nanoTime() - submitted);
+            }
+
+            // The earliest of the two timeouts wins
+            result.orTimeout(constructorTimeout, TimeUnit.NANOSECONDS);
+            try {
+                result.complete(this.runReporting(check));
+            } catch (final Throwable ex) {
+                result.completeExceptionally(ex);
+            } finally {
+                attempt.finish();
+            }
+        });
+
+        return result.handle((failure, ex) -> {
+            if (ex == null) {
+                return failure;
+            }
+
+            if (!(ex instanceof TimeoutException)) {
+                throw ex instanceof CompletionException
+                        ? (CompletionException) ex
+                        : new CompletionException(ex);
+            }
+
+            final var stuck = new TimeoutException("Check abandoned");
+            final var byConstructor = attempt.abandon(stuck);
+            final var paramForm = this.paramForm(check);
+            final var message = byConstructor
+                    ? paramForm + " constructor did not finish within "
+                            + TimeUnit.NANOSECONDS.toMillis(constructorTimeout) + " ms"
+                    : paramForm + " check did not finish before the class deadline";
+            return new VerificationReport.Failure(
+                    check, paramForm, this.strictness, message, stuck,
+                    VerificationReport.Failure.Kind.TIMEOUT
+            );
+        });
+    }
+
+    @Nonnull
+    private VerificationReport toReport(final List<VerificationReport.Failure> failures) {
+        final var collected = new ArrayList<>(Objects.requireNonNull(this.warnings));
+        collected.sort(Comparator.comparing(VerificationReport.Warning::getCheck));
+
+        return new VerificationReport(this.exceptionName, this.strictness, failures, collected);
+    }
+
+    private void verifyTimed(
+            final Executor executor,
+            final long constructorTimeout,
+            final long classTimeout
+    ) {
+        final var failures =
+                join(this.runTimed(executor, constructorTimeout, classTimeout, true));
+        if (!failures.isEmpty()) {
+            final var failure = failures.get(0);
+            throw new AssertionError(failure.getMessage(), failure.getCause());
+        }
+    }
+
+    @Nonnull
+    private CompletableFuture<VerificationReport> reportTimed(
+            final Executor executor,
+            final long constructorTimeout,
+            final long classTimeout
+    ) {
+        return this.runTimed(executor, constructorTimeout, classTimeout, false)
+                .thenApply(this::toReport);
+    }
+
+    private static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException ex) {
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+
+            throw ex;
+        }
+    }
+
+    @Nullable
+    private VerificationReport.Failure runReporting(final Check check) {
+        try {
+            check.run(this);
+            return null;
+        } catch (final AssertionError ex) {
+            return new VerificationReport.Failure(
+                    check, this.paramForm(check), this.strictness, String.valueOf(ex.getMessage()),
+                    ex.getCause()
+            );
+        }
+    }
+
+    @Nonnull
+    private String paramForm(final Check check) {
+        return check.getParamForm(this.causeType);
     }
 
     private void verifyDefault() {
+        final var check = Check.DEFAULT;
         try {
-            final var ctor = this.exception.getConstructor();
-            final var instance = ctor.newInstance();
+            final var instance = this.plan.newDefault();
 
-            this.verifyEmptyMessage(instance.getMessage(), DEFAULT_PARAM_FORM);
-            this.verifyEmptyCause(instance.getCause(), DEFAULT_PARAM_FORM);
+            this.verifyEmptyMessage(instance.getMessage(), check);
+            this.verifyEmptyCause(instance.getCause(), check);
 
-            this.verifyRepeatability(instance, DEFAULT_PARAM_FORM);
+            this.verifyRepeatability(instance, check);
+            this.verifyAllocation(instance, check, this.plan::newDefault);
+            this.verifyAccessorCost(check, this.plan::newDefault);
         } catch (final Exception ex) {
-            this.trapException(ex, DEFAULT_PARAM_FORM);
+            this.trapException(ex, check);
         }
     }
 
     private void verifyMessageOnly() {
+        final var check = Check.MESSAGE_ONLY;
         try {
-            final var ctor = this.exception.getConstructor(String.class);
-            final var instance = ctor.newInstance(TEST_MESSAGE);
+            final var instance = this.plan.newWithMessage(TEST_MESSAGE);
 
-            this.verifyNonEmptyMessage(instance.getMessage(), TEST_MESSAGE, STRING_PARAM_FORM);
-            this.verifyEmptyCause(instance.getCause(), STRING_PARAM_FORM);
+            this.verifyNonEmptyMessage(instance.getMessage(), TEST_MESSAGE, check);
+            this.verifyEmptyCause(instance.getCause(), check);
 
-            this.verifyRepeatability(instance, STRING_PARAM_FORM);
+            this.verifyRepeatability(instance, check);
+            this.verifyAllocation(instance, check, () -> this.plan.newWithMessage(TEST_MESSAGE));
+            this.verifyAccessorCost(check, () -> this.plan.newWithMessage(TEST_MESSAGE));
+            this.verifyHugeMessage(check, this.plan::newWithMessage);
         } catch (final Exception ex) {
-            this.trapException(ex, STRING_PARAM_FORM);
+            this.trapException(ex, check);
         }
     }
 
     private void verifyNullableMessageOnly() {
-        if (this.strictness != Strictness.STRICT) {
-            return;
-        }
-
+        final var check = Check.NULLABLE_MESSAGE_ONLY;
         try {
-            final var ctor = this.exception.getConstructor(String.class);
-            final var instance = ctor.newInstance(NULL_ARG);
+            final var instance = this.plan.newWithMessage(null);
 
-            this.verifyEmptyMessage(instance.getMessage(), NULL_STRING_PARAM_FORM);
-            this.verifyEmptyCause(instance.getCause(), NULL_STRING_PARAM_FORM);
+            this.verifyEmptyMessage(instance.getMessage(), check);
+            this.verifyEmptyCause(instance.getCause(), check);
 
-            this.verifyRepeatability(instance, NULL_STRING_PARAM_FORM);
+            this.verifyRepeatability(instance, check);
         } catch (final Exception ex) {
-            this.trapException(ex, NULL_STRING_PARAM_FORM);
+            this.trapException(ex, check);
         }
     }
 
-    private void verifyCauseOnly(final Exception except, final String paramForm) {
+    private void verifyCauseOnly(final Exception except, final Check check) {
         try {
-            final var ctor = this.exception.getConstructor(this.causeType);
-            final var instance = ctor.newInstance(except);
+            final var instance = this.plan.newWithCause(except);
 
-            this.verifyNonEmptyCause(instance.getCause(), except, paramForm);
+            this.verifyNonEmptyCause(instance.getCause(), except, check);
 
-            this.verifyRepeatability(instance, paramForm);
+            this.verifyRepeatability(instance, check);
+            this.verifyAllocation(instance, check, () -> this.plan.newWithCause(except));
+            this.verifyAccessorCost(check, () -> this.plan.newWithCause(except));
         } catch (final Exception ex) {
-            this.trapException(ex, paramForm);
+            this.trapException(ex, check);
         }
     }
 
     private void verifyCauseOnly() {
-        final var causeName = this.causeType.getSimpleName();
-        final var paramForm = "(" + causeName + " cause)";
-
-        this.verifyCauseOnly(TEST_EXCEPTION, paramForm);
+        this.verifyCauseOnly(TEST_EXCEPTION, Check.CAUSE_ONLY);
     }
 
     private void verifyNestedInvocationTargetExceptionOnly() {
-        final var causeName = this.causeType.getSimpleName();
-        final var paramForm = "(" + causeName + " cause = InvocationTargetException)";
-
-        this.verifyCauseOnly(TEST_IT_EXCEPTION, paramForm);
+        this.verifyCauseOnly(TEST_IT_EXCEPTION, Check.NESTED_INVOCATION_TARGET_EXCEPTION_ONLY);
     }
 
     private void verifyNullableCauseOnly() {
-        if (this.strictness != Strictness.STRICT) {
-            return;
-        }
-
-        final var causeName = this.causeType.getSimpleName();
-        final var paramForm = "(" + causeName + " cause = null)";
-
+        final var check = Check.NULLABLE_CAUSE_ONLY;
         try {
-            final var ctor = this.exception.getConstructor(this.causeType);
-            final var instance = ctor.newInstance(NULL_ARG);
+            final var instance = this.plan.newWithCause(null);
 
-            this.verifyEmptyCause(instance.getCause(), paramForm);
+            this.verifyEmptyCause(instance.getCause(), check);
 
-            this.verifyRepeatability(instance, paramForm);
+            this.verifyRepeatability(instance, check);
         } catch (final Exception ex) {
-            this.trapException(ex, paramForm);
+            this.trapException(ex, check);
         }
     }
 
-    private void verifyFull(final Exception except, final String paramForm) {
+    private void verifyFull(final Exception except, final Check check) {
         try {
-            final var ctor = this.exception.getConstructor(String.class, this.causeType);
-            final var instance = ctor.newInstance(TEST_MESSAGE, except);
+            final var instance = this.plan.newFull(TEST_MESSAGE, except);
 
-            this.verifyNonEmptyMessage(instance.getMessage(), TEST_MESSAGE, paramForm);
-            this.verifyNonEmptyCause(instance.getCause(), except, paramForm);
+            this.verifyNonEmptyMessage(instance.getMessage(), TEST_MESSAGE, check);
+            this.verifyNonEmptyCause(instance.getCause(), except, check);
 
-            this.verifyRepeatability(instance, paramForm);
+            this.verifyRepeatability(instance, check);
+            this.verifyAllocation(instance, check, () -> this.plan.newFull(TEST_MESSAGE, except));
+            this.verifyAccessorCost(check, () -> this.plan.newFull(TEST_MESSAGE, except));
+            if (check == Check.FULL) {
+                this.verifyHugeMessage(check, message -> this.plan.newFull(message, except));
+            }
         } catch (final Exception ex) {
-            this.trapException(ex, paramForm);
+            this.trapException(ex, check);
         }
     }
 
     private void verifyFull() {
-        final var causeName = this.causeType.getSimpleName();
-        final var paramForm = "(String message, " + causeName + " cause)";
-
-        this.verifyFull(TEST_EXCEPTION, paramForm);
+        this.verifyFull(TEST_EXCEPTION, Check.FULL);
     }
 
     private void verifyFullWithInvocationTargetExceptionCause() {
-        final var causeName = this.causeType.getSimpleName();
-        final var paramForm = "(String message, " + causeName
-                                      + " cause = InvocationTargetException)";
-
-        this.verifyFull(TEST_IT_EXCEPTION, paramForm);
+        this.verifyFull(TEST_IT_EXCEPTION, Check.FULL_WITH_INVOCATION_TARGET_EXCEPTION_CAUSE);
     }
 
     private void verifyFullWithNullMessage() {
-        if (this.strictness != Strictness.STRICT) {
-            return;
-        }
-
-        final var causeName = this.causeType.getSimpleName();
-        final var paramForm = "(String message = null, " + causeName + " cause)";
-
+        final var check = Check.FULL_WITH_NULL_MESSAGE;
         try {
-            final var ctor = this.exception.getConstructor(String.class, this.causeType);
-            final var instance = ctor.newInstance(null, TEST_EXCEPTION);
+            final var instance = this.plan.newFull(null, TEST_EXCEPTION);
 
-            this.verifyNonEmptyCause(instance.getCause(), TEST_EXCEPTION, paramForm);
+            this.verifyNonEmptyCause(instance.getCause(), TEST_EXCEPTION, check);
 
-            this.verifyRepeatability(instance, paramForm);
+            this.verifyRepeatability(instance, check);
         } catch (final Exception ex) {
-            this.trapException(ex, paramForm);
+            this.trapException(ex, check);
         }
     }
 
     private void verifyFullWithNullCause() {
-        if (this.strictness != Strictness.STRICT) {
-            return;
-        }
-
-        final var causeName = this.causeType.getSimpleName();
-        final var paramForm = "(String message, " + causeName + " cause = null)";
-
+        final var check = Check.FULL_WITH_NULL_CAUSE;
         try {
-            final var ctor = this.exception.getConstructor(String.class, this.causeType);
-            final var instance = ctor.newInstance(TEST_MESSAGE, null);
+            final var instance = this.plan.newFull(TEST_MESSAGE, null);
 
-            this.verifyNonEmptyMessage(instance.getMessage(), TEST_MESSAGE, paramForm);
-            this.verifyEmptyCause(instance.getCause(), paramForm);
+            this.verifyNonEmptyMessage(instance.getMessage(), TEST_MESSAGE, check);
+            this.verifyEmptyCause(instance.getCause(), check);
 
-            this.verifyRepeatability(instance, paramForm);
+            this.verifyRepeatability(instance, check);
         } catch (final Exception ex) {
-            this.trapException(ex, paramForm);
+            this.trapException(ex, check);
         }
     }
 
     private void verifyFullWithNullEverything() {
-        if (this.strictness != Strictness.STRICT) {
-            return;
-        }
+        final var check = Check.FULL_WITH_NULL_EVERYTHING;
+        try {
+            final var instance = this.plan.newFull(null, null);
+
+            this.verifyEmptyMessage(instance.getMessage(), check);
+            this.verifyEmptyCause(instance.getCause(), check);
 
-        final var causeName = this.causeType.getSimpleName();
-        final var paramForm = "(String message, " + causeName + " cause = null)";
+            this.verifyRepeatability(instance, check);
+        } catch (final Exception ex) {
+            this.trapException(ex, check);
+        }
+    }
 
+    private void verifyLightweight(
+            final boolean enableSuppression,
+            final boolean writableStackTrace,
+            final Check check
+    ) {
         try {
-            final var ctor = this.exception.getConstructor(String.class, this.causeType);
-            final var instance = ctor.newInstance(null, null);
+            final var instance = this.plan.newLightweight(
+                    TEST_MESSAGE, TEST_EXCEPTION, enableSuppression, writableStackTrace
+            );
 
-            this.verifyEmptyMessage(instance.getMessage(), paramForm);
-            this.verifyEmptyCause(instance.getCause(), paramForm);
+            this.verifyNonEmptyMessage(instance.getMessage(), TEST_MESSAGE, check);
+            this.verifyNonEmptyCause(instance.getCause(), TEST_EXCEPTION, check);
+            this.verifyStackTrace(instance, writableStackTrace, check);
+            this.verifySuppression(instance, enableSuppression, check);
 
-            this.verifyRepeatability(instance, paramForm);
+            this.verifyRepeatability(instance, check);
         } catch (final Exception ex) {
-            this.trapException(ex, paramForm);
+            this.trapException(ex, check);
         }
     }
 
-    private void verifyEmptyMessage(final @Nullable String message, final String paramForm) {
+    private void verifyLightweightWithoutSuppression() {
+        this.verifyLightweight(false, true, Check.LIGHTWEIGHT_WITHOUT_SUPPRESSION);
+    }
+
+    private void verifyLightweightWithoutStackTrace() {
+        this.verifyLightweight(true, false, Check.LIGHTWEIGHT_WITHOUT_STACK_TRACE);
+    }
+
+    private void verifyStackTrace(final Throwable t, final boolean writable, final Check check) {
+        final var frames = t.getStackTrace().length;
+        assert writable || frames == 0
+                : this.paramForm(check) + " constructor captured a stack trace (" + frames
+                        + " frames)";
+
+        assert !writable || this.strictness != Strictness.STRICT || frames > 0
+                : this.paramForm(check) + " constructor did not capture a stack trace";
+    }
+
+    private void verifySuppression(final Throwable t, final boolean enabled, final Check check) {
+        t.addSuppressed(TEST_EXCEPTION);
+        final var suppressed = t.getSuppressed().length;
+        assert enabled || suppressed == 0
+                : this.paramForm(check) + " constructor did not disable suppression";
+
+        assert !enabled || this.strictness != Strictness.STRICT || suppressed == 1
+                : this.paramForm(check) + " constructor disabled suppression";
+    }
+
+    private void verifyEmptyMessage(final @Nullable String message, final Check check) {
         if (this.strictness == Strictness.WEAK && message != null) {
+            this.warn(check, message);
+        }
+
+        assert this.strictness != Strictness.STRICT || message == null
+                : "Non-null message when using the " + this.paramForm(check) + " constructor";
+    }
+
+    private void warn(final Check check, final String message) {
+        final var paramForm = this.paramForm(check);
+        if (this.warnings == null) {
             logger.warn(
                     "Non-null message ({}) when using the {} constructor. "
                             + "While this is not wrong, it is counterintuitive",
                     message, paramForm
             );
+            return;
         }
 
-        assert this.strictness != Strictness.STRICT || message == null
-                : "Non-null message when using the " + paramForm + " constructor";
+        this.warnings.add(new VerificationReport.Warning(
+                check, paramForm, "Non-null message (" + message + ") when using the "
+                        + paramForm + " constructor. While this is not wrong, "
+                        + "it is counterintuitive"
+        ));
     }
 
     @Contract("null, _, _ -> fail")
     private void verifyNonEmptyMessage(
             final @Nullable String message,
             final @Nullable String expected,
-            final String paramForm
+            final Check check
     ) {
-        assert expected == null || message != null : paramForm + " constructor set message to null";
+        assert expected == null || message != null
+                : this.paramForm(check) + " constructor set message to null";
 
         assert strictness != Strictness.WEAK || expected == null
-                       || message.toLowerCase().contains(expected.toLowerCase())
-                : paramForm + " constructor ignored or mangled message (expecting \""
+                       || containsIgnoreCase(message, expected)
+                : this.paramForm(check) + " constructor ignored or mangled message (expecting \""
                         + expected + "\", got " + message + ")";
 
         assert strictness != Strictness.STRICT || expected == null || message.equals(expected)
-                : paramForm + " constructor ignored or changed message (expecting \""
+                : this.paramForm(check) + " constructor ignored or changed message (expecting \""
                         + expected + "\", got " + message + ")";
+
+        assert !this.messageIdentity || message == expected || !message.equals(expected)
+                : this.paramForm(check) + " constructor copied message instead of keeping the "
+                        + "string passed in";
+    }
+
+    /**
+     * Checks whether a message contains another, ignoring case, as weak mode requires.
+     *
+     * @param str  the message
+     * @param part the message it should contain
+     *
+     * @return {@code true} if it does, {@code false} otherwise
+     */
+    @Contract(pure = true)
+    static boolean containsIgnoreCase(final String str, final String part) {
+        for (int i = 0; i <= str.length() - part.length(); ++i) {
+            if (str.regionMatches(true, i, part, 0, part.length())) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     private void verifyRepeatableMessage(
             final @Nullable String message,
             final @Nullable String message2,
-            final String paramForm
+            final Check check
     ) {
         assert Objects.equals(message, message2)
                 : "Message changed after a second getMessage call when using the "
-                          + paramForm + " constructor (first value was \"" + message
+                          + this.paramForm(check) + " constructor (first value was \"" + message
                           + "\", second was \"" + message2 + "\")";
     }
 
     @Contract("!null, _ -> fail")
-    private void verifyEmptyCause(final @Nullable Throwable cause, final String paramForm) {
-        assert cause == null : "Passing a null cause to " + paramForm
+    private void verifyEmptyCause(final @Nullable Throwable cause, final Check check) {
+        assert cause == null : "Passing a null cause to " + this.paramForm(check)
                                        + " did not produce a null cause";
     }
 
@@ -301,17 +755,18 @@ public class ExceptionVerifier {
     private void verifyNonEmptyCause(
             final @Nullable Throwable cause,
             final @Nullable Throwable expected,
-            final String paramForm
+            final Check check
     ) {
         assert expected != null || cause == null
-                : "Passing null cause to " + paramForm + " did not produce a null cause";
+                : "Passing null cause to " + this.paramForm(check)
+                          + " did not produce a null cause";
         if (expected instanceof InvocationTargetException && this.strictness == Strictness.WEAK) {
             assert cause == expected || cause == expected.getCause()
-                    : paramForm + " constructor ignored or mangled cause "
+                    : this.paramForm(check) + " constructor ignored or mangled cause "
                     + "(expecting " + expected + ", got " + cause + ")";
         } else {
             assert cause == expected
-                    : paramForm + " constructor ignored or changed cause "
+                    : this.paramForm(check) + " constructor ignored or changed cause "
                               + "(expecting " + expected + ", got " + cause + ")";
 
         }
@@ -320,26 +775,152 @@ public class ExceptionVerifier {
     private void verifyRepeatableCause(
             final @Nullable Throwable cause,
             final @Nullable Throwable cause2,
-            final String paramForm
+            final Check check
     ) {
         assert Objects.equals(cause, cause2)
                 : "Cause changed after a second getCause call when using the "
-                + paramForm + " constructor (first value was " + cause + ", second was"
-                + cause2 + ")";
+                + this.paramForm(check) + " constructor (first value was " + cause
+                + ", second was" + cause2 + ")";
     }
 
-    private void verifyRepeatability(final Throwable t, final String paramForm) {
-        this.verifyRepeatableMessage(t.getMessage(), t.getMessage(), paramForm);
-        this.verifyRepeatableCause(t.getCause(), t.getCause(), paramForm);
+    private void verifyRepeatability(final Throwable t, final Check check) {
+        this.verifyRepeatableMessage(t.getMessage(), t.getMessage(), check);
+        this.verifyRepeatableCause(t.getCause(), t.getCause(), check);
     }
 
-    private void trapException(final Exception e, final String paramForm) {
+    /**
+     * Verifies that a constructor and the accessors of its instance stay within the allocation
+     * budget.
+     *
+     * Only the Rule of Four checks with their regular arguments are measured; the variants
+     * with null or wrapped arguments call the same constructors.
+     */
+    private void verifyAllocation(
+            final Throwable instance,
+            final Check check,
+            final AllocationMeter.Action constructor
+    ) throws Exception {
+        if (!this.measuresAllocation(check)) {
+            return;
+        }
+
+        final var meter = AllocationMeter.get();
+        final var constructed = meter.perCall(constructor);
+        assert constructed <= this.allocationBudget
+                : this.paramForm(check) + " constructor allocated " + constructed
+                        + " bytes per call, more than the budget of " + this.allocationBudget;
+
+        final var message = meter.perCall(instance::getMessage);
+        assert message <= this.allocationBudget
+                : "getMessage() allocated " + message + " bytes per call when using the "
+                        + this.paramForm(check) + " constructor, more than the budget of "
+                        + this.allocationBudget;
+
+        final var cause = meter.perCall(instance::getCause);
+        assert cause <= this.allocationBudget
+                : "getCause() allocated " + cause + " bytes per call when using the "
+                        + this.paramForm(check) + " constructor, more than the budget of "
+                        + this.allocationBudget;
+    }
+
+    /**
+     * Verifies that a constructor keeps a huge message as it is, without spending memory on it.
+     *
+     * The message is several megabytes long, so a constructor that copies, trims or reformats
+     * it allocates at least that much more than with the regular test message; so does an
+     * accessor that does. The limit is measured as the bytes of a single copy of the message,
+     * whatever its encoding. In strict mode, both may exceed what they allocate for the regular
+     * test message by no more than half a copy; in weak mode, one more copy is allowed for the
+     * text put around the message. Allocations are only measured if the JVM can.
+     *
+     * In weak mode, the message must still contain the huge message as it is, so a constructor
+     * that changes its case or trims it fails even if it copies it only once.
+     */
+    private void verifyHugeMessage(
+            final Check check,
+            final MessageConstructor constructor
+    ) throws Exception {
+        if (!this.messageIdentity) {
+            return;
+        }
+
+        final var huge = HugeMessage.VALUE;
+        final var instance = constructor.construct(huge);
+        final var message = instance.getMessage();
+        assert message == huge
+                || this.strictness == Strictness.WEAK && message != null
+                        && !message.equals(huge) && message.contains(huge)
+                : this.paramForm(check) + " constructor copied or changed a message of "
+                        + huge.length() + " characters";
+
+        if (!AllocationMeter.isSupported()) {
+            return;
+        }
+
+        final var meter = AllocationMeter.get();
+        final var copy = meter.perCall(() -> huge.concat("."));
+        final var slack = this.strictness == Strictness.WEAK ? copy + copy / 2 : copy / 2;
+        final var extra = meter.perCall(() -> constructor.construct(huge))
+                - meter.perCall(() -> constructor.construct(TEST_MESSAGE));
+        assert extra <= slack
+                : this.paramForm(check) + " constructor allocated " + extra + " more bytes per "
+                        + "call for a message of " + huge.length() + " characters than for a "
+                        + "short one, more than the " + slack + " allowed";
+
+        final var accessor = meter.perCall(instance::getMessage)
+                - meter.perCall(constructor.construct(TEST_MESSAGE)::getMessage);
+        assert accessor <= slack
+                : "getMessage() allocated " + accessor + " more bytes per call for a message of "
+                        + huge.length() + " characters when using the " + this.paramForm(check)
+                        + " constructor, more than the " + slack + " allowed";
+    }
+
+    @Contract(pure = true)
+    private boolean measuresAllocation(final Check check) {
+        return this.allocationBudget != Long.MAX_VALUE && MEASURED_CHECKS.contains(check);
+    }
+
+    /**
+     * Verifies that the accessors of the instances of a constructor stay within the accessor
+     * budget once they have been called.
+     *
+     * The first call on a new instance may take longer, as when the message is built lazily;
+     * an accessor whose later calls are over budget and no cheaper than the first recomputes
+     * its result every time, and is reported as such.
+     */
+    private void verifyAccessorCost(
+            final Check check,
+            final AllocationMeter.Action constructor
+    ) throws Exception {
+        if (!this.measuresAccessors(check)) {
+            return;
+        }
+
+        for (final var accessor : ACCESSORS) {
+            final var timing = AccessorTimer.INSTANCE.time(constructor, accessor.method);
+            assert timing.getRepeatedCall() <= this.accessorBudget
+                    : accessor.name + " took " + timing.getRepeatedCall() + " ns per call when "
+                            + "using the " + this.paramForm(check) + " constructor, more than "
+                            + "the budget of " + this.accessorBudget + " ns"
+                            + (timing.isRecomputed()
+                                    ? "; its result is computed again on every call"
+                                    : "");
+        }
+    }
+
+    @Contract(pure = true)
+    private boolean measuresAccessors(final Check check) {
+        return this.accessorBudget != Long.MAX_VALUE && MEASURED_CHECKS.contains(check);
+    }
+
+    private void trapException(final Exception e, final Check check) {
+        final var paramForm = this.paramForm(check);
         try {
             throw e;
         } catch (final NoSuchMethodException ex) {
-            throw new AssertionError("Missing " + paramForm + " constructor");
+            throw new AssertionError(missingConstructorMessage(paramForm));
         } catch (final IllegalAccessException ex) {
-            throw new AssertionError(paramForm + " constructor is not accessible");
+            throw new AssertionError(paramForm + " constructor is not accessible", ex);
         } catch (final InstantiationException ex) {
             throw new AssertionError(paramForm + " constructor is not instantiable", ex);
         } catch (final InvocationTargetException ex) {
@@ -349,10 +930,287 @@ public class ExceptionVerifier {
         }
     }
 
+    /**
+     * A constructor that takes a message, with its other arguments fixed.
+     */
+    @FunctionalInterface
+    private interface MessageConstructor {
+        @Nonnull
+        Throwable construct(@Nullable String message) throws ReflectiveOperationException;
+    }
+
+    /**
+     * An accessor of exception instances, with the name it is reported by.
+     */
+    private static final class Accessor {
+        private final String name;
+        private final Function<Throwable, Object> method;
+
+        @Contract(pure = true)
+        private Accessor(final String name, final Function<Throwable, Object> method) {
+            this.name = name;
+            this.method = method;
+        }
+    }
+
+    /**
+     * Holds the huge test message, which is only built once a check needs it.
+     */
+    private static final class HugeMessage {
+        private static final String VALUE = TEST_MESSAGE.repeat(HUGE_MESSAGE_REPEATS);
+    }
+
+    /**
+     * The thread a timed check runs on, for as long as it runs.
+     *
+     * The fields are guarded by the attempt itself, so that abandoning the check can never
+     * interrupt an unrelated task that the executor runs on the same thread afterwards.
+     */
+    private static final class Attempt {
+        private @Nullable Thread thread = null;
+        private boolean constructorDeadline = false;
+        private boolean interrupted = false;
+
+        /**
+         * Marks the check as finished, clearing any interrupt meant for it.
+         */
+        private synchronized void finish() {
+            this.thread = null;
+            if (this.interrupted) {
+                Thread.interrupted();
+            }
+        }
+
+        /**
+         * Interrupts the check if it is still running.
+         *
+         * @param stuck the exception to record the stack trace of the check in
+         *
+         * @return {@code true} if the check ran into the constructor timeout, {@code false} if
+         *         it ran into the class deadline
+         */
+        private synchronized boolean abandon(final Throwable stuck) {
+            if (this.thread != null) {
+                stuck.setStackTrace(this.thread.getStackTrace());
+                this.thread.interrupt();
+                this.interrupted = true;
+            }
+
+            return this.constructorDeadline;
+        }
+    }
+
+    /**
+     * The independent constructor checks, in the order they are run and reported.
+     */
+    public enum Check {
+        /**
+         * Verifies the default constructor.
+         */
+        DEFAULT(DEFAULT_PARAM_FORM, null, false, ExceptionVerifier::verifyDefault),
+
+        /**
+         * Verifies the message-only constructor.
+         */
+        MESSAGE_ONLY(STRING_PARAM_FORM, null, false, ExceptionVerifier::verifyMessageOnly),
+
+        /**
+         * Verifies the message-only constructor with a null message. Strict mode only.
+         */
+        NULLABLE_MESSAGE_ONLY(
+                NULL_STRING_PARAM_FORM, null, true, ExceptionVerifier::verifyNullableMessageOnly
+        ),
+
+        /**
+         * Verifies the cause-only constructor.
+         */
+        CAUSE_ONLY("(", " cause)", false, ExceptionVerifier::verifyCauseOnly),
+
+        /**
+         * Verifies the cause-only constructor with an {@link InvocationTargetException} cause.
+         */
+        NESTED_INVOCATION_TARGET_EXCEPTION_ONLY(
+                "(", " cause = InvocationTargetException)", false,
+                ExceptionVerifier::verifyNestedInvocationTargetExceptionOnly
+        ),
+
+        /**
+         * Verifies the cause-only constructor with a null cause. Strict mode only.
+         */
+        NULLABLE_CAUSE_ONLY(
+                "(", " cause = null)", true, ExceptionVerifier::verifyNullableCauseOnly
+        ),
+
+        /**
+         * Verifies the message-and-cause constructor.
+         */
+        FULL("(String message, ", " cause)", false, ExceptionVerifier::verifyFull),
+
+        /**
+         * Verifies the message-and-cause constructor with an {@link InvocationTargetException}
+         * cause.
+         */
+        FULL_WITH_INVOCATION_TARGET_EXCEPTION_CAUSE(
+                "(String message, ", " cause = InvocationTargetException)", false,
+                ExceptionVerifier::verifyFullWithInvocationTargetExceptionCause
+        ),
+
+        /**
+         * Verifies the message-and-cause constructor with a null message. Strict mode only.
+         */
+        FULL_WITH_NULL_MESSAGE(
+                "(String message = null, ", " cause)", true,
+                ExceptionVerifier::verifyFullWithNullMessage
+        ),
+
+        /**
+         * Verifies the message-and-cause constructor with a null cause. Strict mode only.
+         */
+        FULL_WITH_NULL_CAUSE(
+                "(String message, ", " cause = null)", true,
+                ExceptionVerifier::verifyFullWithNullCause
+        ),
+
+        /**
+         * Verifies the message-and-cause constructor with a null message and cause. Strict mode
+         * only.
+         */
+        FULL_WITH_NULL_EVERYTHING(
+                "(String message = null, ", " cause = null)", true,
+                ExceptionVerifier::verifyFullWithNullEverything
+        ),
+
+        /**
+         * Verifies the lightweight constructor with suppression disabled. Only run if enabled
+         * with {@link ExceptionVerifierBuilder#withLightweightConstructor(boolean)}.
+         */
+        LIGHTWEIGHT_WITHOUT_SUPPRESSION(
+                "(String message, ",
+                " cause, boolean enableSuppression = false, boolean writableStackTrace = true)",
+                false, true, ExceptionVerifier::verifyLightweightWithoutSuppression
+        ),
+
+        /**
+         * Verifies the lightweight constructor with the stack trace disabled. Only run if
+         * enabled with {@link ExceptionVerifierBuilder#withLightweightConstructor(boolean)}.
+         */
+        LIGHTWEIGHT_WITHOUT_STACK_TRACE(
+                "(String message, ",
+                " cause, boolean enableSuppression = true, boolean writableStackTrace = false)",
+                false, true, ExceptionVerifier::verifyLightweightWithoutStackTrace
+        );
+
+        private final String paramFormPrefix;
+        private final @Nullable String paramFormSuffix;
+        private final boolean strictOnly;
+        private final boolean optional;
+        private final Consumer<ExceptionVerifier> runner;
+
+        Check(
+                final String paramFormPrefix,
+                final @Nullable String paramFormSuffix,
+                final boolean strictOnly,
+                final Consumer<ExceptionVerifier> runner
+        ) {
+            this(paramFormPrefix, paramFormSuffix, strictOnly, false, runner);
+        }
+
+        Check(
+                final String paramFormPrefix,
+                final @Nullable String paramFormSuffix,
+                final boolean strictOnly,
+                final boolean optional,
+                final Consumer<ExceptionVerifier> runner
+        ) {
+            this.paramFormPrefix = paramFormPrefix;
+            this.paramFormSuffix = paramFormSuffix;
+            this.strictOnly = strictOnly;
+            this.optional = optional;
+            this.runner = runner;
+        }
+
+        /**
+         * Checks whether this check is run at the given strictness.
+         *
+         * @param strictness the strictness
+         *
+         * @return {@code true} if the check is run, {@code false} if it is skipped
+         */
+        @Contract(pure = true)
+        public boolean isApplicable(final Strictness strictness) {
+            return !this.strictOnly || strictness == Strictness.STRICT;
+        }
+
+        /**
+         * Checks whether this check is only run when enabled explicitly.
+         *
+         * @return {@code true} if the check is optional, {@code false} if it always runs
+         */
+        @Contract(pure = true)
+        public boolean isOptional() {
+            return this.optional;
+        }
+
+        /**
+         * Checks whether this check is run with the given settings.
+         *
+         * @param strictness  the strictness
+         * @param lightweight whether the lightweight constructor is verified
+         *
+         * @return {@code true} if the check is run, {@code false} if it is skipped
+         */
+        @Contract(pure = true)
+        boolean isApplicable(final Strictness strictness, final boolean lightweight) {
+            return this.isApplicable(strictness) && (!this.optional || lightweight);
+        }
+
+        /**
+         * Returns the parameter form of the constructor call this check makes.
+         *
+         * @param causeType the cause type the check is run with
+         *
+         * @return the parameter form, such as {@code (String message, Throwable cause)}
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public String getParamForm(final Class<? extends Throwable> causeType) {
+            if (this.paramFormSuffix == null) {
+                return this.paramFormPrefix;
+            }
+
+            return this.paramFormPrefix + causeType.getSimpleName() + this.paramFormSuffix;
+        }
+
+        private void run(final ExceptionVerifier verifier) {
+            if (!this.isApplicable(verifier.strictness, verifier.lightweight)) {
+                return;
+            }
+
+            final var verdict = verifier.analysis != null
+                    ? verifier.analysis.getVerdict(this)
+                    : BytecodeAnalyzer.Verdict.UNDECIDED;
+            if (verdict == BytecodeAnalyzer.Verdict.MISSING) {
+                verifier.trapException(new NoSuchMethodException(), this);
+            } else if (verdict == BytecodeAnalyzer.Verdict.UNDECIDED
+                    || verifier.measuresAllocation(this) || verifier.measuresAccessors(this)) {
+                this.runner.accept(verifier);
+            }
+        }
+    }
+
     public static final class ExceptionVerifierBuilder {
         private final Class<? extends Throwable> exception;
         private Class<? extends Throwable> causeType = Throwable.class;
         private Strictness strictness = Strictness.STRICT;
+        private boolean lightweight = false;
+        private long allocationBudget = Long.MAX_VALUE;
+        private boolean messageIdentity = false;
+        private long accessorBudget = Long.MAX_VALUE;
+        private @Nullable Executor executor = null;
+        private Engine engine = Engine.REFLECTION;
+        private @Nullable BytecodeAnalyzer.Analysis analysis = null;
+        private long constructorTimeout = Long.MAX_VALUE;
+        private long classTimeout = Long.MAX_VALUE;
 
         @Contract(pure = true)
         private ExceptionVerifierBuilder(final Class<? extends Throwable> exception) {
@@ -389,12 +1247,485 @@ public class ExceptionVerifier {
             return this;
         }
 
+        /**
+         * Sets whether the lightweight constructor is verified as well.
+         *
+         * The lightweight constructor takes a message, a cause and the {@code
+         * enableSuppression} and {@code writableStackTrace} flags of {@link
+         * Throwable#Throwable(String, Throwable, boolean, boolean)}, and may be protected. It is
+         * called with each flag disabled in turn: with suppression disabled, {@link
+         * Throwable#addSuppressed(Throwable)} must not record anything, and with the stack
+         * trace disabled, no stack trace may be captured. In strict mode, the enabled flag must
+         * take effect too. The message and cause are verified like those of the
+         * message-and-cause constructor. Off by default.
+         *
+         * @param lightweight whether to verify the lightweight constructor
+         *
+         * @return the builder
+         */
+        @Contract("_ -> this")
+        public ExceptionVerifierBuilder withLightweightConstructor(final boolean lightweight) {
+            this.lightweight = lightweight;
+            return this;
+        }
+
+        /**
+         * Fails constructors that allocate more than the given number of bytes per call.
+         *
+         * The default, message-only, cause-only and message-and-cause constructors are measured
+         * on the thread that checks them, and so are {@link Throwable#getMessage()} and {@link
+         * Throwable#getCause()} of the instances they create. The bytes of a constructor include
+         * the exception itself and its stack trace, which grows with the depth of the calling
+         * stack; a plain {@link RuntimeException} takes a few hundred bytes. The accessors
+         * usually allocate nothing. Off by default.
+         *
+         * With the {@linkplain Engine#BYTECODE bytecode engine}, the measured constructors are
+         * always called.
+         *
+         * @param bytes the bytes each call may allocate
+         *
+         * @return the builder
+         *
+         * @throws IllegalArgumentException      if the budget is negative
+         * @throws UnsupportedOperationException if the JVM cannot measure the bytes a thread
+         *                                       allocates
+         */
+        @Contract("_ -> this")
+        public ExceptionVerifierBuilder withAllocationBudget(final long bytes) {
+            if (bytes < 0) {
+                throw new IllegalArgumentException("Allocation budget must not be negative");
+            }
+
+            AllocationMeter.get();
+            this.allocationBudget = bytes;
+            return this;
+        }
+
+        /**
+         * Fails exceptions whose accessors take longer than the given time per call.
+         *
+         * {@link Throwable#getMessage()}, {@link Throwable#getLocalizedMessage()}, {@link
+         * Throwable#toString()} and {@link Throwable#getCause()} are timed on instances of the
+         * default, message-only, cause-only and message-and-cause constructors, on the thread
+         * that checks them. Loggers call them over and over, so the budget applies to every
+         * call after the first: an exception that builds its message lazily may take longer on
+         * the first call, as long as it keeps the result. A failure says whether the accessor
+         * was as slow after the first call as on it, which means it does not keep its result.
+         * Off by default.
+         *
+         * Timings come from the running JVM, so a budget should leave a wide margin; a plain
+         * {@link RuntimeException} takes tens of nanoseconds for {@link Throwable#getMessage()}
+         * and a few hundred for {@link Throwable#toString()}. With the {@linkplain
+         * Engine#BYTECODE bytecode engine}, the timed constructors are always called.
+         *
+         * @param budget the time each call may take
+         *
+         * @return the builder
+         *
+         * @throws IllegalArgumentException if the budget is negative
+         */
+        @Contract("_ -> this")
+        public ExceptionVerifierBuilder withAccessorBudget(final Duration budget) {
+            if (budget.isNegative()) {
+                throw new IllegalArgumentException("Accessor budget must not be negative");
+            }
+
+            try {
+                this.accessorBudget = budget.toNanos();
+            } catch (final ArithmeticException ex) {
+                this.accessorBudget = Long.MAX_VALUE;
+            }
+
+            return this;
+        }
+
+        /**
+         * Sets whether messages must be kept as the very string passed to the constructor.
+         *
+         * The message-only and message-and-cause constructors are called with the regular test
+         * message and with a message of several megabytes. Their instances must return an
+         * identical string from {@link Throwable#getMessage()}, not an equal copy; in weak mode,
+         * a message with text around it still passes. With the huge message, neither the
+         * constructor nor {@link Throwable#getMessage()} may allocate more than half a copy of
+         * it beyond what they allocate for a short message, or one and a half copies in weak
+         * mode, which is only measured if the JVM can measure the bytes a thread allocates.
+         * This catches exceptions that copy, trim, change the case of or reformat large
+         * messages, such as payload excerpts. Off by default.
+         *
+         * With the {@linkplain Engine#BYTECODE bytecode engine}, constructors that only pass
+         * the message on to {@link Throwable} pass without being called.
+         *
+         * @param messageIdentity whether to verify that messages are kept as they are
+         *
+         * @return the builder
+         */
+        @Contract("_ -> this")
+        public ExceptionVerifierBuilder withMessageIdentity(final boolean messageIdentity) {
+            this.messageIdentity = messageIdentity;
+            return this;
+        }
+
+        /**
+         * Runs the constructor checks concurrently on the given executor.
+         *
+         * By default, all checks run one after another on the calling thread. This is worth
+         * changing only for exception classes with slow constructors.
+         *
+         * Failures are reported the same way regardless of scheduling: the error of the first
+         * failing check is thrown, with the errors of any later failing checks attached as
+         * suppressed exceptions.
+         *
+         * @param executor the executor to run the checks on
+         *
+         * @return the builder
+         */
+        @Contract("_ -> this")
+        public ExceptionVerifierBuilder withExecutor(final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the engine that runs the checks.
+         *
+         * See {@link Engine#BYTECODE} for the trade-offs.
+         *
+         * @param engine the engine
+         *
+         * @return the builder
+         */
+        @Contract("_ -> this")
+        public ExceptionVerifierBuilder withEngine(final Engine engine) {
+            this.engine = engine;
+            return this;
+        }
+
+        /**
+         * Abandons every check that does not finish within the given time.
+         *
+         * Each check calls one constructor of the class and inspects the result. With a
+         * timeout, the checks no longer run on the calling thread: they run one after another
+         * on the {@linkplain #withExecutor(Executor) executor}, or else each on a new daemon
+         * thread. A check that runs out of time is interrupted, left behind and reported as a
+         * {@linkplain VerificationReport.Failure.Kind#TIMEOUT timeout}, so a constructor that
+         * blocks or loops forever cannot hang verification.
+         *
+         * A virtual thread executor only helps with constructors that block: a virtual thread
+         * that loops forever keeps its carrier thread, and enough of them stall the JVM.
+         *
+         * @param timeout the time each check may take
+         *
+         * @return the builder
+         */
+        @Contract("_ -> this")
+        public ExceptionVerifierBuilder withConstructorTimeout(final Duration timeout) {
+            this.constructorTimeout = toTimeout(timeout);
+            return this;
+        }
+
+        /**
+         * Stops verifying the class once all checks together have taken the given time.
+         *
+         * The check that is running when the deadline passes is abandoned and reported as a
+         * {@linkplain VerificationReport.Failure.Kind#TIMEOUT timeout}; the remaining checks
+         * are not run, and are reported as timeouts as well. Checks run as described in
+         * {@link #withConstructorTimeout(Duration)}.
+         *
+         * @param timeout the time verification of the class may take
+         *
+         * @return the builder
+         */
+        @Contract("_ -> this")
+        public ExceptionVerifierBuilder withClassTimeout(final Duration timeout) {
+            this.classTimeout = toTimeout(timeout);
+            return this;
+        }
+
+        /**
+         * Uses an existing bytecode analysis of the class instead of analyzing it again.
+         *
+         * @param analysis the analysis, made with the same cause type
+         *
+         * @return the builder
+         */
+        @Contract("_ -> this")
+        ExceptionVerifierBuilder withAnalysis(final BytecodeAnalyzer.Analysis analysis) {
+            this.engine = Engine.BYTECODE;
+            this.analysis = analysis;
+            return this;
+        }
+
         /**
          * Runs verification.
+         *
+         * Verification stops at the first failing check.
          */
         public void verify() {
-            new ExceptionVerifier(this.exception, this.causeType, strictness).verify();
+            final var verifier = new ExceptionVerifier(
+                    this.exception, this.causeType, this.strictness, this.lightweight,
+                    this.allocationBudget, this.messageIdentity, this.accessorBudget, false,
+                    this.analyze()
+            );
+            if (this.isTimed()) {
+                verifier.verifyTimed(
+                        this.executor != null ? this.executor : VerifierThreads.INSTANCE,
+                        this.constructorTimeout, this.classTimeout
+                );
+            } else if (this.executor == null) {
+                verifier.verify();
+            } else {
+                verifier.verify(this.executor);
+            }
         }
+
+        /**
+         * Runs verification and reports all failing checks instead of only the first one.
+         *
+         * In weak mode, the warnings that {@link #verify()} would log are collected in the
+         * report instead.
+         *
+         * @return the report
+         */
+        @Nonnull
+        public VerificationReport report() {
+            final var verifier = new ExceptionVerifier(
+                    this.exception, this.causeType, this.strictness, this.lightweight,
+                    this.allocationBudget, this.messageIdentity, this.accessorBudget, true,
+                    this.analyze()
+            );
+            if (this.isTimed()) {
+                return join(verifier.reportTimed(
+                        this.executor != null ? this.executor : VerifierThreads.INSTANCE,
+                        this.constructorTimeout, this.classTimeout
+                ));
+            }
+
+            return verifier.report(this.executor);
+        }
+
+        /**
+         * Runs verification in the background and reports all failing checks.
+         *
+         * The checks run one after another on the given executor, each as a task of its own;
+         * no thread waits for another while the class is verified. With a {@linkplain
+         * #withConstructorTimeout(Duration) timeout}, a check that runs out of time is
+         * abandoned and the next one is started, but the executor thread of the abandoned
+         * check stays busy until its constructor returns. Use an executor that starts a new
+         * thread for every task if constructors may never return.
+         *
+         * The executor set with {@link #withExecutor(Executor)} is not used.
+         *
+         * @param executor the executor to run the checks on
+         *
+         * @return the report, completed exceptionally if a check threw an error other than a
+         *         failed assertion
+         */
+        @Nonnull
+        public CompletableFuture<VerificationReport> verifyAsync(final Executor executor) {
+            final BytecodeAnalyzer.Analysis analysis;
+            try {
+                analysis = this.analyze();
+            } catch (final RuntimeException ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+
+            return new ExceptionVerifier(
+                    this.exception, this.causeType, this.strictness, this.lightweight,
+                    this.allocationBudget, this.messageIdentity, this.accessorBudget, true,
+                    analysis
+            ).reportTimed(executor, this.constructorTimeout, this.classTimeout);
+        }
+
+        /**
+         * Compiles the settings of this builder into a verifier that can be applied to any
+         * exception class.
+         *
+         * The class this builder was created for is not verified; pass it to the compiled
+         * verifier like any other.
+         *
+         * @return the compiled verifier
+         */
+        @Contract(value = "-> new", pure = true)
+        @Nonnull
+        public CompiledVerifier compile() {
+            return new CompiledVerifier(
+                    this.causeType, this.strictness, this.lightweight, this.allocationBudget,
+                    this.messageIdentity, this.accessorBudget, this.engine, this.executor,
+                    this.constructorTimeout, this.classTimeout
+            );
+        }
+
+        @Contract(pure = true)
+        private boolean isTimed() {
+            return this.constructorTimeout != Long.MAX_VALUE || this.classTimeout != Long.MAX_VALUE;
+        }
+
+        private static long toTimeout(final Duration timeout) {
+            if (timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("Timeout must be positive");
+            }
+
+            try {
+                return timeout.toNanos();
+            } catch (final ArithmeticException ex) {
+                return Long.MAX_VALUE;
+            }
+        }
+
+        @Nullable
+        private BytecodeAnalyzer.Analysis analyze() {
+            if (this.engine != Engine.BYTECODE || this.analysis != null) {
+                return this.analysis;
+            }
+
+            return ExceptionVerifier.analyze(this.exception, this.causeType);
+        }
+    }
+
+    /**
+     * A verifier with fixed settings that can be applied to many exception classes.
+     *
+     * Compiled verifiers are immutable and may be shared between threads. Everything that does
+     * not depend on the outcome of a check, such as the resolved constructors and the bytecode
+     * analysis, is prepared once per exception class and kept for as long as the class is
+     * loaded. Verifying a compliant class sequentially allocates nothing beyond the exception
+     * instances under test; failure messages are only built once a check fails.
+     */
+    public static final class CompiledVerifier {
+        private final Class<? extends Throwable> causeType;
+        private final Strictness strictness;
+        private final boolean lightweight;
+        private final long allocationBudget;
+        private final boolean messageIdentity;
+        private final long accessorBudget;
+        private final Engine engine;
+        private final @Nullable Executor executor;
+        private final long constructorTimeout;
+        private final long classTimeout;
+        private final ClassValue<ExceptionVerifier> verifiers = new ClassValue<>() {
+            @Override
+            protected ExceptionVerifier computeValue(final Class<?> type) {
+                final var exception = type.asSubclass(Throwable.class);
+                return new ExceptionVerifier(
+                        exception, CompiledVerifier.this.causeType,
+                        CompiledVerifier.this.strictness, CompiledVerifier.this.lightweight,
+                        CompiledVerifier.this.allocationBudget,
+                        CompiledVerifier.this.messageIdentity,
+                        CompiledVerifier.this.accessorBudget, false,
+                        CompiledVerifier.this.analyze(exception)
+                );
+            }
+        };
+
+        @Contract(pure = true)
+        private CompiledVerifier(
+                final Class<? extends Throwable> causeType,
+                final Strictness strictness,
+                final boolean lightweight,
+                final long allocationBudget,
+                final boolean messageIdentity,
+                final long accessorBudget,
+                final Engine engine,
+                final @Nullable Executor executor,
+                final long constructorTimeout,
+                final long classTimeout
+        ) {
+            this.causeType = causeType;
+            this.strictness = strictness;
+            this.lightweight = lightweight;
+            this.allocationBudget = allocationBudget;
+            this.messageIdentity = messageIdentity;
+            this.accessorBudget = accessorBudget;
+            this.engine = engine;
+            this.executor = executor;
+            this.constructorTimeout = constructorTimeout;
+            this.classTimeout = classTimeout;
+        }
+
+        /**
+         * Verifies an exception class.
+         *
+         * Verification stops at the first failing check.
+         *
+         * @param type the class to verify
+         */
+        public void verify(final Class<? extends Throwable> type) {
+            final var verifier = this.verifiers.get(type);
+            if (this.isTimed()) {
+                verifier.verifyTimed(
+                        this.executor != null ? this.executor : VerifierThreads.INSTANCE,
+                        this.constructorTimeout, this.classTimeout
+                );
+            } else if (this.executor == null) {
+                verifier.verify();
+            } else {
+                verifier.verify(this.executor);
+            }
+        }
+
+        /**
+         * Verifies an exception class and reports all failing checks instead of only the first
+         * one.
+         *
+         * @param type the class to verify
+         *
+         * @return the report
+         */
+        @Nonnull
+        public VerificationReport report(final Class<? extends Throwable> type) {
+            final var analysis = this.verifiers.get(type).analysis;
+            final var verifier = new ExceptionVerifier(
+                    type, this.causeType, this.strictness, this.lightweight,
+                    this.allocationBudget, this.messageIdentity, this.accessorBudget, true,
+                    analysis
+            );
+            if (this.isTimed()) {
+                return join(verifier.reportTimed(
+                        this.executor != null ? this.executor : VerifierThreads.INSTANCE,
+                        this.constructorTimeout, this.classTimeout
+                ));
+            }
+
+            return verifier.report(this.executor);
+        }
+
+        @Contract(pure = true)
+        private boolean isTimed() {
+            return this.constructorTimeout != Long.MAX_VALUE || this.classTimeout != Long.MAX_VALUE;
+        }
+
+        @Nullable
+        private BytecodeAnalyzer.Analysis analyze(final Class<? extends Throwable> type) {
+            return this.engine == Engine.BYTECODE
+                    ? ExceptionVerifier.analyze(type, this.causeType)
+                    : null;
+        }
+    }
+
+    /**
+     * The way the constructor checks are run.
+     */
+    public enum Engine {
+        /**
+         * Every check instantiates the exception class through its constructors.
+         */
+        REFLECTION,
+
+        /**
+         * Checks are first decided from the class file of the exception class, falling back to
+         * reflection for those that cannot be decided.
+         *
+         * A constructor that only passes its parameters on to the matching constructor of its
+         * superclass, all the way up to {@link Throwable}, passes without being called; a missing
+         * constructor fails without loading anything. Failures are reported exactly as with
+         * {@link #REFLECTION}. Constructors with a body of their own, and classes that override
+         * {@link Throwable#getMessage()}, {@link Throwable#getCause()} or
+         * {@link Throwable#fillInStackTrace()}, are verified reflectively.
+         *
+         * When verifying many classes, those whose checks are all decided are never loaded, so
+         * their static initializers do not run.
+         */
+        BYTECODE
     }
 
     /**
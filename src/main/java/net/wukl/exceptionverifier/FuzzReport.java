@@ -0,0 +1,300 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of fuzzing the constructors of a single exception class.
+ *
+ * @see ConstructorFuzzer
+ */
+public final class FuzzReport {
+    private final String exceptionType;
+    private final ExceptionVerifier.Strictness strictness;
+    private final long seed;
+    private final long executions;
+    private final long failedExecutions;
+    private final long elapsedNanos;
+    private final List<Failure> failures;
+
+    @Contract(pure = true)
+    FuzzReport(
+            final String exceptionType,
+            final ExceptionVerifier.Strictness strictness,
+            final long seed,
+            final long executions,
+            final long failedExecutions,
+            final long elapsedNanos,
+            final List<Failure> failures
+    ) {
+        this.exceptionType = exceptionType;
+        this.strictness = strictness;
+        this.seed = seed;
+        this.executions = executions;
+        this.failedExecutions = failedExecutions;
+        this.elapsedNanos = elapsedNanos;
+        this.failures = Collections.unmodifiableList(failures);
+    }
+
+    /**
+     * Returns the name of the fuzzed exception class.
+     *
+     * @return the binary class name
+     */
+    @Contract(pure = true)
+    @Nonnull
+    public String getExceptionType() {
+        return this.exceptionType;
+    }
+
+    /**
+     * Returns the strictness the exception class was fuzzed with.
+     *
+     * @return the strictness
+     */
+    @Contract(pure = true)
+    @Nonnull
+    public ExceptionVerifier.Strictness getStrictness() {
+        return this.strictness;
+    }
+
+    /**
+     * Returns the seed the inputs of the run were derived from.
+     *
+     * Fuzzing again with the same seed, settings and iteration budget generates the same
+     * inputs.
+     *
+     * @return the seed of the run
+     */
+    @Contract(pure = true)
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Returns the number of constructor calls that were made and checked.
+     *
+     * @return the number of executions
+     */
+    @Contract(pure = true)
+    public long getExecutions() {
+        return this.executions;
+    }
+
+    /**
+     * Returns the number of executions that failed, including those of failures that are not
+     * reported separately.
+     *
+     * @return the number of failed executions
+     */
+    @Contract(pure = true)
+    public long getFailedExecutions() {
+        return this.failedExecutions;
+    }
+
+    /**
+     * Returns the time the run took.
+     *
+     * @return the wall-clock time from the start of the first thread to the end of the last
+     */
+    @Contract(pure = true)
+    @Nonnull
+    public Duration getElapsed() {
+        return Duration.ofNanos(this.elapsedNanos);
+    }
+
+    /**
+     * Returns the throughput of the run, over all threads together.
+     *
+     * @return the number of executions per second
+     */
+    @Contract(pure = true)
+    public double getExecutionsPerSecond() {
+        return this.elapsedNanos == 0 ? 0 : this.executions * 1e9 / this.elapsedNanos;
+    }
+
+    /**
+     * Returns the failures, one per constructor check that failed.
+     *
+     * Of all executions that failed the same check, the one that came first in the order of
+     * the inputs is reported, so the report does not depend on thread scheduling.
+     *
+     * @return the failures, in check order
+     */
+    @Contract(pure = true)
+    @Nonnull
+    public List<Failure> getFailures() {
+        return this.failures;
+    }
+
+    /**
+     * Checks whether every execution passed.
+     *
+     * @return {@code true} if no execution failed, {@code false} otherwise
+     */
+    @Contract(pure = true)
+    public boolean isSuccessful() {
+        return this.failures.isEmpty();
+    }
+
+    /**
+     * Throws if any execution failed.
+     *
+     * The thrown error lists every failure with the seed to replay it with; the causes of the
+     * failures, if any, are attached to it as suppressed exceptions.
+     *
+     * @throws AssertionError if any execution failed
+     */
+    public void assertSuccessful() {
+        if (this.isSuccessful()) {
+            return;
+        }
+
+        final var message = new StringBuilder();
+        message.append(this.exceptionType).append(" failed ").append(this.failedExecutions)
+                .append(" of ").append(this.executions).append(" fuzzed executions:");
+        for (final var failure : this.failures) {
+            message.append("\n    ").append(failure);
+        }
+
+        final var error = new AssertionError(message.toString());
+        for (final var failure : this.failures) {
+            if (failure.getCause() != null) {
+                error.addSuppressed(failure.getCause());
+            }
+        }
+
+        throw error;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s: %d executions in %d ms (%.0f per second), %d failed",
+                this.exceptionType, this.executions, this.getElapsed().toMillis(),
+                this.getExecutionsPerSecond(), this.failedExecutions
+        );
+    }
+
+    /**
+     * A failed execution.
+     */
+    public static final class Failure {
+        private final ExceptionVerifier.Check check;
+        private final String paramForm;
+        private final long seed;
+        private final String input;
+        private final String message;
+        private final @Nullable Throwable cause;
+        private final VerificationReport.Failure.Kind kind;
+
+        @Contract(pure = true)
+        Failure(
+                final ExceptionVerifier.Check check,
+                final String paramForm,
+                final long seed,
+                final String input,
+                final String message,
+                final @Nullable Throwable cause,
+                final VerificationReport.Failure.Kind kind
+        ) {
+            this.check = check;
+            this.paramForm = paramForm;
+            this.seed = seed;
+            this.input = input;
+            this.message = message;
+            this.cause = cause;
+            this.kind = kind;
+        }
+
+        /**
+         * Returns the check whose constructor was called.
+         *
+         * @return the check
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public ExceptionVerifier.Check getCheck() {
+            return this.check;
+        }
+
+        /**
+         * Returns the parameter form of the constructor that failed.
+         *
+         * @return the parameter form, such as {@code (String message)}
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public String getParamForm() {
+            return this.paramForm;
+        }
+
+        /**
+         * Returns the seed of the failed execution.
+         *
+         * @return the seed to pass to {@link
+         *         ConstructorFuzzer.ConstructorFuzzerBuilder#replay(long)}
+         */
+        @Contract(pure = true)
+        public long getSeed() {
+            return this.seed;
+        }
+
+        /**
+         * Describes the arguments the constructor was called with.
+         *
+         * Long messages are abbreviated and characters that are not printable are escaped.
+         *
+         * @return the description
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public String getInput() {
+            return this.input;
+        }
+
+        /**
+         * Returns a description of the failure.
+         *
+         * @return the description
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public String getMessage() {
+            return this.message;
+        }
+
+        /**
+         * Returns the exception that caused the failure, such as the exception a constructor
+         * threw.
+         *
+         * @return the cause, or {@code null} if the execution failed on its own
+         */
+        @Contract(pure = true)
+        @Nullable
+        public Throwable getCause() {
+            return this.cause;
+        }
+
+        /**
+         * Returns the kind of failure.
+         *
+         * @return the kind
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public VerificationReport.Failure.Kind getKind() {
+            return this.kind;
+        }
+
+        @Override
+        public String toString() {
+            return this.message + " with " + this.input + " (seed " + this.seed + ")";
+        }
+    }
+}
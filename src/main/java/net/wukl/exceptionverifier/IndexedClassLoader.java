@@ -0,0 +1,78 @@
+package net.wukl.exceptionverifier;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.security.ProtectionDomain;
+
+/**
+ * A class loader over class path roots that also loads the classes the roots hide from a plain
+ * {@link URLClassLoader}: those in nested jars and those stored under a prefix.
+ *
+ * Hidden classes are defined straight from the class files the index reads, which are slices
+ * of the memory-mapped jar if they are stored uncompressed.
+ */
+final class IndexedClassLoader extends URLClassLoader {
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final ClassIndex index;
+
+    IndexedClassLoader(final URL[] roots, final ClassLoader parent, final ClassIndex index) {
+        super(roots, parent);
+        this.index = index;
+    }
+
+    @Override
+    protected Class<?> findClass(final String name) throws ClassNotFoundException {
+        try {
+            return super.findClass(name);
+        } catch (final ClassNotFoundException ex) {
+            final var contents = this.readHidden(name, ex);
+            return this.defineClass(name, contents, (ProtectionDomain) null);
+        }
+    }
+
+    @Override
+    public InputStream getResourceAsStream(final String name) {
+        final var in = super.getResourceAsStream(name);
+        if (in != null || !name.endsWith(".class") || name.startsWith("/")) {
+            return in;
+        }
+
+        try {
+            final var contents = this.index.readHidden(ClassScanner.toClassName(name));
+            if (contents == null) {
+                return null;
+            }
+
+            final var bytes = new byte[contents.remaining()];
+            contents.get(bytes);
+            return new ByteArrayInputStream(bytes);
+        } catch (final IOException ex) {
+            return null;
+        }
+    }
+
+    @Nonnull
+    private ByteBuffer readHidden(final String name, final ClassNotFoundException missing)
+            throws ClassNotFoundException {
+        final ByteBuffer contents;
+        try {
+            contents = this.index.readHidden(name);
+        } catch (final IOException ex) {
+            throw new ClassNotFoundException(name, ex);
+        }
+
+        if (contents == null) {
+            throw missing;
+        }
+
+        return contents;
+    }
+}
@@ -0,0 +1,239 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+
+import javax.annotation.Nonnull;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes verification reports as a JUnit XML report, as read by CI servers.
+ *
+ * Every exception class becomes a {@code <testsuite>} of its own, with a {@code <testcase>} for
+ * every check that applies at its strictness. A failed check has a {@code <failure>}, or an
+ * {@code <error>} if it timed out, carrying the same message the verifier would have thrown and
+ * the stack trace of the cause. Weak-mode warnings go to the {@code <system-out>} of the suite.
+ *
+ * Each suite is flushed once it is written, so the report on disk is complete up to the last
+ * verified class even if the run is cut short.
+ */
+public final class JUnitXmlReportWriter implements ReportWriter {
+    private final OutputStream out;
+    private final XMLStreamWriter xml;
+    private boolean closed = false;
+
+    /**
+     * Starts a report.
+     *
+     * @param out the stream to write to, which is closed with the writer
+     *
+     * @throws IOException if the start of the report could not be written
+     */
+    public JUnitXmlReportWriter(final OutputStream out) throws IOException {
+        this.out = out;
+        try {
+            this.xml = XMLOutputFactory.newFactory()
+                    .createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+            this.xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            this.xml.writeCharacters("\n");
+            this.xml.writeStartElement("testsuites");
+            this.xml.writeAttribute("name", "ExceptionVerifier");
+            this.xml.writeCharacters("\n");
+            this.xml.flush();
+        } catch (final XMLStreamException ex) {
+            throw new IOException("Unable to start the JUnit XML report", ex);
+        }
+    }
+
+    /**
+     * Starts a report in a file.
+     *
+     * @param file the file, which is replaced if it exists
+     *
+     * @return the writer
+     *
+     * @throws IOException if the file could not be opened or written
+     */
+    @Contract("_ -> new")
+    @Nonnull
+    public static JUnitXmlReportWriter open(final Path file) throws IOException {
+        final var out = new BufferedOutputStream(Files.newOutputStream(file));
+        try {
+            return new JUnitXmlReportWriter(out);
+        } catch (final IOException ex) {
+            out.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public synchronized void write(final VerificationReport report) throws IOException {
+        if (this.closed) {
+            throw new IllegalStateException("Report writer is closed");
+        }
+
+        final var checks = checksOf(report);
+        final var errors = (int) report.getFailures().stream()
+                .filter(failure -> failure.getKind() == VerificationReport.Failure.Kind.TIMEOUT)
+                .count();
+        try {
+            this.xml.writeCharacters("  ");
+            this.xml.writeStartElement("testsuite");
+            this.xml.writeAttribute("name", report.getExceptionType());
+            this.xml.writeAttribute("tests", Integer.toString(checks.size()));
+            this.xml.writeAttribute(
+                    "failures", Integer.toString(report.getFailures().size() - errors)
+            );
+            this.xml.writeAttribute("errors", Integer.toString(errors));
+            this.xml.writeAttribute("skipped", "0");
+            this.xml.writeCharacters("\n");
+
+            for (final var check : checks) {
+                this.writeTestCase(report, check);
+            }
+
+            if (!report.getWarnings().isEmpty()) {
+                final var text = new StringBuilder();
+                for (final var warning : report.getWarnings()) {
+                    text.append(warning.getMessage()).append('\n');
+                }
+
+                this.xml.writeCharacters("    ");
+                this.xml.writeStartElement("system-out");
+                this.xml.writeCharacters(sanitize(text.toString()));
+                this.xml.writeEndElement();
+                this.xml.writeCharacters("\n");
+            }
+
+            this.xml.writeCharacters("  ");
+            this.xml.writeEndElement();
+            this.xml.writeCharacters("\n");
+            this.xml.flush();
+        } catch (final XMLStreamException ex) {
+            throw new IOException("Unable to write the report of " + report.getExceptionType(), ex);
+        }
+
+        this.out.flush();
+    }
+
+    private void writeTestCase(final VerificationReport report, final ExceptionVerifier.Check check)
+            throws XMLStreamException {
+        VerificationReport.Failure failure = null;
+        for (final var candidate : report.getFailures()) {
+            if (candidate.getCheck() == check) {
+                failure = candidate;
+                break;
+            }
+        }
+
+        this.xml.writeCharacters("    ");
+        if (failure == null) {
+            this.xml.writeEmptyElement("testcase");
+            this.writeTestCaseAttributes(report, check);
+            this.xml.writeCharacters("\n");
+            return;
+        }
+
+        this.xml.writeStartElement("testcase");
+        this.writeTestCaseAttributes(report, check);
+        this.xml.writeCharacters("\n      ");
+
+        final var timedOut = failure.getKind() == VerificationReport.Failure.Kind.TIMEOUT;
+        this.xml.writeStartElement(timedOut ? "error" : "failure");
+        this.xml.writeAttribute("message", sanitize(failure.getMessage()));
+        this.xml.writeAttribute("type", failure.getKind().name());
+
+        final var details = new StringWriter();
+        details.append(failure.getMessage()).append('\n');
+        if (failure.getCause() != null) {
+            failure.getCause().printStackTrace(new PrintWriter(details));
+        }
+        this.xml.writeCharacters(sanitize(details.toString()));
+
+        this.xml.writeEndElement();
+        this.xml.writeCharacters("\n    ");
+        this.xml.writeEndElement();
+        this.xml.writeCharacters("\n");
+    }
+
+    private void writeTestCaseAttributes(
+            final VerificationReport report,
+            final ExceptionVerifier.Check check
+    ) throws XMLStreamException {
+        this.xml.writeAttribute("classname", report.getExceptionType());
+        this.xml.writeAttribute("name", check.name());
+    }
+
+    /**
+     * Lists the checks a report covers: those that apply at its strictness, and those that
+     * failed even though they are optional.
+     */
+    @Nonnull
+    private static List<ExceptionVerifier.Check> checksOf(final VerificationReport report) {
+        final var checks = new ArrayList<ExceptionVerifier.Check>();
+        for (final var check : ExceptionVerifier.Check.values()) {
+            final var applies = check.isApplicable(report.getStrictness()) && !check.isOptional();
+            if (applies || report.getFailures().stream()
+                    .anyMatch(failure -> failure.getCheck() == check)) {
+                checks.add(check);
+            }
+        }
+
+        return checks;
+    }
+
+    /**
+     * Replaces the characters XML 1.0 cannot represent, which escaping does not help with.
+     */
+    @Contract(pure = true)
+    @Nonnull
+    private static String sanitize(final String text) {
+        StringBuilder builder = null;
+        for (int i = 0; i < text.length(); ++i) {
+            final var c = text.charAt(i);
+            final var valid = c == '\t' || c == '\n' || c == '\r'
+                    || c >= 0x20 && c <= 0xD7FF
+                    || Character.isSurrogate(c)
+                    || c >= 0xE000 && c <= 0xFFFD;
+            if (!valid) {
+                if (builder == null) {
+                    builder = new StringBuilder(text);
+                }
+
+                builder.setCharAt(i, '\uFFFD');
+            }
+        }
+
+        return builder == null ? text : builder.toString();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        try {
+            this.xml.writeEndElement();
+            this.xml.writeCharacters("\n");
+            this.xml.writeEndDocument();
+            this.xml.close();
+        } catch (final XMLStreamException ex) {
+            throw new IOException("Unable to finish the JUnit XML report", ex);
+        } finally {
+            this.out.close();
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A jar or zip file read straight from memory.
+ *
+ * Only the central directory is parsed when an archive is opened; the contents of an entry are
+ * located through its local header when they are read. Stored entries are slices of the archive
+ * itself, so a jar that is stored inside another jar, as in fat jars, can be read without
+ * copying it. Deflated entries are inflated into memory; nothing is ever extracted to disk.
+ */
+final class MappedArchive {
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY = 0x06064b50;
+    private static final int ZIP64_LOCATOR = 0x07064b50;
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private final String name;
+    private final ByteBuffer buffer;
+    private final List<Entry> entries;
+
+    @Contract(pure = true)
+    private MappedArchive(final String name, final ByteBuffer buffer, final List<Entry> entries) {
+        this.name = name;
+        this.buffer = buffer;
+        this.entries = entries;
+    }
+
+    /**
+     * Maps an archive file into memory and reads its central directory.
+     *
+     * The mapping outlives the file channel, and is released once the archive and all buffers
+     * read from it are unreachable.
+     *
+     * @param file the archive file
+     *
+     * @return the archive
+     *
+     * @throws IOException if the file could not be mapped or is not a well-formed archive
+     */
+    @Nonnull
+    static MappedArchive map(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final var size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to map");
+            }
+
+            return of(file.toString(), channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Reads the central directory of an archive in memory.
+     *
+     * @param name   the name of the archive, for error messages
+     * @param buffer the archive, from its position to its limit
+     *
+     * @return the archive
+     *
+     * @throws IOException if the buffer does not contain a well-formed archive
+     */
+    @Nonnull
+    static MappedArchive of(final String name, final ByteBuffer buffer) throws IOException {
+        final var buf = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            return new MappedArchive(name, buf, readCentralDirectory(buf));
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException
+                | IllegalArgumentException ex) {
+            throw new IOException(name + " is truncated or malformed", ex);
+        }
+    }
+
+    @Nonnull
+    private static List<Entry> readCentralDirectory(final ByteBuffer buf) throws IOException {
+        final var end = findEndOfCentralDirectory(buf);
+        long count = buf.getShort(end + 10) & 0xFFFF;
+        long offset = buf.getInt(end + 16) & 0xFFFFFFFFL;
+
+        final var locator = end - ZIP64_LOCATOR_SIZE;
+        if (locator >= 0 && buf.getInt(locator) == ZIP64_LOCATOR) {
+            final var zip64End = buf.getLong(locator + 8);
+            if (zip64End < 0 || zip64End > buf.limit() - 56
+                    || buf.getInt((int) zip64End) != ZIP64_END_OF_CENTRAL_DIRECTORY) {
+                throw new IOException("Malformed ZIP64 end of central directory");
+            }
+
+            count = buf.getLong((int) zip64End + 32);
+            offset = buf.getLong((int) zip64End + 48);
+        }
+
+        if (offset < 0 || offset > buf.limit() || count < 0 || count > buf.limit()) {
+            throw new IOException("Central directory out of bounds");
+        }
+
+        final var entries = new ArrayList<Entry>((int) count);
+        var pos = (int) offset;
+        for (long i = 0; i < count; ++i) {
+            if (buf.getInt(pos) != CENTRAL_HEADER) {
+                throw new IOException("Malformed central directory entry at " + pos);
+            }
+
+            final var method = buf.getShort(pos + 10) & 0xFFFF;
+            long compressedSize = buf.getInt(pos + 20) & 0xFFFFFFFFL;
+            long size = buf.getInt(pos + 24) & 0xFFFFFFFFL;
+            final var nameLength = buf.getShort(pos + 28) & 0xFFFF;
+            final var extraLength = buf.getShort(pos + 30) & 0xFFFF;
+            final var commentLength = buf.getShort(pos + 32) & 0xFFFF;
+            long headerOffset = buf.getInt(pos + 42) & 0xFFFFFFFFL;
+
+            final var nameBytes = new byte[nameLength];
+            buf.duplicate().position(pos + 46).get(nameBytes);
+            final var entryName = new String(nameBytes, StandardCharsets.UTF_8);
+
+            // ZIP64 sizes and offsets replace those of the entry that are saturated, in order
+            var extra = pos + 46 + nameLength;
+            final var extraEnd = extra + extraLength;
+            while (extra + 4 <= extraEnd) {
+                final var id = buf.getShort(extra) & 0xFFFF;
+                final var length = buf.getShort(extra + 2) & 0xFFFF;
+                if (id == 0x0001) {
+                    var field = extra + 4;
+                    if (size == 0xFFFFFFFFL) {
+                        size = buf.getLong(field);
+                        field += 8;
+                    }
+                    if (compressedSize == 0xFFFFFFFFL) {
+                        compressedSize = buf.getLong(field);
+                        field += 8;
+                    }
+                    if (headerOffset == 0xFFFFFFFFL) {
+                        headerOffset = buf.getLong(field);
+                    }
+                }
+
+                extra += 4 + length;
+            }
+
+            if (!entryName.endsWith("/")) {
+                entries.add(new Entry(entryName, method, compressedSize, size, headerOffset));
+            }
+
+            pos += 46 + nameLength + extraLength + commentLength;
+        }
+
+        return Collections.unmodifiableList(entries);
+    }
+
+    private static int findEndOfCentralDirectory(final ByteBuffer buf) throws IOException {
+        final var last = buf.limit() - END_OF_CENTRAL_DIRECTORY_SIZE;
+        final var first = Math.max(last - MAX_COMMENT_SIZE, 0);
+        for (int pos = last; pos >= first; --pos) {
+            if (buf.getInt(pos) == END_OF_CENTRAL_DIRECTORY
+                    && pos + END_OF_CENTRAL_DIRECTORY_SIZE + (buf.getShort(pos + 20) & 0xFFFF)
+                            == buf.limit()) {
+                return pos;
+            }
+        }
+
+        throw new IOException("No end of central directory record");
+    }
+
+    /**
+     * Returns the name of the archive.
+     *
+     * @return the name the archive was opened with
+     */
+    @Contract(pure = true)
+    @Nonnull
+    String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the file entries of the archive.
+     *
+     * @return the entries, in central directory order; directories are left out
+     */
+    @Contract(pure = true)
+    @Nonnull
+    List<Entry> getEntries() {
+        return this.entries;
+    }
+
+    /**
+     * Reads the contents of an entry.
+     *
+     * @param entry the entry, which must be one of this archive's
+     *
+     * @return a read-only slice of the archive for a stored entry, or a new buffer holding the
+     *         inflated contents of a deflated entry
+     *
+     * @throws IOException if the entry is malformed or uses an unsupported compression method
+     */
+    @Nonnull
+    ByteBuffer read(final Entry entry) throws IOException {
+        final ByteBuffer data;
+        try {
+            final var header = (int) entry.headerOffset;
+            if (entry.headerOffset > this.buffer.limit()
+                    || this.buffer.getInt(header) != LOCAL_HEADER) {
+                throw new IOException("Malformed local header of " + entry.name);
+            }
+
+            // The lengths in the local header may differ from those in the central directory
+            final var start = header + 30
+                    + (this.buffer.getShort(header + 26) & 0xFFFF)
+                    + (this.buffer.getShort(header + 28) & 0xFFFF);
+            if (entry.compressedSize > this.buffer.limit() - start) {
+                throw new IOException("Contents of " + entry.name + " out of bounds");
+            }
+
+            data = this.buffer.duplicate()
+                    .position(start)
+                    .limit(start + (int) entry.compressedSize)
+                    .slice();
+        } catch (final IndexOutOfBoundsException | IllegalArgumentException ex) {
+            throw new IOException("Malformed entry " + entry.name + " in " + this.name, ex);
+        }
+
+        switch (entry.method) {
+            case STORED:
+                return data.asReadOnlyBuffer();
+            case DEFLATED:
+                return inflate(entry, data);
+            default:
+                throw new IOException(
+                        "Unsupported compression method " + entry.method + " of " + entry.name
+                );
+        }
+    }
+
+    @Nonnull
+    private ByteBuffer inflate(final Entry entry, final ByteBuffer data) throws IOException {
+        if (entry.size > Integer.MAX_VALUE) {
+            throw new IOException(entry.name + " is too large to inflate");
+        }
+
+        final var out = ByteBuffer.allocate((int) entry.size);
+        final var inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            while (out.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(out) == 0 && (inflater.needsInput()
+                        || inflater.needsDictionary())) {
+                    throw new IOException(entry.name + " is truncated");
+                }
+            }
+        } catch (final DataFormatException ex) {
+            throw new IOException(entry.name + " is not validly deflated", ex);
+        } finally {
+            inflater.end();
+        }
+
+        return out.flip();
+    }
+
+    /**
+     * A file in an archive, as described by the central directory.
+     */
+    static final class Entry {
+        private final String name;
+        private final int method;
+        private final long compressedSize;
+        private final long size;
+        private final long headerOffset;
+
+        @Contract(pure = true)
+        private Entry(
+                final String name,
+                final int method,
+                final long compressedSize,
+                final long size,
+                final long headerOffset
+        ) {
+            this.name = name;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.headerOffset = headerOffset;
+        }
+
+        /**
+         * Returns the path of the entry.
+         *
+         * @return the slash-separated path
+         */
+        @Contract(pure = true)
+        @Nonnull
+        String getName() {
+            return this.name;
+        }
+
+        /**
+         * Checks whether the contents of the entry are stored without compression.
+         *
+         * @return {@code true} if the entry is stored, {@code false} otherwise
+         */
+        @Contract(pure = true)
+        boolean isStored() {
+            return this.method == STORED;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+
+import javax.annotation.Nonnull;
+import java.lang.module.ModuleFinder;
+import java.lang.module.ModuleReference;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The modules on a module path, defined in a module layer of their own.
+ *
+ * All modules of the layer share a single class loader. Every package of every module is opened
+ * to the verifier, so that constructors in packages the modules do not export can be verified
+ * like any other. The modules can read those of the boot layer, but nothing on the class path.
+ */
+final class ModulePathLayer {
+    private final ClassLoader loader;
+    private final Collection<ModuleReference> modules;
+
+    @Contract(pure = true)
+    private ModulePathLayer(
+            final ClassLoader loader,
+            final Collection<ModuleReference> modules
+    ) {
+        this.loader = loader;
+        this.modules = modules;
+    }
+
+    /**
+     * Resolves and defines all modules on a module path.
+     *
+     * @param entries the module path: modular jars, plain jars, which become automatic
+     *                modules, exploded modules and directories of those
+     * @param parent  the parent of the class loader of the layer
+     *
+     * @return the layer
+     *
+     * @throws java.lang.module.FindException       if a module path entry is not a valid module
+     * @throws java.lang.module.ResolutionException if a dependency of a module is missing
+     * @throws LayerInstantiationException           if the modules split a package
+     */
+    @Nonnull
+    static ModulePathLayer define(final List<Path> entries, final ClassLoader parent) {
+        final var finder = ModuleFinder.of(entries.toArray(new Path[0]));
+        final var modules = finder.findAll();
+        if (modules.isEmpty()) {
+            return new ModulePathLayer(parent, modules);
+        }
+
+        final var boot = ModuleLayer.boot();
+        final var names = modules.stream()
+                .map(module -> module.descriptor().name())
+                .collect(Collectors.toSet());
+        final var configuration = boot.configuration().resolve(finder, ModuleFinder.of(), names);
+        final var controller = ModuleLayer.defineModulesWithOneLoader(
+                configuration, List.of(boot), parent
+        );
+
+        final var verifier = ModulePathLayer.class.getModule();
+        final var layer = controller.layer();
+        for (final var module : layer.modules()) {
+            for (final var pkg : module.getPackages()) {
+                controller.addOpens(module, pkg, verifier);
+            }
+        }
+
+        final var loader = layer.findLoader(names.iterator().next());
+        return new ModulePathLayer(loader, modules);
+    }
+
+    /**
+     * Returns the class loader of all modules of the layer.
+     *
+     * @return the class loader, or the parent if the module path contains no modules
+     */
+    @Contract(pure = true)
+    @Nonnull
+    ClassLoader getLoader() {
+        return this.loader;
+    }
+
+    /**
+     * Returns the modules found on the module path.
+     *
+     * Modules of the boot layer that the modules depend on are not included.
+     *
+     * @return the modules
+     */
+    @Contract(pure = true)
+    @Nonnull
+    Collection<ModuleReference> getModules() {
+        return this.modules;
+    }
+}
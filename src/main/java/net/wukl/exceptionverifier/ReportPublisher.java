@@ -0,0 +1,94 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the reports of a bulk verification, running it anew for every subscriber.
+ *
+ * The verification threads submit their reports to a {@link SubmissionPublisher}, which blocks
+ * them while the buffer of the subscriber is full; that is what keeps a slow subscriber from
+ * making the verifier buffer every report.
+ *
+ * @see BulkVerifier.BulkVerifierBuilder#publish()
+ */
+final class ReportPublisher implements Flow.Publisher<VerificationReport> {
+    private static final String THREAD_NAME = "exception-verifier-publisher";
+
+    private final Supplier<Consumer<ReportWriter>> verifications;
+
+    /**
+     * Creates a publisher.
+     *
+     * @param verifications creates a verification when a subscriber subscribes, on the thread
+     *                      that subscribes; the verification writes its reports to the given
+     *                      writer, and throws if verification fails or is cancelled
+     */
+    @Contract(pure = true)
+    ReportPublisher(final Supplier<Consumer<ReportWriter>> verifications) {
+        this.verifications = verifications;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super VerificationReport> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+
+        final var verification = this.verifications.get();
+        final var publisher = new SubmissionPublisher<VerificationReport>(
+                ForkJoinPool.commonPool(), Flow.defaultBufferSize()
+        );
+        publisher.subscribe(subscriber);
+
+        final var thread = new Thread(() -> run(verification, publisher), THREAD_NAME);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void run(
+            final Consumer<ReportWriter> verification,
+            final SubmissionPublisher<VerificationReport> publisher
+    ) {
+        try {
+            verification.accept(new Submitter(publisher));
+        } catch (final RuntimeException | Error ex) {
+            // Does nothing if the subscriber cancelled, which is what stopped verification
+            publisher.closeExceptionally(ex);
+            return;
+        }
+
+        publisher.close();
+    }
+
+    /**
+     * Submits reports to the publisher until its subscriber cancels.
+     */
+    private static final class Submitter implements ReportWriter {
+        private final SubmissionPublisher<VerificationReport> publisher;
+
+        @Contract(pure = true)
+        private Submitter(final SubmissionPublisher<VerificationReport> publisher) {
+            this.publisher = publisher;
+        }
+
+        @Override
+        public void write(final VerificationReport report) {
+            if (!this.publisher.hasSubscribers()) {
+                throw new CancellationException("The subscriber cancelled");
+            }
+
+            // Blocks while the subscriber's buffer is full
+            this.publisher.submit(report);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
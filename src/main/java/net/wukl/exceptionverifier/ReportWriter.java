@@ -0,0 +1,30 @@
+package net.wukl.exceptionverifier;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes verification reports out as they are produced.
+ *
+ * A bulk verifier hands every report to its writers as soon as the class is verified, one at a
+ * time and in no particular order, so a writer needs no more memory than a single report takes.
+ * It holds the lock of the writer while doing so, so writers need not be thread-safe.
+ * Closing the writer finishes the output; that is up to whoever opened it.
+ *
+ * A writer can stop verification early by throwing a
+ * {@link java.util.concurrent.CancellationException}: no further classes are verified, and the
+ * verifier throws it once the classes being verified are finished.
+ *
+ * @see BulkVerifier.BulkVerifierBuilder#withReportWriter(ReportWriter)
+ */
+public interface ReportWriter extends Closeable {
+    /**
+     * Writes the report of one exception class.
+     *
+     * @param report the report, which may or may not be successful
+     *
+     * @throws IOException if the report could not be written
+     * @throws java.util.concurrent.CancellationException to stop verification
+     */
+    void write(VerificationReport report) throws IOException;
+}
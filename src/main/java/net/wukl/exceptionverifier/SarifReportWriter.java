@@ -0,0 +1,192 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes verification reports as a SARIF 2.1.0 log, as read by code scanning tools.
+ *
+ * Every check is a rule, and every failed check of every exception class is a result: an
+ * {@code error}, or a {@code warning} if it timed out. The message of a result is the same
+ * message the verifier would have thrown. Weak-mode warnings are {@code note} results.
+ *
+ * Results are located at the exception class, both as a logical location and as the source
+ * file it most likely comes from, relative to the {@code %SRCROOT%} base: the path of its
+ * package and the name of its outermost class.
+ */
+public final class SarifReportWriter implements ReportWriter {
+    private static final String SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+    private static final String INFORMATION_URI = "https://git.wukl.net/wukl/exception-verifier";
+
+    private final Writer out;
+    private boolean first = true;
+    private boolean closed = false;
+
+    /**
+     * Starts a log.
+     *
+     * @param out the stream to write to, which is closed with the writer
+     *
+     * @throws IOException if the start of the log could not be written
+     */
+    public SarifReportWriter(final OutputStream out) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        this.out.write("{\n  \"$schema\": ");
+        this.string(SCHEMA);
+        this.out.write(",\n  \"version\": \"2.1.0\",\n  \"runs\": [{\n");
+        this.out.write("    \"tool\": {\"driver\": {\"name\": \"ExceptionVerifier\", ");
+        this.out.write("\"informationUri\": ");
+        this.string(INFORMATION_URI);
+        this.out.write(", \"rules\": [");
+        final var checks = ExceptionVerifier.Check.values();
+        for (int i = 0; i < checks.length; ++i) {
+            this.out.write(i == 0 ? "\n" : ",\n");
+            this.out.write("      {\"id\": ");
+            this.string(checks[i].name());
+            this.out.write(", \"shortDescription\": {\"text\": ");
+            this.string("Rule of Four: " + checks[i].getParamForm(Throwable.class)
+                    + " constructor");
+            this.out.write("}}");
+        }
+        this.out.write("\n    ]}},\n    \"results\": [");
+        this.out.flush();
+    }
+
+    /**
+     * Starts a log in a file.
+     *
+     * @param file the file, which is replaced if it exists
+     *
+     * @return the writer
+     *
+     * @throws IOException if the file could not be opened or written
+     */
+    @Contract("_ -> new")
+    @Nonnull
+    public static SarifReportWriter open(final Path file) throws IOException {
+        final var out = Files.newOutputStream(file);
+        try {
+            return new SarifReportWriter(out);
+        } catch (final IOException ex) {
+            out.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public synchronized void write(final VerificationReport report) throws IOException {
+        if (this.closed) {
+            throw new IllegalStateException("Report writer is closed");
+        }
+
+        for (final var failure : report.getFailures()) {
+            final var timedOut = failure.getKind() == VerificationReport.Failure.Kind.TIMEOUT;
+            this.result(
+                    report.getExceptionType(), failure.getCheck(), timedOut ? "warning" : "error",
+                    failure.getMessage()
+            );
+        }
+
+        for (final var warning : report.getWarnings()) {
+            this.result(
+                    report.getExceptionType(), warning.getCheck(), "note", warning.getMessage()
+            );
+        }
+
+        this.out.flush();
+    }
+
+    private void result(
+            final String exceptionType,
+            final ExceptionVerifier.Check check,
+            final String level,
+            final String message
+    ) throws IOException {
+        this.out.write(this.first ? "\n" : ",\n");
+        this.first = false;
+
+        this.out.write("      {\"ruleId\": ");
+        this.string(check.name());
+        this.out.write(", \"ruleIndex\": ");
+        this.out.write(Integer.toString(check.ordinal()));
+        this.out.write(", \"level\": ");
+        this.string(level);
+        this.out.write(", \"message\": {\"text\": ");
+        this.string(message);
+        this.out.write("}, \"locations\": [{\"physicalLocation\": {\"artifactLocation\": {");
+        this.out.write("\"uri\": ");
+        this.string(sourceFileOf(exceptionType));
+        this.out.write(", \"uriBaseId\": \"%SRCROOT%\"}}, \"logicalLocations\": [{");
+        this.out.write("\"fullyQualifiedName\": ");
+        this.string(exceptionType);
+        this.out.write(", \"kind\": \"type\"}]}]}");
+    }
+
+    /**
+     * Guesses the source file of a class from its name.
+     *
+     * @param className the binary class name
+     *
+     * @return the slash-separated path of the source file, relative to the source root
+     */
+    @Contract(pure = true)
+    @Nonnull
+    static String sourceFileOf(final String className) {
+        final var nested = className.indexOf('$', className.lastIndexOf('.') + 1);
+        final var outermost = nested < 0 ? className : className.substring(0, nested);
+        return outermost.replace('.', '/') + ".java";
+    }
+
+    private void string(final String value) throws IOException {
+        this.out.write('"');
+        for (int i = 0; i < value.length(); ++i) {
+            final var c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    this.out.write("\\\"");
+                    break;
+                case '\\':
+                    this.out.write("\\\\");
+                    break;
+                case '\n':
+                    this.out.write("\\n");
+                    break;
+                case '\r':
+                    this.out.write("\\r");
+                    break;
+                case '\t':
+                    this.out.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        this.out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        this.out.write(c);
+                    }
+            }
+        }
+        this.out.write('"');
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        try (Writer writer = this.out) {
+            writer.write(this.first ? "]\n  }]\n}\n" : "\n    ]\n  }]\n}\n");
+        }
+    }
+}
@@ -0,0 +1,568 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.Instrumentation;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.ProtectionDomain;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * A Java agent that verifies exception classes as the application defines them.
+ *
+ * Add it to a JVM with {@code -javaagent:exceptionverifier.jar[=options]}, or attach it to a
+ * running one; in the latter case, only classes defined after attaching are verified. Every
+ * class that an application or plugin class loader defines is queued by name, and a
+ * low-priority daemon thread loads the queued classes that turn out to be concrete
+ * {@link Throwable} subclasses and verifies them. Classes of the JDK are not verified.
+ *
+ * Class loading only pays for putting the name on a bounded queue. Once the queue is half full,
+ * only one in every so many classes is queued, and once it is full, classes are dropped; the
+ * agent logs how many it missed when the JVM shuts down. The checks run on low-priority threads
+ * of their own, with a deadline per class.
+ *
+ * The agent enables assertions for the verifier, whose checks are assertions, regardless of
+ * {@code -ea}. Verification constructs the exception classes, which runs their static
+ * initializers if they have not run yet. Failures are logged as warnings. They can also be
+ * written to a report file, which is finished when the JVM shuts down.
+ *
+ * With {@code telemetry=true}, the agent also instruments the constructors of the exception
+ * classes it notices, so that {@link ConstructionTelemetry} counts their constructions. The
+ * instrumented classes must be able to see the agent, which is on the system class path; classes
+ * in named modules are left alone. The most frequently constructed and the most expensive
+ * classes are logged when the JVM shuts down.
+ *
+ * The options are a comma-separated list of {@code key=value} pairs:
+ * <dl>
+ *     <dt>{@code verify}</dt>
+ *     <dd>whether to verify exception classes; {@code true} by default</dd>
+ *     <dt>{@code strictness}</dt>
+ *     <dd>{@code STRICT} (the default) or {@code WEAK}</dd>
+ *     <dt>{@code packages}</dt>
+ *     <dd>the colon-separated packages to verify, including their subpackages; all by
+ *     default</dd>
+ *     <dt>{@code queue}</dt>
+ *     <dd>the number of classes that can be queued; 1024 by default</dd>
+ *     <dt>{@code sample}</dt>
+ *     <dd>once the queue is half full, queue only one in this many classes; 16 by default</dd>
+ *     <dt>{@code timeout}</dt>
+ *     <dd>the milliseconds verification of one class may take; 5000 by default</dd>
+ *     <dt>{@code report}</dt>
+ *     <dd>a file to write a {@linkplain SarifReportWriter SARIF} report to if its name ends in
+ *     {@code .sarif}, or a {@linkplain JUnitXmlReportWriter JUnit XML} report otherwise</dd>
+ *     <dt>{@code telemetry}</dt>
+ *     <dd>whether to count constructions; {@code false} by default</dd>
+ *     <dt>{@code stackSample}</dt>
+ *     <dd>time the stack trace of one in this many constructions; 1024 by default</dd>
+ *     <dt>{@code top}</dt>
+ *     <dd>the number of classes to log at shutdown, by frequency and by cost; 10 by
+ *     default</dd>
+ * </dl>
+ */
+public final class VerificationAgent {
+    private static final Logger logger = LoggerFactory.getLogger(VerificationAgent.class);
+
+    private static final String THREAD_NAME = "exception-verifier-agent";
+    private static final String CHECK_THREAD_NAME = "exception-verifier-agent-check";
+    private static final String OWN_PACKAGE = "net/wukl/exceptionverifier/";
+
+    private final Options options;
+    private final @Nullable ReportWriter writer;
+    private final BlockingQueue<Pending> queue;
+    private final Executor checkThreads = command -> {
+        final var thread =
+                new Thread(ConstructionTelemetry.untracked(command), CHECK_THREAD_NAME);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    };
+
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    // Only updated by the agent thread
+    private volatile long verified = 0;
+    private volatile long failed = 0;
+
+    private @Nullable Thread thread = null;
+
+    /**
+     * Creates an agent that has not started yet.
+     *
+     * @param options the options
+     * @param writer  the writer to write reports to, if any
+     */
+    @Contract(pure = true)
+    VerificationAgent(final Options options, final @Nullable ReportWriter writer) {
+        this.options = options;
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(options.queueSize);
+    }
+
+    /**
+     * Starts the agent before the main method of the application runs.
+     *
+     * @param args            the options, as described in the class documentation
+     * @param instrumentation the instrumentation of the JVM
+     *
+     * @throws IllegalArgumentException if the options are invalid
+     */
+    public static void premain(final @Nullable String args, final Instrumentation instrumentation) {
+        install(args, instrumentation);
+    }
+
+    /**
+     * Starts the agent in a running JVM.
+     *
+     * @param args            the options, as described in the class documentation
+     * @param instrumentation the instrumentation of the JVM
+     *
+     * @throws IllegalArgumentException if the options are invalid
+     */
+    public static void agentmain(
+            final @Nullable String args,
+            final Instrumentation instrumentation
+    ) {
+        install(args, instrumentation);
+    }
+
+    private static void install(
+            final @Nullable String args,
+            final Instrumentation instrumentation
+    ) {
+        // The checks are assertions, and production JVMs rarely run with -ea. This only takes
+        // effect for classes that are not initialized yet, which the other verifier classes
+        // are not until the agent uses them.
+        final var self = VerificationAgent.class;
+        self.getClassLoader().setPackageAssertionStatus(self.getPackageName(), true);
+
+        final var options = Options.parse(args);
+
+        ReportWriter writer = null;
+        if (options.report != null) {
+            try {
+                writer = options.report.getFileName().toString().endsWith(".sarif")
+                        ? SarifReportWriter.open(options.report)
+                        : JUnitXmlReportWriter.open(options.report);
+            } catch (final IOException ex) {
+                logger.error("Unable to open {}; only logging failures", options.report, ex);
+            }
+        }
+
+        final var agent = new VerificationAgent(options, writer);
+        if (options.verify) {
+            agent.start();
+            instrumentation.addTransformer(agent.new Listener());
+        }
+
+        if (options.telemetry) {
+            ConstructionTelemetry.setSampleInterval(options.stackSample);
+            instrumentation.addTransformer(agent.new Instrumenter());
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(agent::stop, THREAD_NAME));
+    }
+
+    /**
+     * Queues a class that is being defined, unless the queue is too full.
+     *
+     * This runs on the thread that loads the class, so it must stay cheap.
+     *
+     * @param loader       the loader that defines the class
+     * @param internalName the slash-separated name of the class
+     */
+    void notice(final ClassLoader loader, final String internalName) {
+        if (!this.options.accepts(internalName)) {
+            return;
+        }
+
+        final var busy = this.queue.remainingCapacity() < this.options.queueSize / 2;
+        if (busy && ThreadLocalRandom.current().nextInt(this.options.sample) != 0) {
+            this.skipped.increment();
+            return;
+        }
+
+        if (!this.queue.offer(new Pending(loader, internalName))) {
+            this.dropped.increment();
+        }
+    }
+
+    /**
+     * Starts the thread that verifies the queued classes.
+     */
+    void start() {
+        final var thread = new Thread(this::run, THREAD_NAME);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        this.thread = thread;
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                this.verify(this.queue.take());
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void verify(final Pending pending) {
+        final var loader = pending.loader.get();
+        if (loader == null) {
+            return;
+        }
+
+        final var name = pending.internalName.replace('/', '.');
+        final Class<?> type;
+        try {
+            // The class is defined by now, or being defined, in which case this waits for it
+            type = Class.forName(name, false, loader);
+        } catch (final ClassNotFoundException | LinkageError ex) {
+            logger.debug("Skipping {}: unable to load the class", name, ex);
+            return;
+        }
+
+        if (!BulkVerifier.isVerifiable(type)) {
+            return;
+        }
+
+        final VerificationReport report;
+        try {
+            report = ExceptionVerifier.forClass(type.asSubclass(Throwable.class))
+                    .withStrictness(this.options.strictness)
+                    .withExecutor(this.checkThreads)
+                    .withClassTimeout(this.options.timeout)
+                    .report();
+        } catch (final RuntimeException ex) {
+            logger.warn("Unable to verify {}", name, ex);
+            return;
+        }
+
+        this.verified++;
+        if (report.isSuccessful()) {
+            logger.debug("{} passed verification", name);
+        } else {
+            this.failed++;
+            final var message = new StringBuilder();
+            for (final var failure : report.getFailures()) {
+                message.append("\n    ").append(failure.getMessage());
+            }
+
+            logger.warn("{} failed verification:{}", name, message);
+        }
+
+        if (this.writer != null) {
+            try {
+                this.writer.write(report);
+            } catch (final IOException | IllegalStateException ex) {
+                logger.warn("Unable to write the report of {}", name, ex);
+            }
+        }
+    }
+
+    /**
+     * Stops verifying, finishes the report file and logs a summary.
+     */
+    void stop() {
+        if (this.thread != null) {
+            this.thread.interrupt();
+        }
+
+        if (this.writer != null) {
+            try {
+                this.writer.close();
+            } catch (final IOException ex) {
+                logger.warn("Unable to finish the report", ex);
+            }
+        }
+
+        if (this.options.verify) {
+            logger.info(
+                    "Verified {} exception classes, of which {} failed; {} classes were left in "
+                            + "the queue, {} were skipped while the queue was busy and {} were "
+                            + "dropped while it was full",
+                    this.verified, this.failed, this.queue.size(), this.skipped.sum(),
+                    this.dropped.sum()
+            );
+        }
+
+        if (this.options.telemetry) {
+            logger.info("Most frequently constructed exception classes:{}",
+                    lines(ConstructionTelemetry.getMostFrequent(this.options.top)));
+            logger.info("Exception classes with the most expensive stack traces:{}",
+                    lines(ConstructionTelemetry.getMostExpensive(this.options.top)));
+        }
+    }
+
+    @Nonnull
+    private static String lines(final List<ConstructionTelemetry.Entry> entries) {
+        final var lines = new StringBuilder();
+        for (final var entry : entries) {
+            lines.append("\n    ").append(entry);
+        }
+
+        return lines.toString();
+    }
+
+    /**
+     * Returns the number of classes that were not queued because the queue was busy or full.
+     *
+     * @return the number of classes
+     */
+    @Contract(pure = true)
+    long getMissed() {
+        return this.skipped.sum() + this.dropped.sum();
+    }
+
+    /**
+     * Notices the classes that are defined, and never changes them.
+     */
+    private final class Listener implements ClassFileTransformer {
+        @Override
+        public byte[] transform(
+                final @Nullable ClassLoader loader,
+                final @Nullable String className,
+                final @Nullable Class<?> classBeingRedefined,
+                final ProtectionDomain protectionDomain,
+                final byte[] classfileBuffer
+        ) {
+            // The boot and platform loaders only define classes of the JDK. The classes of the
+            // agent itself are skipped, as noticing them could load them again.
+            if (loader != null && loader != ClassLoader.getPlatformClassLoader()
+                    && className != null && classBeingRedefined == null
+                    && !className.startsWith(OWN_PACKAGE)) {
+                VerificationAgent.this.notice(loader, className);
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Instruments the constructors of the exception classes that are defined, for
+     * {@link ConstructionTelemetry}.
+     */
+    private final class Instrumenter implements ClassFileTransformer {
+        // Whether the hook is visible from a class loader; guarded by itself
+        private final Map<ClassLoader, Boolean> seesHook = new WeakHashMap<>();
+
+        @Override
+        public byte[] transform(
+                final Module module,
+                final @Nullable ClassLoader loader,
+                final @Nullable String className,
+                final @Nullable Class<?> classBeingRedefined,
+                final ProtectionDomain protectionDomain,
+                final byte[] classfileBuffer
+        ) {
+            // Named modules cannot read the unnamed module of the agent
+            if (loader == null || loader == ClassLoader.getPlatformClassLoader()
+                    || className == null || classBeingRedefined != null || module.isNamed()
+                    || className.startsWith(OWN_PACKAGE)
+                    || !VerificationAgent.this.options.accepts(className)) {
+                return null;
+            }
+
+            try {
+                final var header = ClassFileHeader.parse(ByteBuffer.wrap(classfileBuffer));
+                final var superName = header.getSuperName();
+                if (superName == null || "java.lang.Object".equals(superName)
+                        || !this.isThrowable(superName, loader) || !this.seesHook(loader)) {
+                    return null;
+                }
+
+                return ConstructorInstrumenter.instrument(classfileBuffer);
+            } catch (final IOException | ClassNotFoundException | LinkageError ex) {
+                logger.debug("Not instrumenting {}", className, ex);
+                return null;
+            }
+        }
+
+        private boolean isThrowable(final String superName, final ClassLoader loader)
+                throws ClassNotFoundException {
+            // The superclass is about to be loaded to define the class anyway
+            return Throwable.class.isAssignableFrom(Class.forName(superName, false, loader));
+        }
+
+        private boolean seesHook(final ClassLoader loader) throws ClassNotFoundException {
+            synchronized (this.seesHook) {
+                final var known = this.seesHook.get(loader);
+                if (known != null) {
+                    return known;
+                }
+            }
+
+            final var hook = ConstructionTelemetry.class;
+            final var sees = Class.forName(hook.getName(), false, loader) == hook;
+            synchronized (this.seesHook) {
+                this.seesHook.put(loader, sees);
+            }
+
+            return sees;
+        }
+    }
+
+    /**
+     * A queued class, which does not keep its class loader from being unloaded.
+     */
+    private static final class Pending {
+        private final WeakReference<ClassLoader> loader;
+        private final String internalName;
+
+        private Pending(final ClassLoader loader, final String internalName) {
+            this.loader = new WeakReference<>(loader);
+            this.internalName = internalName;
+        }
+    }
+
+    /**
+     * The options of the agent.
+     */
+    static final class Options {
+        private boolean verify = true;
+        private ExceptionVerifier.Strictness strictness = ExceptionVerifier.Strictness.STRICT;
+        // Slash-separated, with a trailing slash; empty to verify all packages
+        private List<String> packages = List.of();
+        private int queueSize = 1024;
+        private int sample = 16;
+        private Duration timeout = Duration.ofSeconds(5);
+        private @Nullable Path report = null;
+        private boolean telemetry = false;
+        private int stackSample = 1024;
+        private int top = 10;
+
+        @Contract(pure = true)
+        private Options() {
+        }
+
+        /**
+         * Parses the options of the agent.
+         *
+         * @param args the comma-separated {@code key=value} pairs, or {@code null} for the
+         *             defaults
+         *
+         * @return the options
+         *
+         * @throws IllegalArgumentException if an option is unknown or has an invalid value
+         */
+        @Nonnull
+        static Options parse(final @Nullable String args) {
+            final var options = new Options();
+            if (args == null || args.isBlank()) {
+                return options;
+            }
+
+            for (final var pair : args.split(",")) {
+                final var separator = pair.indexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Expected key=value, got " + pair);
+                }
+
+                final var key = pair.substring(0, separator).trim();
+                final var value = pair.substring(separator + 1).trim();
+                switch (key) {
+                    case "verify":
+                        options.verify = bool(key, value);
+                        break;
+                    case "strictness":
+                        options.strictness = ExceptionVerifier.Strictness.valueOf(value);
+                        break;
+                    case "packages":
+                        options.packages = List.of(value.split(":")).stream()
+                                .map(name -> name.replace('.', '/') + '/')
+                                .collect(Collectors.toUnmodifiableList());
+                        break;
+                    case "queue":
+                        options.queueSize = positive(key, value);
+                        break;
+                    case "sample":
+                        options.sample = positive(key, value);
+                        break;
+                    case "timeout":
+                        options.timeout = Duration.ofMillis(positive(key, value));
+                        break;
+                    case "report":
+                        options.report = Paths.get(value);
+                        break;
+                    case "telemetry":
+                        options.telemetry = bool(key, value);
+                        break;
+                    case "stackSample":
+                        options.stackSample = positive(key, value);
+                        break;
+                    case "top":
+                        options.top = positive(key, value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown agent option " + key);
+                }
+            }
+
+            return options;
+        }
+
+        private static boolean bool(final String key, final String value) {
+            if (!"true".equals(value) && !"false".equals(value)) {
+                throw new IllegalArgumentException("Option " + key + " must be true or false");
+            }
+
+            return Boolean.parseBoolean(value);
+        }
+
+        private static int positive(final String key, final String value) {
+            final int number;
+            try {
+                number = Integer.parseInt(value);
+            } catch (final NumberFormatException ex) {
+                throw new IllegalArgumentException("Option " + key + " must be a number", ex);
+            }
+
+            if (number < 1) {
+                throw new IllegalArgumentException("Option " + key + " must be positive");
+            }
+
+            return number;
+        }
+
+        /**
+         * Checks whether the agent should verify a class, if it is an exception class.
+         *
+         * @param internalName the slash-separated name of the class
+         *
+         * @return {@code true} if the class is in one of the packages to verify
+         */
+        @Contract(pure = true)
+        boolean accepts(final String internalName) {
+            if (this.packages.isEmpty()) {
+                return true;
+            }
+
+            for (final var pkg : this.packages) {
+                if (internalName.startsWith(pkg)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
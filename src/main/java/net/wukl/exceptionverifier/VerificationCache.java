@@ -0,0 +1,381 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A persistent cache of verification results.
+ *
+ * Results are keyed by a digest of the class file of the exception class, the class files of all
+ * its superclasses, the verifier itself and the verification settings. A change to any of these
+ * invalidates the result; identical classes, even when they come from different jars or builds,
+ * share it.
+ *
+ * Failure causes are not persisted: the failures of a cached report have no cause.
+ */
+final class VerificationCache {
+    private static final Logger logger = LoggerFactory.getLogger(VerificationCache.class);
+
+    private static final int MAGIC = 0x45564331;
+
+    /**
+     * How long an entry is kept after it was last used.
+     */
+    private static final long RETENTION_MILLIS = Duration.ofDays(30).toMillis();
+
+    /**
+     * The longest message that is persisted, in characters.
+     *
+     * Keeps the modified UTF-8 encoding of any message within the limit of
+     * {@link DataOutputStream#writeUTF(String)}.
+     */
+    private static final int MAX_STRING_LENGTH = 20000;
+
+    /**
+     * The classes whose bytecode determines the outcome of verification.
+     *
+     * Their nested and anonymous classes are included as well.
+     */
+    private static final Class<?>[] VERIFIER_CLASSES = {
+            ExceptionVerifier.class,
+            ConstructorPlan.class,
+            BytecodeAnalyzer.class,
+            ClassFile.class,
+            ClassFileHeader.class,
+            ClassFingerprinter.class,
+            AllocationMeter.class,
+            AccessorTimer.class,
+            VerificationReport.class,
+            BulkVerifier.class,
+    };
+
+    private static final byte[] VERIFIER_DIGEST = digestVerifier();
+
+    private final Path file;
+    private final ConcurrentMap<String, Entry> entries;
+
+    @Contract(pure = true)
+    private VerificationCache(final Path file, final ConcurrentMap<String, Entry> entries) {
+        this.file = file;
+        this.entries = entries;
+    }
+
+    /**
+     * Opens a cache file.
+     *
+     * A missing or unreadable file results in an empty cache.
+     *
+     * @param file the cache file
+     *
+     * @return the cache
+     */
+    @Nonnull
+    static VerificationCache open(final Path file) {
+        return new VerificationCache(file, new ConcurrentHashMap<>(read(file)));
+    }
+
+    /**
+     * Computes the key of a class.
+     *
+     * @param fingerprint the fingerprint of the class
+     * @param causeType   the cause type to verify with
+     * @param strictness  the strictness to verify with
+     * @param lightweight whether the lightweight constructor is verified
+     * @param engine      the engine to verify with
+     * @param assertions  whether assertions are enabled in the verifier, without which none of
+     *                    its checks fail
+     *
+     * @return the key
+     */
+    @Nonnull
+    static String keyOf(
+            final ClassFingerprinter.Fingerprint fingerprint,
+            final Class<? extends Throwable> causeType,
+            final ExceptionVerifier.Strictness strictness,
+            final boolean lightweight,
+            final ExceptionVerifier.Engine engine,
+            final boolean assertions
+    ) {
+        final var digest = ClassFingerprinter.newDigest();
+        digest.update(VERIFIER_DIGEST);
+        digest.update(causeType.getName().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(strictness.name().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update((byte) (lightweight ? 1 : 0));
+        digest.update(engine.name().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update((byte) (assertions ? 1 : 0));
+        digest.update(fingerprint.getDigest());
+
+        final var hex = new StringBuilder();
+        for (final var b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16))
+                    .append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return hex.toString();
+    }
+
+    /**
+     * Looks up a cached result.
+     *
+     * @param key the key of the class
+     *
+     * @return the entry, or {@code null} if the class has no cached result
+     */
+    @Nullable
+    Entry get(final String key) {
+        final var entry = this.entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        entry.lastUsed = System.currentTimeMillis();
+        return entry;
+    }
+
+    /**
+     * Stores a result.
+     *
+     * Reports with timed out checks are not stored, since whether a check times out depends on
+     * the machine as much as on the class.
+     *
+     * @param key    the key of the class
+     * @param report the report, or {@code null} if the class was not eligible for verification
+     */
+    void put(final String key, final @Nullable VerificationReport report) {
+        if (report != null && report.getFailures().stream().anyMatch(
+                failure -> failure.getKind() == VerificationReport.Failure.Kind.TIMEOUT
+        )) {
+            return;
+        }
+
+        this.entries.put(key, new Entry(report, System.currentTimeMillis()));
+    }
+
+    /**
+     * Writes the cache back to its file.
+     *
+     * Entries written by other processes in the meantime are kept, as are those that were used
+     * recently.
+     *
+     * @throws IOException if the cache could not be written
+     */
+    void save() throws IOException {
+        final var merged = new HashMap<>(read(this.file));
+        for (final var entry : this.entries.entrySet()) {
+            merged.merge(entry.getKey(), entry.getValue(),
+                    (a, b) -> a.lastUsed >= b.lastUsed ? a : b);
+        }
+
+        final var cutoff = System.currentTimeMillis() - RETENTION_MILLIS;
+        merged.values().removeIf(entry -> entry.lastUsed < cutoff);
+
+        final var parent = this.file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        final var temp = Files.createTempFile(parent, this.file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp))
+            )) {
+                write(out, merged);
+            }
+
+            Files.move(temp, this.file,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Nonnull
+    private static Map<String, Entry> read(final Path file) {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file))
+        )) {
+            return read(in);
+        } catch (final NoSuchFileException ex) {
+            return Map.of();
+        } catch (final IOException | IllegalArgumentException ex) {
+            logger.warn("Ignoring unreadable verification cache {}", file, ex);
+            return Map.of();
+        }
+    }
+
+    @Nonnull
+    private static Map<String, Entry> read(final DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a verification cache");
+        }
+
+        final var count = in.readInt();
+        final var entries = new HashMap<String, Entry>();
+        for (int i = 0; i < count; ++i) {
+            final var key = in.readUTF();
+            final var lastUsed = in.readLong();
+            final var report = in.readBoolean() ? readReport(in) : null;
+            entries.put(key, new Entry(report, lastUsed));
+        }
+
+        return entries;
+    }
+
+    @Nonnull
+    private static VerificationReport readReport(final DataInputStream in) throws IOException {
+        final var type = in.readUTF();
+        final var strictness = ExceptionVerifier.Strictness.valueOf(in.readUTF());
+
+        final var failureCount = in.readInt();
+        final var failures = new ArrayList<VerificationReport.Failure>(failureCount);
+        for (int i = 0; i < failureCount; ++i) {
+            failures.add(new VerificationReport.Failure(
+                    ExceptionVerifier.Check.valueOf(in.readUTF()),
+                    in.readUTF(),
+                    ExceptionVerifier.Strictness.valueOf(in.readUTF()),
+                    in.readUTF(),
+                    null
+            ));
+        }
+
+        final var warningCount = in.readInt();
+        final var warnings = new ArrayList<VerificationReport.Warning>(warningCount);
+        for (int i = 0; i < warningCount; ++i) {
+            warnings.add(new VerificationReport.Warning(
+                    ExceptionVerifier.Check.valueOf(in.readUTF()), in.readUTF(), in.readUTF()
+            ));
+        }
+
+        return new VerificationReport(type, strictness, failures, warnings);
+    }
+
+    private static void write(final DataOutputStream out, final Map<String, Entry> entries)
+            throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(entries.size());
+        for (final var entry : entries.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue().lastUsed);
+
+            final var report = entry.getValue().report;
+            out.writeBoolean(report != null);
+            if (report != null) {
+                writeReport(out, report);
+            }
+        }
+    }
+
+    private static void writeReport(final DataOutputStream out, final VerificationReport report)
+            throws IOException {
+        out.writeUTF(report.getExceptionType());
+        out.writeUTF(report.getStrictness().name());
+
+        out.writeInt(report.getFailures().size());
+        for (final var failure : report.getFailures()) {
+            out.writeUTF(failure.getCheck().name());
+            out.writeUTF(failure.getParamForm());
+            out.writeUTF(failure.getStrictness().name());
+            out.writeUTF(truncate(failure.getMessage()));
+        }
+
+        out.writeInt(report.getWarnings().size());
+        for (final var warning : report.getWarnings()) {
+            out.writeUTF(warning.getCheck().name());
+            out.writeUTF(warning.getParamForm());
+            out.writeUTF(truncate(warning.getMessage()));
+        }
+    }
+
+    @Nonnull
+    private static String truncate(final String str) {
+        return str.length() <= MAX_STRING_LENGTH ? str : str.substring(0, MAX_STRING_LENGTH);
+    }
+
+    @Nonnull
+    private static byte[] digestVerifier() {
+        final var digest = ClassFingerprinter.newDigest();
+        for (final var type : VERIFIER_CLASSES) {
+            digestClass(digest, type);
+        }
+
+        return digest.digest();
+    }
+
+    private static void digestClass(final MessageDigest digest, final Class<?> type) {
+        final var bytes = readClass(type.getName());
+        if (bytes == null) {
+            throw new IllegalStateException("Unable to find verifier class " + type.getName());
+        }
+        digest.update(bytes);
+
+        for (final var nested : type.getDeclaredClasses()) {
+            digestClass(digest, nested);
+        }
+
+        // Anonymous classes are numbered from one upwards and are not declared
+        for (int i = 1; ; ++i) {
+            final var anonymous = readClass(type.getName() + "$" + i);
+            if (anonymous == null) {
+                break;
+            }
+            digest.update(anonymous);
+        }
+    }
+
+    @Nullable
+    private static byte[] readClass(final String name) {
+        final var resource = name.substring(name.lastIndexOf('.') + 1) + ".class";
+        try (InputStream in = ExceptionVerifier.class.getResourceAsStream(resource)) {
+            return in == null ? null : in.readAllBytes();
+        } catch (final IOException ex) {
+            throw new IllegalStateException("Unable to read verifier class " + name, ex);
+        }
+    }
+
+    /**
+     * A cached result.
+     */
+    static final class Entry {
+        private final @Nullable VerificationReport report;
+        private volatile long lastUsed;
+
+        @Contract(pure = true)
+        private Entry(final @Nullable VerificationReport report, final long lastUsed) {
+            this.report = report;
+            this.lastUsed = lastUsed;
+        }
+
+        /**
+         * Returns the cached report.
+         *
+         * @return the report, or {@code null} if the class was not eligible for verification
+         */
+        @Contract(pure = true)
+        @Nullable
+        VerificationReport getReport() {
+            return this.report;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package net.wukl.exceptionverifier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of verifying a single exception class, listing every failed check.
+ */
+public final class VerificationReport {
+    private final String exceptionType;
+    private final ExceptionVerifier.Strictness strictness;
+    private final List<Failure> failures;
+    private final List<Warning> warnings;
+
+    @Contract(pure = true)
+    VerificationReport(
+            final String exceptionType,
+            final ExceptionVerifier.Strictness strictness,
+            final List<Failure> failures,
+            final List<Warning> warnings
+    ) {
+        this.exceptionType = exceptionType;
+        this.strictness = strictness;
+        this.failures = Collections.unmodifiableList(failures);
+        this.warnings = Collections.unmodifiableList(warnings);
+    }
+
+    /**
+     * Returns the name of the verified exception class.
+     *
+     * @return the binary class name
+     */
+    @Contract(pure = true)
+    @Nonnull
+    public String getExceptionType() {
+        return this.exceptionType;
+    }
+
+    /**
+     * Returns the strictness the exception class was verified with.
+     *
+     * @return the strictness
+     */
+    @Contract(pure = true)
+    @Nonnull
+    public ExceptionVerifier.Strictness getStrictness() {
+        return this.strictness;
+    }
+
+    /**
+     * Returns the failed checks.
+     *
+     * @return the failures, in check order
+     */
+    @Contract(pure = true)
+    @Nonnull
+    public List<Failure> getFailures() {
+        return this.failures;
+    }
+
+    /**
+     * Returns the warnings produced by checks in weak mode.
+     *
+     * @return the warnings, in check order
+     */
+    @Contract(pure = true)
+    @Nonnull
+    public List<Warning> getWarnings() {
+        return this.warnings;
+    }
+
+    /**
+     * Checks whether the exception class passed all checks.
+     *
+     * Warnings do not count as failures.
+     *
+     * @return {@code true} if no check failed, {@code false} otherwise
+     */
+    @Contract(pure = true)
+    public boolean isSuccessful() {
+        return this.failures.isEmpty();
+    }
+
+    /**
+     * Returns a copy of this report that does not refer to any class loaded to verify it.
+     *
+     * The causes of the failures are replaced by {@link DetachedThrowable detached copies}.
+     *
+     * @return the detached report, or this report if none of its failures has a cause
+     */
+    @Nonnull
+    VerificationReport detached() {
+        if (this.failures.stream().allMatch(failure -> failure.getCause() == null)) {
+            return this;
+        }
+
+        final var detached = new ArrayList<Failure>(this.failures.size());
+        for (final var failure : this.failures) {
+            detached.add(new Failure(
+                    failure.check, failure.paramForm, failure.strictness, failure.message,
+                    failure.cause != null ? DetachedThrowable.of(failure.cause) : null,
+                    failure.kind
+            ));
+        }
+
+        return new VerificationReport(this.exceptionType, this.strictness, detached, this.warnings);
+    }
+
+    /**
+     * Throws if any check failed.
+     *
+     * The thrown error lists every failure; the causes of the failures, if any, are attached to
+     * it as suppressed exceptions.
+     *
+     * @throws AssertionError if any check failed
+     */
+    public void assertSuccessful() {
+        if (this.isSuccessful()) {
+            return;
+        }
+
+        final var message = new StringBuilder();
+        message.append(this.exceptionType).append(" failed ").append(this.failures.size())
+                .append(this.failures.size() == 1 ? " check:" : " checks:");
+        for (final var failure : this.failures) {
+            message.append("\n    ").append(failure.getMessage());
+        }
+
+        final var error = new AssertionError(message.toString());
+        for (final var failure : this.failures) {
+            if (failure.getCause() != null) {
+                error.addSuppressed(failure.getCause());
+            }
+        }
+
+        throw error;
+    }
+
+    /**
+     * A failed check.
+     */
+    public static final class Failure {
+        private final ExceptionVerifier.Check check;
+        private final String paramForm;
+        private final ExceptionVerifier.Strictness strictness;
+        private final String message;
+        private final @Nullable Throwable cause;
+        private final Kind kind;
+
+        @Contract(pure = true)
+        Failure(
+                final ExceptionVerifier.Check check,
+                final String paramForm,
+                final ExceptionVerifier.Strictness strictness,
+                final String message,
+                final @Nullable Throwable cause
+        ) {
+            this(check, paramForm, strictness, message, cause, Kind.VIOLATION);
+        }
+
+        @Contract(pure = true)
+        Failure(
+                final ExceptionVerifier.Check check,
+                final String paramForm,
+                final ExceptionVerifier.Strictness strictness,
+                final String message,
+                final @Nullable Throwable cause,
+                final Kind kind
+        ) {
+            this.check = check;
+            this.paramForm = paramForm;
+            this.strictness = strictness;
+            this.message = message;
+            this.cause = cause;
+            this.kind = kind;
+        }
+
+        /**
+         * Returns the check that failed.
+         *
+         * @return the check
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public ExceptionVerifier.Check getCheck() {
+            return this.check;
+        }
+
+        /**
+         * Returns the parameter form of the constructor that failed the check.
+         *
+         * @return the parameter form, such as {@code (String message)}
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public String getParamForm() {
+            return this.paramForm;
+        }
+
+        /**
+         * Returns the strictness the check was run with.
+         *
+         * @return the strictness
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public ExceptionVerifier.Strictness getStrictness() {
+            return this.strictness;
+        }
+
+        /**
+         * Returns a description of the failure.
+         *
+         * This is the message {@link ExceptionVerifier.ExceptionVerifierBuilder#verify()} would
+         * have thrown.
+         *
+         * @return the description
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public String getMessage() {
+            return this.message;
+        }
+
+        /**
+         * Returns the exception that caused the failure, such as the exception a constructor
+         * threw.
+         *
+         * @return the cause, or {@code null} if the check failed on its own
+         */
+        @Contract(pure = true)
+        @Nullable
+        public Throwable getCause() {
+            return this.cause;
+        }
+
+        /**
+         * Returns the kind of failure.
+         *
+         * @return the kind
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public Kind getKind() {
+            return this.kind;
+        }
+
+        @Override
+        public String toString() {
+            return this.message;
+        }
+
+        /**
+         * The ways a check can fail.
+         */
+        public enum Kind {
+            /**
+             * The constructor broke the Rule of Four.
+             */
+            VIOLATION,
+
+            /**
+             * The check did not finish within its deadline, so its outcome is unknown.
+             *
+             * The cause of the failure carries the stack trace of the check at the time it was
+             * abandoned.
+             */
+            TIMEOUT
+        }
+    }
+
+    /**
+     * A weak-mode warning about behavior that is allowed, but counterintuitive.
+     */
+    public static final class Warning {
+        private final ExceptionVerifier.Check check;
+        private final String paramForm;
+        private final String message;
+
+        @Contract(pure = true)
+        Warning(
+                final ExceptionVerifier.Check check,
+                final String paramForm,
+                final String message
+        ) {
+            this.check = check;
+            this.paramForm = paramForm;
+            this.message = message;
+        }
+
+        /**
+         * Returns the check that produced the warning.
+         *
+         * @return the check
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public ExceptionVerifier.Check getCheck() {
+            return this.check;
+        }
+
+        /**
+         * Returns the parameter form of the constructor the warning is about.
+         *
+         * @return the parameter form, such as {@code (default; no-arg)}
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public String getParamForm() {
+            return this.paramForm;
+        }
+
+        /**
+         * Returns the warning text.
+         *
+         * @return the text
+         */
+        @Contract(pure = true)
+        @Nonnull
+        public String getMessage() {
+            return this.message;
+        }
+
+        @Override
+        public String toString() {
+            return this.message;
+        }
+    }
+}
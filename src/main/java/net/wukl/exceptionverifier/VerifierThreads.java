@@ -0,0 +1,33 @@
+package net.wukl.exceptionverifier;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Starts a new daemon thread for every task, so that a task that never finishes only ever holds
+ * up its own thread and does not keep the JVM alive.
+ *
+ * Platform threads are used on purpose, even where virtual threads are available: an abandoned
+ * virtual thread that loops without blocking keeps its carrier thread, and a handful of them
+ * stall every other virtual thread in the JVM. Callers that know their constructors only ever
+ * block can still pass a virtual thread executor instead.
+ *
+ * The exceptions the tasks construct are not counted by {@link ConstructionTelemetry}.
+ */
+final class VerifierThreads implements Executor {
+    /**
+     * The executor.
+     */
+    static final VerifierThreads INSTANCE = new VerifierThreads();
+
+    private static final String THREAD_NAME = "exception-verifier-check";
+
+    private VerifierThreads() {
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        final var thread = new Thread(ConstructionTelemetry.untracked(command), THREAD_NAME);
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
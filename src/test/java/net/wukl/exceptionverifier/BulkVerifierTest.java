@@ -0,0 +1,566 @@
+package net.wukl.exceptionverifier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.module.Configuration;
+import java.lang.module.ModuleFinder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BulkVerifierTest {
+    private static final String GOOD_CITIZEN =
+            ExceptionVerifierTest.GoodCitizenException.class.getName();
+    private static final String THROWING =
+            ExceptionVerifierTest.ThrowingException.class.getName();
+    private static final String WRAPPING =
+            ExceptionVerifierTest.WrappingException.class.getName();
+
+    @Test
+    public void testPackageStrict() {
+        final var result = ExceptionVerifier.forPackage("net.wukl.exceptionverifier")
+                .verify();
+
+        assertTrue(result.getVerifiedClasses().contains(GOOD_CITIZEN));
+        assertFalse(result.getFailures().containsKey(GOOD_CITIZEN));
+        assertTrue(result.getFailures().containsKey(THROWING));
+        assertTrue(result.getFailures().containsKey(WRAPPING));
+        assertFalse(result.isSuccessful());
+        assertThrows(AssertionError.class, result::assertSuccessful);
+    }
+
+    @Test
+    public void testPackageWeak() {
+        final var result = ExceptionVerifier.forPackage("net.wukl.exceptionverifier")
+                .withStrictness(ExceptionVerifier.Strictness.WEAK)
+                .withParallelism(2)
+                .verify();
+
+        assertFalse(result.getFailures().containsKey(GOOD_CITIZEN));
+        assertTrue(result.getFailures().containsKey(THROWING));
+        assertFalse(result.getFailures().containsKey(WRAPPING));
+    }
+
+    @Test
+    public void testConstructorTimeout() {
+        final var hanging = ExceptionVerifierTest.HangingException.class.getName();
+        ExceptionVerifierTest.HangingException.hang = true;
+        try {
+            final var result = ExceptionVerifier.forPackage("net.wukl.exceptionverifier")
+                    .withClassFilter(name -> name.equals(hanging) || name.equals(GOOD_CITIZEN))
+                    .withConstructorTimeout(Duration.ofMillis(200))
+                    .withClassTimeout(Duration.ofSeconds(30))
+                    .verify();
+
+            assertEquals(Set.of(hanging, GOOD_CITIZEN), Set.copyOf(result.getVerifiedClasses()));
+            assertEquals(Set.of(hanging), result.getFailures().keySet());
+            assertEquals(
+                    VerificationReport.Failure.Kind.TIMEOUT,
+                    result.getFailures().get(hanging).getFailures().get(0).getKind()
+            );
+        } finally {
+            ExceptionVerifierTest.HangingException.hang = false;
+        }
+    }
+
+    @Test
+    public void testInvalidTimeout() {
+        final var builder = ExceptionVerifier.forPackage("net.wukl.exceptionverifier");
+
+        assertThrows(IllegalArgumentException.class, () ->
+                builder.withConstructorTimeout(Duration.ZERO)
+        );
+        assertThrows(IllegalArgumentException.class, () ->
+                builder.withClassTimeout(Duration.ofMillis(-1))
+        );
+    }
+
+    @Test
+    public void testNonExceptionsSkipped() {
+        final var result = ExceptionVerifier.forPackage("net.wukl.exceptionverifier")
+                .verify();
+
+        assertFalse(result.getVerifiedClasses().contains(ExceptionVerifier.class.getName()));
+        assertFalse(result.getVerifiedClasses().contains(BulkVerifierTest.class.getName()));
+    }
+
+    @Test
+    public void testUnknownPackage() {
+        final var result = ExceptionVerifier.forPackage("net.wukl.nonexistent").verify();
+
+        assertTrue(result.getVerifiedClasses().isEmpty());
+        assertTrue(result.isSuccessful());
+    }
+
+    @Test
+    public void testClasspath() throws Exception {
+        final var root = Paths.get(BulkVerifierTest.class.getProtectionDomain()
+                .getCodeSource().getLocation().toURI());
+        final var result = ExceptionVerifier.forClasspath(root)
+                .withStrictness(ExceptionVerifier.Strictness.WEAK)
+                .verify();
+
+        assertTrue(result.getVerifiedClasses().contains(GOOD_CITIZEN));
+        assertFalse(result.getFailures().containsKey(GOOD_CITIZEN));
+        assertTrue(result.getFailures().containsKey(THROWING));
+    }
+
+    @Test
+    public void testIsolatedBatches() throws Exception {
+        final var root = Paths.get(BulkVerifierTest.class.getProtectionDomain()
+                .getCodeSource().getLocation().toURI());
+        final var classLoading = ManagementFactory.getClassLoadingMXBean();
+        final var unloaded = classLoading.getUnloadedClassCount();
+
+        // The platform class loader cannot see the test classes, so every batch loads its own
+        final var result = ExceptionVerifier.forClasspath(root)
+                .withClassLoader(ClassLoader.getPlatformClassLoader())
+                .withStrictness(ExceptionVerifier.Strictness.WEAK)
+                .withIsolatedBatches(4)
+                .verify();
+
+        assertTrue(result.getVerifiedClasses().contains(GOOD_CITIZEN));
+        assertFalse(result.getFailures().containsKey(GOOD_CITIZEN));
+        assertTrue(result.getFailures().containsKey(THROWING));
+        for (final var report : result.getFailures().values()) {
+            for (final var failure : report.getFailures()) {
+                assertTrue(failure.getCause() == null
+                        || failure.getCause() instanceof DetachedThrowable);
+            }
+        }
+
+        // Every verified class was loaded by one of the batch loaders, so all of them can go
+        final var expected = unloaded + result.getVerifiedClasses().size();
+        for (int i = 0; i < 10 && classLoading.getUnloadedClassCount() < expected; ++i) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        assertTrue(classLoading.getUnloadedClassCount() >= expected);
+    }
+
+    @Test
+    public void testModulePath(@TempDir final Path dir) throws Exception {
+        final var jar = TestModules.compileJar(dir, TestModules.FIXTURE_MODULE);
+
+        final var result = ExceptionVerifier.forModulePath(jar).verify();
+
+        // Exceptions in packages the module does not export are verified all the same
+        assertEquals(
+                List.of(
+                        "net.wukl.fixture.api.ApiException",
+                        "net.wukl.fixture.internal.InternalException",
+                        "net.wukl.fixture.internal.PrefixingException"
+                ),
+                result.getVerifiedClasses()
+        );
+        assertEquals(
+                Set.of("net.wukl.fixture.internal.PrefixingException"),
+                result.getFailures().keySet()
+        );
+        assertTrue(result.getFailures().get("net.wukl.fixture.internal.PrefixingException")
+                .getFailures().get(0).getMessage().contains("ignored or changed message"));
+    }
+
+    @Test
+    public void testModulePathBytecodeEngine(@TempDir final Path dir) throws Exception {
+        final var jar = TestModules.compileJar(dir, TestModules.FIXTURE_MODULE);
+
+        final var reflective = ExceptionVerifier.forModulePath(jar).verify();
+        final var bytecode = ExceptionVerifier.forModulePath(jar)
+                .withEngine(ExceptionVerifier.Engine.BYTECODE)
+                .verify();
+
+        assertEquals(reflective.getVerifiedClasses(), bytecode.getVerifiedClasses());
+        assertEquals(reflective.getFailures().keySet(), bytecode.getFailures().keySet());
+    }
+
+    @Test
+    public void testModuleNotOpen(@TempDir final Path dir) throws Exception {
+        final var jar = TestModules.compileJar(dir, TestModules.FIXTURE_MODULE);
+        final var boot = ModuleLayer.boot();
+        final Configuration configuration = boot.configuration().resolve(
+                ModuleFinder.of(jar), ModuleFinder.of(), Set.of("net.wukl.fixture")
+        );
+        final var layer = boot.defineModulesWithOneLoader(
+                configuration, ClassLoader.getSystemClassLoader()
+        );
+        final var loader = layer.findLoader("net.wukl.fixture");
+
+        final var exported = Class.forName("net.wukl.fixture.api.ApiException", false, loader);
+        ExceptionVerifier.forClass(exported.asSubclass(Throwable.class)).verify();
+
+        final var internal =
+                Class.forName("net.wukl.fixture.internal.InternalException", false, loader);
+        final var report = ExceptionVerifier.forClass(internal.asSubclass(Throwable.class))
+                .report();
+        final var failure = report.getFailures().get(0);
+        assertEquals("(default; no-arg) constructor is not accessible", failure.getMessage());
+        assertTrue(failure.getCause().getMessage().contains("neither exported nor open"));
+    }
+
+    @Test
+    public void testEmptyModulePath(@TempDir final Path dir) {
+        final var result = ExceptionVerifier.forModulePath(dir).verify();
+
+        assertTrue(result.getVerifiedClasses().isEmpty());
+        assertTrue(result.isSuccessful());
+    }
+
+    @Test
+    public void testFatJar(@TempDir final Path dir) throws Exception {
+        final var entries = new LinkedHashMap<String, byte[]>();
+        entries.putAll(TestArchives.classFiles(
+                "BOOT-INF/classes/", ExceptionVerifierTest.GoodCitizenException.class
+        ));
+        entries.put("BOOT-INF/lib/fixtures.jar", TestArchives.archive(TestArchives.classFiles(
+                "", ExceptionVerifierTest.ThrowingException.class, BulkVerifierTest.class
+        ), true));
+        final var jar = TestArchives.write(dir.resolve("fat.jar"), entries, false);
+
+        // The platform class loader cannot see the test classes, so they come from the fat jar
+        final var result = ExceptionVerifier.forClasspath(jar)
+                .withClassLoader(ClassLoader.getPlatformClassLoader())
+                .withStrictness(ExceptionVerifier.Strictness.WEAK)
+                .withIsolatedBatches(1)
+                .verify();
+
+        assertEquals(List.of(GOOD_CITIZEN, THROWING), result.getVerifiedClasses());
+        assertEquals(Set.of(THROWING), result.getFailures().keySet());
+    }
+
+    @Test
+    public void testLoadFailureNotCached(@TempDir final Path dir) throws Exception {
+        final var root = dir.resolve("classes");
+        final var cacheFile = dir.resolve("cache.bin");
+        final var marked = MarkedException.class.getName();
+        writeClassFiles(root, MarkedException.class);
+
+        // Without its interface, the class cannot be loaded
+        final var broken = ExceptionVerifier.forClasspath(root)
+                .withClassLoader(ClassLoader.getPlatformClassLoader())
+                .withCache(cacheFile)
+                .verify();
+        assertEquals(List.of(), broken.getVerifiedClasses());
+
+        writeClassFiles(root, Marker.class);
+        final var fixed = ExceptionVerifier.forClasspath(root)
+                .withClassLoader(ClassLoader.getPlatformClassLoader())
+                .withCache(cacheFile)
+                .verify();
+        assertEquals(List.of(marked), fixed.getVerifiedClasses());
+        assertTrue(fixed.isSuccessful());
+    }
+
+    @Test
+    public void testReportWriters() throws Exception {
+        final var xml = new ByteArrayOutputStream();
+        final var sarif = new ByteArrayOutputStream();
+        final BulkVerificationResult result;
+        try (JUnitXmlReportWriter xmlWriter = new JUnitXmlReportWriter(xml);
+                SarifReportWriter sarifWriter = new SarifReportWriter(sarif)) {
+            result = ExceptionVerifier.forPackage("net.wukl.exceptionverifier")
+                    .withParallelism(2)
+                    .withReportWriter(xmlWriter)
+                    .withReportWriter(sarifWriter)
+                    .verify();
+        }
+
+        final var document = JUnitXmlReportWriterTest.parse(xml.toByteArray());
+        assertEquals(
+                result.getVerifiedClasses().size(),
+                document.getElementsByTagName("testsuite").getLength()
+        );
+        final var failures = result.getFailures().values().stream()
+                .mapToInt(report -> report.getFailures().size())
+                .sum();
+        assertEquals(
+                failures,
+                document.getElementsByTagName("failure").getLength()
+                        + document.getElementsByTagName("error").getLength()
+        );
+        assertTrue(sarif.toString(StandardCharsets.UTF_8).contains(THROWING));
+    }
+
+    @Test
+    public void testWritesSerialized() {
+        final var writing = new AtomicInteger();
+        final var overlaps = new AtomicInteger();
+        final var written = new AtomicInteger();
+        final var result = ExceptionVerifier.forPackage("net.wukl.exceptionverifier")
+                .withParallelism(4)
+                .withReportWriter(new ReportWriter() {
+                    @Override
+                    public void write(final VerificationReport report) {
+                        if (writing.incrementAndGet() > 1) {
+                            overlaps.incrementAndGet();
+                        }
+
+                        LockSupport.parkNanos(100_000);
+                        written.incrementAndGet();
+                        writing.decrementAndGet();
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                })
+                .verify();
+
+        assertEquals(0, overlaps.get());
+        assertEquals(result.getVerifiedClasses().size(), written.get());
+    }
+
+    @Test
+    public void testWriterCancels() {
+        final var written = new AtomicInteger();
+        assertThrows(CancellationException.class, () ->
+                ExceptionVerifier.forPackage("net.wukl.exceptionverifier")
+                        .withParallelism(1)
+                        .withReportWriter(new ReportWriter() {
+                            @Override
+                            public void write(final VerificationReport report) {
+                                written.incrementAndGet();
+                                throw new CancellationException();
+                            }
+
+                            @Override
+                            public void close() {
+                            }
+                        })
+                        .verify()
+        );
+        assertEquals(1, written.get());
+    }
+
+    @Test
+    public void testPublish() throws Exception {
+        final var expected = ExceptionVerifier.forPackage("net.wukl.exceptionverifier")
+                .verify();
+
+        final var subscriber = new RecordingSubscriber();
+        ExceptionVerifier.forPackage("net.wukl.exceptionverifier")
+                .withParallelism(2)
+                .publish()
+                .subscribe(subscriber);
+
+        final var subscription = subscriber.subscription.get(10, TimeUnit.SECONDS);
+        subscription.request(1);
+        assertNotNull(subscriber.received.poll(10, TimeUnit.SECONDS));
+        // Nothing more is delivered than was requested
+        assertNull(subscriber.received.poll(200, TimeUnit.MILLISECONDS));
+
+        subscription.request(Long.MAX_VALUE);
+        assertNull(subscriber.completion.get(10, TimeUnit.SECONDS));
+        assertEquals(
+                expected.getVerifiedClasses().size() - 1, subscriber.received.size()
+        );
+    }
+
+    @Test
+    public void testPublishSnapshotsSettings() throws Exception {
+        final var written = new AtomicInteger();
+        final var subscriber = new RecordingSubscriber();
+        final var builder = ExceptionVerifier.forPackage("net.wukl.exceptionverifier")
+                .withClassFilter(name -> name.equals(GOOD_CITIZEN));
+        builder.publish().subscribe(subscriber);
+
+        // Changes made after subscribing do not affect the running verification
+        builder.withClassFilter(name -> name.equals(THROWING))
+                .withStrictness(ExceptionVerifier.Strictness.WEAK)
+                .withReportWriter(new ReportWriter() {
+                    @Override
+                    public void write(final VerificationReport report) {
+                        written.incrementAndGet();
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                });
+
+        subscriber.subscription.get(10, TimeUnit.SECONDS).request(Long.MAX_VALUE);
+        assertNull(subscriber.completion.get(10, TimeUnit.SECONDS));
+
+        final var report = subscriber.received.poll();
+        assertNotNull(report);
+        assertEquals(GOOD_CITIZEN, report.getExceptionType());
+        assertEquals(ExceptionVerifier.Strictness.STRICT, report.getStrictness());
+        assertTrue(subscriber.received.isEmpty());
+        assertEquals(0, written.get());
+    }
+
+    @Test
+    public void testPublishCancelled() throws Exception {
+        final var subscriber = new RecordingSubscriber();
+        ExceptionVerifier.forPackage("net.wukl.exceptionverifier")
+                .publish()
+                .subscribe(subscriber);
+
+        final var subscription = subscriber.subscription.get(10, TimeUnit.SECONDS);
+        subscription.request(1);
+        assertNotNull(subscriber.received.poll(10, TimeUnit.SECONDS));
+        subscription.cancel();
+        subscription.request(Long.MAX_VALUE);
+
+        assertNull(subscriber.received.poll(200, TimeUnit.MILLISECONDS));
+        assertFalse(subscriber.completion.isDone());
+    }
+
+    @Test
+    public void testPublishError() {
+        final var subscriber = new RecordingSubscriber();
+        ExceptionVerifier.forPackage("net.wukl.exceptionverifier")
+                .withIsolatedBatches(16)
+                .publish()
+                .subscribe(subscriber);
+
+        final var thrown = assertThrows(ExecutionException.class, () ->
+                subscriber.completion.get(10, TimeUnit.SECONDS)
+        );
+        assertTrue(thrown.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testIsolatedPackagesRejected() {
+        assertThrows(IllegalStateException.class, () ->
+                ExceptionVerifier.forPackage("net.wukl.exceptionverifier")
+                        .withIsolatedBatches(16)
+                        .verify()
+        );
+    }
+
+    @Test
+    public void testBytecodeEngine() {
+        final var reflective = ExceptionVerifier.forPackage("net.wukl.exceptionverifier")
+                .verify();
+        final var bytecode = ExceptionVerifier.forPackage("net.wukl.exceptionverifier")
+                .withEngine(ExceptionVerifier.Engine.BYTECODE)
+                .verify();
+
+        assertEquals(reflective.getVerifiedClasses(), bytecode.getVerifiedClasses());
+        assertEquals(reflective.getFailures().keySet(), bytecode.getFailures().keySet());
+    }
+
+    @Test
+    public void testClassFilter() {
+        final var result = ExceptionVerifier.forPackage("net.wukl.exceptionverifier")
+                .withClassFilter(name -> !name.equals(THROWING))
+                .verify();
+
+        assertTrue(result.getVerifiedClasses().contains(GOOD_CITIZEN));
+        assertFalse(result.getVerifiedClasses().contains(THROWING));
+        assertFalse(result.getFailures().containsKey(THROWING));
+    }
+
+    @Test
+    public void testInvalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () ->
+                ExceptionVerifier.forPackage("net.wukl.exceptionverifier").withParallelism(0)
+        );
+    }
+
+    private static void writeClassFiles(final Path root, final Class<?>... types)
+            throws IOException {
+        for (final var entry : TestArchives.classFiles("", types).entrySet()) {
+            final var file = root.resolve(entry.getKey());
+            Files.createDirectories(file.getParent());
+            Files.write(file, entry.getValue());
+        }
+    }
+
+    public interface Marker {
+    }
+
+    public static final class MarkedException extends RuntimeException implements Marker {
+        /**
+         * Creates a new marked exception.
+         */
+        public MarkedException() {
+            super();
+        }
+
+        /**
+         * Creates a new marked exception.
+         *
+         * @param message the message explaining what caused the exception
+         */
+        public MarkedException(final String message) {
+            super(message);
+        }
+
+        /**
+         * Creates a new marked exception.
+         *
+         * @param cause the exception that caused this exception
+         */
+        public MarkedException(final Throwable cause) {
+            super(cause);
+        }
+
+        /**
+         * Creates a new marked exception.
+         *
+         * @param message the message explaining what caused the exception
+         * @param cause   the exception that caused this exception
+         */
+        public MarkedException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Records what a publisher delivers.
+     */
+    private static final class RecordingSubscriber implements Flow.Subscriber<VerificationReport> {
+        private final CompletableFuture<Flow.Subscription> subscription =
+                new CompletableFuture<>();
+        private final BlockingQueue<VerificationReport> received = new LinkedBlockingQueue<>();
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription.complete(subscription);
+        }
+
+        @Override
+        public void onNext(final VerificationReport item) {
+            this.received.add(item);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            this.completion.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            this.completion.complete(null);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package net.wukl.exceptionverifier;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BytecodeAnalyzerTest {
+    private final BytecodeAnalyzer analyzer = new BytecodeAnalyzer(getClass().getClassLoader());
+
+    @Test
+    public void testForwardingConstructorsPass() {
+        final var analysis = this.analyze(ExceptionVerifierTest.GoodCitizenException.class);
+
+        assertTrue(analysis.isThrowable());
+        assertTrue(analysis.isConcrete());
+        assertFalse(analysis.isLocal());
+        for (final var check : ExceptionVerifier.Check.values()) {
+            // The fixture does not declare the optional lightweight constructor
+            final var expected = check.isOptional()
+                    ? BytecodeAnalyzer.Verdict.MISSING
+                    : BytecodeAnalyzer.Verdict.PASS;
+            assertEquals(expected, analysis.getVerdict(check));
+        }
+        assertTrue(analysis.isDecided(ExceptionVerifier.Strictness.STRICT, false));
+    }
+
+    @Test
+    public void testNonPublicConstructorsMissing() {
+        final var analysis =
+                this.analyze(ExceptionVerifierTest.HiddenConstructorsException.class);
+
+        assertEquals(
+                BytecodeAnalyzer.Verdict.MISSING,
+                analysis.getVerdict(ExceptionVerifier.Check.DEFAULT)
+        );
+        assertEquals(
+                BytecodeAnalyzer.Verdict.PASS,
+                analysis.getVerdict(ExceptionVerifier.Check.MESSAGE_ONLY)
+        );
+        assertEquals(
+                BytecodeAnalyzer.Verdict.MISSING,
+                analysis.getVerdict(ExceptionVerifier.Check.NULLABLE_CAUSE_ONLY)
+        );
+        assertTrue(analysis.isDecided(ExceptionVerifier.Strictness.STRICT, false));
+    }
+
+    @Test
+    public void testConstructorBodyUndecided() {
+        final var analysis = this.analyze(ExceptionVerifierTest.WrappingException.class);
+
+        assertEquals(
+                BytecodeAnalyzer.Verdict.PASS,
+                analysis.getVerdict(ExceptionVerifier.Check.CAUSE_ONLY)
+        );
+        assertEquals(
+                BytecodeAnalyzer.Verdict.UNDECIDED,
+                analysis.getVerdict(ExceptionVerifier.Check.MESSAGE_ONLY)
+        );
+        assertEquals(
+                BytecodeAnalyzer.Verdict.UNDECIDED,
+                analysis.getVerdict(ExceptionVerifier.Check.FULL)
+        );
+        assertFalse(analysis.isDecided(ExceptionVerifier.Strictness.WEAK, false));
+    }
+
+    @Test
+    public void testOverriddenAccessorUndecided() {
+        final var analysis = this.analyze(ExceptionVerifierTest.CountingMessageException.class);
+
+        for (final var check : ExceptionVerifier.Check.values()) {
+            final var expected = check.isOptional()
+                    ? BytecodeAnalyzer.Verdict.MISSING
+                    : BytecodeAnalyzer.Verdict.UNDECIDED;
+            assertEquals(expected, analysis.getVerdict(check));
+        }
+    }
+
+    @Test
+    public void testNonPublicClassUndecided() {
+        final var analysis = this.analyzer.analyze(
+                ExceptionVerifierTest.class.getName() + "$HiddenException", Throwable.class
+        );
+
+        assertNotNull(analysis);
+        assertFalse(analysis.isDecided(ExceptionVerifier.Strictness.WEAK, false));
+    }
+
+    @Test
+    public void testCauseTypeMismatch() {
+        final var analysis = this.analyzer.analyze(
+                ExceptionVerifierTest.GoodCitizenException.class.getName(), IOException.class
+        );
+
+        assertNotNull(analysis);
+        assertEquals(
+                BytecodeAnalyzer.Verdict.MISSING,
+                analysis.getVerdict(ExceptionVerifier.Check.CAUSE_ONLY)
+        );
+        assertEquals(
+                BytecodeAnalyzer.Verdict.PASS,
+                analysis.getVerdict(ExceptionVerifier.Check.MESSAGE_ONLY)
+        );
+    }
+
+    @Test
+    public void testLocalClass() {
+        class LocalException extends RuntimeException {
+        }
+
+        final var analysis = this.analyze(LocalException.class);
+
+        assertTrue(analysis.isLocal());
+    }
+
+    @Test
+    public void testNonThrowable() {
+        final var analysis = this.analyzer.analyze(
+                ExceptionVerifier.class.getName(), Throwable.class
+        );
+
+        assertNotNull(analysis);
+        assertFalse(analysis.isThrowable());
+    }
+
+    @Test
+    public void testUnknownClass() {
+        assertNull(this.analyzer.analyze("net.wukl.nonexistent.Missing", Throwable.class));
+    }
+
+    private BytecodeAnalyzer.Analysis analyze(final Class<? extends Throwable> type) {
+        final var analysis = this.analyzer.analyze(type.getName(), Throwable.class);
+        assertNotNull(analysis);
+        return analysis;
+    }
+}
@@ -0,0 +1,67 @@
+package net.wukl.exceptionverifier;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClassFileHeaderTest {
+    @Test
+    public void testExceptionClass() throws IOException {
+        final var header = ClassFileHeader.parse(
+                read(ExceptionVerifierTest.GoodCitizenException.class)
+        );
+
+        assertEquals(ExceptionVerifierTest.GoodCitizenException.class.getName(), header.getName());
+        assertEquals(RuntimeException.class.getName(), header.getSuperName());
+        assertTrue(header.isConcrete());
+    }
+
+    @Test
+    public void testObject() throws IOException {
+        final var header = ClassFileHeader.parse(read(Object.class));
+
+        assertEquals(Object.class.getName(), header.getName());
+        assertNull(header.getSuperName());
+    }
+
+    @Test
+    public void testInterface() throws IOException {
+        final var header = ClassFileHeader.parse(read(Runnable.class));
+
+        assertFalse(header.isConcrete());
+    }
+
+    @Test
+    public void testNotAClassFile() {
+        assertThrows(IOException.class, () ->
+                ClassFileHeader.parse(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }))
+        );
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        final var buf = read(ExceptionVerifierTest.GoodCitizenException.class);
+        buf.limit(40);
+
+        assertThrows(IOException.class, () -> ClassFileHeader.parse(buf));
+    }
+
+    private static ByteBuffer read(final Class<?> type) throws IOException {
+        final var loader = type.getClassLoader() != null
+                ? type.getClassLoader()
+                : ClassLoader.getSystemClassLoader();
+        try (InputStream in = loader.getResourceAsStream(
+                type.getName().replace('.', '/') + ".class"
+        )) {
+            return ByteBuffer.wrap(in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package net.wukl.exceptionverifier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ClassIndexTest {
+    private static final Class<?> GOOD_CITIZEN = ExceptionVerifierTest.GoodCitizenException.class;
+    private static final Class<?> THROWING = ExceptionVerifierTest.ThrowingException.class;
+    private static final Class<?> WRAPPING = ExceptionVerifierTest.WrappingException.class;
+
+    @Test
+    public void testJar(@TempDir final Path dir) throws IOException {
+        final var jar = TestArchives.write(
+                dir.resolve("test.jar"),
+                TestArchives.classFiles("", GOOD_CITIZEN, ClassIndexTest.class, Runnable.class),
+                false
+        );
+
+        final var index = ClassIndex.scan(List.of(jar));
+
+        assertEquals(
+                Set.of(GOOD_CITIZEN.getName()),
+                index.findCandidates(ClassLoader.getSystemClassLoader())
+        );
+        assertNull(index.readHidden(GOOD_CITIZEN.getName()));
+    }
+
+    @Test
+    public void testNestedJars(@TempDir final Path dir) throws IOException {
+        final var entries = new LinkedHashMap<String, byte[]>();
+        entries.putAll(TestArchives.classFiles("BOOT-INF/classes/", GOOD_CITIZEN));
+        entries.put("BOOT-INF/lib/stored.jar", TestArchives.archive(
+                TestArchives.classFiles("", THROWING, ClassIndexTest.class), true
+        ));
+        entries.put("BOOT-INF/lib/deflated.jar", TestArchives.archive(
+                TestArchives.classFiles("", WRAPPING), false
+        ));
+        final var jar = TestArchives.write(dir.resolve("fat.jar"), entries, true);
+
+        final var index = ClassIndex.scan(List.of(jar));
+
+        assertEquals(
+                Set.of(GOOD_CITIZEN.getName(), THROWING.getName(), WRAPPING.getName()),
+                index.findCandidates(ClassLoader.getSystemClassLoader())
+        );
+        for (final var type : List.of(GOOD_CITIZEN, THROWING, WRAPPING)) {
+            final var contents = index.readHidden(type.getName());
+            final var bytes = new byte[contents.remaining()];
+            contents.get(bytes);
+            assertArrayEquals(TestArchives.classFile(type), bytes);
+        }
+    }
+
+    @Test
+    public void testUnknownSuperclass(@TempDir final Path dir) throws IOException {
+        final var jar = TestArchives.write(
+                dir.resolve("test.jar"), TestArchives.classFiles("", GOOD_CITIZEN), false
+        );
+        final var blind = new ClassLoader(null) {
+            @Override
+            public InputStream getResourceAsStream(final String name) {
+                return null;
+            }
+        };
+
+        // Without the class file of RuntimeException, only loading the class can tell
+        assertEquals(
+                Set.of(GOOD_CITIZEN.getName()),
+                ClassIndex.scan(List.of(jar)).findCandidates(blind)
+        );
+    }
+}
@@ -0,0 +1,160 @@
+package net.wukl.exceptionverifier;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConstructionProfilerTest {
+    @Test
+    public void testCheapConstructorsWithinBudget() {
+        final var profile = profile(ExceptionVerifierTest.GoodCitizenException.class);
+
+        assertEquals(4, profile.getEntries().size());
+        profile.assertWithinBudget();
+    }
+
+    @Test
+    public void testExpensiveConstructorsOverBudget() {
+        final var profile = profile(ExceptionVerifierTest.ContextCollectingException.class);
+
+        assertFalse(profile.isWithinBudget());
+        for (final var entry : profile.getEntries()) {
+            assertTrue(entry.isOverBudget(), entry.toString());
+            assertTrue(entry.getRatio() > profile.getMaxRatio());
+        }
+
+        final var error = assertThrows(AssertionError.class, profile::assertWithinBudget);
+        assertTrue(error.getMessage().contains("(String message) constructor: "));
+    }
+
+    @Test
+    public void testPercentiles() {
+        final var profile = profile(ExceptionVerifierTest.GoodCitizenException.class);
+
+        for (final var entry : profile.getEntries()) {
+            final var cost = entry.getCost();
+            assertEquals(20, cost.getSampleCount());
+            assertTrue(cost.getPercentile(0) > 0);
+            assertTrue(cost.getPercentile(0) <= cost.getMedian());
+            assertTrue(cost.getMedian() <= cost.getPercentile(90));
+            assertTrue(cost.getPercentile(90) <= cost.getPercentile(99));
+            assertEquals(cost.getMax(), cost.getPercentile(100));
+        }
+    }
+
+    @Test
+    public void testUnavailableConstructorsSkipped() {
+        final var profile = profile(ExceptionVerifierTest.HiddenConstructorsException.class);
+
+        assertEquals(
+                List.of(ExceptionVerifier.Check.MESSAGE_ONLY, ExceptionVerifier.Check.FULL),
+                profile.getEntries().stream()
+                        .map(ConstructionProfile.Entry::getCheck)
+                        .collect(Collectors.toList())
+        );
+    }
+
+    @Test
+    public void testCauseTypeConstructorsProfiled() {
+        final var profile = ConstructionProfiler.forClass(IoCauseException.class)
+                .withCauseType(IOException.class)
+                .withWarmupIterations(2_000)
+                .withSamples(20)
+                .withIterationsPerSample(50)
+                .profile();
+
+        assertEquals(
+                List.of(
+                        ExceptionVerifier.Check.DEFAULT, ExceptionVerifier.Check.MESSAGE_ONLY,
+                        ExceptionVerifier.Check.CAUSE_ONLY, ExceptionVerifier.Check.FULL
+                ),
+                profile.getEntries().stream()
+                        .map(ConstructionProfile.Entry::getCheck)
+                        .collect(Collectors.toList())
+        );
+        assertEquals("(IOException cause)", profile.getEntries().get(2).getParamForm());
+    }
+
+    @Test
+    public void testUninstantiableCauseTypeRejected() {
+        final var builder = ConstructionProfiler.forClass(IoCauseException.class)
+                .withCauseType(AbstractCauseException.class);
+
+        final var error = assertThrows(IllegalArgumentException.class, builder::profile);
+        assertTrue(error.getMessage().contains(AbstractCauseException.class.getName()));
+    }
+
+    @Test
+    public void testInvalidSettings() {
+        final var builder =
+                ConstructionProfiler.forClass(ExceptionVerifierTest.GoodCitizenException.class);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.withWarmupIterations(-1));
+        assertThrows(IllegalArgumentException.class, () -> builder.withSamples(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.withIterationsPerSample(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.withMaxRatio(Double.NaN));
+    }
+
+    private static ConstructionProfile profile(final Class<? extends Throwable> type) {
+        return ConstructionProfiler.forClass(type)
+                .withWarmupIterations(2_000)
+                .withSamples(20)
+                .withIterationsPerSample(50)
+                .profile();
+    }
+
+    public static final class IoCauseException extends RuntimeException {
+        /**
+         * Creates a new I/O cause exception.
+         */
+        public IoCauseException() {
+            super();
+        }
+
+        /**
+         * Creates a new I/O cause exception.
+         *
+         * @param message the message explaining what caused the exception
+         */
+        public IoCauseException(final String message) {
+            super(message);
+        }
+
+        /**
+         * Creates a new I/O cause exception.
+         *
+         * @param cause the I/O exception that caused this exception
+         */
+        public IoCauseException(final IOException cause) {
+            super(cause);
+        }
+
+        /**
+         * Creates a new I/O cause exception.
+         *
+         * @param message the message explaining what caused the exception
+         * @param cause   the I/O exception that caused this exception
+         */
+        public IoCauseException(final String message, final IOException cause) {
+            super(message, cause);
+        }
+    }
+
+    public abstract static class AbstractCauseException extends Exception {
+        /**
+         * Creates a new abstract cause exception.
+         *
+         * @param message the message explaining what caused the exception
+         */
+        protected AbstractCauseException(final String message) {
+            super(message);
+        }
+    }
+}
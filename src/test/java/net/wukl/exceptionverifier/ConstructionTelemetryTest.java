@@ -0,0 +1,304 @@
+package net.wukl.exceptionverifier;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConstructionTelemetryTest {
+    @Test
+    public void testCountsEachConstructionOnce() throws Exception {
+        final var loader = new InstrumentingLoader(
+                CountedException.class, SubCountedException.class, ArgumentException.class
+        );
+        final var counted = loader.loadClass(CountedException.class.getName());
+        final var sub = loader.loadClass(SubCountedException.class.getName());
+        final var argument = loader.loadClass(ArgumentException.class.getName());
+
+        final var countedBefore = constructions(CountedException.class);
+        final var subBefore = constructions(SubCountedException.class);
+        final var argumentBefore = constructions(ArgumentException.class);
+
+        counted.getConstructor().newInstance();
+        counted.getConstructor(String.class).newInstance("message");
+        counted.getConstructor(Throwable.class).newInstance(new RuntimeException());
+        counted.getConstructor(String.class, Throwable.class).newInstance("message", null);
+        sub.getConstructor().newInstance();
+        sub.getConstructor(String.class).newInstance("message");
+        // Constructs a counted exception for its cause, before its own superclass constructor
+        argument.getConstructor(String.class).newInstance("message");
+
+        assertEquals(5, constructions(CountedException.class) - countedBefore);
+        assertEquals(2, constructions(SubCountedException.class) - subBefore);
+        assertEquals(1, constructions(ArgumentException.class) - argumentBefore);
+    }
+
+    @Test
+    public void testVerifierThreadsNotCounted() throws Exception {
+        final var loader = new InstrumentingLoader(CountedException.class);
+        final var counted = loader.loadClass(CountedException.class.getName());
+        final var before = constructions(CountedException.class);
+
+        final var done = new CompletableFuture<Object>();
+        VerifierThreads.INSTANCE.execute(() -> {
+            try {
+                done.complete(counted.getConstructor().newInstance());
+            } catch (final ReflectiveOperationException ex) {
+                done.completeExceptionally(ex);
+            }
+        });
+        assertNotNull(done.get(10, TimeUnit.SECONDS));
+        assertEquals(before, constructions(CountedException.class));
+
+        counted.getConstructor().newInstance();
+        assertEquals(before + 1, constructions(CountedException.class));
+    }
+
+    @Test
+    public void testControlFlowPreserved() throws Exception {
+        final var loader = new InstrumentingLoader(CountedException.class, TryException.class);
+        final var counted = loader.loadClass(CountedException.class.getName());
+        final var tried = loader.loadClass(TryException.class.getName());
+
+        for (final var message : Arrays.asList(null, "a", "ab", "abc", "abcdefghijklmnop")) {
+            final var expected = new CountedException(message);
+            final var actual = counted.getConstructor(String.class).newInstance(message);
+            assertEquals(expected.getMessage(), ((Throwable) actual).getMessage());
+            assertEquals(expected.tally, counted.getField("tally").getInt(actual));
+
+            final var expectedTry = new TryException(message);
+            final var actualTry = tried.getConstructor(String.class).newInstance(message);
+            assertEquals(expectedTry.getMessage(), ((Throwable) actualTry).getMessage());
+        }
+    }
+
+    @Test
+    public void testSamplesStackTraces() throws Exception {
+        final var loader = new InstrumentingLoader(
+                SampledException.class, StacklessException.class
+        );
+        final var sampled = loader.loadClass(SampledException.class.getName());
+        final var stackless = loader.loadClass(StacklessException.class.getName());
+
+        ConstructionTelemetry.setSampleInterval(1);
+        try {
+            for (int i = 0; i < 10; ++i) {
+                sampled.getConstructor(String.class).newInstance("message");
+                stackless.getConstructor(String.class).newInstance("message");
+            }
+        } finally {
+            ConstructionTelemetry.setSampleInterval(1024);
+        }
+
+        final var sampledEntry = entry(SampledException.class);
+        assertEquals(10, sampledEntry.getSamples());
+        assertTrue(sampledEntry.getMeanStackNanos() > 0);
+        assertFalse(sampledEntry.isStackless());
+        assertTrue(sampledEntry.hasLightweightConstructor());
+
+        final var stacklessEntry = entry(StacklessException.class);
+        assertTrue(stacklessEntry.isStackless());
+        assertEquals(0, stacklessEntry.getSamples());
+        assertEquals(0, stacklessEntry.getEstimatedStackNanos());
+    }
+
+    @Test
+    public void testMostFrequent() throws Exception {
+        final var loader = new InstrumentingLoader(FrequentException.class);
+        final var frequent = loader.loadClass(FrequentException.class.getName());
+        for (int i = 0; i < 1000; ++i) {
+            frequent.getConstructor(String.class).newInstance("message");
+        }
+
+        final var top = ConstructionTelemetry.getMostFrequent(1);
+        assertEquals(1, top.size());
+        assertEquals(FrequentException.class.getName(), top.get(0).getExceptionType());
+        assertTrue(ConstructionTelemetry.getMostFrequent(0).isEmpty());
+        assertEquals(
+                ConstructionTelemetry.snapshot().size(),
+                ConstructionTelemetry.getMostExpensive(Integer.MAX_VALUE).size()
+        );
+    }
+
+    @Test
+    public void testUninstrumentable() throws IOException {
+        // No superclass constructor to follow
+        assertNull(ConstructorInstrumenter.instrument(TestArchives.classFile(Object.class)));
+        assertNotNull(ConstructorInstrumenter.instrument(
+                TestArchives.classFile(CountedException.class)
+        ));
+    }
+
+    private static long constructions(final Class<?> type) {
+        return ConstructionTelemetry.snapshot().stream()
+                .filter(entry -> entry.getExceptionType().equals(type.getName()))
+                .mapToLong(ConstructionTelemetry.Entry::getConstructions)
+                .sum();
+    }
+
+    private static ConstructionTelemetry.Entry entry(final Class<?> type) {
+        return ConstructionTelemetry.snapshot().stream()
+                .filter(entry -> entry.getExceptionType().equals(type.getName()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Defines instrumented copies of some classes, and leaves the rest to its parent.
+     */
+    private static final class InstrumentingLoader extends ClassLoader {
+        private final Set<String> names;
+
+        private InstrumentingLoader(final Class<?>... types) {
+            super(ConstructionTelemetryTest.class.getClassLoader());
+            this.names = Arrays.stream(types).map(Class::getName).collect(Collectors.toSet());
+        }
+
+        @Override
+        protected Class<?> loadClass(final String name, final boolean resolve)
+                throws ClassNotFoundException {
+            if (!this.names.contains(name)) {
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized (this.getClassLoadingLock(name)) {
+                final var loaded = this.findLoadedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+
+                try {
+                    final var original = TestArchives.classFile(
+                            ConstructionTelemetryTest.class.getClassLoader().loadClass(name)
+                    );
+                    final var instrumented = ConstructorInstrumenter.instrument(original);
+                    assertNotNull(instrumented);
+                    return this.defineClass(name, instrumented, 0, instrumented.length);
+                } catch (final IOException ex) {
+                    throw new ClassNotFoundException(name, ex);
+                }
+            }
+        }
+    }
+
+    public static class CountedException extends RuntimeException {
+        public int tally;
+
+        public CountedException() {
+            this("default");
+        }
+
+        public CountedException(final String message) {
+            super(message == null ? "none" : message);
+
+            // Branches, loops and switches after the hook
+            for (int i = 0; i < 3; ++i) {
+                switch (i) {
+                    case 0:
+                        this.tally += 1;
+                        break;
+                    case 1:
+                        this.tally += 10;
+                        break;
+                    default:
+                        this.tally += 100;
+                        break;
+                }
+            }
+
+            switch (message == null ? -1 : message.length()) {
+                case 1:
+                    this.tally *= 2;
+                    break;
+                case 16:
+                    this.tally *= 3;
+                    break;
+                case 1000:
+                    this.tally *= 5;
+                    break;
+                default:
+                    this.tally = -this.tally;
+                    break;
+            }
+        }
+
+        public CountedException(final Throwable cause) {
+            super(cause);
+        }
+
+        public CountedException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    public static class SubCountedException extends CountedException {
+        public SubCountedException() {
+            super();
+        }
+
+        public SubCountedException(final String message) {
+            super(message);
+        }
+    }
+
+    public static class ArgumentException extends RuntimeException {
+        public ArgumentException(final String message) {
+            super(message, new CountedException(message));
+        }
+    }
+
+    public static class TryException extends RuntimeException {
+        public TryException(final String message) {
+            super(message);
+            try {
+                if (message == null) {
+                    throw new IllegalArgumentException();
+                }
+            } catch (final IllegalArgumentException ex) {
+                this.addSuppressed(ex);
+            }
+        }
+    }
+
+    public static class SampledException extends RuntimeException {
+        public SampledException(final String message) {
+            super(message);
+        }
+
+        protected SampledException(
+                final String message,
+                final Throwable cause,
+                final boolean enableSuppression,
+                final boolean writableStackTrace
+        ) {
+            super(message, cause, enableSuppression, writableStackTrace);
+        }
+    }
+
+    public static class StacklessException extends RuntimeException {
+        public StacklessException(final String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    public static class FrequentException extends RuntimeException {
+        public FrequentException(final String message) {
+            super(message);
+        }
+    }
+}
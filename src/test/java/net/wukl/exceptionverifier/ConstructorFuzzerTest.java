@@ -0,0 +1,224 @@
+package net.wukl.exceptionverifier;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConstructorFuzzerTest {
+    @Test
+    public void testGoodCitizenPasses() {
+        final var report = ConstructorFuzzer
+                .forClass(ExceptionVerifierTest.GoodCitizenException.class)
+                .withSeed(42)
+                .withIterations(20_000)
+                .withThreads(4)
+                .fuzz();
+
+        report.assertSuccessful();
+        assertEquals(20_000, report.getExecutions());
+        assertEquals(0, report.getFailedExecutions());
+        assertEquals(42, report.getSeed());
+        assertTrue(report.getExecutionsPerSecond() > 0);
+    }
+
+    @Test
+    public void testNullMessageSensitive() {
+        final var builder = ConstructorFuzzer
+                .forClass(ExceptionVerifierTest.NullMessageSensitiveException.class)
+                .withIterations(5_000);
+
+        final var strict = builder.fuzz();
+        assertFalse(strict.isSuccessful());
+        assertEquals(1, strict.getFailures().size());
+
+        final var failure = strict.getFailures().get(0);
+        assertEquals(ExceptionVerifier.Check.FULL, failure.getCheck());
+        assertEquals(VerificationReport.Failure.Kind.VIOLATION, failure.getKind());
+        assertTrue(failure.getInput().startsWith("message null and cause "), failure.getInput());
+        assertThrows(AssertionError.class, () -> builder.replay(failure.getSeed()));
+
+        // Weak mode passes no null messages
+        builder.withStrictness(ExceptionVerifier.Strictness.WEAK).fuzz().assertSuccessful();
+    }
+
+    @Test
+    public void testFormatSpecifiers() {
+        final var builder = ConstructorFuzzer.forClass(FormattingException.class)
+                .withStrictness(ExceptionVerifier.Strictness.WEAK)
+                .withIterations(5_000);
+        final var report = builder.fuzz();
+
+        assertEquals(
+                ExceptionVerifier.Check.MESSAGE_ONLY,
+                report.getFailures().stream()
+                        .map(FuzzReport.Failure::getCheck)
+                        .collect(Collectors.toList())
+                        .get(0)
+        );
+
+        final var failure = report.getFailures().get(0);
+        final var error = assertThrows(AssertionError.class, report::assertSuccessful);
+        assertTrue(error.getMessage().contains("(seed " + failure.getSeed() + ")"));
+
+        final var replayed =
+                assertThrows(AssertionError.class, () -> builder.replay(failure.getSeed()));
+        assertEquals(failure.toString(), replayed.getMessage());
+    }
+
+    @Test
+    public void testDeterministic() {
+        final var builder = ConstructorFuzzer.forClass(FormattingException.class)
+                .withSeed(1234)
+                .withIterations(5_000);
+
+        final var sequential = builder.withThreads(1).fuzz();
+        final var parallel = builder.withThreads(3).fuzz();
+
+        assertEquals(sequential.getFailedExecutions(), parallel.getFailedExecutions());
+        assertEquals(sequential.getFailures().size(), parallel.getFailures().size());
+        for (int i = 0; i < sequential.getFailures().size(); ++i) {
+            assertEquals(
+                    sequential.getFailures().get(i).toString(),
+                    parallel.getFailures().get(i).toString()
+            );
+        }
+    }
+
+    @Test
+    public void testCyclicCauseTimesOut() {
+        final var report = ConstructorFuzzer.forClass(CauseWalkingException.class)
+                .withSeed(7)
+                .withIterations(2_000)
+                .withThreads(2)
+                .withCaseTimeout(Duration.ofMillis(100))
+                .fuzz();
+
+        assertFalse(report.isSuccessful());
+        assertTrue(report.getFailures().stream()
+                .anyMatch(failure -> failure.getKind() == VerificationReport.Failure.Kind.TIMEOUT
+                        && failure.getInput().endsWith("(cyclic)")));
+        assertTrue(report.getExecutions() < 2_000);
+    }
+
+    @Test
+    public void testInvalidSettings() {
+        final var builder =
+                ConstructorFuzzer.forClass(ExceptionVerifierTest.GoodCitizenException.class);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.withIterations(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.withThreads(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.withDuration(Duration.ZERO));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> builder.withCaseTimeout(Duration.ofMillis(-1))
+        );
+    }
+
+    public static final class FormattingException extends RuntimeException {
+        /**
+         * Creates a new formatting exception.
+         */
+        public FormattingException() {
+            super();
+        }
+
+        /**
+         * Creates a new formatting exception, using the message as a format string.
+         *
+         * @param message the message explaining what caused the exception
+         */
+        public FormattingException(final String message) {
+            super(message == null ? null : String.format(message));
+        }
+
+        /**
+         * Creates a new formatting exception.
+         *
+         * @param cause the exception that caused this exception
+         */
+        public FormattingException(final Throwable cause) {
+            super(cause);
+        }
+
+        /**
+         * Creates a new formatting exception.
+         *
+         * @param message the message explaining what caused the exception
+         * @param cause   the exception that caused this exception
+         */
+        public FormattingException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    public static final class CauseWalkingException extends RuntimeException {
+        private final Throwable root;
+
+        /**
+         * Creates a new cause walking exception.
+         */
+        public CauseWalkingException() {
+            super();
+            this.root = null;
+        }
+
+        /**
+         * Creates a new cause walking exception.
+         *
+         * @param message the message explaining what caused the exception
+         */
+        public CauseWalkingException(final String message) {
+            super(message);
+            this.root = null;
+        }
+
+        /**
+         * Creates a new cause walking exception, looking up the root cause until interrupted.
+         *
+         * @param cause the exception that caused this exception
+         */
+        public CauseWalkingException(final Throwable cause) {
+            super(cause);
+            this.root = root(cause);
+        }
+
+        /**
+         * Creates a new cause walking exception, looking up the root cause until interrupted.
+         *
+         * @param message the message explaining what caused the exception
+         * @param cause   the exception that caused this exception
+         */
+        public CauseWalkingException(final String message, final Throwable cause) {
+            super(message, cause);
+            this.root = root(cause);
+        }
+
+        /**
+         * Returns the innermost cause.
+         *
+         * @return the root cause, or {@code null} if there is no cause
+         */
+        public Throwable getRoot() {
+            return this.root;
+        }
+
+        private static Throwable root(final Throwable cause) {
+            var root = cause;
+            while (root != null && root.getCause() != null) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IllegalStateException("Interrupted while looking up the root cause");
+                }
+
+                root = root.getCause();
+            }
+
+            return root;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package net.wukl.exceptionverifier;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ConstructorPlanTest {
+    @Test
+    public void testPlanIsCached() {
+        final var plan = ConstructorPlan.of(
+                ExceptionVerifierTest.GoodCitizenException.class, Throwable.class
+        );
+
+        assertSame(plan, ConstructorPlan.of(
+                ExceptionVerifierTest.GoodCitizenException.class, Throwable.class
+        ));
+        assertNotSame(plan, ConstructorPlan.of(
+                ExceptionVerifierTest.GoodCitizenException.class, Exception.class
+        ));
+    }
+
+    @Test
+    public void testInstantiation() throws Exception {
+        final var plan = ConstructorPlan.of(
+                ExceptionVerifierTest.GoodCitizenException.class, Throwable.class
+        );
+        final var cause = new IOException();
+
+        final var instance = plan.newFull("message", cause);
+
+        assertEquals("message", instance.getMessage());
+        assertSame(cause, instance.getCause());
+    }
+
+    @Test
+    public void testMissingConstructor() {
+        final var plan = ConstructorPlan.of(
+                ExceptionVerifierTest.HiddenConstructorsException.class, Throwable.class
+        );
+
+        assertThrows(NoSuchMethodException.class, plan::newDefault);
+    }
+
+    @Test
+    public void testThrowingConstructor() {
+        final var plan = ConstructorPlan.of(
+                ExceptionVerifierTest.ThrowingException.class, Throwable.class
+        );
+
+        assertThrows(InvocationTargetException.class, () -> plan.newWithCause(null));
+    }
+
+    @Test
+    public void testCauseTypeMismatch() {
+        final var plan = ConstructorPlan.of(
+                ExceptionVerifierTest.GoodCitizenException.class, IOException.class
+        );
+
+        assertThrows(NoSuchMethodException.class, () -> plan.newWithCause(new IOException()));
+    }
+}
@@ -3,13 +3,33 @@ package net.wukl.exceptionverifier;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class ExceptionVerifierTest {
+    private static final RuntimeException CAUSE = new RuntimeException("cause");
+    private static final Exception WRAPPED_CAUSE = new InvocationTargetException(CAUSE);
+
+    private volatile Throwable sink;
+
     @Test
     public void testGoodCitizenWeak() {
         assertDoesNotThrow(() -> ExceptionVerifier.forClass(GoodCitizenException.class)
@@ -260,6 +280,684 @@ public class ExceptionVerifierTest {
         });
     }
 
+    @Test
+    public void testGoodCitizenConcurrent() {
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            assertDoesNotThrow(() -> ExceptionVerifier.forClass(GoodCitizenException.class)
+                    .withExecutor(executor)
+                    .verify()
+            );
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentFailureOrdering() {
+        final var sequential = assertThrows(AssertionError.class, () ->
+                ExceptionVerifier.forClass(MessageErasingException.class).verify()
+        );
+
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            final var concurrent = assertThrows(AssertionError.class, () ->
+                    ExceptionVerifier.forClass(MessageErasingException.class)
+                            .withExecutor(executor)
+                            .verify()
+            );
+
+            assertEquals(sequential.getMessage(), concurrent.getMessage());
+            assertNotEquals(0, concurrent.getSuppressed().length);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testGoodCitizenReport() {
+        final var report = ExceptionVerifier.forClass(GoodCitizenException.class).report();
+
+        assertTrue(report.isSuccessful());
+        assertTrue(report.getWarnings().isEmpty());
+        assertEquals(GoodCitizenException.class.getName(), report.getExceptionType());
+        assertDoesNotThrow(report::assertSuccessful);
+    }
+
+    @Test
+    public void testErasingExceptionReport() {
+        final var report = ExceptionVerifier.forClass(MessageErasingException.class).report();
+        final var checks = report.getFailures().stream()
+                .map(VerificationReport.Failure::getCheck)
+                .collect(Collectors.toList());
+
+        assertTrue(checks.contains(ExceptionVerifier.Check.MESSAGE_ONLY));
+        assertTrue(checks.contains(ExceptionVerifier.Check.CAUSE_ONLY));
+        assertTrue(checks.contains(ExceptionVerifier.Check.FULL));
+        assertEquals(checks.stream().sorted().collect(Collectors.toList()), checks);
+        assertEquals("(String message)", report.getFailures().get(0).getParamForm());
+        assertEquals(
+                ExceptionVerifier.Strictness.STRICT, report.getFailures().get(0).getStrictness()
+        );
+        assertThrows(AssertionError.class, report::assertSuccessful);
+    }
+
+    @Test
+    public void testThrowingExceptionReportCause() {
+        final var report = ExceptionVerifier.forClass(ThrowingException.class).report();
+        final var failure = report.getFailures().get(0);
+
+        assertEquals(ExceptionVerifier.Check.CAUSE_ONLY, failure.getCheck());
+        assertTrue(failure.getCause() instanceof InvocationTargetException);
+    }
+
+    @Test
+    public void testSpeakingExceptionReportWarnings() {
+        final var report = ExceptionVerifier.forClass(PuttingTheWordsInMyMouthException.class)
+                .withStrictness(ExceptionVerifier.Strictness.WEAK)
+                .report();
+
+        assertTrue(report.isSuccessful());
+        assertEquals(1, report.getWarnings().size());
+        assertEquals(ExceptionVerifier.Check.DEFAULT, report.getWarnings().get(0).getCheck());
+        assertTrue(report.getWarnings().get(0).getMessage().contains("haha"));
+    }
+
+    @Test
+    public void testConcurrentReport() {
+        final var sequential = ExceptionVerifier.forClass(MessageErasingException.class).report();
+
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            final var concurrent = ExceptionVerifier.forClass(MessageErasingException.class)
+                    .withExecutor(executor)
+                    .report();
+
+            assertEquals(
+                    sequential.getFailures().stream()
+                            .map(VerificationReport.Failure::getMessage)
+                            .collect(Collectors.toList()),
+                    concurrent.getFailures().stream()
+                            .map(VerificationReport.Failure::getMessage)
+                            .collect(Collectors.toList())
+            );
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBytecodeEngineMatchesReflection() {
+        final var types = List.of(
+                GoodCitizenException.class, HiddenConstructorsException.class,
+                HiddenException.class, ThrowingException.class, WrappingException.class,
+                MessageErasingException.class, CountingMessageException.class
+        );
+        for (final var strictness : ExceptionVerifier.Strictness.values()) {
+            for (final var type : types) {
+                final var reflective = ExceptionVerifier.forClass(type)
+                        .withStrictness(strictness)
+                        .report();
+                final var bytecode = ExceptionVerifier.forClass(type)
+                        .withStrictness(strictness)
+                        .withEngine(ExceptionVerifier.Engine.BYTECODE)
+                        .report();
+
+                assertEquals(
+                        reflective.getFailures().stream()
+                                .map(VerificationReport.Failure::getMessage)
+                                .collect(Collectors.toList()),
+                        bytecode.getFailures().stream()
+                                .map(VerificationReport.Failure::getMessage)
+                                .collect(Collectors.toList()),
+                        type.getName()
+                );
+            }
+        }
+    }
+
+    @Test
+    public void testBytecodeEngineMissingConstructor() {
+        final var error = assertThrows(AssertionError.class, () ->
+                ExceptionVerifier.forClass(HiddenConstructorsException.class)
+                        .withEngine(ExceptionVerifier.Engine.BYTECODE)
+                        .verify()
+        );
+
+        assertEquals("Missing (default; no-arg) constructor", error.getMessage());
+    }
+
+    @Test
+    public void testCompiledVerifierReuse() {
+        final var compiled = ExceptionVerifier.forClass(GoodCitizenException.class).compile();
+
+        assertDoesNotThrow(() -> compiled.verify(GoodCitizenException.class));
+        assertDoesNotThrow(() -> compiled.verify(GoodCitizenException.class));
+        assertThrows(AssertionError.class, () -> compiled.verify(MessageErasingException.class));
+        assertThrows(AssertionError.class, () -> compiled.verify(HiddenException.class));
+
+        assertEquals(
+                ExceptionVerifier.forClass(MessageErasingException.class).report().getFailures()
+                        .stream()
+                        .map(VerificationReport.Failure::getMessage)
+                        .collect(Collectors.toList()),
+                compiled.report(MessageErasingException.class).getFailures().stream()
+                        .map(VerificationReport.Failure::getMessage)
+                        .collect(Collectors.toList())
+        );
+    }
+
+    @Test
+    public void testCompiledVerifierWarnings() {
+        final var compiled = ExceptionVerifier.forClass(GoodCitizenException.class)
+                .withStrictness(ExceptionVerifier.Strictness.WEAK)
+                .withEngine(ExceptionVerifier.Engine.BYTECODE)
+                .compile();
+
+        // Warnings must not leak from one report into the next
+        for (int i = 0; i < 2; ++i) {
+            final var report = compiled.report(PuttingTheWordsInMyMouthException.class);
+            assertTrue(report.isSuccessful());
+            assertEquals(1, report.getWarnings().size());
+        }
+    }
+
+    @Test
+    public void testCompiledVerifierShared() throws Exception {
+        final var compiled = ExceptionVerifier.forClass(GoodCitizenException.class).compile();
+        final var pool = Executors.newFixedThreadPool(4);
+        try {
+            final var futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < 64; ++i) {
+                final var type = i % 2 == 0
+                        ? GoodCitizenException.class
+                        : MessageErasingException.class;
+                futures.add(pool.submit(() -> {
+                    try {
+                        compiled.verify(type);
+                        return type == GoodCitizenException.class;
+                    } catch (final AssertionError ex) {
+                        return type == MessageErasingException.class;
+                    }
+                }));
+            }
+
+            for (final var future : futures) {
+                assertEquals(true, future.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testCompiledVerifierAllocation() {
+        final var threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        final var allocations = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        final var compiled = ExceptionVerifier.forClass(GoodCitizenException.class).compile();
+        final var iterations = 2_000;
+        long baseline = Long.MAX_VALUE;
+        long verified = Long.MAX_VALUE;
+        // Take the best of several rounds so that warm-up and JIT activity do not count
+        for (int round = 0; round < 10; ++round) {
+            final var thread = Thread.currentThread().getId();
+
+            var start = allocations.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < iterations; ++i) {
+                this.constructDirectly();
+            }
+            baseline = Math.min(baseline, allocations.getThreadAllocatedBytes(thread) - start);
+
+            start = allocations.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < iterations; ++i) {
+                compiled.verify(GoodCitizenException.class);
+            }
+            verified = Math.min(verified, allocations.getThreadAllocatedBytes(thread) - start);
+        }
+
+        // The verifier calls the constructors from a slightly deeper stack, so the recorded
+        // stack traces may be a few bytes larger; anything more is an allocation on the success
+        // path
+        assertTrue(verified <= baseline + 256L * iterations,
+                "Verification allocated " + verified / iterations + " bytes per class, "
+                        + "constructing the exceptions directly " + baseline / iterations);
+    }
+
+    /**
+     * Constructs the same exceptions as strict verification of a good citizen does.
+     */
+    private void constructDirectly() {
+        final var cause = CAUSE;
+        final var wrapped = WRAPPED_CAUSE;
+        this.sink = new GoodCitizenException();
+        this.sink = new GoodCitizenException("message");
+        this.sink = new GoodCitizenException((String) null);
+        this.sink = new GoodCitizenException(cause);
+        this.sink = new GoodCitizenException(wrapped);
+        this.sink = new GoodCitizenException((Throwable) null);
+        this.sink = new GoodCitizenException("message", cause);
+        this.sink = new GoodCitizenException("message", wrapped);
+        this.sink = new GoodCitizenException(null, cause);
+        this.sink = new GoodCitizenException("message", null);
+        this.sink = new GoodCitizenException(null, null);
+    }
+
+    @Test
+    public void testConstructorTimeoutReport() {
+        HangingException.hang = true;
+        try {
+            final var report = ExceptionVerifier.forClass(HangingException.class)
+                    .withConstructorTimeout(Duration.ofMillis(200))
+                    .report();
+
+            assertEquals(
+                    List.of(
+                            ExceptionVerifier.Check.MESSAGE_ONLY,
+                            ExceptionVerifier.Check.NULLABLE_MESSAGE_ONLY
+                    ),
+                    report.getFailures().stream()
+                            .map(VerificationReport.Failure::getCheck)
+                            .collect(Collectors.toList())
+            );
+
+            final var failure = report.getFailures().get(0);
+            assertEquals(VerificationReport.Failure.Kind.TIMEOUT, failure.getKind());
+            assertEquals(
+                    "(String message) constructor did not finish within 200 ms",
+                    failure.getMessage()
+            );
+            assertTrue(Arrays.stream(Objects.requireNonNull(failure.getCause()).getStackTrace())
+                    .anyMatch(frame -> frame.getClassName().equals(
+                            HangingException.class.getName()
+                    )));
+        } finally {
+            HangingException.hang = false;
+        }
+    }
+
+    @Test
+    public void testConstructorTimeoutVerify() {
+        HangingException.hang = true;
+        try {
+            final var error = assertThrows(AssertionError.class, () ->
+                    ExceptionVerifier.forClass(HangingException.class)
+                            .withConstructorTimeout(Duration.ofMillis(100))
+                            .verify()
+            );
+
+            assertEquals(
+                    "(String message) constructor did not finish within 100 ms",
+                    error.getMessage()
+            );
+        } finally {
+            HangingException.hang = false;
+        }
+    }
+
+    @Test
+    public void testClassTimeout() {
+        HangingException.hang = true;
+        try {
+            final var report = ExceptionVerifier.forClass(HangingException.class)
+                    .withClassTimeout(Duration.ofMillis(300))
+                    .report();
+
+            final var failure = report.getFailures().get(0);
+            assertEquals(ExceptionVerifier.Check.MESSAGE_ONLY, failure.getCheck());
+            assertEquals(VerificationReport.Failure.Kind.TIMEOUT, failure.getKind());
+            assertEquals(
+                    "(String message) check did not finish before the class deadline",
+                    failure.getMessage()
+            );
+
+            // The checks after the deadline did not run, so they cannot pass
+            final var skipped = report.getFailures().subList(1, report.getFailures().size());
+            assertFalse(skipped.isEmpty());
+            assertTrue(skipped.stream().allMatch(
+                    skip -> skip.getKind() == VerificationReport.Failure.Kind.TIMEOUT
+                            && skip.getMessage().endsWith(
+                                    " check was not started before the class deadline"
+                            )
+            ));
+            assertFalse(skipped.stream().anyMatch(
+                    skip -> skip.getCheck() == ExceptionVerifier.Check.MESSAGE_ONLY
+            ));
+        } finally {
+            HangingException.hang = false;
+        }
+    }
+
+    @Test
+    public void testTimeoutsPassCompliantClasses() {
+        assertDoesNotThrow(() -> ExceptionVerifier.forClass(GoodCitizenException.class)
+                .withConstructorTimeout(Duration.ofSeconds(10))
+                .withClassTimeout(Duration.ofSeconds(30))
+                .verify()
+        );
+    }
+
+    @Test
+    public void testInvalidTimeout() {
+        final var builder = ExceptionVerifier.forClass(GoodCitizenException.class);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                builder.withConstructorTimeout(Duration.ZERO)
+        );
+        assertThrows(IllegalArgumentException.class, () ->
+                builder.withClassTimeout(Duration.ofMillis(-1))
+        );
+    }
+
+    @Test
+    public void testVerifyAsync() {
+        final var types = List.of(
+                GoodCitizenException.class, MessageErasingException.class,
+                ThrowingException.class, HiddenException.class
+        );
+        final var pool = Executors.newFixedThreadPool(2);
+        try {
+            final var futures = types.stream()
+                    .map(type -> ExceptionVerifier.forClass(type).verifyAsync(pool))
+                    .collect(Collectors.toList());
+
+            for (int i = 0; i < types.size(); ++i) {
+                final var expected = ExceptionVerifier.forClass(types.get(i)).report();
+                final var actual = futures.get(i).join();
+
+                assertEquals(expected.getExceptionType(), actual.getExceptionType());
+                assertEquals(
+                        expected.getFailures().stream()
+                                .map(VerificationReport.Failure::getMessage)
+                                .collect(Collectors.toList()),
+                        actual.getFailures().stream()
+                                .map(VerificationReport.Failure::getMessage)
+                                .collect(Collectors.toList())
+                );
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testLightweightConstructorPasses() {
+        for (final var engine : ExceptionVerifier.Engine.values()) {
+            assertDoesNotThrow(() -> ExceptionVerifier.forClass(LightweightException.class)
+                    .withLightweightConstructor(true)
+                    .withEngine(engine)
+                    .verify()
+            );
+        }
+    }
+
+    @Test
+    public void testLightweightConstructorNotVerifiedByDefault() {
+        final var report = ExceptionVerifier.forClass(GoodCitizenException.class).report();
+
+        assertTrue(report.isSuccessful());
+        assertDoesNotThrow(() -> ExceptionVerifier.forClass(IgnoredFlagsException.class)
+                .verify()
+        );
+    }
+
+    @Test
+    public void testLightweightConstructorMissing() {
+        final var report = ExceptionVerifier.forClass(GoodCitizenException.class)
+                .withLightweightConstructor(true)
+                .report();
+
+        assertEquals(List.of(
+                "Missing (String message, Throwable cause, boolean enableSuppression = false, "
+                        + "boolean writableStackTrace = true) constructor",
+                "Missing (String message, Throwable cause, boolean enableSuppression = true, "
+                        + "boolean writableStackTrace = false) constructor"
+        ), report.getFailures().stream()
+                .map(VerificationReport.Failure::getMessage)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testLightweightConstructorIgnoringFlags() {
+        for (final var engine : ExceptionVerifier.Engine.values()) {
+            final var messages = ExceptionVerifier.forClass(IgnoredFlagsException.class)
+                    .withLightweightConstructor(true)
+                    .withEngine(engine)
+                    .report()
+                    .getFailures().stream()
+                    .map(VerificationReport.Failure::getMessage)
+                    .collect(Collectors.toList());
+
+            assertEquals(2, messages.size(), engine.name());
+            assertTrue(messages.get(0).endsWith("constructor did not disable suppression"));
+            assertTrue(messages.get(1).contains("constructor captured a stack trace"));
+        }
+    }
+
+    @Test
+    public void testLightweightConstructorSwappedFlags() {
+        final var report = ExceptionVerifier.forClass(SwappedFlagsException.class)
+                .withLightweightConstructor(true)
+                .report();
+        final var weak = ExceptionVerifier.forClass(SwappedFlagsException.class)
+                .withLightweightConstructor(true)
+                .withStrictness(ExceptionVerifier.Strictness.WEAK)
+                .report();
+
+        // Weak mode does not require the enabled features to work, only the disabled ones to
+        // stay off
+        assertEquals(2, report.getFailures().size());
+        assertTrue(report.getFailures().get(0).getMessage()
+                .endsWith("constructor did not capture a stack trace"));
+        assertEquals(2, weak.getFailures().size());
+        assertTrue(weak.getFailures().get(0).getMessage()
+                .endsWith("constructor did not disable suppression"));
+    }
+
+    @Test
+    public void testAllocationBudget() {
+        for (final var engine : ExceptionVerifier.Engine.values()) {
+            assertDoesNotThrow(() -> ExceptionVerifier.forClass(GoodCitizenException.class)
+                    .withAllocationBudget(4096)
+                    .withEngine(engine)
+                    .verify()
+            );
+        }
+    }
+
+    @Test
+    public void testAllocationBudgetExceeded() {
+        for (final var engine : ExceptionVerifier.Engine.values()) {
+            final var report = ExceptionVerifier.forClass(ContextCollectingException.class)
+                    .withAllocationBudget(4096)
+                    .withEngine(engine)
+                    .report();
+
+            assertEquals(
+                    List.of(
+                            ExceptionVerifier.Check.DEFAULT, ExceptionVerifier.Check.MESSAGE_ONLY,
+                            ExceptionVerifier.Check.CAUSE_ONLY, ExceptionVerifier.Check.FULL
+                    ),
+                    report.getFailures().stream()
+                            .map(VerificationReport.Failure::getCheck)
+                            .collect(Collectors.toList()),
+                    engine.name()
+            );
+            assertTrue(report.getFailures().get(0).getMessage().startsWith(
+                    "(default; no-arg) constructor allocated "
+            ));
+        }
+    }
+
+    @Test
+    public void testAllocationBudgetAccessors() {
+        final var report = ExceptionVerifier.forClass(CopyingMessageException.class)
+                .withAllocationBudget(4096)
+                .report();
+
+        // The default constructor leaves the message null, so getMessage has nothing to copy
+        assertEquals(
+                List.of(
+                        ExceptionVerifier.Check.MESSAGE_ONLY, ExceptionVerifier.Check.CAUSE_ONLY,
+                        ExceptionVerifier.Check.FULL
+                ),
+                report.getFailures().stream()
+                        .map(VerificationReport.Failure::getCheck)
+                        .collect(Collectors.toList())
+        );
+        assertTrue(report.getFailures().get(0).getMessage().startsWith(
+                "getMessage() allocated "
+        ));
+    }
+
+    @Test
+    public void testInvalidAllocationBudget() {
+        assertThrows(IllegalArgumentException.class, () ->
+                ExceptionVerifier.forClass(GoodCitizenException.class).withAllocationBudget(-1)
+        );
+    }
+
+    @Test
+    public void testAccessorBudget() {
+        for (final var engine : ExceptionVerifier.Engine.values()) {
+            assertDoesNotThrow(() -> ExceptionVerifier.forClass(GoodCitizenException.class)
+                    .withAccessorBudget(Duration.ofMillis(1))
+                    .withEngine(engine)
+                    .verify()
+            );
+        }
+    }
+
+    @Test
+    public void testAccessorBudgetRecomputed() {
+        for (final var engine : ExceptionVerifier.Engine.values()) {
+            final var report = ExceptionVerifier.forClass(RecomputingMessageException.class)
+                    .withAccessorBudget(Duration.ofNanos(100_000))
+                    .withEngine(engine)
+                    .report();
+
+            assertEquals(
+                    List.of(
+                            ExceptionVerifier.Check.DEFAULT, ExceptionVerifier.Check.MESSAGE_ONLY,
+                            ExceptionVerifier.Check.CAUSE_ONLY, ExceptionVerifier.Check.FULL
+                    ),
+                    report.getFailures().stream()
+                            .map(VerificationReport.Failure::getCheck)
+                            .collect(Collectors.toList()),
+                    engine.name()
+            );
+
+            final var message = report.getFailures().get(0).getMessage();
+            assertTrue(message.startsWith("getMessage() took "), message);
+            assertTrue(message.endsWith("; its result is computed again on every call"), message);
+        }
+    }
+
+    @Test
+    public void testAccessorBudgetMemoized() {
+        assertDoesNotThrow(() -> ExceptionVerifier.forClass(MemoizingMessageException.class)
+                .withAccessorBudget(Duration.ofNanos(100_000))
+                .verify()
+        );
+    }
+
+    @Test
+    public void testInvalidAccessorBudget() {
+        assertThrows(IllegalArgumentException.class, () ->
+                ExceptionVerifier.forClass(GoodCitizenException.class)
+                        .withAccessorBudget(Duration.ofNanos(-1))
+        );
+    }
+
+    @Test
+    public void testMessageIdentity() {
+        for (final var engine : ExceptionVerifier.Engine.values()) {
+            for (final var strictness : ExceptionVerifier.Strictness.values()) {
+                assertDoesNotThrow(() -> ExceptionVerifier.forClass(GoodCitizenException.class)
+                        .withMessageIdentity(true)
+                        .withStrictness(strictness)
+                        .withEngine(engine)
+                        .verify()
+                );
+            }
+        }
+    }
+
+    @Test
+    public void testMessageIdentityCopiedMessage() {
+        assertTrue(ExceptionVerifier.forClass(CopyingMessageException.class).report()
+                .isSuccessful());
+
+        final var report = ExceptionVerifier.forClass(CopyingMessageException.class)
+                .withMessageIdentity(true)
+                .report();
+
+        // Every check that passes a message gets a copy back
+        assertEquals(
+                List.of(
+                        ExceptionVerifier.Check.MESSAGE_ONLY, ExceptionVerifier.Check.FULL,
+                        ExceptionVerifier.Check.FULL_WITH_INVOCATION_TARGET_EXCEPTION_CAUSE,
+                        ExceptionVerifier.Check.FULL_WITH_NULL_CAUSE
+                ),
+                report.getFailures().stream()
+                        .map(VerificationReport.Failure::getCheck)
+                        .collect(Collectors.toList())
+        );
+        assertEquals(
+                "(String message) constructor copied message instead of keeping the string "
+                        + "passed in",
+                report.getFailures().get(0).getMessage()
+        );
+    }
+
+    @Test
+    public void testMessageIdentityHugeMessage() {
+        final var builder = ExceptionVerifier.forClass(ReformattingMessageException.class)
+                .withStrictness(ExceptionVerifier.Strictness.WEAK);
+        assertTrue(builder.report().isSuccessful());
+
+        final var report = builder.withMessageIdentity(true).report();
+        assertEquals(
+                List.of(ExceptionVerifier.Check.MESSAGE_ONLY, ExceptionVerifier.Check.FULL),
+                report.getFailures().stream()
+                        .map(VerificationReport.Failure::getCheck)
+                        .collect(Collectors.toList())
+        );
+        assertTrue(report.getFailures().get(0).getMessage().startsWith(
+                "(String message) constructor allocated "
+        ));
+    }
+
+    @Test
+    public void testMessageIdentityHugeMessageLowercased() {
+        final var builder = ExceptionVerifier.forClass(LowercasingMessageException.class)
+                .withStrictness(ExceptionVerifier.Strictness.WEAK);
+        assertTrue(builder.report().isSuccessful());
+
+        // Lowercasing copies the message only once, but does not keep its text
+        final var report = builder.withMessageIdentity(true).report();
+        assertEquals(
+                List.of(ExceptionVerifier.Check.MESSAGE_ONLY, ExceptionVerifier.Check.FULL),
+                report.getFailures().stream()
+                        .map(VerificationReport.Failure::getCheck)
+                        .collect(Collectors.toList())
+        );
+        assertTrue(report.getFailures().get(0).getMessage().startsWith(
+                "(String message) constructor copied or changed a message of "
+        ));
+    }
+
+    @Test
+    public void testMessageIdentityHugeMessageDecorated() {
+        ExceptionVerifier.forClass(DecoratingMessageException.class)
+                .withStrictness(ExceptionVerifier.Strictness.WEAK)
+                .withMessageIdentity(true)
+                .verify();
+    }
+
     public static final class GoodCitizenException extends RuntimeException {
         /**
          * Creates a new good citizen exception.
@@ -840,4 +1538,531 @@ public class ExceptionVerifierTest {
             Objects.requireNonNull(message);
         }
     }
+
+    public static final class HangingException extends RuntimeException {
+        static volatile boolean hang = false;
+
+        /**
+         * Creates a new hanging exception.
+         */
+        public HangingException() {
+            super();
+        }
+
+        /**
+         * Creates a new hanging exception, blocking for as long as hanging is enabled.
+         *
+         * Interrupts are ignored.
+         *
+         * @param message the message explaining what caused the exception
+         */
+        public HangingException(final String message) {
+            super(message);
+            while (hang) {
+                Thread.interrupted();
+                LockSupport.parkNanos(1_000_000);
+            }
+        }
+
+        /**
+         * Creates a new hanging exception.
+         *
+         * @param cause the exception that caused this exception
+         */
+        public HangingException(final Throwable cause) {
+            super(cause);
+        }
+
+        /**
+         * Creates a new hanging exception.
+         *
+         * @param message the message explaining what caused the exception
+         * @param cause   the exception that caused this exception
+         */
+        public HangingException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    public static final class LightweightException extends RuntimeException {
+        /**
+         * Creates a new lightweight exception.
+         */
+        public LightweightException() {
+            super();
+        }
+
+        /**
+         * Creates a new lightweight exception.
+         *
+         * @param message the message explaining what caused the exception
+         */
+        public LightweightException(final String message) {
+            super(message);
+        }
+
+        /**
+         * Creates a new lightweight exception.
+         *
+         * @param cause the exception that caused this exception
+         */
+        public LightweightException(final Throwable cause) {
+            super(cause);
+        }
+
+        /**
+         * Creates a new lightweight exception.
+         *
+         * @param message the message explaining what caused the exception
+         * @param cause   the exception that caused this exception
+         */
+        public LightweightException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+
+        /**
+         * Creates a new lightweight exception.
+         *
+         * @param message            the message explaining what caused the exception
+         * @param cause              the exception that caused this exception
+         * @param enableSuppression  whether suppressed exceptions are recorded
+         * @param writableStackTrace whether the stack trace is captured
+         */
+        protected LightweightException(
+                final String message,
+                final Throwable cause,
+                final boolean enableSuppression,
+                final boolean writableStackTrace
+        ) {
+            super(message, cause, enableSuppression, writableStackTrace);
+        }
+    }
+
+    public static final class IgnoredFlagsException extends RuntimeException {
+        /**
+         * Creates a new ignored flags exception.
+         */
+        public IgnoredFlagsException() {
+            super();
+        }
+
+        /**
+         * Creates a new ignored flags exception.
+         *
+         * @param message the message explaining what caused the exception
+         */
+        public IgnoredFlagsException(final String message) {
+            super(message);
+        }
+
+        /**
+         * Creates a new ignored flags exception.
+         *
+         * @param cause the exception that caused this exception
+         */
+        public IgnoredFlagsException(final Throwable cause) {
+            super(cause);
+        }
+
+        /**
+         * Creates a new ignored flags exception.
+         *
+         * @param message the message explaining what caused the exception
+         * @param cause   the exception that caused this exception
+         */
+        public IgnoredFlagsException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+
+        /**
+         * Creates a new ignored flags exception, always capturing a stack trace and recording
+         * suppressed exceptions.
+         *
+         * @param message            the message explaining what caused the exception
+         * @param cause              the exception that caused this exception
+         * @param enableSuppression  ignored
+         * @param writableStackTrace ignored
+         */
+        public IgnoredFlagsException(
+                final String message,
+                final Throwable cause,
+                final boolean enableSuppression,
+                final boolean writableStackTrace
+        ) {
+            super(message, cause);
+        }
+    }
+
+    public static final class SwappedFlagsException extends RuntimeException {
+        /**
+         * Creates a new swapped flags exception.
+         */
+        public SwappedFlagsException() {
+            super();
+        }
+
+        /**
+         * Creates a new swapped flags exception.
+         *
+         * @param message the message explaining what caused the exception
+         */
+        public SwappedFlagsException(final String message) {
+            super(message);
+        }
+
+        /**
+         * Creates a new swapped flags exception.
+         *
+         * @param cause the exception that caused this exception
+         */
+        public SwappedFlagsException(final Throwable cause) {
+            super(cause);
+        }
+
+        /**
+         * Creates a new swapped flags exception.
+         *
+         * @param message the message explaining what caused the exception
+         * @param cause   the exception that caused this exception
+         */
+        public SwappedFlagsException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+
+        /**
+         * Creates a new swapped flags exception, passing the flags in the wrong order.
+         *
+         * @param message            the message explaining what caused the exception
+         * @param cause              the exception that caused this exception
+         * @param enableSuppression  whether suppressed exceptions are recorded
+         * @param writableStackTrace whether the stack trace is captured
+         */
+        public SwappedFlagsException(
+                final String message,
+                final Throwable cause,
+                final boolean enableSuppression,
+                final boolean writableStackTrace
+        ) {
+            super(message, cause, writableStackTrace, enableSuppression);
+        }
+    }
+
+    public static final class ContextCollectingException extends RuntimeException {
+        private final String context = collectContext();
+
+        /**
+         * Creates a new context collecting exception.
+         */
+        public ContextCollectingException() {
+            super();
+        }
+
+        /**
+         * Creates a new context collecting exception.
+         *
+         * @param message the message explaining what caused the exception
+         */
+        public ContextCollectingException(final String message) {
+            super(message);
+        }
+
+        /**
+         * Creates a new context collecting exception.
+         *
+         * @param cause the exception that caused this exception
+         */
+        public ContextCollectingException(final Throwable cause) {
+            super(cause);
+        }
+
+        /**
+         * Creates a new context collecting exception.
+         *
+         * @param message the message explaining what caused the exception
+         * @param cause   the exception that caused this exception
+         */
+        public ContextCollectingException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+
+        /**
+         * Returns the context collected when the exception was created.
+         *
+         * @return the context
+         */
+        public String getContext() {
+            return this.context;
+        }
+
+        private static String collectContext() {
+            return Arrays.stream(Thread.currentThread().getStackTrace())
+                    .map(frame -> String.format(
+                            "%s#%s", frame.getClassName(), frame.getMethodName()
+                    ))
+                    .collect(Collectors.joining(", "));
+        }
+    }
+
+    public static final class CopyingMessageException extends RuntimeException {
+        /**
+         * Creates a new copying message exception.
+         */
+        public CopyingMessageException() {
+            super();
+        }
+
+        /**
+         * Creates a new copying message exception.
+         *
+         * @param message the message explaining what caused the exception
+         */
+        public CopyingMessageException(final String message) {
+            super(message);
+        }
+
+        /**
+         * Creates a new copying message exception.
+         *
+         * @param cause the exception that caused this exception
+         */
+        public CopyingMessageException(final Throwable cause) {
+            super(cause);
+        }
+
+        /**
+         * Creates a new copying message exception.
+         *
+         * @param message the message explaining what caused the exception
+         * @param cause   the exception that caused this exception
+         */
+        public CopyingMessageException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+
+        /**
+         * Returns a copy of the message, built in an oversized buffer on every call.
+         *
+         * @return the message
+         */
+        @Override
+        public String getMessage() {
+            final var message = super.getMessage();
+            return message != null ? new StringBuilder(8192).append(message).toString() : null;
+        }
+    }
+
+    public static final class ReformattingMessageException extends RuntimeException {
+        /**
+         * Creates a new reformatting message exception.
+         */
+        public ReformattingMessageException() {
+            super();
+        }
+
+        /**
+         * Creates a new reformatting message exception.
+         *
+         * @param message the message explaining what caused the exception, which is formatted
+         */
+        public ReformattingMessageException(final String message) {
+            super(message != null ? String.format("Failed: %s", message) : null);
+        }
+
+        /**
+         * Creates a new reformatting message exception.
+         *
+         * @param cause the exception that caused this exception
+         */
+        public ReformattingMessageException(final Throwable cause) {
+            super(cause);
+        }
+
+        /**
+         * Creates a new reformatting message exception.
+         *
+         * @param message the message explaining what caused the exception, which is formatted
+         * @param cause   the exception that caused this exception
+         */
+        public ReformattingMessageException(final String message, final Throwable cause) {
+            super(message != null ? String.format("Failed: %s", message) : null, cause);
+        }
+    }
+
+    public static final class LowercasingMessageException extends RuntimeException {
+        /**
+         * Creates a new lowercasing message exception.
+         */
+        public LowercasingMessageException() {
+            super();
+        }
+
+        /**
+         * Creates a new lowercasing message exception.
+         *
+         * @param message the message explaining what caused the exception, which is lowercased
+         */
+        public LowercasingMessageException(final String message) {
+            super(message != null ? message.toLowerCase(Locale.ROOT) : null);
+        }
+
+        /**
+         * Creates a new lowercasing message exception.
+         *
+         * @param cause the exception that caused this exception
+         */
+        public LowercasingMessageException(final Throwable cause) {
+            super(cause);
+        }
+
+        /**
+         * Creates a new lowercasing message exception.
+         *
+         * @param message the message explaining what caused the exception, which is lowercased
+         * @param cause   the exception that caused this exception
+         */
+        public LowercasingMessageException(final String message, final Throwable cause) {
+            super(message != null ? message.toLowerCase(Locale.ROOT) : null, cause);
+        }
+    }
+
+    public static final class DecoratingMessageException extends RuntimeException {
+        /**
+         * Creates a new decorating message exception.
+         */
+        public DecoratingMessageException() {
+            super();
+        }
+
+        /**
+         * Creates a new decorating message exception.
+         *
+         * @param message the message explaining what caused the exception, which is prefixed
+         */
+        public DecoratingMessageException(final String message) {
+            super(message != null ? "Wrapped: " + message : null);
+        }
+
+        /**
+         * Creates a new decorating message exception.
+         *
+         * @param cause the exception that caused this exception
+         */
+        public DecoratingMessageException(final Throwable cause) {
+            super(cause);
+        }
+
+        /**
+         * Creates a new decorating message exception.
+         *
+         * @param message the message explaining what caused the exception, which is prefixed
+         * @param cause   the exception that caused this exception
+         */
+        public DecoratingMessageException(final String message, final Throwable cause) {
+            super(message != null ? "Wrapped: " + message : null, cause);
+        }
+    }
+
+    public static final class RecomputingMessageException extends RuntimeException {
+        /**
+         * Creates a new recomputing message exception.
+         */
+        public RecomputingMessageException() {
+            super();
+        }
+
+        /**
+         * Creates a new recomputing message exception.
+         *
+         * @param message the message explaining what caused the exception
+         */
+        public RecomputingMessageException(final String message) {
+            super(message);
+        }
+
+        /**
+         * Creates a new recomputing message exception.
+         *
+         * @param cause the exception that caused this exception
+         */
+        public RecomputingMessageException(final Throwable cause) {
+            super(cause);
+        }
+
+        /**
+         * Creates a new recomputing message exception.
+         *
+         * @param message the message explaining what caused the exception
+         * @param cause   the exception that caused this exception
+         */
+        public RecomputingMessageException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+
+        /**
+         * Returns the message, after taking a while to render it again on every call.
+         *
+         * @return the message
+         */
+        @Override
+        public String getMessage() {
+            LockSupport.parkNanos(500_000);
+            return super.getMessage();
+        }
+    }
+
+    public static final class MemoizingMessageException extends RuntimeException {
+        private String rendered;
+        private boolean isRendered = false;
+
+        /**
+         * Creates a new memoizing message exception.
+         */
+        public MemoizingMessageException() {
+            super();
+        }
+
+        /**
+         * Creates a new memoizing message exception.
+         *
+         * @param message the message explaining what caused the exception
+         */
+        public MemoizingMessageException(final String message) {
+            super(message);
+        }
+
+        /**
+         * Creates a new memoizing message exception.
+         *
+         * @param cause the exception that caused this exception
+         */
+        public MemoizingMessageException(final Throwable cause) {
+            super(cause);
+        }
+
+        /**
+         * Creates a new memoizing message exception.
+         *
+         * @param message the message explaining what caused the exception
+         * @param cause   the exception that caused this exception
+         */
+        public MemoizingMessageException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+
+        /**
+         * Returns the message, taking a while to render it on the first call only.
+         *
+         * @return the message
+         */
+        @Override
+        public synchronized String getMessage() {
+            if (!this.isRendered) {
+                LockSupport.parkNanos(500_000);
+                this.rendered = super.getMessage();
+                this.isRendered = true;
+            }
+
+            return this.rendered;
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package net.wukl.exceptionverifier;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JUnitXmlReportWriterTest {
+    @Test
+    public void testReport() throws Exception {
+        final var good =
+                ExceptionVerifier.forClass(ExceptionVerifierTest.GoodCitizenException.class)
+                        .report();
+        final var throwing =
+                ExceptionVerifier.forClass(ExceptionVerifierTest.ThrowingException.class)
+                        .report();
+
+        final var out = new ByteArrayOutputStream();
+        try (JUnitXmlReportWriter writer = new JUnitXmlReportWriter(out)) {
+            writer.write(good);
+            writer.write(throwing);
+        }
+
+        final var document = parse(out.toByteArray());
+        final var suites = document.getElementsByTagName("testsuite");
+        assertEquals(2, suites.getLength());
+
+        final var goodSuite = (Element) suites.item(0);
+        assertEquals(good.getExceptionType(), goodSuite.getAttribute("name"));
+        assertEquals("0", goodSuite.getAttribute("failures"));
+        assertEquals(
+                Integer.parseInt(goodSuite.getAttribute("tests")),
+                goodSuite.getElementsByTagName("testcase").getLength()
+        );
+
+        final var throwingSuite = (Element) suites.item(1);
+        final var failures = throwingSuite.getElementsByTagName("failure");
+        assertEquals(
+                Integer.toString(throwing.getFailures().size()),
+                throwingSuite.getAttribute("failures")
+        );
+        assertEquals(throwing.getFailures().size(), failures.getLength());
+
+        final var failure = (Element) failures.item(0);
+        final var expected = throwing.getFailures().get(0);
+        assertEquals(expected.getMessage(), failure.getAttribute("message"));
+        assertEquals(
+                expected.getCheck().name(),
+                ((Element) failure.getParentNode()).getAttribute("name")
+        );
+        assertTrue(failure.getTextContent().contains("\tat "));
+    }
+
+    @Test
+    public void testInvalidCharacters() throws Exception {
+        final var report = new VerificationReport(
+                "Example", ExceptionVerifier.Strictness.STRICT,
+                List.of(new VerificationReport.Failure(
+                        ExceptionVerifier.Check.MESSAGE_ONLY, "(String message)",
+                        ExceptionVerifier.Strictness.STRICT, "Got \u0000 and <&>", null
+                )),
+                List.of()
+        );
+
+        final var out = new ByteArrayOutputStream();
+        try (JUnitXmlReportWriter writer = new JUnitXmlReportWriter(out)) {
+            writer.write(report);
+        }
+
+        final var failure = (Element) parse(out.toByteArray())
+                .getElementsByTagName("failure").item(0);
+        assertEquals("Got \uFFFD and <&>", failure.getAttribute("message"));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        final var out = new ByteArrayOutputStream();
+        new JUnitXmlReportWriter(out).close();
+
+        assertEquals(
+                "testsuites", parse(out.toByteArray()).getDocumentElement().getTagName()
+        );
+    }
+
+    @Test
+    public void testWriteAfterClose() throws Exception {
+        final var writer = new JUnitXmlReportWriter(new ByteArrayOutputStream());
+        writer.close();
+
+        final var report = ExceptionVerifier.forClass(RuntimeException.class).report();
+        assertThrows(IllegalStateException.class, () -> writer.write(report));
+    }
+
+    static Document parse(final byte[] xml) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(xml));
+    }
+}
@@ -0,0 +1,85 @@
+package net.wukl.exceptionverifier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappedArchiveTest {
+    private static final byte[] TEXT = "Hello, hello, hello, hello!".getBytes();
+
+    @Test
+    public void testDeflated(@TempDir final Path dir) throws IOException {
+        final var entries = new LinkedHashMap<String, byte[]>();
+        entries.put("a/", new byte[0]);
+        entries.put("a/text.txt", TEXT);
+        entries.put("empty", new byte[0]);
+        final var archive = MappedArchive.map(
+                TestArchives.write(dir.resolve("test.jar"), entries, false)
+        );
+
+        assertEquals(
+                List.of("a/text.txt", "empty"),
+                archive.getEntries().stream()
+                        .map(MappedArchive.Entry::getName)
+                        .collect(Collectors.toList())
+        );
+        assertFalse(archive.getEntries().get(0).isStored());
+        assertArrayEquals(TEXT, toArray(archive.read(archive.getEntries().get(0))));
+        assertArrayEquals(new byte[0], toArray(archive.read(archive.getEntries().get(1))));
+    }
+
+    @Test
+    public void testStoredIsSlice() throws IOException {
+        final var entries = new LinkedHashMap<String, byte[]>();
+        entries.put("text.txt", TEXT);
+        final var bytes = TestArchives.archive(entries, true);
+        final var archive = MappedArchive.of("test.jar", ByteBuffer.wrap(bytes));
+
+        final var entry = archive.getEntries().get(0);
+        final var contents = archive.read(entry);
+
+        assertTrue(entry.isStored());
+        assertTrue(contents.isReadOnly());
+        assertArrayEquals(TEXT, toArray(contents));
+    }
+
+    @Test
+    public void testMalformed() throws IOException {
+        final var entries = new LinkedHashMap<String, byte[]>();
+        entries.put("text.txt", TEXT);
+        final var bytes = TestArchives.archive(entries, false);
+
+        assertThrows(IOException.class, () ->
+                MappedArchive.of("empty.jar", ByteBuffer.wrap(new byte[100]))
+        );
+        assertThrows(IOException.class, () ->
+                MappedArchive.of("truncated.jar", ByteBuffer.wrap(bytes, 0, bytes.length - 1))
+        );
+
+        // Corrupt the central directory offset
+        final var corrupt = Arrays.copyOf(bytes, bytes.length);
+        corrupt[corrupt.length - 6] = (byte) 0xFF;
+        assertThrows(IOException.class, () ->
+                MappedArchive.of("corrupt.jar", ByteBuffer.wrap(corrupt))
+        );
+    }
+
+    private static byte[] toArray(final ByteBuffer buffer) {
+        final var bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,71 @@
+package net.wukl.exceptionverifier;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SarifReportWriterTest {
+    @Test
+    public void testReport() throws Exception {
+        final var throwing =
+                ExceptionVerifier.forClass(ExceptionVerifierTest.ThrowingException.class)
+                        .report();
+
+        final var out = new ByteArrayOutputStream();
+        try (SarifReportWriter writer = new SarifReportWriter(out)) {
+            writer.write(ExceptionVerifier.forClass(RuntimeException.class).report());
+            writer.write(throwing);
+        }
+
+        final var log = out.toString(StandardCharsets.UTF_8);
+        assertTrue(log.contains("\"version\": \"2.1.0\""));
+        assertEquals(throwing.getFailures().size(), count(log, "\"level\": \"error\""));
+        assertEquals(
+                throwing.getFailures().size(),
+                count(log, "\"uri\": \"net/wukl/exceptionverifier/ExceptionVerifierTest.java\"")
+        );
+        assertTrue(log.contains("\"ruleId\": \"" + throwing.getFailures().get(0).getCheck()));
+        assertTrue(log.trim().endsWith("]\n  }]\n}"));
+    }
+
+    @Test
+    public void testEscaping() throws Exception {
+        final var report = new VerificationReport(
+                "Example", ExceptionVerifier.Strictness.WEAK, List.of(),
+                List.of(new VerificationReport.Warning(
+                        ExceptionVerifier.Check.DEFAULT, "(default; no-arg)",
+                        "A \"quoted\"\tmessage\\\n\u0001"
+                ))
+        );
+
+        final var out = new ByteArrayOutputStream();
+        try (SarifReportWriter writer = new SarifReportWriter(out)) {
+            writer.write(report);
+        }
+
+        final var log = out.toString(StandardCharsets.UTF_8);
+        assertTrue(log.contains("\"level\": \"note\""));
+        assertTrue(log.contains("\"text\": \"A \\\"quoted\\\"\\tmessage\\\\\\n\\u0001\""));
+    }
+
+    @Test
+    public void testSourceFile() {
+        assertEquals("a/b/C.java", SarifReportWriter.sourceFileOf("a.b.C"));
+        assertEquals("a/b/C.java", SarifReportWriter.sourceFileOf("a.b.C$D$1"));
+        assertEquals("C.java", SarifReportWriter.sourceFileOf("C$D"));
+    }
+
+    private static int count(final String text, final String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            ++count;
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,101 @@
+package net.wukl.exceptionverifier;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Builds jar files for tests that scan archives.
+ */
+final class TestArchives {
+    private TestArchives() {
+    }
+
+    /**
+     * Reads the class file of a class.
+     *
+     * @param type the class
+     *
+     * @return the class file
+     */
+    static byte[] classFile(final Class<?> type) throws IOException {
+        final var path = type.getName().replace('.', '/') + ".class";
+        final var loader = type.getClassLoader() != null
+                ? type.getClassLoader()
+                : ClassLoader.getSystemClassLoader();
+        try (InputStream in = loader.getResourceAsStream(path)) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Lists the class files of classes at their usual path.
+     *
+     * @param prefix the directory to put the class files in, or the empty string
+     * @param types  the classes
+     *
+     * @return the contents by path, in order
+     */
+    static Map<String, byte[]> classFiles(final String prefix, final Class<?>... types)
+            throws IOException {
+        final var entries = new LinkedHashMap<String, byte[]>();
+        for (final var type : types) {
+            entries.put(prefix + type.getName().replace('.', '/') + ".class", classFile(type));
+        }
+
+        return entries;
+    }
+
+    /**
+     * Builds an archive in memory.
+     *
+     * @param entries the contents by path
+     * @param stored  whether to store the entries uncompressed rather than deflate them
+     *
+     * @return the archive
+     */
+    static byte[] archive(final Map<String, byte[]> entries, final boolean stored)
+            throws IOException {
+        final var out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (final var entry : entries.entrySet()) {
+                final var zipEntry = new ZipEntry(entry.getKey());
+                if (stored) {
+                    final var crc = new CRC32();
+                    crc.update(entry.getValue());
+                    zipEntry.setMethod(ZipEntry.STORED);
+                    zipEntry.setSize(entry.getValue().length);
+                    zipEntry.setCompressedSize(entry.getValue().length);
+                    zipEntry.setCrc(crc.getValue());
+                }
+
+                zip.putNextEntry(zipEntry);
+                zip.write(entry.getValue());
+                zip.closeEntry();
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes an archive to a file.
+     *
+     * @param file    the file
+     * @param entries the contents by path
+     * @param stored  whether to store the entries uncompressed rather than deflate them
+     *
+     * @return the file
+     */
+    static Path write(final Path file, final Map<String, byte[]> entries, final boolean stored)
+            throws IOException {
+        return Files.write(file, archive(entries, stored));
+    }
+}
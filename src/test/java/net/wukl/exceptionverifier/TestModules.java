@@ -0,0 +1,84 @@
+package net.wukl.exceptionverifier;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compiles fixture modules for tests that need classes outside the class path.
+ */
+final class TestModules {
+    /**
+     * A module with an exported package and a package it keeps to itself.
+     */
+    static final Map<String, String> FIXTURE_MODULE = Map.of(
+            "module-info.java",
+            "module net.wukl.fixture { exports net.wukl.fixture.api; }",
+            "net/wukl/fixture/api/ApiException.java",
+            exception("net.wukl.fixture.api", "ApiException", "message"),
+            "net/wukl/fixture/internal/InternalException.java",
+            exception("net.wukl.fixture.internal", "InternalException", "message"),
+            "net/wukl/fixture/internal/PrefixingException.java",
+            exception("net.wukl.fixture.internal", "PrefixingException", "\"Prefixed: \" + message")
+    );
+
+    private TestModules() {
+    }
+
+    private static String exception(final String pkg, final String name, final String message) {
+        return "package " + pkg + ";\n"
+                + "public class " + name + " extends RuntimeException {\n"
+                + "    public " + name + "() { super(); }\n"
+                + "    public " + name + "(String message) { super(" + message + "); }\n"
+                + "    public " + name + "(Throwable cause) { super(cause); }\n"
+                + "    public " + name + "(String message, Throwable cause) {\n"
+                + "        super(message, cause);\n"
+                + "    }\n"
+                + "}\n";
+    }
+
+    /**
+     * Compiles sources into a modular jar.
+     *
+     * @param dir     the directory to work in
+     * @param sources the sources, by their path relative to the source root
+     *
+     * @return the jar
+     */
+    static Path compileJar(final Path dir, final Map<String, String> sources) throws IOException {
+        final var sourceRoot = Files.createDirectories(dir.resolve("src"));
+        final var classes = Files.createDirectories(dir.resolve("classes"));
+
+        final var arguments = new ArrayList<String>();
+        arguments.add("-d");
+        arguments.add(classes.toString());
+        for (final var source : sources.entrySet()) {
+            final var file = sourceRoot.resolve(source.getKey());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, source.getValue());
+            arguments.add(file.toString());
+        }
+
+        final var compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, arguments.toArray(new String[0])));
+
+        final var entries = new LinkedHashMap<String, byte[]>();
+        try (Stream<Path> files = Files.walk(classes)) {
+            for (final var file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                final var path = classes.relativize(file).toString()
+                        .replace(file.getFileSystem().getSeparator(), "/");
+                entries.put(path, Files.readAllBytes(file));
+            }
+        }
+
+        return TestArchives.write(dir.resolve("fixture.jar"), entries, false);
+    }
+}
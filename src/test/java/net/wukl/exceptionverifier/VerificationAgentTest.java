@@ -0,0 +1,106 @@
+package net.wukl.exceptionverifier;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VerificationAgentTest {
+    @Test
+    public void testVerifiesNoticedExceptions() throws Exception {
+        final var reports = new LinkedBlockingQueue<VerificationReport>();
+        final var agent = new VerificationAgent(
+                VerificationAgent.Options.parse("timeout=10000"), new QueueWriter(reports)
+        );
+        agent.start();
+        try {
+            final var loader = VerificationAgentTest.class.getClassLoader();
+            agent.notice(loader, internalName(ExceptionVerifier.class));
+            agent.notice(loader, internalName(ExceptionVerifierTest.ThrowingException.class));
+            agent.notice(loader, internalName(ExceptionVerifierTest.GoodCitizenException.class));
+            agent.notice(loader, "net/wukl/exceptionverifier/DoesNotExist");
+
+            final var received = new HashMap<String, VerificationReport>();
+            for (int i = 0; i < 2; ++i) {
+                final var report = reports.poll(10, TimeUnit.SECONDS);
+                assertNotNull(report);
+                received.put(report.getExceptionType(), report);
+            }
+
+            assertFalse(received.get(ExceptionVerifierTest.ThrowingException.class.getName())
+                    .isSuccessful());
+            assertTrue(received.get(ExceptionVerifierTest.GoodCitizenException.class.getName())
+                    .isSuccessful());
+            assertEquals(0, agent.getMissed());
+        } finally {
+            agent.stop();
+        }
+    }
+
+    @Test
+    public void testBoundedQueue() {
+        final var agent = new VerificationAgent(
+                VerificationAgent.Options.parse("queue=4, sample=1000000"), null
+        );
+        final var loader = VerificationAgentTest.class.getClassLoader();
+        for (int i = 0; i < 100; ++i) {
+            agent.notice(loader, "com/example/Class" + i);
+        }
+
+        assertTrue(agent.getMissed() >= 96);
+    }
+
+    @Test
+    public void testPackages() {
+        final var options = VerificationAgent.Options.parse("packages=com.example:org.acme");
+
+        assertTrue(options.accepts("com/example/FooException"));
+        assertTrue(options.accepts("org/acme/sub/BarException"));
+        assertFalse(options.accepts("com/examples/FooException"));
+        assertTrue(VerificationAgent.Options.parse(null).accepts("com/examples/FooException"));
+    }
+
+    @Test
+    public void testInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () ->
+                VerificationAgent.Options.parse("queue=0"));
+        assertThrows(IllegalArgumentException.class, () ->
+                VerificationAgent.Options.parse("timeout=soon"));
+        assertThrows(IllegalArgumentException.class, () ->
+                VerificationAgent.Options.parse("strictness"));
+        assertThrows(IllegalArgumentException.class, () ->
+                VerificationAgent.Options.parse("colour=blue"));
+    }
+
+    private static String internalName(final Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    /**
+     * Puts every report on a queue.
+     */
+    private static final class QueueWriter implements ReportWriter {
+        private final BlockingQueue<VerificationReport> reports;
+
+        private QueueWriter(final BlockingQueue<VerificationReport> reports) {
+            this.reports = reports;
+        }
+
+        @Override
+        public void write(final VerificationReport report) {
+            this.reports.add(report);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
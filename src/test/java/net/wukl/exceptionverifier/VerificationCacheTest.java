@@ -0,0 +1,151 @@
+package net.wukl.exceptionverifier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VerificationCacheTest {
+    private static final String PACKAGE = "net.wukl.exceptionverifier";
+
+    @Test
+    public void testCachedResultsMatch(@TempDir final Path dir) {
+        final var cacheFile = dir.resolve("cache.bin");
+
+        final var first = ExceptionVerifier.forPackage(PACKAGE)
+                .withStrictness(ExceptionVerifier.Strictness.WEAK)
+                .withCache(cacheFile)
+                .verify();
+        assertTrue(Files.exists(cacheFile));
+
+        final var second = ExceptionVerifier.forPackage(PACKAGE)
+                .withStrictness(ExceptionVerifier.Strictness.WEAK)
+                .withCache(cacheFile)
+                .verify();
+
+        assertEquals(first.getVerifiedClasses(), second.getVerifiedClasses());
+        assertEquals(first.getFailures().keySet(), second.getFailures().keySet());
+        for (final var name : first.getFailures().keySet()) {
+            assertEquals(
+                    first.getFailures().get(name).getFailures().toString(),
+                    second.getFailures().get(name).getFailures().toString()
+            );
+        }
+    }
+
+    @Test
+    public void testCacheHitSkipsLoading(@TempDir final Path dir) throws IOException {
+        final var classes = dir.resolve("classes");
+        copyClassFile(ExceptionVerifierTest.GoodCitizenException.class, classes);
+        copyClassFile(ExceptionVerifierTest.ThrowingException.class, classes);
+        final var cacheFile = dir.resolve("cache.bin");
+
+        try (CountingClassLoader loader = new CountingClassLoader(classes)) {
+            final var first = ExceptionVerifier.forPackage(PACKAGE)
+                    .withClassLoader(loader)
+                    .withCache(cacheFile)
+                    .verify();
+            assertEquals(2, first.getVerifiedClasses().size());
+            assertEquals(1, first.getFailures().size());
+        }
+
+        try (CountingClassLoader loader = new CountingClassLoader(classes)) {
+            final var second = ExceptionVerifier.forPackage(PACKAGE)
+                    .withClassLoader(loader)
+                    .withCache(cacheFile)
+                    .verify();
+            assertEquals(2, second.getVerifiedClasses().size());
+            assertEquals(1, second.getFailures().size());
+            assertEquals(0, loader.loads.get());
+        }
+    }
+
+    @Test
+    public void testSettingsChangeKey() throws IOException {
+        final var fingerprint = new ClassFingerprinter(getClass().getClassLoader())
+                .fingerprint(ExceptionVerifierTest.GoodCitizenException.class.getName());
+        assertNotNull(fingerprint);
+        assertTrue(fingerprint.isThrowable());
+
+        final var strict = VerificationCache.keyOf(
+                fingerprint, Throwable.class, ExceptionVerifier.Strictness.STRICT, false,
+                ExceptionVerifier.Engine.REFLECTION, true
+        );
+        assertEquals(strict, VerificationCache.keyOf(
+                fingerprint, Throwable.class, ExceptionVerifier.Strictness.STRICT, false,
+                ExceptionVerifier.Engine.REFLECTION, true
+        ));
+        assertNotEquals(strict, VerificationCache.keyOf(
+                fingerprint, Throwable.class, ExceptionVerifier.Strictness.WEAK, false,
+                ExceptionVerifier.Engine.REFLECTION, true
+        ));
+        assertNotEquals(strict, VerificationCache.keyOf(
+                fingerprint, Exception.class, ExceptionVerifier.Strictness.STRICT, false,
+                ExceptionVerifier.Engine.REFLECTION, true
+        ));
+        assertNotEquals(strict, VerificationCache.keyOf(
+                fingerprint, Throwable.class, ExceptionVerifier.Strictness.STRICT, false,
+                ExceptionVerifier.Engine.BYTECODE, true
+        ));
+        assertNotEquals(strict, VerificationCache.keyOf(
+                fingerprint, Throwable.class, ExceptionVerifier.Strictness.STRICT, true,
+                ExceptionVerifier.Engine.REFLECTION, true
+        ));
+        assertNotEquals(strict, VerificationCache.keyOf(
+                fingerprint, Throwable.class, ExceptionVerifier.Strictness.STRICT, false,
+                ExceptionVerifier.Engine.REFLECTION, false
+        ));
+    }
+
+    @Test
+    public void testCorruptCacheIgnored(@TempDir final Path dir) throws IOException {
+        final var cacheFile = dir.resolve("cache.bin");
+        Files.write(cacheFile, new byte[] { 1, 2, 3 });
+
+        final var result = ExceptionVerifier.forPackage(PACKAGE)
+                .withCache(cacheFile)
+                .verify();
+
+        assertTrue(result.getVerifiedClasses().contains(
+                ExceptionVerifierTest.GoodCitizenException.class.getName()
+        ));
+    }
+
+    private static void copyClassFile(final Class<?> type, final Path root) throws IOException {
+        final var path = type.getName().replace('.', '/') + ".class";
+        final var target = root.resolve(path);
+        Files.createDirectories(target.getParent());
+        try (InputStream in = type.getClassLoader().getResourceAsStream(path)) {
+            Files.copy(in, target);
+        }
+    }
+
+    private static final class CountingClassLoader extends URLClassLoader {
+        private final AtomicInteger loads = new AtomicInteger();
+
+        private CountingClassLoader(final Path root) throws IOException {
+            super(new URL[] { root.toUri().toURL() }, ClassLoader.getPlatformClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(final String name, final boolean resolve)
+                throws ClassNotFoundException {
+            if (name.startsWith(PACKAGE)) {
+                this.loads.incrementAndGet();
+            }
+
+            return super.loadClass(name, resolve);
+        }
+    }
+}